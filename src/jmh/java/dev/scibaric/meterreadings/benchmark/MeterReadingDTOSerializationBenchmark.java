@@ -0,0 +1,66 @@
+package dev.scibaric.meterreadings.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.mapper.MeterReadingMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of {@link MeterReadingDTO} and {@link YearConsumptionDTO} with {@link ObjectMapper} configured the same way as
+ * the one used by Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeterReadingDTOSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private MeterReadingDTO yearlyMeterReadingDTO;
+
+    private MeterReadingDTO meterReadingDTO;
+
+    private YearConsumptionDTO yearConsumptionDTO;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Map<String, Integer> monthlyEnergyConsumption = new LinkedHashMap<>();
+        for (int month = 1; month <= 12; month++)
+            monthlyEnergyConsumption.put(MeterReadingMapper.monthName(month), 10 + month);
+
+        yearlyMeterReadingDTO = new MeterReadingDTO(2020, monthlyEnergyConsumption);
+        meterReadingDTO = new MeterReadingDTO(2020, 3, 10, 1L);
+
+        YearConsumptionDTO.Builder builder = YearConsumptionDTO.builder(2020);
+        for (int month = 1; month <= 12; month++)
+            builder.month(month, 10 + month);
+        yearConsumptionDTO = builder.build();
+    }
+
+    @Benchmark
+    public byte[] serializeYearlyMeterReadingDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(yearlyMeterReadingDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeYearConsumptionDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(yearConsumptionDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeMeterReadingDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(meterReadingDTO);
+    }
+}
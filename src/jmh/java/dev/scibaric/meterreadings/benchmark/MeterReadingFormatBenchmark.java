@@ -0,0 +1,139 @@
+package dev.scibaric.meterreadings.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import dev.scibaric.meterreadings.converter.MeterReadingProtobufCodec;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.mapper.MeterReadingMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding and decoding of meter readings in JSON, CBOR and Smile with {@link ObjectMapper} configured the
+ * same way as the ones used by Spring MVC and in Protobuf with {@link MeterReadingProtobufCodec}. <i>YEAR</i> is one
+ * yearly meter reading with twelve months, <i>BATCH</i> is a batch of thousand meter readings. Size of payload is
+ * reported as <i>bytes</i> secondary result of every benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeterReadingFormatBenchmark {
+
+    private static final TypeReference<List<MeterReadingDTO>> METER_READINGS = new TypeReference<>() {
+    };
+
+    @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+    private String format;
+
+    @Param({"YEAR", "BATCH"})
+    private String payload;
+
+    private ObjectMapper objectMapper;
+
+    private List<MeterReadingDTO> meterReadings;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "CBOR" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "SMILE" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        meterReadings = new ArrayList<>();
+        if (payload.equals("YEAR")) {
+            Map<String, Integer> monthlyEnergyConsumption = new LinkedHashMap<>();
+            for (int month = 1; month <= 12; month++)
+                monthlyEnergyConsumption.put(MeterReadingMapper.monthName(month), 150 + month * 7);
+            meterReadings.add(new MeterReadingDTO(2020, monthlyEnergyConsumption));
+        } else {
+            for (int i = 0; i < 1_000; i++)
+                meterReadings.add(new MeterReadingDTO(2020, i % 12 + 1, 150 + i % 300, 1_000L + i / 12));
+        }
+
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize payloadSize) throws IOException {
+        payloadSize.report();
+        return encode();
+    }
+
+    @Benchmark
+    public Object decode(PayloadSize payloadSize) throws IOException {
+        payloadSize.report();
+        return decode();
+    }
+
+    private byte[] encode() throws IOException {
+        if (!format.equals("PROTOBUF"))
+            return payload.equals("YEAR")
+                    ? objectMapper.writeValueAsBytes(meterReadings.get(0))
+                    : objectMapper.writeValueAsBytes(meterReadings);
+
+        if (payload.equals("YEAR")) {
+            MeterReadingDTO meterReading = meterReadings.get(0);
+            byte[] bytes = new byte[MeterReadingProtobufCodec.meterReadingSize(meterReading)];
+            MeterReadingProtobufCodec.writeMeterReading(meterReading, CodedOutputStream.newInstance(bytes));
+            return bytes;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        MeterReadingProtobufCodec.writeMeterReadings(meterReadings, out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private Object decode() throws IOException {
+        if (!format.equals("PROTOBUF"))
+            return payload.equals("YEAR")
+                    ? objectMapper.readValue(encoded, MeterReadingDTO.class)
+                    : objectMapper.readValue(encoded, METER_READINGS);
+
+        CodedInputStream in = CodedInputStream.newInstance(encoded);
+        return payload.equals("YEAR")
+                ? MeterReadingProtobufCodec.readMeterReading(in)
+                : MeterReadingProtobufCodec.readMeterReadings(in);
+    }
+
+    /**
+     * Size of payload in bytes. Counters are reset before every iteration and summed over measurement iterations and
+     * forks, so every invocation reports the share of one iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public double bytes;
+
+        private double iterationShare;
+
+        @Setup(Level.Trial)
+        public void setUp(MeterReadingFormatBenchmark benchmark, BenchmarkParams params) {
+            iterationShare = (double) benchmark.encoded.length
+                    / (params.getMeasurement().getCount() * params.getForks());
+        }
+
+        void report() {
+            bytes = iterationShare;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package dev.scibaric.meterreadings.benchmark;
+
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.mapper.MeterReadingMapper;
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures mapping of meter readings to {@link MeterReadingDTO}, month names are resolved for every meter reading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeterReadingMapperBenchmark {
+
+    private List<MonthlyConsumption> meterReadings;
+
+    private MonthlyConsumption meterReading;
+
+    @Setup
+    public void setUp() {
+        meterReadings = IntStream.rangeClosed(1, 12)
+                .mapToObj(month -> new MonthlyConsumption(2020, month, 10 + month))
+                .toList();
+        meterReading = meterReadings.get(0);
+    }
+
+    @Benchmark
+    public MeterReadingDTO toYearlyMeterReadingDTO() {
+        return MeterReadingMapper.toYearlyMeterReadingDTO(2020, meterReadings);
+    }
+
+    @Benchmark
+    public MeterReadingDTO toMeterReadingDTO() {
+        return MeterReadingMapper.toMeterReadingDTO(meterReading);
+    }
+}
@@ -0,0 +1,78 @@
+package dev.scibaric.meterreadings.benchmark;
+
+import dev.scibaric.meterreadings.cache.MeterIdCache;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
+import dev.scibaric.meterreadings.repository.MeterReadingRepository;
+import dev.scibaric.meterreadings.service.MeterService;
+import dev.scibaric.meterreadings.service.MeterServiceImpl;
+import dev.scibaric.meterreadings.validator.Validator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures {@link MeterServiceImpl#findByMeterIdAndYear(Long, Integer)} and
+ * {@link MeterServiceImpl#findYearConsumption(Long, Integer)} without the database, repositories return twelve meter
+ * readings which are already loaded, so validation and mapping are measured only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeterServiceBenchmark {
+
+    private MeterService service;
+
+    @Setup
+    public void setUp() {
+        List<MonthlyConsumption> meterReadings = IntStream.rangeClosed(1, 12)
+                .mapToObj(month -> new MonthlyConsumption(2020, month, 10 + month))
+                .toList();
+
+        MeterReadingRepository meterReadingRepository = (MeterReadingRepository) Proxy.newProxyInstance(
+                MeterReadingRepository.class.getClassLoader(),
+                new Class<?>[]{MeterReadingRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findMonthlyConsumptionByMeterIdAndYear"))
+                        return meterReadings;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        MeterReadingsProperties properties = new MeterReadingsProperties();
+        MeterIdCache meterIdCache = new MeterIdCache(null, properties, new SimpleMeterRegistry());
+        meterIdCache.add(1L);
+
+        MeterReadingJdbcRepository meterReadingJdbcRepository = new MeterReadingJdbcRepository(null) {
+            @Override
+            public YearConsumptionDTO findYearConsumption(long meterId, int year) {
+                YearConsumptionDTO.Builder builder = YearConsumptionDTO.builder(year);
+                for (MonthlyConsumption meterReading : meterReadings)
+                    builder.month(meterReading.month(), meterReading.energyConsumed());
+                return builder.build();
+            }
+        };
+
+        service = new MeterServiceImpl(meterReadingRepository, meterReadingJdbcRepository, null,
+                new Validator(meterIdCache, meterReadingRepository), properties, null, null);
+    }
+
+    @Benchmark
+    public MeterReadingDTO findByMeterIdAndYear() {
+        return service.findByMeterIdAndYear(1L, 2020);
+    }
+
+    @Benchmark
+    public YearConsumptionDTO findYearConsumption() {
+        return service.findYearConsumption(1L, 2020);
+    }
+}
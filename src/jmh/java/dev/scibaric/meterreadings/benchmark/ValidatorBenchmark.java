@@ -0,0 +1,41 @@
+package dev.scibaric.meterreadings.benchmark;
+
+import dev.scibaric.meterreadings.cache.MeterIdCache;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.validator.Validator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures validation of a single meter reading whose meter id is cached, so no query is executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private Validator validator;
+
+    private MeterReadingDTO meterReadingDTO;
+
+    @Setup
+    public void setUp() {
+        MeterIdCache meterIdCache = new MeterIdCache(null, new MeterReadingsProperties(), new SimpleMeterRegistry());
+        meterIdCache.add(1L);
+
+        validator = new Validator(meterIdCache, null);
+        meterReadingDTO = new MeterReadingDTO(2020, 3, 10, 1L);
+    }
+
+    @Benchmark
+    public MeterReadingDTO validateMeterReadingDTO() {
+        validator.validateMeterReadingDTO(meterReadingDTO);
+        return meterReadingDTO;
+    }
+}
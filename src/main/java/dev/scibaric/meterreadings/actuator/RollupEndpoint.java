@@ -0,0 +1,27 @@
+package dev.scibaric.meterreadings.actuator;
+
+import dev.scibaric.meterreadings.dto.RollupRebuildResultDTO;
+import dev.scibaric.meterreadings.service.MeterConsumptionRollupService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for repairing rollups of yearly consumption, <i>POST /actuator/rollups</i> rebuilds all rollups
+ * from meter readings.
+ */
+@Component
+@Endpoint(id = "rollups")
+public class RollupEndpoint {
+
+    private final MeterConsumptionRollupService rollupService;
+
+    public RollupEndpoint(MeterConsumptionRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @WriteOperation
+    public RollupRebuildResultDTO rebuild() {
+        return rollupService.rebuild();
+    }
+}
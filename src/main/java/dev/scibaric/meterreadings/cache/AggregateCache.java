@@ -0,0 +1,151 @@
+package dev.scibaric.meterreadings.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.model.MeterYear;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Year;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Read-through cache of yearly consumption by meter id and year. Recent years are kept in size bounded cache, while
+ * consumption of closed years, which are not expected to change, can be pinned so it is never evicted and never
+ * computed again. Both are invalidated by {@link MeterReadingsChangedEvent} after transaction which changed meter
+ * readings is committed. Statistics are published to Micrometer as <i>cache.*</i> metrics with tag
+ * <i>cache=meterReadingAggregates</i>.
+ */
+@Component
+public class AggregateCache {
+
+    static final String NAME = "meterReadingAggregates";
+
+    private final MeterReadingsProperties.AggregateCache properties;
+
+    private final Clock clock;
+
+    private final Cache<MeterYear, Long> recent;
+
+    private final Map<MeterYear, Long> pinned = new ConcurrentHashMap<>();
+
+    private final InvalidationStamps stamps = new InvalidationStamps();
+
+    @Autowired
+    public AggregateCache(MeterReadingsProperties properties, MeterRegistry registry) {
+        this(properties, registry, Clock.systemDefaultZone());
+    }
+
+    AggregateCache(MeterReadingsProperties properties, MeterRegistry registry, Clock clock) {
+        this.properties = properties.getAggregateCache();
+        this.clock = clock;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(this.properties.getMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, recent, NAME);
+        Gauge.builder("cache.pinned.size", pinned, Map::size)
+                .description("Number of pinned entries of closed years")
+                .tag("cache", NAME)
+                .register(registry);
+    }
+
+    /**
+     * Returns consumption for meter id and year from cache, consumption which is not cached is computed by
+     * <b>loader</b>. Result of loader is not cached if it is null.
+     *
+     * @param meterYear Meter id and year
+     * @param loader Function computing consumption
+     * @return Consumption or null if loader returned null
+     */
+    public Long get(MeterYear meterYear, Function<MeterYear, Long> loader) {
+        Long total = pinned.get(meterYear);
+        if (nonNull(total))
+            return total;
+
+        if (isPinnable(meterYear))
+            return pinned.computeIfAbsent(meterYear, loader);
+
+        return recent.get(meterYear, loader);
+    }
+
+    /**
+     * Returns consumption for meter id and year if it is cached.
+     *
+     * @param meterYear Meter id and year
+     * @return Consumption or null if it is not cached
+     */
+    public Long getIfPresent(MeterYear meterYear) {
+        Long total = pinned.get(meterYear);
+        if (nonNull(total))
+            return total;
+
+        return recent.getIfPresent(meterYear);
+    }
+
+    /**
+     * Stamp of invalidations of meter id and year. It is read before consumption is computed outside of cache and
+     * passed to {@link #put(MeterYear, Long, long)}, so consumption computed from meter readings which were changed
+     * in the meantime is not cached.
+     *
+     * @param meterYear Meter id and year
+     * @return Stamp of invalidations
+     */
+    public long stamp(MeterYear meterYear) {
+        return stamps.get(meterYear);
+    }
+
+    /**
+     * Stores consumption for meter id and year which was computed outside of cache if meter id and year were not
+     * invalidated since <b>stamp</b> was read.
+     *
+     * @param meterYear Meter id and year
+     * @param total Consumption
+     * @param stamp Value of {@link #stamp(MeterYear)} read before consumption was computed
+     */
+    public void put(MeterYear meterYear, Long total, long stamp) {
+        Map<MeterYear, Long> cache = isPinnable(meterYear) ? pinned : recent.asMap();
+        cache.compute(meterYear, (key, cached) -> stamps.get(key) == stamp ? total : cached);
+    }
+
+    /**
+     * Removes consumption of changed meter ids and years, it is called after transaction is committed or
+     * immediately if event is not published in transaction.
+     *
+     * @param event {@link MeterReadingsChangedEvent}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeterReadingsChanged(MeterReadingsChangedEvent event) {
+        event.meterYears().forEach(meterYear -> {
+            stamps.invalidate(meterYear);
+            pinned.remove(meterYear);
+            recent.invalidate(meterYear);
+        });
+    }
+
+    /**
+     * Removes all cached consumptions.
+     */
+    public void invalidateAll() {
+        stamps.invalidateAll();
+        pinned.clear();
+        recent.invalidateAll();
+    }
+
+    private boolean isPinnable(MeterYear meterYear) {
+        return properties.isPinClosedYears()
+                && meterYear.year() < Year.now(clock).getValue()
+                && pinned.size() < properties.getMaxPinnedSize();
+    }
+}
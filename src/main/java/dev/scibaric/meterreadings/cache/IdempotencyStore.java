@@ -0,0 +1,178 @@
+package dev.scibaric.meterreadings.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.model.IdempotentResponse;
+import dev.scibaric.meterreadings.repository.IdempotencyKeyJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Responses of requests with <i>Idempotency-Key</i> header by the key. Responses are kept in memory for
+ * <i>meter-readings.idempotency.ttl</i>, bounded by their total size, and stored in IDEMPOTENCY_KEY table as well when
+ * <i>meter-readings.idempotency.persistent</i> is set, so response evicted from memory, stored by other instance or
+ * before restart is read from the database. Keys of requests which are being processed are tracked by this instance
+ * and reserved in IDEMPOTENCY_KEY table when responses are persistent, so repeated request does not run concurrently
+ * with the original one on any instance. Statistics are published to Micrometer as
+ * <i>cache.*</i> metrics with tag <i>cache=idempotentResponses</i>.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    static final String NAME = "idempotentResponses";
+
+    /**
+     * Approximate size of key, entry and response on the Java heap, it is added to the size of every body.
+     */
+    static final int ENTRY_OVERHEAD = 200;
+
+    private final IdempotencyKeyJdbcRepository repository;
+
+    private final MeterReadingsProperties.Idempotency properties;
+
+    private final Clock clock;
+
+    private final Cache<String, IdempotentResponse> responses;
+
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public IdempotencyStore(IdempotencyKeyJdbcRepository repository, MeterReadingsProperties properties,
+                            MeterRegistry registry) {
+        this(repository, properties, registry, Clock.systemUTC());
+    }
+
+    IdempotencyStore(IdempotencyKeyJdbcRepository repository, MeterReadingsProperties properties,
+                     MeterRegistry registry, Clock clock) {
+        this.repository = repository;
+        this.properties = properties.getIdempotency();
+        this.clock = clock;
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(this.properties.getTtl())
+                .maximumWeight(this.properties.getMaxSize().toBytes())
+                .weigher((String key, IdempotentResponse response) ->
+                        key.length() * 2 + response.body().length + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, responses, NAME);
+    }
+
+    /**
+     * Returns response from memory, response which is not in memory is read from the database.
+     *
+     * @param key Idempotency key
+     * @return Response or null if response of the key is not stored or it is expired
+     */
+    public IdempotentResponse get(String key) {
+        IdempotentResponse response = responses.getIfPresent(key);
+        if (nonNull(response) || !properties.isPersistent())
+            return response;
+
+        response = repository.findById(key, clock.instant().minus(properties.getTtl())).orElse(null);
+        if (nonNull(response))
+            responses.put(key, response);
+
+        return response;
+    }
+
+    /**
+     * Stores response in memory and in the database. When other response is already stored in the database for the
+     * key, the stored response is kept in memory instead, so every instance replays the same response. Failure of the
+     * database is logged, response is still replayed by this instance.
+     *
+     * @param key Idempotency key
+     * @param response Response
+     */
+    public void put(String key, IdempotentResponse response) {
+        if (!properties.isPersistent()) {
+            responses.put(key, response);
+            return;
+        }
+
+        try {
+            if (!repository.insert(key, response))
+                response = repository.findById(key, clock.instant().minus(properties.getTtl())).orElse(response);
+        } catch (DataAccessException e) {
+            log.warn("Response of idempotency key {} is not stored in the database", key, e);
+        }
+        responses.put(key, response);
+    }
+
+    /**
+     * Marks request with the key as being processed, key is reserved in the database as well, so request with the
+     * same key is not processed by other instance. Failure of the database is logged and the key is reserved by this
+     * instance only.
+     *
+     * @param key Idempotency key
+     * @param requestHash Hash of request
+     * @return False if request with the same key is already being processed or its response is stored
+     */
+    public boolean tryAcquire(String key, long requestHash) {
+        if (!inProgress.add(key))
+            return false;
+        if (!properties.isPersistent())
+            return true;
+
+        try {
+            Instant now = clock.instant();
+            if (repository.reserve(key, requestHash, now.minus(properties.getTtl()),
+                    now.minus(properties.getReservationTimeout())))
+                return true;
+        } catch (DataAccessException e) {
+            log.warn("Idempotency key {} is not reserved in the database", key, e);
+            return true;
+        }
+
+        inProgress.remove(key);
+        return false;
+    }
+
+    /**
+     * Releases the key, reservation in the database is deleted if response was not stored, so request with the key
+     * can be processed again.
+     *
+     * @param key Idempotency key of request which is processed
+     */
+    public void release(String key) {
+        try {
+            if (properties.isPersistent())
+                repository.deleteReservation(key);
+        } catch (DataAccessException e) {
+            log.warn("Reservation of idempotency key {} is not deleted from the database", key, e);
+        } finally {
+            inProgress.remove(key);
+        }
+    }
+
+    /**
+     * Deletes expired responses from the database, failure is logged and they are deleted by the next run.
+     *
+     * @return Number of deleted responses
+     */
+    @Scheduled(cron = "${meter-readings.idempotency.cleanup-cron:0 */10 * * * *}")
+    public int removeExpired() {
+        if (!properties.isPersistent())
+            return 0;
+
+        try {
+            return repository.deleteCreatedBefore(clock.instant().minus(properties.getTtl()));
+        } catch (DataAccessException e) {
+            log.warn("Expired responses of idempotency keys were not deleted", e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.scibaric.meterreadings.cache;
+
+import dev.scibaric.meterreadings.model.MeterYear;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stamps of invalidations by meter id and year. Stamp is read before value is computed outside of cache and compared
+ * when value is stored, so value computed from meter readings which were changed in the meantime is not stored.
+ * Meter ids and years share fixed number of counters by their hash, so memory does not grow with number of meter ids
+ * and years; change of other meter id and year with the same counter only skips storing of one value.
+ */
+final class InvalidationStamps {
+
+    private static final int STRIPES = 4096;
+
+    private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+
+    private final AtomicLong all = new AtomicLong();
+
+    /**
+     * @param meterYear Meter id and year
+     * @return Stamp which changes whenever meter id and year or all meter ids and years are invalidated
+     */
+    long get(MeterYear meterYear) {
+        return all.get() + stripes.get(stripe(meterYear));
+    }
+
+    /**
+     * Must be called before value of meter id and year is removed from cache.
+     *
+     * @param meterYear Meter id and year
+     */
+    void invalidate(MeterYear meterYear) {
+        stripes.incrementAndGet(stripe(meterYear));
+    }
+
+    /**
+     * Must be called before all values are removed from cache.
+     */
+    void invalidateAll() {
+        all.incrementAndGet();
+    }
+
+    private static int stripe(MeterYear meterYear) {
+        int hash = meterYear.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
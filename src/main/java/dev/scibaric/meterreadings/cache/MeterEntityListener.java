@@ -0,0 +1,45 @@
+package dev.scibaric.meterreadings.cache;
+
+import dev.scibaric.meterreadings.model.Meter;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener keeping {@link MeterIdCache} in sync with meters saved and deleted by application. Cache is
+ * changed after transaction is committed, so meter saved in rolled back transaction is not cached.
+ */
+public class MeterEntityListener {
+
+    private final ObjectProvider<MeterIdCache> meterIdCache;
+
+    public MeterEntityListener(ObjectProvider<MeterIdCache> meterIdCache) {
+        this.meterIdCache = meterIdCache;
+    }
+
+    @PostPersist
+    public void afterPersist(Meter meter) {
+        afterCommit(() -> meterIdCache.ifAvailable(cache -> cache.add(meter.getId())));
+    }
+
+    @PostRemove
+    public void afterRemove(Meter meter) {
+        afterCommit(() -> meterIdCache.ifAvailable(cache -> cache.evict(meter.getId())));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,194 @@
+package dev.scibaric.meterreadings.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.repository.MeterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Cache of meter ids consulted before checking existence of meter in the database. Meters are created rarely and
+ * are not deleted, so existing ids are kept without expiration up to configured maximum size and they are loaded
+ * from METER table when application is ready. Ids of meters which do not exist are kept for a short time only, so
+ * meters created outside of application become visible. Meters created by application are added with
+ * {@link MeterEntityListener}.
+ */
+@Slf4j
+@Component
+public class MeterIdCache {
+
+    private static final int PRELOAD_PAGE_SIZE = 10_000;
+
+    private final MeterRepository meterRepository;
+
+    private final MeterReadingsProperties.MeterIdCache properties;
+
+    private final Set<Long> existingIds = ConcurrentHashMap.newKeySet();
+
+    private final Cache<Long, Boolean> missingIds;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public MeterIdCache(MeterRepository meterRepository, MeterReadingsProperties properties, MeterRegistry registry) {
+        this.meterRepository = meterRepository;
+        this.properties = properties.getMeterIdCache();
+        this.missingIds = Caffeine.newBuilder()
+                .maximumSize(this.properties.getMaxNegativeSize())
+                .expireAfterWrite(this.properties.getNegativeTtl())
+                .build();
+        this.hits = Counter.builder("meter.id.cache.requests")
+                .description("Meter id existence checks answered from cache")
+                .tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("meter.id.cache.requests")
+                .description("Meter id existence checks answered from database")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("meter.id.cache.size", existingIds, Set::size)
+                .description("Number of existing meter ids kept in cache")
+                .register(registry);
+    }
+
+    /**
+     * Loads ids of existing meters from the database in pages, up to configured maximum size.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        Long lastId = 0L;
+        int pageSize = Math.min(PRELOAD_PAGE_SIZE, properties.getMaxSize());
+
+        while (pageSize > 0) {
+            List<Long> ids = meterRepository.findIdsGreaterThan(lastId, PageRequest.of(0, pageSize));
+            ids.forEach(this::add);
+            if (ids.size() < pageSize)
+                break;
+
+            lastId = ids.get(ids.size() - 1);
+            pageSize = Math.min(PRELOAD_PAGE_SIZE, properties.getMaxSize() - existingIds.size());
+        }
+
+        log.info("Loaded {} meter ids to cache", existingIds.size());
+    }
+
+    /**
+     * Checks if meter exists, database is queried only when meter id is not cached.
+     *
+     * @param id Meter id
+     * @return true if meter exists
+     */
+    public boolean exists(Long id) {
+        Boolean cached = getIfPresent(id);
+        if (nonNull(cached))
+            return cached;
+
+        boolean exists = meterRepository.existsById(id);
+        put(id, exists);
+
+        return exists;
+    }
+
+    /**
+     * Checks if meter exists without querying the database.
+     *
+     * @param id Meter id
+     * @return true if meter exists, false if meter does not exist or null if meter id is not cached
+     */
+    public Boolean getIfPresent(Long id) {
+        if (existingIds.contains(id)) {
+            hits.increment();
+            return Boolean.TRUE;
+        }
+        if (missingIds.getIfPresent(id) != null) {
+            hits.increment();
+            return Boolean.FALSE;
+        }
+
+        return null;
+    }
+
+    /**
+     * Stores result of existence check which was not answered from cache.
+     *
+     * @param id Meter id
+     * @param exists true if meter exists
+     */
+    public void put(Long id, boolean exists) {
+        misses.increment();
+        if (exists)
+            add(id);
+        else
+            missingIds.put(id, Boolean.TRUE);
+    }
+
+    /**
+     * Returns ids of meters which exist, meter ids which are not cached are checked with one query.
+     *
+     * @param ids Meter ids
+     * @return {@link Set} of existing meter ids
+     */
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        Set<Long> unknown = new HashSet<>();
+
+        for (Long id : ids) {
+            if (existingIds.contains(id))
+                existing.add(id);
+            else if (missingIds.getIfPresent(id) == null)
+                unknown.add(id);
+        }
+
+        hits.increment(ids.size() - unknown.size());
+        if (unknown.isEmpty())
+            return existing;
+
+        misses.increment(unknown.size());
+        Set<Long> found = meterRepository.findExistingIds(unknown);
+        for (Long id : unknown) {
+            if (found.contains(id))
+                add(id);
+            else
+                missingIds.put(id, Boolean.TRUE);
+        }
+        existing.addAll(found);
+
+        return existing;
+    }
+
+    /**
+     * Adds id of meter which exists, id is not cached when maximum size is reached.
+     *
+     * @param id Meter id
+     */
+    public void add(Long id) {
+        missingIds.invalidate(id);
+        if (existingIds.size() < properties.getMaxSize())
+            existingIds.add(id);
+    }
+
+    /**
+     * Removes meter id from cache, next existence check queries the database.
+     *
+     * @param id Meter id
+     */
+    public void evict(Long id) {
+        existingIds.remove(id);
+        missingIds.invalidate(id);
+    }
+}
@@ -0,0 +1,179 @@
+package dev.scibaric.meterreadings.cache;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.repository.MeterConsumptionRollupJdbcRepository;
+import dev.scibaric.meterreadings.service.CoalescingMeterService;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Listens for notifications sent by {@link MeterConsumptionRollupJdbcRepository} when any instance of the
+ * application changes meter readings and removes changed meter ids and years from {@link MeterYearVersionCache},
+ * {@link AggregateCache} and {@link ResponseBodyCache}, so caches of this instance do not serve data changed by
+ * other instances. Changed meter ids and years are added to {@link RecentlyChangedMeterYears} first when read replicas
+ * are used, and reads in flight in {@link CoalescingMeterService} are forgotten. Notifications are received on its
+ * own connection outside of the connection pool, all caches are invalidated whenever it is (re)connected, since
+ * notifications sent while it was closed are lost. {@link MeterYearVersionCache} caches versions only while the
+ * connection is open.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "meter-readings.conditional-get", name = "listen-for-changes",
+        havingValue = "true", matchIfMissing = true)
+public class MeterReadingsNotificationListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+
+    private final DataSource dataSource;
+
+    private final MeterYearVersionCache versionCache;
+
+    private final AggregateCache aggregateCache;
+
+    private final ResponseBodyCache responseBodyCache;
+
+    private final RecentlyChangedMeterYears recentlyChangedMeterYears;
+
+    private final CoalescingMeterService coalescingMeterService;
+
+    private final Duration reconnectDelay;
+
+    private volatile Thread thread;
+
+    public MeterReadingsNotificationListener(DataSourceProperties dataSourceProperties,
+                                             MeterYearVersionCache versionCache,
+                                             AggregateCache aggregateCache,
+                                             ResponseBodyCache responseBodyCache,
+                                             ObjectProvider<RecentlyChangedMeterYears> recentlyChangedMeterYears,
+                                             ObjectProvider<CoalescingMeterService> coalescingMeterService,
+                                             MeterReadingsProperties properties) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(SimpleDriverDataSource.class).build();
+        this.versionCache = versionCache;
+        this.aggregateCache = aggregateCache;
+        this.responseBodyCache = responseBodyCache;
+        this.recentlyChangedMeterYears = recentlyChangedMeterYears.getIfAvailable();
+        this.coalescingMeterService = coalescingMeterService.getIfAvailable();
+        this.reconnectDelay = properties.getConditionalGet().getReconnectDelay();
+    }
+
+    @Override
+    public void start() {
+        thread = Thread.ofPlatform()
+                .name("meter-readings-notifications")
+                .daemon()
+                .start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        Thread listener = thread;
+        thread = null;
+        if (nonNull(listener)) {
+            listener.interrupt();
+            try {
+                listener.join(POLL_TIMEOUT_MILLIS * 4L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return nonNull(thread);
+    }
+
+    private void run() {
+        while (isRunning()) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("listen " + MeterConsumptionRollupJdbcRepository.CHANGES_CHANNEL);
+                }
+                invalidateAll();
+                versionCache.setListening(true);
+                log.info("Listening for changes of meter readings made by other instances");
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (isRunning())
+                    handle(pgConnection.getNotifications(POLL_TIMEOUT_MILLIS));
+            } catch (SQLException | RuntimeException e) {
+                if (isRunning())
+                    log.warn("Listening for changes of meter readings failed, versions are read from the database " +
+                            "until it is listened again in {}", reconnectDelay, e);
+            } finally {
+                versionCache.setListening(false);
+            }
+
+            sleep(reconnectDelay);
+        }
+    }
+
+    private void handle(PGNotification[] notifications) {
+        if (notifications == null || notifications.length == 0)
+            return;
+
+        Set<MeterYear> meterYears = new HashSet<>();
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            if (MeterConsumptionRollupJdbcRepository.ALL_METER_YEARS.equals(payload)) {
+                invalidateAll();
+                return;
+            }
+
+            int separator = payload.indexOf(':');
+            meterYears.add(new MeterYear(Long.parseLong(payload, 0, separator, 10),
+                    Integer.parseInt(payload, separator + 1, payload.length(), 10)));
+        }
+
+        if (nonNull(recentlyChangedMeterYears))
+            recentlyChangedMeterYears.add(meterYears);
+
+        MeterReadingsChangedEvent event = new MeterReadingsChangedEvent(meterYears);
+        versionCache.onMeterReadingsChanged(event);
+        aggregateCache.onMeterReadingsChanged(event);
+        responseBodyCache.onMeterReadingsChanged(event);
+        if (nonNull(coalescingMeterService))
+            coalescingMeterService.forget(meterYears);
+    }
+
+    /**
+     * Called for change of all meter readings and after every (re)connect, since notifications sent while the
+     * connection was closed are lost.
+     */
+    private void invalidateAll() {
+        if (nonNull(recentlyChangedMeterYears))
+            recentlyChangedMeterYears.addAll();
+        versionCache.invalidateAll();
+        aggregateCache.invalidateAll();
+        responseBodyCache.invalidateAll();
+        if (nonNull(coalescingMeterService))
+            coalescingMeterService.forgetAll();
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            thread = null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dev.scibaric.meterreadings.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MeterYearVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of versions of meter readings by meter id and year. Versions are changed by transactions of
+ * any instance of the application, so they are cached only while {@link MeterReadingsNotificationListener} is
+ * connected and invalidates versions changed by other instances; otherwise every version is read from the
+ * database. Versions changed by this instance are invalidated by {@link MeterReadingsChangedEvent} after transaction
+ * which changed meter readings is committed. Statistics are published to Micrometer as <i>cache.*</i> metrics with
+ * tag <i>cache=meterYearVersions</i>.
+ */
+@Component
+public class MeterYearVersionCache {
+
+    static final String NAME = "meterYearVersions";
+
+    private final Cache<MeterYear, MeterYearVersion> versions;
+
+    private volatile boolean listening;
+
+    public MeterYearVersionCache(MeterReadingsProperties properties, MeterRegistry registry) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(properties.getConditionalGet().getMaxCachedVersions())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, versions, NAME);
+    }
+
+    /**
+     * Returns version of meter id and year from cache, version which is not cached is read by <b>loader</b>.
+     * Result of loader is not cached if it is null or if changes made by other instances are not listened for.
+     *
+     * @param meterYear Meter id and year
+     * @param loader Function reading version from the database
+     * @return Version or null if loader returned null
+     */
+    public MeterYearVersion get(MeterYear meterYear, Function<MeterYear, MeterYearVersion> loader) {
+        if (!listening)
+            return loader.apply(meterYear);
+
+        return versions.get(meterYear, loader);
+    }
+
+    /**
+     * Removes versions of changed meter ids and years, it is called after transaction is committed or immediately
+     * if event is not published in transaction.
+     *
+     * @param event {@link MeterReadingsChangedEvent}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeterReadingsChanged(MeterReadingsChangedEvent event) {
+        invalidate(event.meterYears());
+    }
+
+    /**
+     * @param meterYears Meter ids and years whose versions are removed
+     */
+    public void invalidate(Collection<MeterYear> meterYears) {
+        versions.invalidateAll(meterYears);
+    }
+
+    /**
+     * Removes all cached versions.
+     */
+    public void invalidateAll() {
+        versions.invalidateAll();
+    }
+
+    /**
+     * Versions are cached only while changes made by other instances are listened for. Cache is cleared whenever
+     * it changes, because changes made in the meantime were not received.
+     *
+     * @param listening true if changes are listened for
+     */
+    void setListening(boolean listening) {
+        if (!listening)
+            this.listening = false;
+        versions.invalidateAll();
+        if (listening)
+            this.listening = true;
+    }
+
+    boolean isListening() {
+        return listening;
+    }
+}
@@ -0,0 +1,74 @@
+package dev.scibaric.meterreadings.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.model.MeterYear;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Meter ids and years whose meter readings changed recently, for as long as read replica which is used may not have
+ * replayed the change yet, which is maximum lag plus interval between checks of replica. Their reads are routed to
+ * the primary, so {@link MeterYearVersionCache}, {@link AggregateCache} and {@link ResponseBodyCache} are not filled
+ * with data older than the change they were just invalidated for. Changes of this instance are added before
+ * transaction is committed, changes of other instances by {@link MeterReadingsNotificationListener}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "meter-readings.replicas", name = "enabled", havingValue = "true")
+public class RecentlyChangedMeterYears {
+
+    private final Cache<MeterYear, Boolean> meterYears;
+
+    private final long windowNanos;
+
+    private volatile long allChangedAt;
+
+    public RecentlyChangedMeterYears(MeterReadingsProperties properties) {
+        Duration window = properties.getReplicas().getMaxLag().plus(properties.getReplicas().getCheckInterval());
+        this.meterYears = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+        this.windowNanos = window.toNanos();
+        this.allChangedAt = System.nanoTime() - windowNanos;
+    }
+
+    /**
+     * Adds changed meter ids and years before transaction is committed or immediately if event is not published in
+     * transaction.
+     *
+     * @param event {@link MeterReadingsChangedEvent}
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onMeterReadingsChanged(MeterReadingsChangedEvent event) {
+        add(event.meterYears());
+    }
+
+    /**
+     * @param meterYears Changed meter ids and years
+     */
+    public void add(Collection<MeterYear> meterYears) {
+        meterYears.forEach(meterYear -> this.meterYears.put(meterYear, Boolean.TRUE));
+    }
+
+    /**
+     * Marks every meter id and year as changed, used when change of any of them is not known.
+     */
+    public void addAll() {
+        allChangedAt = System.nanoTime();
+    }
+
+    /**
+     * @param meterYear Meter id and year
+     * @return True if meter readings of <b>meterYear</b> may not be replayed by read replicas yet
+     */
+    public boolean contains(MeterYear meterYear) {
+        return System.nanoTime() - allChangedAt < windowNanos || meterYears.getIfPresent(meterYear) != null;
+    }
+}
@@ -0,0 +1,236 @@
+package dev.scibaric.meterreadings.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.model.MeterYear;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.time.Clock;
+import java.time.Year;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of encoded response bodies of closed years, which are not expected to change, by route, meter id and year.
+ * Every body is kept uncompressed and compressed with gzip, so it can be written to the response without mapping,
+ * serializing or compressing it again. Size of the cache is bounded by total size of the bodies and bodies can be
+ * kept in direct buffers outside of the Java heap. Bodies are invalidated by {@link MeterReadingsChangedEvent} after
+ * transaction which changed meter readings is committed. Statistics are published to Micrometer as <i>cache.*</i>
+ * metrics with tag <i>cache=responseBodies</i>.
+ */
+@Component
+public class ResponseBodyCache {
+
+    static final String NAME = "responseBodies";
+
+    /**
+     * Approximate size of key, entry and buffers on the Java heap, it is added to the size of every body.
+     */
+    static final int ENTRY_OVERHEAD = 160;
+
+    private final MeterReadingsProperties.ResponseCache properties;
+
+    private final Clock clock;
+
+    private final Cache<Key, EncodedBody> bodies;
+
+    private final InvalidationStamps stamps = new InvalidationStamps();
+
+    @Autowired
+    public ResponseBodyCache(MeterReadingsProperties properties, MeterRegistry registry) {
+        this(properties, registry, Clock.systemDefaultZone());
+    }
+
+    ResponseBodyCache(MeterReadingsProperties properties, MeterRegistry registry, Clock clock) {
+        this.properties = properties.getResponseCache();
+        this.clock = clock;
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(this.properties.getMaxSize().toBytes())
+                .weigher((Key key, EncodedBody body) -> body.size())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, bodies, NAME);
+        Gauge.builder("cache.size.bytes", bodies, cache -> cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .description("Total size of cached response bodies")
+                .tag("cache", NAME)
+                .register(registry);
+    }
+
+    /**
+     * Only bodies of years before the current year are cached, readings of the current year are still written.
+     *
+     * @param year Year
+     * @return true if body of the year can be cached
+     */
+    public boolean isCacheable(int year) {
+        return properties.isEnabled() && year < Year.now(clock).getValue();
+    }
+
+    /**
+     * @param key Route, meter id and year
+     * @return Encoded body or null if it is not cached
+     */
+    public EncodedBody getIfPresent(Key key) {
+        return bodies.getIfPresent(key);
+    }
+
+    /**
+     * Stamp of invalidations of meter id and year of <b>key</b>. It is read before body is computed and passed to
+     * {@link #put(Key, String, byte[], long)}, so body computed from meter readings which were changed in the
+     * meantime is not cached, while changes of other meter ids and years do not prevent caching.
+     *
+     * @param key Route, meter id and year
+     * @return Stamp of invalidations
+     */
+    public long stamp(Key key) {
+        return stamps.get(key.meterYear());
+    }
+
+    /**
+     * Encodes body with gzip and stores both encodings if meter readings of meter id and year of <b>key</b> were not
+     * changed since <b>stamp</b> was read.
+     *
+     * @param key Route, meter id and year
+     * @param contentType Content type of the body
+     * @param body Uncompressed body
+     * @param stamp Value of {@link #stamp(Key)} read before body was computed
+     * @return Encoded body, it is returned even if it was not cached
+     */
+    public EncodedBody put(Key key, String contentType, byte[] body, long stamp) {
+        EncodedBody encoded = new EncodedBody(contentType, store(body), store(gzip(body)));
+        bodies.asMap().compute(key, (k, cached) -> stamps.get(k.meterYear()) == stamp ? encoded : cached);
+        return encoded;
+    }
+
+    /**
+     * Removes bodies of changed meter ids and years, it is called after transaction is committed or immediately if
+     * event is not published in transaction.
+     *
+     * @param event {@link MeterReadingsChangedEvent}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeterReadingsChanged(MeterReadingsChangedEvent event) {
+        event.meterYears().forEach(meterYear -> {
+            stamps.invalidate(meterYear);
+            for (Route route : Route.values())
+                bodies.invalidate(new Key(route, meterYear));
+        });
+    }
+
+    /**
+     * Removes all cached bodies.
+     */
+    public void invalidateAll() {
+        stamps.invalidateAll();
+        bodies.invalidateAll();
+    }
+
+    /**
+     * Performs pending maintenance such as eviction, which is otherwise done asynchronously.
+     */
+    void cleanUp() {
+        bodies.cleanUp();
+    }
+
+    private ByteBuffer store(byte[] bytes) {
+        if (!properties.isOffHeap())
+            return ByteBuffer.wrap(bytes);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Routes whose bodies are cached.
+     */
+    public enum Route {
+        V1_READINGS,
+        V1_AGGREGATION,
+        V2_READINGS,
+        V2_AGGREGATION
+    }
+
+    /**
+     * @param route Route
+     * @param meterYear Meter id and year
+     */
+    public record Key(Route route, MeterYear meterYear) {
+    }
+
+    /**
+     * Response body encoded as is and with gzip. Buffers are shared by concurrent requests, so their position is
+     * never changed.
+     */
+    public static final class EncodedBody {
+
+        private final String contentType;
+
+        private final ByteBuffer identity;
+
+        private final ByteBuffer gzip;
+
+        EncodedBody(String contentType, ByteBuffer identity, ByteBuffer gzip) {
+            this.contentType = contentType;
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * @param gzip Compressed body if true
+         * @return Length of the body in bytes
+         */
+        public int getContentLength(boolean gzip) {
+            return (gzip ? this.gzip : identity).remaining();
+        }
+
+        /**
+         * Writes whole body to <b>out</b>.
+         *
+         * @param out Output stream, it is not closed
+         * @param gzip Writes compressed body if true
+         * @throws IOException if body can not be written
+         */
+        public void writeTo(OutputStream out, boolean gzip) throws IOException {
+            ByteBuffer buffer = gzip ? this.gzip : identity;
+            if (buffer.hasArray()) {
+                out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                return;
+            }
+
+            Channels.newChannel(out).write(buffer.duplicate());
+        }
+
+        int size() {
+            return identity.capacity() + gzip.capacity() + ENTRY_OVERHEAD;
+        }
+    }
+}
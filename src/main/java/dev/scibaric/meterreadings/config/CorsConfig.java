@@ -7,8 +7,10 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class CorsConfig implements WebMvcConfigurer {
 
+    static final String ALLOWED_ORIGIN_PATTERN = "https://*.scibaric.dev";
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
-        registry.addMapping("/**").allowedOriginPatterns("https://*.scibaric.dev").allowCredentials(true);
+        registry.addMapping("/**").allowedOriginPatterns(ALLOWED_ORIGIN_PATTERN).allowCredentials(true);
     }
 }
@@ -0,0 +1,22 @@
+package dev.scibaric.meterreadings.config;
+
+import dev.scibaric.meterreadings.converter.MeterReadingProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds Protobuf converter after default converters, so JSON stays the format of responses to clients which accept
+ * any format. CBOR and Smile converters are added by Spring MVC itself because their Jackson data formats are on the
+ * classpath.
+ */
+@Configuration
+public class MessageConverterConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MeterReadingProtobufHttpMessageConverter());
+    }
+}
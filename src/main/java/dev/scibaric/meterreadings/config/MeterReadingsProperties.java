@@ -0,0 +1,405 @@
+package dev.scibaric.meterreadings.config;
+
+import dev.scibaric.meterreadings.importer.ImportFormat;
+import dev.scibaric.meterreadings.repository.IntervalStorage;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application specific properties bound from <i>meter-readings.*</i> keys of the application configuration.
+ */
+@Data
+@ConfigurationProperties(prefix = "meter-readings")
+public class MeterReadingsProperties {
+
+    private final Batch batch = new Batch();
+
+    private final Importer importer = new Importer();
+
+    private final MeterIdCache meterIdCache = new MeterIdCache();
+
+    private final AggregateCache aggregateCache = new AggregateCache();
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final ConditionalGet conditionalGet = new ConditionalGet();
+
+    private final Rollup rollup = new Rollup();
+
+    private final Fleet fleet = new Fleet();
+
+    private final Interval interval = new Interval();
+
+    private final Partitioning partitioning = new Partitioning();
+
+    private final Replicas replicas = new Replicas();
+
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final Generator generator = new Generator();
+
+    /**
+     * Properties for saving many meter readings in one request.
+     */
+    @Data
+    public static class Batch {
+        /**
+         * Maximum number of meter readings accepted in one batch request.
+         */
+        private int maxSize = 10_000;
+        /**
+         * Number of rows sent to the database in one JDBC batch.
+         */
+        private int jdbcBatchSize = 1_000;
+    }
+
+    /**
+     * Properties for streaming import of meter readings.
+     */
+    @Data
+    public static class Importer {
+        /**
+         * Number of records validated and copied to the database in one transaction.
+         */
+        private int chunkSize = 5_000;
+        /**
+         * Maximum number of rejected records listed in the import result.
+         */
+        private int maxRejectedReported = 1_000;
+        /**
+         * File imported on application startup. Import on startup is disabled when file is not set.
+         */
+        private String file;
+        /**
+         * Format of imported file, if not set it is resolved from file extension.
+         */
+        private ImportFormat format;
+        /**
+         * Number of records to skip at the start of imported file, used for resuming failed import.
+         */
+        private long offset = 0;
+    }
+
+    /**
+     * Properties for cache of existing meter ids used when validating requests.
+     */
+    @Data
+    public static class MeterIdCache {
+        /**
+         * Maximum number of existing meter ids kept in memory, existence of other meters is checked in the database.
+         */
+        private int maxSize = 1_000_000;
+        /**
+         * Maximum number of meter ids which do not exist kept in memory.
+         */
+        private int maxNegativeSize = 10_000;
+        /**
+         * How long meter id which does not exist is remembered. Meters created outside of application are visible
+         * after this time.
+         */
+        private Duration negativeTtl = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Properties for cache of yearly consumption by meter id and year.
+     */
+    @Data
+    public static class AggregateCache {
+        /**
+         * Maximum number of cached consumptions of current year and consumptions which are not pinned.
+         */
+        private long maxSize = 100_000;
+        /**
+         * Whether consumptions of years before current year are pinned, pinned consumption is removed only when
+         * meter readings of its meter and year change.
+         */
+        private boolean pinClosedYears = true;
+        /**
+         * Maximum number of pinned consumptions, consumptions of closed years over this number are cached as others.
+         */
+        private int maxPinnedSize = 1_000_000;
+    }
+
+    /**
+     * Properties for cache of encoded response bodies of closed years.
+     */
+    @Data
+    public static class ResponseCache {
+        /**
+         * Serves yearly meter readings and yearly consumption of closed years from encoded response bodies.
+         */
+        private boolean enabled = true;
+        /**
+         * Maximum size of cached response bodies, both uncompressed and compressed with gzip.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        /**
+         * Keeps response bodies in direct buffers outside of the Java heap.
+         */
+        private boolean offHeap = false;
+    }
+
+    /**
+     * Properties for answering conditional requests of yearly meter readings and yearly consumption.
+     */
+    @Data
+    public static class ConditionalGet {
+        /**
+         * Sends ETag and Last-Modified headers and answers conditional requests with 304 Not Modified.
+         */
+        private boolean enabled = true;
+        /**
+         * Maximum number of versions of meter ids and years kept in memory.
+         */
+        private long maxCachedVersions = 1_000_000;
+        /**
+         * Listens for changes made by other instances of the application, versions are always read from the
+         * database when it is disabled or not connected.
+         */
+        private boolean listenForChanges = true;
+        /**
+         * Time to wait before listening for changes again after connection is lost.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Properties for rollups of yearly consumption.
+     */
+    @Data
+    public static class Rollup {
+        /**
+         * Number of meter ids whose rollups are rebuilt in one transaction.
+         */
+        private int rebuildChunkSize = 10_000;
+        /**
+         * Number of chunks rebuilt in parallel.
+         */
+        private int rebuildParallelism = 4;
+    }
+
+    /**
+     * Properties for aggregating consumption of many meters.
+     */
+    @Data
+    public static class Fleet {
+        /**
+         * Maximum number of meter ids in one request.
+         */
+        private int maxMeterIds = 100_000;
+        /**
+         * Number of rows fetched from the database at once while consumption is streamed to the client.
+         */
+        private int fetchSize = 1_000;
+    }
+
+    /**
+     * Properties for 15 minute interval readings.
+     */
+    @Data
+    public static class Interval {
+        /**
+         * Maximum number of interval readings saved in one request, one leap year of one meter by default.
+         */
+        private int maxBatchSize = 35_136;
+        /**
+         * Maximum number of values of series read in one request.
+         */
+        private int maxSeriesValues = 100_000;
+        /**
+         * Storage engine of interval readings, row per interval reading or compressed block per meter and day.
+         */
+        private IntervalStorage storage = IntervalStorage.ROWS;
+    }
+
+    /**
+     * Properties for creating partitions of meter readings and interval readings ahead of time.
+     */
+    @Data
+    public static class Partitioning {
+        /**
+         * Cron expression of job which creates partitions, partitions are also created on application startup.
+         */
+        private String cron = "0 0 3 * * *";
+        /**
+         * Number of years after the current year whose partitions of meter readings are created.
+         */
+        private int yearsAhead = 1;
+        /**
+         * Number of months after the current month whose partitions of interval readings are created.
+         */
+        private int monthsAhead = 2;
+    }
+
+    /**
+     * Properties for giving connections of read-only transactions from PostgreSQL read replicas.
+     */
+    @Data
+    public static class Replicas {
+        /**
+         * Gives connections of read-only transactions from read replicas, all connections are given by the primary
+         * data source when disabled.
+         */
+        private boolean enabled = false;
+        /**
+         * JDBC urls of read replicas, connections use username, password and pool settings of the primary data source.
+         */
+        private List<String> urls = new ArrayList<>();
+        /**
+         * Maximum replication lag of replica which is used, replica which lags more is skipped until it catches up.
+         */
+        private Duration maxLag = Duration.ofSeconds(5);
+        /**
+         * Time between checks of availability and replication lag of one replica.
+         */
+        private Duration checkInterval = Duration.ofSeconds(5);
+        /**
+         * Maximum time to wait for connection of replica before another replica or the primary is used.
+         */
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+    }
+
+    /**
+     * Properties for saving meter readings asynchronously through local journal.
+     */
+    @Data
+    public static class WriteBehind {
+        /**
+         * Appends saved meter readings to journal and acknowledges them with 202 Accepted, meter readings are written
+         * to the database by background writer. Meter readings are saved synchronously when disabled.
+         */
+        private boolean enabled = false;
+        /**
+         * Path of journal file, it is created if it does not exist and replayed on startup if it does.
+         */
+        private String journal = "meter-readings.journal";
+        /**
+         * Size of journal file, meter readings are rejected with 503 Service unavailable when journal is full.
+         */
+        private DataSize journalSize = DataSize.ofMegabytes(64);
+        /**
+         * Maximum number of meter readings written to the database in one insert.
+         */
+        private int batchSize = 1_000;
+        /**
+         * Time between writes when journal is drained.
+         */
+        private Duration drainInterval = Duration.ofMillis(100);
+        /**
+         * Time to wait before write which failed because of the database is retried.
+         */
+        private Duration retryDelay = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Properties for replaying responses of requests with <i>Idempotency-Key</i> header.
+     */
+    @Data
+    public static class Idempotency {
+        /**
+         * Replays response of request repeated with the same <i>Idempotency-Key</i> header, the header is ignored
+         * when disabled.
+         */
+        private boolean enabled = true;
+        /**
+         * Paths of POST requests whose responses are replayed.
+         */
+        private List<String> paths = new ArrayList<>(List.of("/api/v1/meters/reading",
+                "/api/v1/meters/readings/batch"));
+        /**
+         * Time for which response is replayed.
+         */
+        private Duration ttl = Duration.ofHours(24);
+        /**
+         * Time after which key reserved in the database by request without response is taken over by repeated
+         * request, so key of request whose instance stopped is not rejected until ttl elapses. Must be longer than
+         * processing of the slowest request.
+         */
+        private Duration reservationTimeout = Duration.ofMinutes(2);
+        /**
+         * Maximum total size of responses kept in memory, responses evicted from memory are read from the database.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(16);
+        /**
+         * Stores responses in the database too, so they are replayed by other instances and after restart.
+         */
+        private boolean persistent = true;
+        /**
+         * Cron expression of job which deletes expired responses from the database.
+         */
+        private String cleanupCron = "0 */10 * * * *";
+    }
+
+    /**
+     * Properties for sharing identical concurrent reads of meter readings.
+     */
+    @Data
+    public static class Coalescing {
+        /**
+         * Executes identical concurrent reads once and shares their result, every read is executed when disabled.
+         */
+        private boolean enabled = true;
+    }
+
+    /**
+     * Properties for executing requests on virtual threads.
+     */
+    @Data
+    public static class VirtualThreads {
+        /**
+         * Executes web requests and asynchronous tasks on virtual threads instead of platform thread pool.
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of threads holding JDBC connection at once. Maximum pool size of the connection pool is
+         * used when not set.
+         */
+        private int jdbcPermits = 0;
+        /**
+         * Maximum time thread waits for JDBC permit before connection request fails.
+         */
+        private Duration jdbcPermitTimeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Properties for generating synthetic fleet of meters with meter readings.
+     */
+    @Data
+    public static class Generator {
+        /**
+         * Number of meters generated on application startup. Generating on startup is disabled when it is not set.
+         */
+        private Integer meters;
+        /**
+         * First year of generated meter readings, ten years before the last year when not set.
+         */
+        private Integer fromYear;
+        /**
+         * Last year of generated meter readings, year before the current year when not set.
+         */
+        private Integer toYear;
+        /**
+         * Number of meters generated and copied to the database in one transaction.
+         */
+        private int chunkSize = 10_000;
+        /**
+         * Number of chunks generated in parallel.
+         */
+        private int parallelism = 4;
+        /**
+         * Seed of random consumption, the same seed generates the same meter readings.
+         */
+        private long seed = 42;
+    }
+}
@@ -0,0 +1,134 @@
+package dev.scibaric.meterreadings.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Configuration of <i>reactive</i> profile, in which meter API is served by WebFlux on Netty event loop and meter
+ * readings are read with R2DBC. R2DBC auto-configuration is excluded, because it requires <i>spring.r2dbc.url</i> and
+ * its transaction manager would compete with JPA transaction manager. Data source auto-configuration backs off when
+ * R2DBC connection factory exists, so JDBC data source, which is still used by Flyway, JPA and writes, is created
+ * here the same way. R2DBC connection pool is created from <i>spring.r2dbc.*</i> properties or, when
+ * <i>spring.r2dbc.url</i> is not set, from url and user of connection opened by the data source and its password,
+ * so both connect to the same database. CORS mappings are the same as in {@link CorsConfig}.
+ */
+@Profile("reactive")
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({DataSourceProperties.class, R2dbcProperties.class})
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    private static final String JDBC_POSTGRESQL_PREFIX = "jdbc:postgresql:";
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/**").allowedOriginPatterns(CorsConfig.ALLOWED_ORIGIN_PATTERN).allowCredentials(true);
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(R2dbcProperties r2dbcProperties, DataSourceProperties dataSourceProperties,
+                                            DataSource dataSource) {
+        ConnectionFactoryOptions.Builder options;
+        if (StringUtils.hasText(r2dbcProperties.getUrl())) {
+            options = ConnectionFactoryOptions.parse(r2dbcProperties.getUrl()).mutate();
+            setCredentials(options, r2dbcProperties.getUsername(), r2dbcProperties.getPassword());
+        } else {
+            options = dataSourceOptions(dataSource);
+            setCredentials(options, null, dataSourceProperties.determinePassword());
+        }
+
+        R2dbcProperties.Pool pool = r2dbcProperties.getPool();
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        ConnectionPoolConfiguration.Builder configuration = ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .minIdle(pool.getMinIdle());
+        map.from(pool.getMaxIdleTime()).to(configuration::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(configuration::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(configuration::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(configuration::maxCreateConnectionTime);
+        map.from(pool.getValidationQuery()).whenHasText().to(configuration::validationQuery);
+
+        return new ConnectionPool(configuration.build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionPool connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Reads url and user of connection opened by data source, so R2DBC connects to the same database even when data
+     * source url is resolved by the driver, e.g. Testcontainers url.
+     */
+    private ConnectionFactoryOptions.Builder dataSourceOptions(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcUrl(metaData.getURL()))
+                    .mutate();
+            setCredentials(options, metaData.getUserName(), null);
+
+            return options;
+        } catch (SQLException e) {
+            throw new IllegalStateException("R2DBC url can not be read from data source", e);
+        }
+    }
+
+    /**
+     * Converts PostgreSQL JDBC url to R2DBC url, JDBC specific parameters are removed.
+     *
+     * @param jdbcUrl JDBC url
+     * @return R2DBC url
+     */
+    static String r2dbcUrl(String jdbcUrl) {
+        if (!StringUtils.hasText(jdbcUrl) || !jdbcUrl.startsWith(JDBC_POSTGRESQL_PREFIX))
+            throw new IllegalStateException(
+                    "spring.r2dbc.url must be set when data source is not PostgreSQL data source");
+
+        int parameters = jdbcUrl.indexOf('?');
+        String url = parameters < 0 ? jdbcUrl : jdbcUrl.substring(0, parameters);
+
+        return "r2dbc:postgresql:" + url.substring(JDBC_POSTGRESQL_PREFIX.length());
+    }
+
+    private void setCredentials(ConnectionFactoryOptions.Builder options, String username, String password) {
+        if (nonNull(username))
+            options.option(ConnectionFactoryOptions.USER, username);
+        if (nonNull(password))
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+    }
+}
@@ -0,0 +1,124 @@
+package dev.scibaric.meterreadings.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.scibaric.meterreadings.jdbc.ReadReplicaRoutingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives connections of read-only transactions from PostgreSQL read replicas listed in
+ * <i>meter-readings.replicas.urls</i> when <i>meter-readings.replicas.enabled</i> is set, see
+ * {@link ReadReplicaRoutingDataSource}. Every replica has its own connection pool with settings of the primary pool.
+ * Writes and reads outside of read-only transactions always use the primary.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "meter-readings.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public static ReadReplicaDataSourcePostProcessor readReplicaDataSourcePostProcessor(
+            ObjectProvider<MeterReadingsProperties> properties) {
+        return new ReadReplicaDataSourcePostProcessor(properties);
+    }
+
+    @Bean
+    public MeterBinder readReplicaMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .map(ReadReplicaConfig::unwrapRoutingDataSource)
+                .filter(ReadReplicaRoutingDataSource.class::isInstance)
+                .map(ReadReplicaRoutingDataSource.class::cast)
+                .forEach(dataSource -> Gauge.builder("jdbc.replicas.available", dataSource,
+                                ReadReplicaRoutingDataSource::getAvailableReplicas)
+                        .description("Number of read replicas which were available at their last check")
+                        .register(registry));
+    }
+
+    private static DataSource unwrapRoutingDataSource(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ReadReplicaRoutingDataSource.class)
+                    ? dataSource.unwrap(ReadReplicaRoutingDataSource.class)
+                    : dataSource;
+        } catch (Exception e) {
+            return dataSource;
+        }
+    }
+
+    /**
+     * Wraps the primary Hikari data source before any other data source post processor, so connections of replicas
+     * are limited by {@link VirtualThreadConfig} the same way as connections of the primary. Replica pools are created
+     * here, so they are closed here as well.
+     */
+    static class ReadReplicaDataSourcePostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+        private final ObjectProvider<MeterReadingsProperties> properties;
+
+        private final List<HikariDataSource> pools = new ArrayList<>();
+
+        ReadReplicaDataSourcePostProcessor(ObjectProvider<MeterReadingsProperties> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource primary))
+                return bean;
+
+            MeterReadingsProperties.Replicas replicas = properties.getObject().getReplicas();
+            if (replicas.getUrls().isEmpty()) {
+                log.warn("Read replicas are enabled but no url is configured, data source {} is not routed", beanName);
+                return bean;
+            }
+
+            Map<String, DataSource> replicaDataSources = new LinkedHashMap<>();
+            for (int i = 0; i < replicas.getUrls().size(); i++) {
+                HikariConfig config = new HikariConfig();
+                primary.copyStateTo(config);
+                config.setJdbcUrl(replicas.getUrls().get(i));
+                config.setPoolName(beanName + "-replica-" + (i + 1));
+                config.setReadOnly(true);
+                config.setConnectionTimeout(replicas.getConnectionTimeout().toMillis());
+                config.setInitializationFailTimeout(-1);
+
+                HikariDataSource pool = new HikariDataSource(config);
+                pools.add(pool);
+                replicaDataSources.put(config.getPoolName(), pool);
+            }
+
+            log.info("Routing read-only transactions of data source {} to {} read replicas", beanName,
+                    replicaDataSources.size());
+            pools.add(primary);
+            return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replicaDataSources,
+                    replicas.getMaxLag(), replicas.getCheckInterval()));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        /**
+         * Closes replica pools and the primary pool, which is not closed by the container once it is wrapped.
+         */
+        @Override
+        public void destroy() {
+            pools.forEach(HikariDataSource::close);
+        }
+    }
+}
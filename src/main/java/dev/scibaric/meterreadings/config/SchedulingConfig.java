@@ -0,0 +1,13 @@
+package dev.scibaric.meterreadings.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled jobs, such as creating partitions ahead of time in
+ * {@link dev.scibaric.meterreadings.service.PartitionMaintenanceService}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
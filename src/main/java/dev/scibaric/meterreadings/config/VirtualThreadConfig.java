@@ -0,0 +1,83 @@
+package dev.scibaric.meterreadings.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.scibaric.meterreadings.jdbc.PermitLimitingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+
+/**
+ * Executes web requests and asynchronous tasks on virtual threads when <i>meter-readings.virtual-threads.enabled</i>
+ * is set. Number of threads which hold JDBC connection at once is limited with {@link PermitLimitingDataSource},
+ * because virtual threads are not limited by thread pool of the web server anymore.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "meter-readings.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Maximum pool size used by Hikari when it is not configured, pool reports -1 until it is started.
+     */
+    private static final int DEFAULT_HIKARI_POOL_SIZE = 10;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public static BeanPostProcessor permitLimitingDataSourcePostProcessor(ObjectProvider<MeterReadingsProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof PermitLimitingDataSource)
+                    return bean;
+
+                MeterReadingsProperties.VirtualThreads virtualThreads = properties.getObject().getVirtualThreads();
+                int permits = virtualThreads.getJdbcPermits();
+                if (permits < 1 && bean instanceof HikariDataSource hikari)
+                    permits = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : DEFAULT_HIKARI_POOL_SIZE;
+                if (permits < 1) {
+                    log.warn("JDBC permits are not configured, data source {} is not limited", beanName);
+                    return bean;
+                }
+
+                log.info("Limiting data source {} to {} JDBC permits", beanName, permits);
+                return new PermitLimitingDataSource(dataSource, permits, virtualThreads.getJdbcPermitTimeout());
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder jdbcPermitMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(PermitLimitingDataSource.class::isInstance)
+                .map(PermitLimitingDataSource.class::cast)
+                .forEach(dataSource -> {
+                    Gauge.builder("jdbc.permits.available", dataSource, PermitLimitingDataSource::getAvailablePermits)
+                            .description("Number of JDBC permits which are not held by any thread")
+                            .register(registry);
+                    Gauge.builder("jdbc.permits.waiting", dataSource, PermitLimitingDataSource::getWaitingThreads)
+                            .description("Number of threads waiting for JDBC permit")
+                            .register(registry);
+                });
+    }
+}
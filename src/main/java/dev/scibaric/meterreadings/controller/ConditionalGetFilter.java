@@ -0,0 +1,170 @@
+package dev.scibaric.meterreadings.controller;
+
+import dev.scibaric.meterreadings.cache.MeterYearVersionCache;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MeterYearVersion;
+import dev.scibaric.meterreadings.repository.MeterConsumptionRollupJdbcRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Matcher;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Answers conditional requests of yearly meter readings and yearly consumption of {@link MeterController} and
+ * {@link MeterControllerV2}. Strong ETag and Last-Modified are derived from version of meter id and year, which is
+ * changed in the same transaction as its meter readings, and request whose <i>If-None-Match</i> or
+ * <i>If-Modified-Since</i> matches is answered with 304 Not Modified without reading meter readings. Last-Modified
+ * is sent only once the version is older than {@link #LAST_MODIFIED_DELAY}. Versions are
+ * read through {@link MeterYearVersionCache}. Meter id and year without meter readings have no version, so their
+ * requests are passed to the controller as usual.
+ */
+@Component
+@Profile("!reactive")
+@Order(ConditionalGetFilter.ORDER)
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+    /**
+     * Suffix of ETag of body compressed with gzip, compressed and uncompressed bodies are different representations.
+     */
+    static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    /**
+     * Last-Modified has precision of one second and version may be committed a little after its modification time,
+     * so another change of the same second could not be told apart by <i>If-Modified-Since</i>. Versions modified
+     * more recently are sent without Last-Modified and answered by ETag only.
+     */
+    static final Duration LAST_MODIFIED_DELAY = Duration.ofSeconds(1);
+
+    private final MeterYearVersionCache versionCache;
+
+    private final MeterConsumptionRollupJdbcRepository rollupRepository;
+
+    private final MeterReadingsProperties.ConditionalGet properties;
+
+    private final Clock clock;
+
+    @Autowired
+    public ConditionalGetFilter(MeterYearVersionCache versionCache,
+                                MeterConsumptionRollupJdbcRepository rollupRepository,
+                                MeterReadingsProperties properties) {
+        this(versionCache, rollupRepository, properties, Clock.systemUTC());
+    }
+
+    ConditionalGetFilter(MeterYearVersionCache versionCache,
+                         MeterConsumptionRollupJdbcRepository rollupRepository,
+                         MeterReadingsProperties properties,
+                         Clock clock) {
+        this.versionCache = versionCache;
+        this.rollupRepository = rollupRepository;
+        this.properties = properties.getConditionalGet();
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        MeterYear meterYear = meterYear(request);
+        MeterYearVersion version = isNull(meterYear) ? null
+                : versionCache.get(meterYear, key -> rollupRepository.findVersion(key).orElse(null));
+        if (isNull(version)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String opaqueTag = opaqueTag(request, version);
+        String etag = "\"" + opaqueTag + "\"";
+        long lastModified = version.modifiedAt().isBefore(clock.instant().minus(LAST_MODIFIED_DELAY))
+                ? version.modifiedAt().truncatedTo(ChronoUnit.SECONDS).toEpochMilli()
+                : -1;
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (lastModified != -1)
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.VARY, ResponseBodyCacheFilter.VARY);
+
+        if (isNotModified(request, opaqueTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * @return Meter id and year of yearly meter readings or yearly consumption or null if request is not one of them
+     */
+    private MeterYear meterYear(HttpServletRequest request) {
+        if (!properties.isEnabled() || !HttpMethod.GET.matches(request.getMethod()))
+            return null;
+
+        Matcher matcher = ResponseBodyCacheFilter.YEAR_ROUTE
+                .matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        if (!matcher.matches())
+            return null;
+
+        return new MeterYear(Long.parseLong(matcher.group(2)), Integer.parseInt(matcher.group(4)));
+    }
+
+    /**
+     * Responses in different formats are different representations, so ETag of response negotiated by other than
+     * JSON only <i>Accept</i> header includes hash of the header.
+     */
+    private static String opaqueTag(HttpServletRequest request, MeterYearVersion version) {
+        if (ResponseBodyCacheFilter.acceptsJsonOnly(request))
+            return String.valueOf(version.version());
+
+        return version.version() + "-" + Integer.toHexString(request.getHeader(HttpHeaders.ACCEPT).hashCode());
+    }
+
+    /**
+     * <i>If-None-Match</i> takes precedence over <i>If-Modified-Since</i>, which is ignored when <b>lastModified</b>
+     * is -1, see {@link #LAST_MODIFIED_DELAY}. ETags are compared weakly, so ETag of either compressed or
+     * uncompressed body matches.
+     */
+    private static boolean isNotModified(HttpServletRequest request, String opaqueTag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (isNull(ifNoneMatch)) {
+            if (lastModified == -1)
+                return false;
+            try {
+                long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+                return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        for (String etag : ifNoneMatch.split(",")) {
+            String candidate = etag.trim();
+            if (candidate.equals("*"))
+                return true;
+            if (candidate.startsWith("W/"))
+                candidate = candidate.substring(2);
+            if (candidate.length() < 2 || candidate.charAt(0) != '"' || candidate.charAt(candidate.length() - 1) != '"')
+                continue;
+
+            candidate = candidate.substring(1, candidate.length() - 1);
+            if (candidate.equals(opaqueTag) || candidate.equals(opaqueTag + GZIP_ETAG_SUFFIX))
+                return true;
+        }
+        return false;
+    }
+}
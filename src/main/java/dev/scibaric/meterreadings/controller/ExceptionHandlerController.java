@@ -2,6 +2,7 @@ package dev.scibaric.meterreadings.controller;
 
 import dev.scibaric.meterreadings.exception.ApiExceptionResponse;
 import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import dev.scibaric.meterreadings.exception.ServiceUnavailableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -45,6 +46,22 @@ public class ExceptionHandlerController {
                 .body(new ApiExceptionResponse(HttpStatus.BAD_REQUEST, ex.getMessage()));
     }
 
+    /**
+     * Method called when controller throws {@link ServiceUnavailableException}. Exception is wrapped in
+     * {@link ApiExceptionResponse} and then it is wrapped in {@link ResponseEntity<ApiExceptionResponse>} with
+     * 503 Service unavailable http status. Exception message is stored in a {@link ApiExceptionResponse} message
+     * field.
+     *
+     * @param ex ServiceUnavailableException
+     * @return {@link ResponseEntity}
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiExceptionResponse> handleExceptions(ServiceUnavailableException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ApiExceptionResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
     /**
      * Method called when controller throws {@link RuntimeException}. Exception is wrapped in
      * {@link ApiExceptionResponse} and then it is wrapped in {@link ResponseEntity<ApiExceptionResponse>} with
@@ -0,0 +1,74 @@
+package dev.scibaric.meterreadings.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import dev.scibaric.meterreadings.dto.FleetConsumptionDTO;
+import dev.scibaric.meterreadings.dto.MeterConsumptionDTO;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Writes {@link FleetConsumptionDTO} to response body while consumption per meter is read from the database.
+ * Response is started with the first meter, so exceptions raised before it are handled as any other.
+ */
+class FleetConsumptionJsonWriter implements Consumer<MeterConsumptionDTO> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final HttpServletResponse response;
+
+    private JsonGenerator generator;
+
+    FleetConsumptionJsonWriter(HttpServletResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    public void accept(MeterConsumptionDTO meterConsumption) {
+        try {
+            start();
+            generator.writeStartObject();
+            generator.writeNumberField("meterId", meterConsumption.getMeterId());
+            generator.writeNumberField("total", meterConsumption.getTotal());
+            generator.writeNumberField("monthCount", meterConsumption.getMonthCount());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes range of months, number of meters and grand total after all meters and completes response.
+     *
+     * @param fleetConsumption Range of months, number of meters and grand total
+     * @throws IOException If response can not be written
+     */
+    void finish(FleetConsumptionDTO fleetConsumption) throws IOException {
+        start();
+        generator.writeEndArray();
+        generator.writeNumberField("fromYear", fleetConsumption.getFromYear());
+        generator.writeNumberField("fromMonth", fleetConsumption.getFromMonth());
+        generator.writeNumberField("toYear", fleetConsumption.getToYear());
+        generator.writeNumberField("toMonth", fleetConsumption.getToMonth());
+        generator.writeNumberField("meterCount", fleetConsumption.getMeterCount());
+        generator.writeNumberField("grandTotal", fleetConsumption.getGrandTotal());
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private void start() throws IOException {
+        if (!isNull(generator))
+            return;
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        generator = JSON_FACTORY.createGenerator(response.getOutputStream());
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("meters");
+    }
+}
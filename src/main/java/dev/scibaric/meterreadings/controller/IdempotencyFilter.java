@@ -0,0 +1,225 @@
+package dev.scibaric.meterreadings.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.scibaric.meterreadings.cache.IdempotencyStore;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.exception.ApiExceptionResponse;
+import dev.scibaric.meterreadings.model.IdempotentResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Replays response of POST request repeated with the same <i>Idempotency-Key</i> header to paths listed in
+ * <i>meter-readings.idempotency.paths</i>, so clients can retry requests which timed out without saving meter
+ * readings twice. Repeated request is answered from {@link IdempotencyStore} without validation or queries of the
+ * controller and its response has <i>Idempotent-Replayed</i> header. Key used for request with different method, path
+ * or body is rejected with 422 Unprocessable Entity and request whose original is still processed by any instance
+ * with 409 Conflict. Responses with 5xx status are not stored, so such requests are processed again.
+ */
+@Component
+@Profile("!reactive")
+@Order(ConditionalGetFilter.ORDER - 2)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+
+    private final MeterReadingsProperties.Idempotency properties;
+
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyStore store, MeterReadingsProperties properties, ObjectMapper objectMapper) {
+        this.store = store;
+        this.properties = properties.getIdempotency();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY);
+        if (isNull(key) || !isIdempotentRoute(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    String.format("%s must have from 1 to %d characters", IDEMPOTENCY_KEY, MAX_KEY_LENGTH));
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        long requestHash = requestHash(request, body);
+
+        if (replayStored(response, key, requestHash))
+            return;
+
+        if (!store.tryAcquire(key, requestHash)) {
+            if (!replayStored(response, key, requestHash))
+                writeError(response, HttpStatus.CONFLICT,
+                        String.format("Request with %s %s is still processed", IDEMPOTENCY_KEY, key));
+            return;
+        }
+
+        try {
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(new CachedBodyRequest(request, body), wrapper);
+            if (wrapper.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR)
+                store.put(key, new IdempotentResponse(requestHash, wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getContentAsByteArray()));
+            wrapper.copyBodyToResponse();
+        } finally {
+            store.release(key);
+        }
+    }
+
+    /**
+     * Replays stored response of the key, request with different hash is rejected.
+     *
+     * @return False if response of the key is not stored
+     */
+    private boolean replayStored(HttpServletResponse response, String key, long requestHash) throws IOException {
+        IdempotentResponse stored = store.get(key);
+        if (isNull(stored))
+            return false;
+
+        if (stored.requestHash() != requestHash)
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    String.format("%s %s was used for different request", IDEMPOTENCY_KEY, key));
+        else
+            replay(response, stored);
+        return true;
+    }
+
+    private boolean isIdempotentRoute(HttpServletRequest request) {
+        return properties.isEnabled()
+                && HttpMethod.POST.matches(request.getMethod())
+                && properties.getPaths().contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    private static void replay(HttpServletResponse response, IdempotentResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (nonNull(stored.contentType()))
+            response.setContentType(stored.contentType());
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiExceptionResponse(status, message));
+    }
+
+    /**
+     * @return The first 8 bytes of SHA-256 of method, path and body of request
+     */
+    private static long requestHash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest.digest(body)).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Request whose body was already read, body is read again from memory.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = isNull(getCharacterEncoding()) ? StandardCharsets.UTF_8
+                    : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
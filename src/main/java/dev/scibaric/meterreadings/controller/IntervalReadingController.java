@@ -0,0 +1,117 @@
+package dev.scibaric.meterreadings.controller;
+
+import dev.scibaric.meterreadings.dto.IntervalReadingDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingSeriesDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingsResultDTO;
+import dev.scibaric.meterreadings.exception.ApiExceptionResponse;
+import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+import dev.scibaric.meterreadings.service.IntervalReadingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Routes of 15 minute interval readings of one meter. Monthly meter readings of {@link MeterController} are derived
+ * from saved interval readings. Errors are handled by {@link ExceptionHandlerController}.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/meters")
+public class IntervalReadingController {
+
+    private final IntervalReadingService service;
+
+    public IntervalReadingController(IntervalReadingService service) {
+        this.service = service;
+    }
+
+    /**
+     * Method accepts parameter <b>id</b> and request body with JSON array of interval readings of the meter. Interval
+     * readings are saved or replaced and meter readings of their months are derived again. If everything is ok,
+     * response is returned with http status 200 OK. Method can throw {@link IllegalArgumentException} if parameters
+     * do not satisfy requirements. Handling exceptions is left to {@link ExceptionHandlerController}.
+     *
+     * @param id Meter id
+     * @param intervalReadingDTOs Interval readings
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @return {@link ResponseEntity<IntervalReadingsResultDTO>}
+     */
+    @Operation(summary = "Save interval readings",
+            description = "Save 15 minute interval readings of meter and derive monthly meter readings from them")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Number of saved interval readings and derived months",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = IntervalReadingsResultDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Meter id or interval readings not valid",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "500", description = "Service error",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))})
+    })
+    @PostMapping("/{id}/intervals")
+    public ResponseEntity<IntervalReadingsResultDTO> saveIntervalReadings(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @RequestBody List<IntervalReadingDTO> intervalReadingDTOs) {
+        return ResponseEntity.ok(service.saveIntervalReadings(id, intervalReadingDTOs));
+    }
+
+    /**
+     * Method accepts parameters <b>id</b>, <b>from</b>, <b>to</b> and <b>resolution</b>. Returns interval readings of
+     * meter in range of time summed to resolution as columnar series. If everything is ok, response is returned with
+     * http status 200 OK. Method can throw {@link IllegalArgumentException} if parameters do not satisfy
+     * requirements. Another exception that can be thrown is {@link ResourceNotFoundException} if results are not
+     * found. Handling exceptions is left to {@link ExceptionHandlerController}.
+     *
+     * @param id Meter id
+     * @param from Start of range, inclusive
+     * @param to End of range, exclusive
+     * @param resolution Resolution of values
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @throws ResourceNotFoundException If results are not found
+     * @return {@link ResponseEntity<IntervalReadingSeriesDTO>}
+     */
+    @Operation(summary = "Returns interval readings for range of time",
+            description = "Returns interval readings of meter for range of time summed to 15 minutes, hours, days or "
+                    + "months as columnar series")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Returns interval readings for range of time",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = IntervalReadingSeriesDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Meter id, range or resolution not valid",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "404", description = "Interval readings do not exist",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "500", description = "Service error",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))})
+    })
+    @GetMapping("/{id}/intervals")
+    public ResponseEntity<IntervalReadingSeriesDTO> findIntervalReadings(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @RequestParam @Parameter(description = "Start of range, inclusive", example = "2020-01-01T00:00:00Z")
+            Instant from,
+            @RequestParam @Parameter(description = "End of range, exclusive", example = "2020-01-02T00:00:00Z")
+            Instant to,
+            @RequestParam(defaultValue = "RAW") @Parameter(description = "Resolution of values", example = "HOUR")
+            IntervalResolution resolution) {
+        return ResponseEntity.ok(service.findSeries(id, from, to, resolution));
+    }
+}
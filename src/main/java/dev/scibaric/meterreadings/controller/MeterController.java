@@ -1,27 +1,55 @@
 package dev.scibaric.meterreadings.controller;
 
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionRequestDTO;
+import dev.scibaric.meterreadings.dto.ImportResultDTO;
 import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
 import dev.scibaric.meterreadings.exception.ApiExceptionResponse;
 import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import dev.scibaric.meterreadings.exception.ServiceUnavailableException;
+import dev.scibaric.meterreadings.importer.ImportFormat;
+import dev.scibaric.meterreadings.service.MeterReadingImportService;
 import dev.scibaric.meterreadings.service.MeterService;
+import dev.scibaric.meterreadings.service.WriteBehindService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static java.util.Objects.nonNull;
+
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/meters")
 public class MeterController {
 
     private final MeterService service;
 
-    public MeterController(MeterService service) {
+    private final MeterReadingImportService importService;
+
+    private final WriteBehindService writeBehindService;
+
+    public MeterController(MeterService service, MeterReadingImportService importService,
+                           ObjectProvider<WriteBehindService> writeBehindService) {
         this.service = service;
+        this.importService = importService;
+        this.writeBehindService = writeBehindService.getIfAvailable();
     }
 
     /**
@@ -63,6 +91,41 @@ public class MeterController {
         return ResponseEntity.ok(service.aggregateConsumptionByMeterIdAndYear(id, year));
     }
 
+    /**
+     * Method accepts request body with meter ids, or without meter ids for all meters, and range of months. Consumption
+     * of every meter in the range is computed with one grouped query and written to response body as it is read from
+     * the database, followed by number of meters and grand total, so memory does not depend on number of meters.
+     * If everything is ok, response is returned with http status 200 OK. Method can throw
+     * {@link IllegalArgumentException} if request does not satisfy requirements. Handling exceptions is left to
+     * {@link ExceptionHandlerController}.
+     *
+     * @param request Meter ids and range of months
+     * @param response Response to which consumption is written
+     * @throws IllegalArgumentException If request does not satisfy requirements.
+     * @throws IOException If response can not be written
+     */
+    @Operation(summary = "Aggregates electricity consumption of many meters",
+            description = "Aggregates electricity consumption per meter for many or all meters and range of months")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Returns electricity consumption per meter and grand total",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = FleetConsumptionDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Meter ids or range of months not valid",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "500", description = "Service error",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))})
+    })
+    @PostMapping(value = "/consumption/aggregation", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void aggregateFleetConsumption(@RequestBody FleetConsumptionRequestDTO request,
+                                          @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        FleetConsumptionJsonWriter writer = new FleetConsumptionJsonWriter(response);
+        writer.finish(service.aggregateFleetConsumption(request, writer));
+    }
+
     /**
      * Method accepts parameters <b>id</b> and <b>year</b>. Return results requested by meter id and year.
      * Returned results are stored in {@link MeterReadingDTO} and wrapped in {@link ResponseEntity} object. If everything is ok,
@@ -102,6 +165,48 @@ public class MeterController {
         return ResponseEntity.ok(service.findByMeterIdAndYear(id, year));
     }
 
+    /**
+     * Method accepts parameters <b>id</b>, <b>fromYear</b> and <b>toYear</b>. Returns meter readings of meter id in
+     * range of years as columnar series, months encoded as <i>year * 100 + month</i> and energy consumed in parallel
+     * arrays ordered by year and month. Returned results are stored in {@link MeterReadingSeriesDTO} and wrapped in
+     * {@link ResponseEntity} object. If everything is ok, response is returned with http status is 200 OK. Method can
+     * throw {@link IllegalArgumentException} if parameters do not satisfy requirements. Another exception that can be
+     * thrown is {@link ResourceNotFoundException} if results are not found. Handling exceptions is left to
+     * {@link ExceptionHandlerController}.
+     *
+     * @param id Meter id
+     * @param fromYear First year, inclusive
+     * @param toYear Last year, inclusive
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @throws ResourceNotFoundException If results are not found
+     * @return {@link ResponseEntity<MeterReadingSeriesDTO>}
+     */
+    @Operation(summary = "Returns meter readings for range of years",
+            description = "Returns meter readings for range of years by meter id as columnar series")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Returns meter readings for range of years",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = MeterReadingSeriesDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Meter id or years not valid",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "404", description = "Meter readings do not exist",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "500", description = "Service error",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))})
+    })
+    @GetMapping("/{id}/series")
+    public ResponseEntity<MeterReadingSeriesDTO> findSeriesByMeterIdAndYears(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @RequestParam @Parameter(description = "First year", example = "2015") Integer fromYear,
+            @RequestParam @Parameter(description = "Last year", example = "2025") Integer toYear) {
+        return ResponseEntity.ok(service.findSeriesByMeterIdAndYears(id, fromYear, toYear));
+    }
+
     /**
      * Method accepts parameters <b>id</b>, <b>year</b> and <b>month</b>. Return results requested by meter id, year
      * and month. Returned results are stored in {@link MeterReadingDTO} and wrapped in {@link ResponseEntity} object.
@@ -148,13 +253,16 @@ public class MeterController {
      * meter reading for meter with id, year and month object is mapped to
      * {@link dev.scibaric.meterreadings.model.MeterReading}. {@link dev.scibaric.meterreadings.model.MeterReading} is
      * propagated to the database if everything is alright. {@link MeterReadingDTO} is returned and wrapped in
-     * {@link ResponseEntity}. If meter reading is saved to database, service returns http status 201 CREATED.
-     * Method can throw {@link IllegalArgumentException} if JSON object is not valid. Handling exceptions is left to
-     * {@link ExceptionHandlerController}.
+     * {@link ResponseEntity}. If meter reading is saved to database, service returns http status 201 CREATED. When
+     * <i>meter-readings.write-behind.enabled</i> is set, meter reading is appended to journal by
+     * {@link WriteBehindService} and http status 202 ACCEPTED is returned before it is saved to database. Method can
+     * throw {@link IllegalArgumentException} if JSON object is not valid and {@link ServiceUnavailableException} if
+     * journal is full. Handling exceptions is left to {@link ExceptionHandlerController}.
      *
      * @param meterReadingDTO JSON object for saving meter readings
      * @throws IllegalArgumentException If parameters do not satisfy requirements and if meter reading for meter id
      * year and month exist.
+     * @throws ServiceUnavailableException If journal of write-behind is full
      * @return {@link ResponseEntity<MeterReadingDTO>}
      */
     @Operation(summary = "Save meter reading", description = "Save meter reading to database")
@@ -164,19 +272,106 @@ public class MeterController {
                     description = "Save meter reading",
                     content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = MeterReadingDTO.class))}),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Meter reading accepted by write-behind, it is saved later",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = MeterReadingDTO.class))}),
             @ApiResponse(responseCode = "400",
                     description = "Meter id, year, month not valid or meter reading already exist",
                     content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = ApiExceptionResponse.class))}),
             @ApiResponse(responseCode = "500", description = "Service error",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "503", description = "Journal of write-behind is full",
                     content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = ApiExceptionResponse.class))})
     })
     @PostMapping("/reading")
     public ResponseEntity<MeterReadingDTO> saveMeterReading(@RequestBody MeterReadingDTO meterReadingDTO) {
+        if (nonNull(writeBehindService))
+            return ResponseEntity.accepted().body(writeBehindService.saveMeterReading(meterReadingDTO));
+
         return ResponseEntity.created(null).body(service.saveMeterReading(meterReadingDTO));
     }
 
+    /**
+     * Method accepts parameter <b>meterReadingDTOs</b> as JSON array. Every object is validated and meter readings
+     * for which there is no meter reading for meter with id, year and month are propagated to the database in
+     * batches. {@link BatchResultDTO} with result for every meter reading is returned and wrapped in
+     * {@link ResponseEntity} with http status 200 OK, rejected meter readings do not stop saving of the others.
+     * Method can throw {@link IllegalArgumentException} if JSON array is empty or too large. Handling exceptions is
+     * left to {@link ExceptionHandlerController}.
+     *
+     * @param meterReadingDTOs JSON array for saving meter readings
+     * @throws IllegalArgumentException If JSON array is empty or larger than allowed.
+     * @return {@link ResponseEntity<BatchResultDTO>}
+     */
+    @Operation(summary = "Save meter readings", description = "Save many meter readings to database in one request")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Result of saving for every meter reading",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = BatchResultDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Meter readings empty or too many meter readings",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "500", description = "Service error",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))})
+    })
+    @PostMapping("/readings/batch")
+    public ResponseEntity<BatchResultDTO> saveMeterReadings(@RequestBody List<MeterReadingDTO> meterReadingDTOs) {
+        return ResponseEntity.ok(service.saveMeterReadings(meterReadingDTOs));
+    }
+
+    /**
+     * Method accepts request body with meter readings as NDJSON (<i>application/x-ndjson</i>) or CSV
+     * (<i>text/csv</i>) and optional parameter <b>offset</b>. Body is read record by record without buffering the
+     * whole payload, every record is validated and valid meter readings are copied to the database in chunks with
+     * PostgreSQL <i>COPY</i>. First <b>offset</b> records are skipped, so failed import can be resumed from committed
+     * offset of previous import. {@link ImportResultDTO} is returned and wrapped in {@link ResponseEntity} with http
+     * status 200 OK if all records are read or 500 Internal server error if import stopped. Method can throw
+     * {@link IllegalArgumentException} if offset is not valid or CSV header is missing columns. Handling exceptions is
+     * left to {@link ExceptionHandlerController}.
+     *
+     * @param inputStream Request body with meter readings
+     * @param contentType Content type of request body
+     * @param offset Number of records to skip
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @return {@link ResponseEntity<ImportResultDTO>}
+     */
+    @Operation(summary = "Import meter readings",
+            description = "Stream meter readings in NDJSON or CSV format to database")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "All records are read, result of import",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ImportResultDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Offset not valid or CSV header is missing columns",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "500", description = "Import stopped, result up to committed offset",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ImportResultDTO.class))})
+    })
+    @PostMapping(value = "/readings/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportResultDTO> importMeterReadings(
+            @Parameter(hidden = true) InputStream inputStream,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) @Parameter(hidden = true) String contentType,
+            @RequestParam(defaultValue = "0")
+            @Parameter(description = "Number of records to skip", example = "0") Long offset) {
+        ImportResultDTO result = importService.importMeterReadings(
+                inputStream, ImportFormat.fromContentType(contentType), offset);
+
+        return ResponseEntity
+                .status(result.getCompleted() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(result);
+    }
+
     /**
      * Method accepts parameter <b>meterReadingDTO</b> as JSON object. Object is then validated and if there is
      * meter reading for meter with id, year and month object is mapped to
@@ -211,6 +406,38 @@ public class MeterController {
         return ResponseEntity.ok(service.updateMeterReading(meterReadingDTO));
     }
 
+    /**
+     * Method accepts parameter <b>meterReadingDTO</b> as JSON object and is called when request has parameter
+     * <b>upsert=true</b>. Object is then validated and meter reading for meter with id, year and month is inserted if
+     * it does not exist or updated if it exists, without reading it from the database first. {@link MeterReadingDTO}
+     * is returned and wrapped in {@link ResponseEntity} with http status 200 OK. Method can throw
+     * {@link IllegalArgumentException} if JSON object is not valid. Handling exceptions is left to
+     * {@link ExceptionHandlerController}.
+     *
+     * @param meterReadingDTO JSON object for saving meter readings
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @return {@link ResponseEntity<MeterReadingDTO>}
+     */
+    @Operation(summary = "Save or update meter reading",
+            description = "Save meter reading to database or update it if it already exists")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Save or update meter reading",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = MeterReadingDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Meter id, year or month not valid",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))}),
+            @ApiResponse(responseCode = "500", description = "Service error",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiExceptionResponse.class))})
+    })
+    @PutMapping(value = "/reading", params = "upsert=true")
+    public ResponseEntity<MeterReadingDTO> upsertMeterReading(@RequestBody MeterReadingDTO meterReadingDTO) {
+        return ResponseEntity.ok(service.upsertMeterReading(meterReadingDTO));
+    }
+
     /**
      * Method accepts parameter <b>id</b> as path variable. Method tries to delete meter reading with
      * provided id. If meter reading has been deleted from database, service returns http status 200 OK.
@@ -0,0 +1,94 @@
+package dev.scibaric.meterreadings.controller;
+
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.service.MeterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Version 2 of read routes of {@link MeterController}. Responses have the same JSON shape as in version 1, but they
+ * are read without entities to immutable {@link YearConsumptionDTO} with months in fixed array and written by
+ * hand-written serializer, so reading allocates much less per request. Errors are handled by
+ * {@link ExceptionHandlerController}.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v2/meters")
+public class MeterControllerV2 {
+
+    private final MeterService service;
+
+    public MeterControllerV2(MeterService service) {
+        this.service = service;
+    }
+
+    /**
+     * Version 2 of {@link MeterController#aggregateConsumptionByMeterIdAndYear(Long, Integer)}.
+     *
+     * @param id Meter id
+     * @param year Year
+     * @return {@link ResponseEntity<YearConsumptionDTO>}
+     */
+    @Operation(summary = "Aggregates electricity consumption",
+            description = "Aggregates electricity consumption by meter id and year")
+    @ApiResponse(responseCode = "200", description = "Returns electricity consumption aggregated by meter and year",
+            content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = MeterReadingDTO.class))})
+    @GetMapping("/{id}/consumption/aggregation/{year}")
+    public ResponseEntity<YearConsumptionDTO> aggregateConsumptionByMeterIdAndYear(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @PathVariable @Parameter(description = "Year", example = "2020") Integer year) {
+        return ResponseEntity.ok(service.aggregateYearConsumption(id, year));
+    }
+
+    /**
+     * Version 2 of {@link MeterController#findByMeterIdAndYear(Long, Integer)}.
+     *
+     * @param id Meter id
+     * @param year Year
+     * @return {@link ResponseEntity<YearConsumptionDTO>}
+     */
+    @Operation(summary = "Returns meter readings for year",
+            description = "Returns meter readings for year by meter id")
+    @ApiResponse(responseCode = "200", description = "Returns meter readings for year",
+            content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = MeterReadingDTO.class))})
+    @GetMapping("/{id}/{year}")
+    public ResponseEntity<YearConsumptionDTO> findByMeterIdAndYear(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @PathVariable @Parameter(description = "Year", example = "2020") Integer year) {
+        return ResponseEntity.ok(service.findYearConsumption(id, year));
+    }
+
+    /**
+     * Version 2 of {@link MeterController#findByMeterIdAndYearAndMonth(Long, Integer, Integer)}.
+     *
+     * @param id Meter id
+     * @param year Year
+     * @param month Month
+     * @return {@link ResponseEntity<YearConsumptionDTO>}
+     */
+    @Operation(summary = "Returns meter readings for year and month",
+            description = "Returns meter readings for year and month by meter id")
+    @ApiResponse(responseCode = "200", description = "Returns meter reading for year and month",
+            content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = MeterReadingDTO.class))})
+    @GetMapping("/{id}/{year}/{month}")
+    public ResponseEntity<YearConsumptionDTO> findByMeterIdAndYearAndMonth(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @PathVariable @Parameter(description = "Year", example = "2020") Integer year,
+            @PathVariable @Parameter(description = "Month", example = "2") Integer month) {
+        return ResponseEntity.ok(service.findYearConsumption(id, year, month));
+    }
+}
@@ -0,0 +1,163 @@
+package dev.scibaric.meterreadings.controller;
+
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
+import dev.scibaric.meterreadings.service.ReactiveMeterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux variant of {@link MeterController} active in <i>reactive</i> profile. Routes, status codes and response
+ * bodies are the same, errors are handled by {@link ExceptionHandlerController}. Import of meter readings and
+ * consumption of many meters are bulk operations which are served by {@link MeterController} only.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/meters")
+public class ReactiveMeterController {
+
+    private final ReactiveMeterService service;
+
+    public ReactiveMeterController(ReactiveMeterService service) {
+        this.service = service;
+    }
+
+    /**
+     * Reactive variant of {@link MeterController#aggregateConsumptionByMeterIdAndYear(Long, Integer)}.
+     *
+     * @param id Meter id
+     * @param year Year
+     * @return {@link Mono} with {@link ResponseEntity<MeterReadingDTO>}
+     */
+    @Operation(summary = "Aggregates electricity consumption",
+            description = "Aggregates electricity consumption by meter id and year")
+    @GetMapping("/{id}/consumption/aggregation/{year}")
+    public Mono<ResponseEntity<MeterReadingDTO>> aggregateConsumptionByMeterIdAndYear(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @PathVariable @Parameter(description = "Year", example = "2020") Integer year) {
+        return service.aggregateConsumptionByMeterIdAndYear(id, year).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Reactive variant of {@link MeterController#findByMeterIdAndYear(Long, Integer)}.
+     *
+     * @param id Meter id
+     * @param year Year
+     * @return {@link Mono} with {@link ResponseEntity<MeterReadingDTO>}
+     */
+    @Operation(summary = "Returns meter readings for year",
+            description = "Returns meter readings for year by meter id")
+    @GetMapping("/{id}/{year}")
+    public Mono<ResponseEntity<MeterReadingDTO>> findByMeterIdAndYear(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @PathVariable @Parameter(description = "Year", example = "2020") Integer year) {
+        return service.findByMeterIdAndYear(id, year).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Reactive variant of {@link MeterController#findSeriesByMeterIdAndYears(Long, Integer, Integer)}.
+     *
+     * @param id Meter id
+     * @param fromYear First year, inclusive
+     * @param toYear Last year, inclusive
+     * @return {@link Mono} with {@link ResponseEntity<MeterReadingSeriesDTO>}
+     */
+    @Operation(summary = "Returns meter readings for range of years",
+            description = "Returns meter readings for range of years by meter id as columnar series")
+    @GetMapping("/{id}/series")
+    public Mono<ResponseEntity<MeterReadingSeriesDTO>> findSeriesByMeterIdAndYears(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @RequestParam @Parameter(description = "First year", example = "2015") Integer fromYear,
+            @RequestParam @Parameter(description = "Last year", example = "2025") Integer toYear) {
+        return service.findSeriesByMeterIdAndYears(id, fromYear, toYear).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Reactive variant of {@link MeterController#findByMeterIdAndYearAndMonth(Long, Integer, Integer)}.
+     *
+     * @param id Meter id
+     * @param year Year
+     * @param month Month
+     * @return {@link Mono} with {@link ResponseEntity<MeterReadingDTO>}
+     */
+    @Operation(summary = "Returns meter readings for year and month",
+            description = "Returns meter readings for year and month by meter id")
+    @GetMapping("/{id}/{year}/{month}")
+    public Mono<ResponseEntity<MeterReadingDTO>> findByMeterIdAndYearAndMonth(
+            @PathVariable @Parameter(description = "Meter id", example = "1") Long id,
+            @PathVariable @Parameter(description = "Year", example = "2020") Integer year,
+            @PathVariable @Parameter(description = "Month", example = "2") Integer month) {
+        return service.findByMeterIdAndYearAndMonth(id, year, month).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Reactive variant of {@link MeterController#saveMeterReading(MeterReadingDTO)}.
+     *
+     * @param meterReadingDTO JSON object for saving meter readings
+     * @return {@link Mono} with {@link ResponseEntity<MeterReadingDTO>}
+     */
+    @Operation(summary = "Save meter reading", description = "Save meter reading to database")
+    @PostMapping("/reading")
+    public Mono<ResponseEntity<MeterReadingDTO>> saveMeterReading(@RequestBody MeterReadingDTO meterReadingDTO) {
+        return service.saveMeterReading(meterReadingDTO).map(saved -> ResponseEntity.created(null).body(saved));
+    }
+
+    /**
+     * Reactive variant of {@link MeterController#saveMeterReadings(List)}.
+     *
+     * @param meterReadingDTOs JSON array for saving meter readings
+     * @return {@link Mono} with {@link ResponseEntity<BatchResultDTO>}
+     */
+    @Operation(summary = "Save meter readings", description = "Save many meter readings to database in one request")
+    @PostMapping("/readings/batch")
+    public Mono<ResponseEntity<BatchResultDTO>> saveMeterReadings(
+            @RequestBody List<MeterReadingDTO> meterReadingDTOs) {
+        return service.saveMeterReadings(meterReadingDTOs).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Reactive variant of {@link MeterController#updateMeterReading(MeterReadingDTO)}.
+     *
+     * @param meterReadingDTO JSON object for saving meter readings
+     * @return {@link Mono} with {@link ResponseEntity<MeterReadingDTO>}
+     */
+    @Operation(summary = "Update meter reading", description = "Update meter reading to database")
+    @PutMapping("/reading")
+    public Mono<ResponseEntity<MeterReadingDTO>> updateMeterReading(@RequestBody MeterReadingDTO meterReadingDTO) {
+        return service.updateMeterReading(meterReadingDTO).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Reactive variant of {@link MeterController#upsertMeterReading(MeterReadingDTO)}.
+     *
+     * @param meterReadingDTO JSON object for saving meter readings
+     * @return {@link Mono} with {@link ResponseEntity<MeterReadingDTO>}
+     */
+    @Operation(summary = "Save or update meter reading",
+            description = "Save meter reading to database or update it if it already exists")
+    @PutMapping(value = "/reading", params = "upsert=true")
+    public Mono<ResponseEntity<MeterReadingDTO>> upsertMeterReading(@RequestBody MeterReadingDTO meterReadingDTO) {
+        return service.upsertMeterReading(meterReadingDTO).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Reactive variant of {@link MeterController#deleteMeterReadingById(Long)}.
+     *
+     * @param id Meter reading id
+     * @return {@link Mono} with {@link ResponseEntity}
+     */
+    @Operation(summary = "Delete meter reading", description = "Delete meter reading by id from database")
+    @DeleteMapping("/reading/{id}")
+    public Mono<ResponseEntity<Void>> deleteMeterReadingById(
+            @PathVariable
+            @Parameter(description = "Meter reading id", example = "1") Long id) {
+        return service.deleteMeterReadingById(id).then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+    }
+}
@@ -0,0 +1,72 @@
+package dev.scibaric.meterreadings.controller;
+
+import dev.scibaric.meterreadings.cache.RecentlyChangedMeterYears;
+import dev.scibaric.meterreadings.jdbc.ReadReplicaRoutingDataSource;
+import dev.scibaric.meterreadings.model.MeterYear;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Routes reads of yearly and monthly meter readings and yearly consumption of meter id and year in
+ * {@link RecentlyChangedMeterYears} to the primary, so response, cached body and ETag of the year are not read from
+ * read replica which has not replayed its change yet. It runs before {@link ConditionalGetFilter}, so version of the
+ * year is read the same way as its meter readings.
+ */
+@Component
+@Profile("!reactive")
+@Order(ConditionalGetFilter.ORDER - 1)
+@ConditionalOnProperty(prefix = "meter-readings.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaFilter extends OncePerRequestFilter {
+
+    private final RecentlyChangedMeterYears recentlyChangedMeterYears;
+
+    public ReadReplicaFilter(RecentlyChangedMeterYears recentlyChangedMeterYears) {
+        this.recentlyChangedMeterYears = recentlyChangedMeterYears;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        MeterYear meterYear = meterYear(request);
+        if (isNull(meterYear) || !recentlyChangedMeterYears.contains(meterYear)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ReadReplicaRoutingDataSource.setPrimaryRequired(true);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadReplicaRoutingDataSource.setPrimaryRequired(false);
+        }
+    }
+
+    /**
+     * @return Meter id and year of request of yearly or monthly meter readings or yearly consumption or null if
+     * request is not one of them
+     */
+    private static MeterYear meterYear(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()))
+            return null;
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = ResponseBodyCacheFilter.YEAR_ROUTE.matcher(path);
+        if (!matcher.lookingAt() || (matcher.end() < path.length() && path.charAt(matcher.end()) != '/'))
+            return null;
+
+        return new MeterYear(Long.parseLong(matcher.group(2)), Integer.parseInt(matcher.group(4)));
+    }
+}
@@ -0,0 +1,157 @@
+package dev.scibaric.meterreadings.controller;
+
+import dev.scibaric.meterreadings.cache.ResponseBodyCache;
+import dev.scibaric.meterreadings.model.MeterYear;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Serves yearly meter readings and yearly consumption of closed years of {@link MeterController} and
+ * {@link MeterControllerV2} from {@link ResponseBodyCache}. Cached body is written to the response as is, or
+ * compressed with gzip when client accepts it, without calling the controller. Successful response which is not
+ * cached yet is computed by the controller as usual and cached on the way out. Errors and responses in formats
+ * other than JSON are never cached.
+ */
+@Component
+@Profile("!reactive")
+@Order(ConditionalGetFilter.ORDER + 1)
+public class ResponseBodyCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * Yearly meter readings and yearly consumption of both versions, groups are version, meter id, aggregation and
+     * year.
+     */
+    static final Pattern YEAR_ROUTE =
+            Pattern.compile("/api/v([12])/meters/(\\d{1,18})/(consumption/aggregation/)?(\\d{1,9})");
+
+    private static final Pattern ZERO_QUALITY = Pattern.compile("q=0(\\.0{0,3})?");
+
+    private static final String GZIP = "gzip";
+
+    /**
+     * Value of <i>Vary</i> header, responses of the routes depend on both negotiated format and encoding.
+     */
+    static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    private final ResponseBodyCache cache;
+
+    public ResponseBodyCacheFilter(ResponseBodyCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ResponseBodyCache.Key key = cacheKey(request);
+        if (isNull(key)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.VARY, VARY);
+        ResponseBodyCache.EncodedBody body = cache.getIfPresent(key);
+        if (isNull(body)) {
+            long stamp = cache.stamp(key);
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK)
+                cache.put(key, wrapper.getContentType(), wrapper.getContentAsByteArray(), stamp);
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        boolean gzip = acceptsGzip(request) && body.getContentLength(true) < body.getContentLength(false);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(body.getContentType());
+        response.setContentLength(body.getContentLength(gzip));
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            if (etag != null && etag.endsWith("\""))
+                response.setHeader(HttpHeaders.ETAG,
+                        etag.substring(0, etag.length() - 1) + ConditionalGetFilter.GZIP_ETAG_SUFFIX + "\"");
+        }
+        body.writeTo(response.getOutputStream(), gzip);
+    }
+
+    /**
+     * @return Key of cached route and closed year or null if response of the request is not cached
+     */
+    private ResponseBodyCache.Key cacheKey(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()) || !acceptsJsonOnly(request))
+            return null;
+
+        Matcher matcher = YEAR_ROUTE.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        if (!matcher.matches())
+            return null;
+
+        int year = Integer.parseInt(matcher.group(4));
+        if (!cache.isCacheable(year))
+            return null;
+
+        boolean aggregation = matcher.group(3) != null;
+        ResponseBodyCache.Route route = "1".equals(matcher.group(1))
+                ? (aggregation ? ResponseBodyCache.Route.V1_AGGREGATION : ResponseBodyCache.Route.V1_READINGS)
+                : (aggregation ? ResponseBodyCache.Route.V2_AGGREGATION : ResponseBodyCache.Route.V2_READINGS);
+
+        return new ResponseBodyCache.Key(route, new MeterYear(Long.parseLong(matcher.group(2)), year));
+    }
+
+    /**
+     * Only JSON bodies are cached, responses in binary formats are computed by the controller every time.
+     *
+     * @return true if request has no <i>Accept</i> header or every accepted media type is answered with JSON
+     */
+    static boolean acceptsJsonOnly(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (isNull(accept) || accept.equals(MediaType.ALL_VALUE) || accept.equals(MediaType.APPLICATION_JSON_VALUE))
+            return true;
+
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept))
+                if (!mediaType.isWildcardType() && !(mediaType.getType().equals("application")
+                        && (mediaType.isWildcardSubtype() || mediaType.getSubtype().equals("json"))))
+                    return false;
+            return true;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if <i>Accept-Encoding</i> header lists gzip without zero quality value
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (isNull(acceptEncoding))
+            return false;
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            if (!GZIP.equalsIgnoreCase(parameters[0].trim()))
+                continue;
+            for (int i = 1; i < parameters.length; i++)
+                if (ZERO_QUALITY.matcher(parameters[i].trim()).matches())
+                    return false;
+            return true;
+        }
+        return false;
+    }
+}
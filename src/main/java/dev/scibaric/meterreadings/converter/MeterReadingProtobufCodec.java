@@ -0,0 +1,275 @@
+package dev.scibaric.meterreadings.converter;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import dev.scibaric.meterreadings.dto.BatchItemResultDTO;
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.exception.ApiExceptionResponse;
+import dev.scibaric.meterreadings.mapper.MeterReadingMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Hand-written Protobuf encoding of messages of <i>static/proto/meter_readings.proto</i> schema, so DTOs are written
+ * and read directly without generated message classes. Field numbers and types must match the schema. Months are
+ * encoded by number instead of name.
+ */
+public final class MeterReadingProtobufCodec {
+
+    private static final int ID = tag(1, WireFormat.WIRETYPE_VARINT);
+    private static final int YEAR = tag(2, WireFormat.WIRETYPE_VARINT);
+    private static final int MONTH = tag(3, WireFormat.WIRETYPE_VARINT);
+    private static final int TOTAL = tag(4, WireFormat.WIRETYPE_VARINT);
+    private static final int ENERGY_CONSUMED = tag(5, WireFormat.WIRETYPE_VARINT);
+    private static final int MONTHLY_ENERGY_CONSUMPTION = tag(6, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int METER_ID = tag(7, WireFormat.WIRETYPE_VARINT);
+
+    private static final int MAP_KEY = tag(1, WireFormat.WIRETYPE_VARINT);
+    private static final int MAP_VALUE = tag(2, WireFormat.WIRETYPE_VARINT);
+
+    private static final int READINGS = tag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private MeterReadingProtobufCodec() {
+    }
+
+    /**
+     * Writes <i>MeterReading</i> message.
+     *
+     * @param meterReading Meter reading
+     * @param out Output stream
+     * @throws IOException if message can not be written
+     */
+    public static void writeMeterReading(MeterReadingDTO meterReading, CodedOutputStream out) throws IOException {
+        if (nonNull(meterReading.getId()))
+            out.writeInt64(1, meterReading.getId());
+        if (nonNull(meterReading.getYear()))
+            out.writeInt32(2, meterReading.getYear());
+        if (nonNull(meterReading.getMonth()))
+            out.writeInt32(3, meterReading.getMonth());
+        if (nonNull(meterReading.getTotal()))
+            out.writeInt64(4, meterReading.getTotal());
+        if (nonNull(meterReading.getEnergyConsumed()))
+            out.writeInt32(5, meterReading.getEnergyConsumed());
+        if (nonNull(meterReading.getMonthlyEnergyConsumption()))
+            for (Map.Entry<String, Integer> month : meterReading.getMonthlyEnergyConsumption().entrySet())
+                writeMonth(MeterReadingMapper.monthNumber(month.getKey()), month.getValue(), out);
+        if (nonNull(meterReading.getMeterId()))
+            out.writeInt64(7, meterReading.getMeterId());
+    }
+
+    /**
+     * Writes {@link YearConsumptionDTO} as <i>MeterReading</i> message, months are written in calendar order.
+     *
+     * @param yearConsumption Yearly meter readings or yearly consumption
+     * @param out Output stream
+     * @throws IOException if message can not be written
+     */
+    public static void writeYearConsumption(YearConsumptionDTO yearConsumption, CodedOutputStream out)
+            throws IOException {
+        out.writeInt32(2, yearConsumption.getYear());
+        if (nonNull(yearConsumption.getTotal()))
+            out.writeInt64(4, yearConsumption.getTotal());
+        for (int month = 1; month <= 12; month++)
+            if (yearConsumption.hasMonth(month))
+                writeMonth(month, yearConsumption.getEnergyConsumed(month), out);
+    }
+
+    /**
+     * Writes <i>MeterReadings</i> message.
+     *
+     * @param meterReadings Meter readings
+     * @param out Output stream
+     * @throws IOException if message can not be written
+     */
+    public static void writeMeterReadings(List<MeterReadingDTO> meterReadings, CodedOutputStream out)
+            throws IOException {
+        for (MeterReadingDTO meterReading : meterReadings) {
+            out.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(meterReadingSize(meterReading));
+            writeMeterReading(meterReading, out);
+        }
+    }
+
+    /**
+     * Writes <i>BatchResult</i> message.
+     *
+     * @param batchResult Result of saving meter readings in batch
+     * @param out Output stream
+     * @throws IOException if message can not be written
+     */
+    public static void writeBatchResult(BatchResultDTO batchResult, CodedOutputStream out) throws IOException {
+        if (nonNull(batchResult.getReceived()))
+            out.writeInt32(1, batchResult.getReceived());
+        if (nonNull(batchResult.getCreated()))
+            out.writeInt32(2, batchResult.getCreated());
+        if (nonNull(batchResult.getRejected()))
+            out.writeInt32(3, batchResult.getRejected());
+        if (nonNull(batchResult.getItems()))
+            for (BatchItemResultDTO item : batchResult.getItems()) {
+                out.writeTag(4, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(batchItemResultSize(item));
+                writeBatchItemResult(item, out);
+            }
+    }
+
+    /**
+     * Writes <i>ApiError</i> message.
+     *
+     * @param error Error response
+     * @param out Output stream
+     * @throws IOException if message can not be written
+     */
+    public static void writeApiError(ApiExceptionResponse error, CodedOutputStream out) throws IOException {
+        if (nonNull(error.getStatus()))
+            out.writeString(1, error.getStatus().name());
+        if (nonNull(error.getMessage()))
+            out.writeString(2, error.getMessage());
+        if (nonNull(error.getTime()))
+            out.writeString(3, error.getTime().toString());
+    }
+
+    /**
+     * Reads <i>MeterReading</i> message until the end of the stream or the current limit. Unknown fields are skipped.
+     *
+     * @param in Input stream
+     * @return Meter reading
+     * @throws IOException if message can not be read
+     */
+    public static MeterReadingDTO readMeterReading(CodedInputStream in) throws IOException {
+        MeterReadingDTO meterReading = new MeterReadingDTO();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            if (tag == ID)
+                meterReading.setId(in.readInt64());
+            else if (tag == YEAR)
+                meterReading.setYear(in.readInt32());
+            else if (tag == MONTH)
+                meterReading.setMonth(in.readInt32());
+            else if (tag == TOTAL)
+                meterReading.setTotal(in.readInt64());
+            else if (tag == ENERGY_CONSUMED)
+                meterReading.setEnergyConsumed(in.readInt32());
+            else if (tag == MONTHLY_ENERGY_CONSUMPTION)
+                readMonth(in, meterReading);
+            else if (tag == METER_ID)
+                meterReading.setMeterId(in.readInt64());
+            else
+                in.skipField(tag);
+        }
+        return meterReading;
+    }
+
+    /**
+     * Reads <i>MeterReadings</i> message until the end of the stream. Unknown fields are skipped.
+     *
+     * @param in Input stream
+     * @return Meter readings
+     * @throws IOException if message can not be read
+     */
+    public static List<MeterReadingDTO> readMeterReadings(CodedInputStream in) throws IOException {
+        List<MeterReadingDTO> meterReadings = new ArrayList<>();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            if (tag != READINGS) {
+                in.skipField(tag);
+                continue;
+            }
+
+            int limit = in.pushLimit(in.readRawVarint32());
+            meterReadings.add(readMeterReading(in));
+            in.popLimit(limit);
+        }
+        return meterReadings;
+    }
+
+    /**
+     * @param meterReading Meter reading
+     * @return Size of encoded <i>MeterReading</i> message in bytes
+     */
+    public static int meterReadingSize(MeterReadingDTO meterReading) {
+        int size = 0;
+        if (nonNull(meterReading.getId()))
+            size += CodedOutputStream.computeInt64Size(1, meterReading.getId());
+        if (nonNull(meterReading.getYear()))
+            size += CodedOutputStream.computeInt32Size(2, meterReading.getYear());
+        if (nonNull(meterReading.getMonth()))
+            size += CodedOutputStream.computeInt32Size(3, meterReading.getMonth());
+        if (nonNull(meterReading.getTotal()))
+            size += CodedOutputStream.computeInt64Size(4, meterReading.getTotal());
+        if (nonNull(meterReading.getEnergyConsumed()))
+            size += CodedOutputStream.computeInt32Size(5, meterReading.getEnergyConsumed());
+        if (nonNull(meterReading.getMonthlyEnergyConsumption()))
+            for (Map.Entry<String, Integer> month : meterReading.getMonthlyEnergyConsumption().entrySet()) {
+                int entrySize = monthEntrySize(MeterReadingMapper.monthNumber(month.getKey()), month.getValue());
+                size += CodedOutputStream.computeTagSize(6) + CodedOutputStream.computeUInt32SizeNoTag(entrySize)
+                        + entrySize;
+            }
+        if (nonNull(meterReading.getMeterId()))
+            size += CodedOutputStream.computeInt64Size(7, meterReading.getMeterId());
+        return size;
+    }
+
+    private static void writeBatchItemResult(BatchItemResultDTO item, CodedOutputStream out) throws IOException {
+        if (nonNull(item.getIndex()))
+            out.writeInt32(1, item.getIndex());
+        if (nonNull(item.getStatus()))
+            out.writeString(2, item.getStatus().name());
+        if (nonNull(item.getMessage()))
+            out.writeString(3, item.getMessage());
+    }
+
+    private static int batchItemResultSize(BatchItemResultDTO item) {
+        int size = 0;
+        if (nonNull(item.getIndex()))
+            size += CodedOutputStream.computeInt32Size(1, item.getIndex());
+        if (nonNull(item.getStatus()))
+            size += CodedOutputStream.computeStringSize(2, item.getStatus().name());
+        if (nonNull(item.getMessage()))
+            size += CodedOutputStream.computeStringSize(3, item.getMessage());
+        return size;
+    }
+
+    private static void writeMonth(int month, int energyConsumed, CodedOutputStream out) throws IOException {
+        out.writeTag(6, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(monthEntrySize(month, energyConsumed));
+        out.writeInt32(1, month);
+        out.writeInt32(2, energyConsumed);
+    }
+
+    private static int monthEntrySize(int month, int energyConsumed) {
+        return CodedOutputStream.computeInt32Size(1, month) + CodedOutputStream.computeInt32Size(2, energyConsumed);
+    }
+
+    /**
+     * Map entry without key or value has default value of the missing one, as any other Protobuf map.
+     */
+    private static void readMonth(CodedInputStream in, MeterReadingDTO meterReading) throws IOException {
+        int limit = in.pushLimit(in.readRawVarint32());
+        int month = 0;
+        int energyConsumed = 0;
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            if (tag == MAP_KEY)
+                month = in.readInt32();
+            else if (tag == MAP_VALUE)
+                energyConsumed = in.readInt32();
+            else
+                in.skipField(tag);
+        }
+        in.popLimit(limit);
+
+        if (meterReading.getMonthlyEnergyConsumption() == null)
+            meterReading.setMonthlyEnergyConsumption(new HashMap<>());
+        meterReading.getMonthlyEnergyConsumption().put(MeterReadingMapper.monthName(month), energyConsumed);
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return fieldNumber << 3 | wireType;
+    }
+}
@@ -0,0 +1,105 @@
+package dev.scibaric.meterreadings.converter;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.exception.ApiExceptionResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes meter readings, yearly meter readings, yearly consumption, results of batches and errors as
+ * Protobuf messages of <i>static/proto/meter_readings.proto</i> schema with content type <i>application/x-protobuf</i>.
+ * Requests with {@link MeterReadingDTO} or list of them can be read, {@link MeterReadingDTO},
+ * {@link YearConsumptionDTO}, {@link BatchResultDTO} and {@link ApiExceptionResponse} can be written. Messages are encoded by {@link MeterReadingProtobufCodec}.
+ */
+public class MeterReadingProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int BUFFER_SIZE = 4_096;
+
+    /**
+     * Yearly consumption with all twelve months and error with usual message fit in buffer of this size.
+     */
+    private static final int SMALL_BUFFER_SIZE = 256;
+
+    public MeterReadingProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == MeterReadingDTO.class || clazz == YearConsumptionDTO.class
+                || clazz == BatchResultDTO.class || clazz == ApiExceptionResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == MeterReadingDTO.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return (type == MeterReadingDTO.class || isMeterReadingList(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(inputMessage.getBody(), BUFFER_SIZE);
+        try {
+            return isMeterReadingList(type)
+                    ? MeterReadingProtobufCodec.readMeterReadings(in)
+                    : MeterReadingProtobufCodec.readMeterReading(in);
+        } catch (IOException | RuntimeException e) {
+            throw new HttpMessageNotReadableException("Protobuf message is not valid: " + e.getMessage(), e,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof MeterReadingDTO meterReading) {
+            int size = MeterReadingProtobufCodec.meterReadingSize(meterReading);
+            CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), Math.max(size, 1));
+            MeterReadingProtobufCodec.writeMeterReading(meterReading, out);
+            out.flush();
+            return;
+        }
+
+        if (body instanceof BatchResultDTO batchResult) {
+            CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), BUFFER_SIZE);
+            MeterReadingProtobufCodec.writeBatchResult(batchResult, out);
+            out.flush();
+            return;
+        }
+
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), SMALL_BUFFER_SIZE);
+        if (body instanceof YearConsumptionDTO yearConsumption)
+            MeterReadingProtobufCodec.writeYearConsumption(yearConsumption, out);
+        else
+            MeterReadingProtobufCodec.writeApiError((ApiExceptionResponse) body, out);
+        out.flush();
+    }
+
+    private static boolean isMeterReadingList(Type type) {
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvableType.toClass())
+                && resolvableType.getGeneric(0).toClass() == MeterReadingDTO.class;
+    }
+}
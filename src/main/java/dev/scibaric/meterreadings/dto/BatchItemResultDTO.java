@@ -0,0 +1,46 @@
+package dev.scibaric.meterreadings.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * DTO holding result of saving one meter reading from a batch request.
+ */
+@Data
+@Schema
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDTO {
+    @Schema(description = "Position of meter reading in the request", example = "0", minimum = "0")
+    private Integer index;
+    @Schema(description = "Result of saving meter reading", example = "CREATED")
+    private Status status;
+    @Schema(description = "Reason why meter reading was rejected",
+            example = "Meter reading for meter id 1, year 2020 and month January already exists")
+    private String message;
+
+    public BatchItemResultDTO() {
+    }
+
+    public BatchItemResultDTO(Integer index, Status status, String message) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BatchItemResultDTO created(int index) {
+        return new BatchItemResultDTO(index, Status.CREATED, null);
+    }
+
+    public static BatchItemResultDTO rejected(int index, String message) {
+        return new BatchItemResultDTO(index, Status.REJECTED, message);
+    }
+
+    /**
+     * Result of saving one meter reading.
+     */
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+}
@@ -0,0 +1,33 @@
+package dev.scibaric.meterreadings.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO holding result of saving many meter readings in one request. There is one {@link BatchItemResultDTO} for every
+ * meter reading in the request, in the same order.
+ */
+@Data
+@Schema
+public class BatchResultDTO {
+    @Schema(description = "Number of meter readings in the request", example = "3")
+    private Integer received;
+    @Schema(description = "Number of saved meter readings", example = "2")
+    private Integer created;
+    @Schema(description = "Number of rejected meter readings", example = "1")
+    private Integer rejected;
+    @Schema(description = "Result per meter reading")
+    private List<BatchItemResultDTO> items;
+
+    public BatchResultDTO() {
+    }
+
+    public BatchResultDTO(List<BatchItemResultDTO> items) {
+        this.items = items;
+        this.received = items.size();
+        this.created = (int) items.stream().filter(i -> i.getStatus() == BatchItemResultDTO.Status.CREATED).count();
+        this.rejected = received - created;
+    }
+}
@@ -0,0 +1,45 @@
+package dev.scibaric.meterreadings.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO holding consumption of many meters in range of months. Consumption per meter is streamed to the client as it
+ * is read from the database, so {@link #meters} is set only in API documentation and number of meters and grand
+ * total are written after all meters.
+ */
+@Data
+@Schema
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FleetConsumptionDTO {
+    @Schema(description = "First year, inclusive", example = "2020")
+    private Integer fromYear;
+    @Schema(description = "First month of first year, inclusive", example = "1")
+    private Integer fromMonth;
+    @Schema(description = "Last year, inclusive", example = "2021")
+    private Integer toYear;
+    @Schema(description = "Last month of last year, inclusive", example = "12")
+    private Integer toMonth;
+    @Schema(description = "Consumption per meter ordered by meter id, meters without meter readings are left out")
+    private List<MeterConsumptionDTO> meters;
+    @Schema(description = "Number of meters with meter readings", example = "2")
+    private Long meterCount;
+    @Schema(description = "Energy consumed by all meters", example = "400")
+    private Long grandTotal;
+
+    public FleetConsumptionDTO() {
+    }
+
+    public FleetConsumptionDTO(Integer fromYear, Integer fromMonth, Integer toYear, Integer toMonth, Long meterCount,
+                               Long grandTotal) {
+        this.fromYear = fromYear;
+        this.fromMonth = fromMonth;
+        this.toYear = toYear;
+        this.toMonth = toMonth;
+        this.meterCount = meterCount;
+        this.grandTotal = grandTotal;
+    }
+}
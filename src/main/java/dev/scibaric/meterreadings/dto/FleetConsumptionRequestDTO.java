@@ -0,0 +1,38 @@
+package dev.scibaric.meterreadings.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * DTO with meter ids and range of months for aggregating consumption of many meters.
+ */
+@Data
+@Schema
+public class FleetConsumptionRequestDTO {
+    @Schema(description = "Meter ids, consumption of all meters is aggregated if not set", example = "[1, 2, 3]")
+    private Set<Long> meterIds;
+    @Schema(description = "First year, inclusive", example = "2020", minimum = "0")
+    private Integer fromYear;
+    @Schema(description = "First month of first year, inclusive, January if not set", example = "1",
+            minimum = "1", maximum = "12")
+    private Integer fromMonth;
+    @Schema(description = "Last year, inclusive", example = "2021", minimum = "0")
+    private Integer toYear;
+    @Schema(description = "Last month of last year, inclusive, December if not set", example = "12",
+            minimum = "1", maximum = "12")
+    private Integer toMonth;
+
+    public FleetConsumptionRequestDTO() {
+    }
+
+    public FleetConsumptionRequestDTO(Set<Long> meterIds, Integer fromYear, Integer fromMonth, Integer toYear,
+                                      Integer toMonth) {
+        this.meterIds = meterIds;
+        this.fromYear = fromYear;
+        this.fromMonth = fromMonth;
+        this.toYear = toYear;
+        this.toMonth = toMonth;
+    }
+}
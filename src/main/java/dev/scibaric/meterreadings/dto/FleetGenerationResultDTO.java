@@ -0,0 +1,29 @@
+package dev.scibaric.meterreadings.dto;
+
+import lombok.Data;
+
+/**
+ * DTO holding result of generating fleet of meters with meter readings.
+ */
+@Data
+public class FleetGenerationResultDTO {
+    private Long firstMeterId;
+    private Long lastMeterId;
+    private Long meterReadings;
+    private Integer chunks;
+    private Long durationMillis;
+    private Long rowsPerSecond;
+
+    public FleetGenerationResultDTO() {
+    }
+
+    public FleetGenerationResultDTO(Long firstMeterId, Long lastMeterId, Long meterReadings, Integer chunks,
+                                    Long durationMillis, Long rowsPerSecond) {
+        this.firstMeterId = firstMeterId;
+        this.lastMeterId = lastMeterId;
+        this.meterReadings = meterReadings;
+        this.chunks = chunks;
+        this.durationMillis = durationMillis;
+        this.rowsPerSecond = rowsPerSecond;
+    }
+}
@@ -0,0 +1,70 @@
+package dev.scibaric.meterreadings.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import dev.scibaric.meterreadings.importer.ImportFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO holding result of streaming import of meter readings. Failed import can be resumed from
+ * <i>committedOffset</i>, all records up to and including that offset are stored or rejected.
+ */
+@Data
+@Schema
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportResultDTO {
+    @Schema(description = "Format of imported records", example = "CSV")
+    private ImportFormat format;
+    @Schema(description = "Number of skipped records at the start of import", example = "0", minimum = "0")
+    private Long startOffset;
+    @Schema(description = "Offset of the last record which is stored or rejected", example = "250000")
+    private Long committedOffset;
+    @Schema(description = "Number of records read after start offset", example = "250000")
+    private Long read = 0L;
+    @Schema(description = "Number of stored meter readings", example = "249998")
+    private Long imported = 0L;
+    @Schema(description = "Number of rejected records", example = "2")
+    private Long rejected = 0L;
+    @Schema(description = "Duration of import in milliseconds", example = "4120")
+    private Long durationMillis;
+    @Schema(description = "Number of read records per second", example = "60679")
+    private Long recordsPerSecond;
+    @Schema(description = "True if all records are read", example = "true")
+    private Boolean completed = false;
+    @Schema(description = "Reason why import stopped before all records are read")
+    private String error;
+    @Schema(description = "Rejected records, list is limited to configured number of records")
+    private List<RejectedRecordDTO> rejectedRecords = new ArrayList<>();
+
+    public ImportResultDTO() {
+    }
+
+    public ImportResultDTO(ImportFormat format, Long startOffset) {
+        this.format = format;
+        this.startOffset = startOffset;
+        this.committedOffset = startOffset;
+    }
+
+    /**
+     * Record which is not stored and reason why.
+     */
+    @Data
+    @Schema
+    public static class RejectedRecordDTO {
+        @Schema(description = "Offset of rejected record", example = "17")
+        private Long offset;
+        @Schema(description = "Reason of rejection", example = "Month must be between 1 and 12")
+        private String message;
+
+        public RejectedRecordDTO() {
+        }
+
+        public RejectedRecordDTO(Long offset, String message) {
+            this.offset = offset;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dev.scibaric.meterreadings.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * DTO holding energy consumed by meter in one 15 minute interval.
+ */
+@Data
+@Schema
+public class IntervalReadingDTO {
+    @Schema(description = "Start of 15 minute interval", example = "2020-01-01T00:15:00Z")
+    private Instant readAt;
+    @Schema(description = "Energy consumed in interval", example = "2", minimum = "0")
+    private Integer energyConsumed;
+
+    public IntervalReadingDTO() {
+    }
+
+    public IntervalReadingDTO(Instant readAt, Integer energyConsumed) {
+        this.readAt = readAt;
+        this.energyConsumed = energyConsumed;
+    }
+}
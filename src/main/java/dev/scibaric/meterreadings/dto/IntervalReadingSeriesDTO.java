@@ -0,0 +1,68 @@
+package dev.scibaric.meterreadings.dto;
+
+import dev.scibaric.meterreadings.model.IntervalConsumption;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO holding interval readings of one meter in range of time as columnar series. Start of every interval, hour, day
+ * or month is stored at the same position in {@link #timestamps} as energy consumed in it in {@link #energyConsumed},
+ * ordered by time.
+ */
+@Data
+@Schema
+public class IntervalReadingSeriesDTO {
+    @Schema(description = "Meter id", example = "1")
+    private Long meterId;
+    @Schema(description = "Start of range, inclusive", example = "2020-01-01T00:00:00Z")
+    private Instant from;
+    @Schema(description = "End of range, exclusive", example = "2020-01-02T00:00:00Z")
+    private Instant to;
+    @Schema(description = "Resolution of values", example = "HOUR")
+    private IntervalResolution resolution;
+    @Schema(description = "Start of interval, hour, day or month of every value",
+            example = "[\"2020-01-01T00:00:00Z\", \"2020-01-01T01:00:00Z\"]")
+    private Instant[] timestamps;
+    @Schema(description = "Energy consumed, at the same position as its timestamp", example = "[7, 5]")
+    private long[] energyConsumed;
+
+    public IntervalReadingSeriesDTO() {
+    }
+
+    public IntervalReadingSeriesDTO(Long meterId, Instant from, Instant to, IntervalResolution resolution,
+                                    Instant[] timestamps, long[] energyConsumed) {
+        this.meterId = meterId;
+        this.from = from;
+        this.to = to;
+        this.resolution = resolution;
+        this.timestamps = timestamps;
+        this.energyConsumed = energyConsumed;
+    }
+
+    /**
+     * Creates series from interval consumptions ordered by time.
+     *
+     * @param meterId Meter id
+     * @param from Start of range, inclusive
+     * @param to End of range, exclusive
+     * @param resolution Resolution of values
+     * @param intervalConsumptions Interval consumptions ordered by time
+     * @return {@link IntervalReadingSeriesDTO}
+     */
+    public static IntervalReadingSeriesDTO of(Long meterId, Instant from, Instant to, IntervalResolution resolution,
+                                              List<IntervalConsumption> intervalConsumptions) {
+        Instant[] timestamps = new Instant[intervalConsumptions.size()];
+        long[] energyConsumed = new long[intervalConsumptions.size()];
+
+        for (int i = 0; i < intervalConsumptions.size(); i++) {
+            timestamps[i] = intervalConsumptions.get(i).from();
+            energyConsumed[i] = intervalConsumptions.get(i).energyConsumed();
+        }
+
+        return new IntervalReadingSeriesDTO(meterId, from, to, resolution, timestamps, energyConsumed);
+    }
+}
@@ -0,0 +1,27 @@
+package dev.scibaric.meterreadings.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * DTO holding result of saving interval readings of one meter.
+ */
+@Data
+@Schema
+public class IntervalReadingsResultDTO {
+    @Schema(description = "Meter id", example = "1")
+    private Long meterId;
+    @Schema(description = "Number of saved interval readings, new or replaced", example = "96")
+    private Integer saved;
+    @Schema(description = "Number of monthly meter readings derived again from interval readings", example = "1")
+    private Integer monthsDerived;
+
+    public IntervalReadingsResultDTO() {
+    }
+
+    public IntervalReadingsResultDTO(Long meterId, Integer saved, Integer monthsDerived) {
+        this.meterId = meterId;
+        this.saved = saved;
+        this.monthsDerived = monthsDerived;
+    }
+}
@@ -0,0 +1,27 @@
+package dev.scibaric.meterreadings.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * DTO holding consumption of one meter in range of months.
+ */
+@Data
+@Schema
+public class MeterConsumptionDTO {
+    @Schema(description = "Meter id", example = "1")
+    private Long meterId;
+    @Schema(description = "Energy consumed in range of months", example = "195")
+    private Long total;
+    @Schema(description = "Number of months with meter reading", example = "12")
+    private Integer monthCount;
+
+    public MeterConsumptionDTO() {
+    }
+
+    public MeterConsumptionDTO(Long meterId, Long total, Integer monthCount) {
+        this.meterId = meterId;
+        this.total = total;
+        this.monthCount = monthCount;
+    }
+}
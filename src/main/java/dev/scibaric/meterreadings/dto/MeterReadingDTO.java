@@ -21,7 +21,7 @@ public class MeterReadingDTO {
     @Schema(description = "Meter reading month", example = "2", minimum = "1", maximum = "12")
     private Integer month;
     @Schema(description = "Meter reading aggregate energy consumed", example = "195")
-    private Integer total;
+    private Long total;
     @Schema(description = "Meter reading energy consumed", example = "23", minimum = "0")
     private Integer energyConsumed;
     @Schema(description = "Meter reading energy consumed per month", example = "January: 23", minimum = "0")
@@ -0,0 +1,62 @@
+package dev.scibaric.meterreadings.dto;
+
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO holding meter readings of one meter in range of years as columnar series. Month of every meter reading is
+ * encoded as <i>year * 100 + month</i> and stored at the same position in {@link #yearMonths} as its energy consumed
+ * in {@link #energyConsumed}, ordered by year and month.
+ */
+@Data
+@Schema
+public class MeterReadingSeriesDTO {
+    @Schema(description = "Meter id", example = "1")
+    private Long meterId;
+    @Schema(description = "First year, inclusive", example = "2015")
+    private Integer fromYear;
+    @Schema(description = "Last year, inclusive", example = "2025")
+    private Integer toYear;
+    @Schema(description = "Months of meter readings encoded as year * 100 + month", example = "[202001, 202002]")
+    private int[] yearMonths;
+    @Schema(description = "Energy consumed per month, at the same position as its month", example = "[11, 14]")
+    private int[] energyConsumed;
+
+    public MeterReadingSeriesDTO() {
+    }
+
+    public MeterReadingSeriesDTO(Long meterId, Integer fromYear, Integer toYear, int[] yearMonths,
+                                 int[] energyConsumed) {
+        this.meterId = meterId;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.yearMonths = yearMonths;
+        this.energyConsumed = energyConsumed;
+    }
+
+    /**
+     * Creates series from monthly consumptions ordered by year and month.
+     *
+     * @param meterId Meter id
+     * @param fromYear First year, inclusive
+     * @param toYear Last year, inclusive
+     * @param monthlyConsumptions Monthly consumptions ordered by year and month
+     * @return {@link MeterReadingSeriesDTO}
+     */
+    public static MeterReadingSeriesDTO of(Long meterId, Integer fromYear, Integer toYear,
+                                           List<MonthlyConsumption> monthlyConsumptions) {
+        int[] yearMonths = new int[monthlyConsumptions.size()];
+        int[] energyConsumed = new int[monthlyConsumptions.size()];
+
+        for (int i = 0; i < monthlyConsumptions.size(); i++) {
+            MonthlyConsumption monthlyConsumption = monthlyConsumptions.get(i);
+            yearMonths[i] = monthlyConsumption.year() * 100 + monthlyConsumption.month();
+            energyConsumed[i] = monthlyConsumption.energyConsumed();
+        }
+
+        return new MeterReadingSeriesDTO(meterId, fromYear, toYear, yearMonths, energyConsumed);
+    }
+}
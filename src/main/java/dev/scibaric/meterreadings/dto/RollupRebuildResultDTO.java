@@ -0,0 +1,22 @@
+package dev.scibaric.meterreadings.dto;
+
+import lombok.Data;
+
+/**
+ * DTO holding result of rebuilding all rollups of yearly consumption.
+ */
+@Data
+public class RollupRebuildResultDTO {
+    private Integer chunks;
+    private Long rollups;
+    private Long durationMillis;
+
+    public RollupRebuildResultDTO() {
+    }
+
+    public RollupRebuildResultDTO(Integer chunks, Long rollups, Long durationMillis) {
+        this.chunks = chunks;
+        this.rollups = rollups;
+        this.durationMillis = durationMillis;
+    }
+}
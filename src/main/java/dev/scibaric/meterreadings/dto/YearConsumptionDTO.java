@@ -0,0 +1,139 @@
+package dev.scibaric.meterreadings.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable DTO holding energy consumed by meter in months of one year and/or total of the year, returned by API
+ * version 2. Months are kept in fixed array indexed by month instead of map keyed by month name, so no map entries,
+ * boxed values or month names are created per request. It is written by {@link YearConsumptionSerializer} in the
+ * same JSON shape as {@link MeterReadingDTO} of API version 1.
+ */
+@JsonSerialize(using = YearConsumptionSerializer.class)
+public final class YearConsumptionDTO {
+
+    private static final int ABSENT = -1;
+
+    private final int year;
+
+    private final int[] energyConsumed;
+
+    private final Long total;
+
+    private YearConsumptionDTO(int year, int[] energyConsumed, Long total) {
+        this.year = year;
+        this.energyConsumed = energyConsumed;
+        this.total = total;
+    }
+
+    /**
+     * @param year Year
+     * @param total Energy consumed in the year
+     * @return {@link YearConsumptionDTO} with total only
+     */
+    public static YearConsumptionDTO ofTotal(int year, long total) {
+        return new YearConsumptionDTO(year, null, total);
+    }
+
+    /**
+     * @param year Year
+     * @return {@link Builder} of energy consumed per month
+     */
+    public static Builder builder(int year) {
+        return new Builder(year);
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return true if energy consumed per month is present
+     */
+    public boolean hasMonths() {
+        return energyConsumed != null;
+    }
+
+    /**
+     * @param month Month, between one and twelve
+     * @return true if energy consumed in month is present
+     */
+    public boolean hasMonth(int month) {
+        return energyConsumed != null && energyConsumed[month - 1] != ABSENT;
+    }
+
+    /**
+     * @param month Month, between one and twelve
+     * @return Energy consumed in month, it must be checked with {@link #hasMonth(int)} first
+     */
+    public int getEnergyConsumed(int month) {
+        return energyConsumed[month - 1];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof YearConsumptionDTO that))
+            return false;
+        return year == that.year && Arrays.equals(energyConsumed, that.energyConsumed)
+                && Objects.equals(total, that.total);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * year + Arrays.hashCode(energyConsumed)) + Objects.hashCode(total);
+    }
+
+    @Override
+    public String toString() {
+        return "YearConsumptionDTO(year=" + year + ", energyConsumed=" + Arrays.toString(energyConsumed)
+                + ", total=" + total + ")";
+    }
+
+    /**
+     * Collects energy consumed per month, built {@link YearConsumptionDTO} takes over its array so builder must not
+     * be used after {@link #build()}.
+     */
+    public static final class Builder {
+
+        private final int year;
+
+        private final int[] energyConsumed = new int[12];
+
+        private boolean empty = true;
+
+        private Builder(int year) {
+            this.year = year;
+            Arrays.fill(energyConsumed, ABSENT);
+        }
+
+        /**
+         * @param month Month, between one and twelve
+         * @param energyConsumed Energy consumed in month, greater than or equal zero
+         * @return This builder
+         */
+        public Builder month(int month, int energyConsumed) {
+            this.energyConsumed[month - 1] = energyConsumed;
+            this.empty = false;
+            return this;
+        }
+
+        /**
+         * @return true if no month is added
+         */
+        public boolean isEmpty() {
+            return empty;
+        }
+
+        public YearConsumptionDTO build() {
+            return new YearConsumptionDTO(year, energyConsumed, null);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package dev.scibaric.meterreadings.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dev.scibaric.meterreadings.mapper.MeterReadingMapper;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link YearConsumptionDTO} in the same JSON shape as {@link MeterReadingDTO} without reflection. Field and
+ * month names are encoded once, months are written in calendar order.
+ */
+public class YearConsumptionSerializer extends StdSerializer<YearConsumptionDTO> {
+
+    private static final SerializedString YEAR = new SerializedString("year");
+
+    private static final SerializedString TOTAL = new SerializedString("total");
+
+    private static final SerializedString MONTHLY_ENERGY_CONSUMPTION = new SerializedString("monthlyEnergyConsumption");
+
+    private static final SerializedString[] MONTH_NAMES = new SerializedString[12];
+
+    static {
+        for (int month = 1; month <= 12; month++)
+            MONTH_NAMES[month - 1] = new SerializedString(MeterReadingMapper.monthName(month));
+    }
+
+    public YearConsumptionSerializer() {
+        super(YearConsumptionDTO.class);
+    }
+
+    @Override
+    public void serialize(YearConsumptionDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName(YEAR);
+        gen.writeNumber(value.getYear());
+
+        if (value.getTotal() != null) {
+            gen.writeFieldName(TOTAL);
+            gen.writeNumber(value.getTotal());
+        }
+
+        if (value.hasMonths()) {
+            gen.writeFieldName(MONTHLY_ENERGY_CONSUMPTION);
+            gen.writeStartObject();
+            for (int month = 1; month <= 12; month++) {
+                if (value.hasMonth(month)) {
+                    gen.writeFieldName(MONTH_NAMES[month - 1]);
+                    gen.writeNumber(value.getEnergyConsumed(month));
+                }
+            }
+            gen.writeEndObject();
+        }
+
+        gen.writeEndObject();
+    }
+}
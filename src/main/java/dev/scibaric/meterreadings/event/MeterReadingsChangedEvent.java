@@ -0,0 +1,18 @@
+package dev.scibaric.meterreadings.event;
+
+import dev.scibaric.meterreadings.model.MeterYear;
+
+import java.util.Set;
+
+/**
+ * Event published when meter readings are saved, updated or deleted. It contains meter ids and years whose
+ * consumption changed, so data derived from meter readings can be refreshed.
+ *
+ * @param meterYears Meter ids and years of changed meter readings
+ */
+public record MeterReadingsChangedEvent(Set<MeterYear> meterYears) {
+
+    public static MeterReadingsChangedEvent of(Long meterId, Integer year) {
+        return new MeterReadingsChangedEvent(Set.of(new MeterYear(meterId, year)));
+    }
+}
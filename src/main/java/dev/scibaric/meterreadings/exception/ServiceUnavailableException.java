@@ -0,0 +1,22 @@
+package dev.scibaric.meterreadings.exception;
+
+
+/**
+ * Exception raised when request can not be accepted at the moment, but it can be repeated later.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException() {
+    }
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ServiceUnavailableException(Throwable cause) {
+        super(cause);
+    }
+}
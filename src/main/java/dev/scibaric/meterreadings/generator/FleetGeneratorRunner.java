@@ -0,0 +1,46 @@
+package dev.scibaric.meterreadings.generator;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.service.FleetGeneratorService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Year;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Generates synthetic fleet on application startup when <i>meter-readings.generator.meters</i> is set. Used for
+ * loading large datasets for benchmarks and load tests from command line, for example:
+ * <pre>
+ * java -jar meter-readings.jar --spring.main.web-application-type=none \
+ *     --meter-readings.generator.meters=1000000 --meter-readings.generator.from-year=2014
+ * </pre>
+ * Meter readings are generated for ten years before the current year when years are not set.
+ */
+@Component
+@ConditionalOnProperty(prefix = "meter-readings.generator", name = "meters")
+public class FleetGeneratorRunner implements ApplicationRunner {
+
+    private static final int DEFAULT_YEARS = 10;
+
+    private final FleetGeneratorService generatorService;
+
+    private final MeterReadingsProperties properties;
+
+    public FleetGeneratorRunner(FleetGeneratorService generatorService, MeterReadingsProperties properties) {
+        this.generatorService = generatorService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        MeterReadingsProperties.Generator generator = properties.getGenerator();
+        int toYear = nonNull(generator.getToYear()) ? generator.getToYear() : Year.now().getValue() - 1;
+        int fromYear = nonNull(generator.getFromYear()) ? generator.getFromYear() : toYear - DEFAULT_YEARS + 1;
+
+        generatorService.generate(generator.getMeters(), fromYear, toYear);
+    }
+}
@@ -0,0 +1,58 @@
+package dev.scibaric.meterreadings.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Model of monthly electricity consumption of a household. Every meter has its own base load, consumption is highest
+ * in January and lowest in July, changes a little from year to year and every month has random noise. Consumption
+ * of meter is derived from seed and meter id only, so the same fleet is generated again with the same seed.
+ */
+public class SeasonalConsumptionModel {
+
+    private static final int MIN_BASE_LOAD = 150;
+
+    private static final int MAX_BASE_LOAD = 450;
+
+    private static final double SEASONAL_AMPLITUDE = 0.35;
+
+    private static final double YEARLY_CHANGE = 0.05;
+
+    private static final double MONTHLY_NOISE = 0.1;
+
+    private static final double[] SEASONAL_FACTORS = new double[12];
+
+    static {
+        for (int month = 0; month < 12; month++)
+            SEASONAL_FACTORS[month] = 1 + SEASONAL_AMPLITUDE * Math.cos(2 * Math.PI * month / 12);
+    }
+
+    private final long seed;
+
+    public SeasonalConsumptionModel(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param meterId Meter id
+     * @param fromYear First year, inclusive
+     * @param toYear Last year, inclusive
+     * @return Energy consumed by meter in every month of the years, month of year is at index
+     * <i>(year - fromYear) * 12 + month - 1</i>
+     */
+    public int[] energyConsumed(long meterId, int fromYear, int toYear) {
+        SplittableRandom random = new SplittableRandom(seed * 31 + meterId);
+        double baseLoad = MIN_BASE_LOAD + random.nextDouble() * (MAX_BASE_LOAD - MIN_BASE_LOAD);
+        int[] energyConsumed = new int[(toYear - fromYear + 1) * 12];
+
+        for (int year = 0; year <= toYear - fromYear; year++) {
+            double yearlyLoad = baseLoad * (1 + (random.nextDouble() * 2 - 1) * YEARLY_CHANGE);
+
+            for (int month = 0; month < 12; month++) {
+                double noise = 1 + (random.nextDouble() * 2 - 1) * MONTHLY_NOISE;
+                energyConsumed[year * 12 + month] = (int) Math.round(yearlyLoad * SEASONAL_FACTORS[month] * noise);
+            }
+        }
+
+        return energyConsumed;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.scibaric.meterreadings.importer;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+/**
+ * Formats of meter readings accepted by streaming import. Every record is on its own line.
+ * <ul>
+ *     <li><b>NDJSON</b> - one JSON object per line with fields <i>meterId</i>, <i>year</i>, <i>month</i> and
+ *     <i>energyConsumed</i></li>
+ *     <li><b>CSV</b> - header line naming columns <i>meterId</i>, <i>year</i>, <i>month</i> and
+ *     <i>energyConsumed</i> in any order, followed by one record per line</li>
+ * </ul>
+ */
+public enum ImportFormat {
+    NDJSON("application/x-ndjson", ".ndjson", ".jsonl"),
+    CSV("text/csv", ".csv");
+
+    private final MediaType mediaType;
+
+    private final String[] extensions;
+
+    ImportFormat(String mediaType, String... extensions) {
+        this.mediaType = MediaType.valueOf(mediaType);
+        this.extensions = extensions;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Resolves format from content type of the request.
+     *
+     * @param contentType Content type
+     * @throws IllegalArgumentException If content type is not supported
+     * @return {@link ImportFormat}
+     */
+    public static ImportFormat fromContentType(String contentType) {
+        MediaType requested = MediaType.valueOf(contentType);
+
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(requested))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        String.format("Content type %s is not supported for import", contentType)));
+    }
+
+    /**
+     * Resolves format from extension of the file name.
+     *
+     * @param fileName File name
+     * @throws IllegalArgumentException If extension is not supported
+     * @return {@link ImportFormat}
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase();
+
+        return Arrays.stream(values())
+                .filter(format -> Arrays.stream(format.extensions).anyMatch(name::endsWith))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        String.format("Format of file %s can not be resolved from extension", fileName)));
+    }
+}
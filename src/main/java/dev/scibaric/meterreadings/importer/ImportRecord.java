@@ -0,0 +1,13 @@
+package dev.scibaric.meterreadings.importer;
+
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+
+/**
+ * One record read from imported meter readings.
+ *
+ * @param offset Position of record in the import, first record has offset 1
+ * @param meterReading Parsed meter reading, null if record is malformed
+ * @param error Reason why record could not be parsed, null if record is parsed
+ */
+public record ImportRecord(long offset, MeterReadingDTO meterReading, String error) {
+}
@@ -0,0 +1,74 @@
+package dev.scibaric.meterreadings.importer;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.ImportResultDTO;
+import dev.scibaric.meterreadings.service.MeterReadingImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Imports meter readings from file on application startup when <i>meter-readings.importer.file</i> is set. Used for
+ * loading historical data from command line, for example:
+ * <pre>
+ * java -jar meter-readings.jar --spring.main.web-application-type=none \
+ *     --meter-readings.importer.file=/data/readings.csv --meter-readings.importer.offset=0
+ * </pre>
+ * Result of import is logged, failed import can be resumed by setting offset to logged committed offset.
+ */
+@Component
+@ConditionalOnProperty(prefix = "meter-readings.importer", name = "file")
+public class MeterReadingImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MeterReadingImportRunner.class);
+
+    private final MeterReadingImportService importService;
+
+    private final MeterReadingsProperties properties;
+
+    public MeterReadingImportRunner(MeterReadingImportService importService, MeterReadingsProperties properties) {
+        this.importService = importService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        MeterReadingsProperties.Importer importer = properties.getImporter();
+        Path file = Path.of(importer.getFile());
+        ImportFormat format = nonNull(importer.getFormat())
+                ? importer.getFormat()
+                : ImportFormat.fromFileName(file.getFileName().toString());
+
+        log.info("Importing meter readings from {} in {} format starting after offset {}",
+                file, format, importer.getOffset());
+
+        ImportResultDTO result;
+
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            result = importService.importMeterReadings(inputStream, format, importer.getOffset());
+        }
+
+        log.info("Import of meter readings from {} {}: read {}, imported {}, rejected {}, committed offset {}, " +
+                        "{} ms, {} records/s",
+                file, result.getCompleted() ? "completed" : "stopped", result.getRead(), result.getImported(),
+                result.getRejected(), result.getCommittedOffset(), result.getDurationMillis(),
+                result.getRecordsPerSecond());
+
+        result.getRejectedRecords().forEach(rejected ->
+                log.warn("Rejected record at offset {}: {}", rejected.getOffset(), rejected.getMessage()));
+
+        if (!result.getCompleted())
+            throw new IllegalStateException(String.format(
+                    "Import of meter readings stopped after offset %d: %s",
+                    result.getCommittedOffset(), result.getError()));
+    }
+}
@@ -0,0 +1,113 @@
+package dev.scibaric.meterreadings.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads meter readings record by record from {@link InputStream} in {@link ImportFormat}. Only one line is held in
+ * memory at a time, so input of any size can be read. Blank lines are skipped and are not counted as records.
+ */
+public class MeterReadingRecordReader implements Closeable {
+
+    private static final List<String> CSV_COLUMNS = List.of("meterid", "year", "month", "energyconsumed");
+
+    private final BufferedReader reader;
+
+    private final ImportFormat format;
+
+    private final ObjectMapper objectMapper;
+
+    private int[] csvColumnPositions;
+
+    private int csvColumnCount;
+
+    private long offset;
+
+    public MeterReadingRecordReader(InputStream inputStream, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads next record. Malformed record is returned with error instead of meter reading.
+     *
+     * @throws IOException If input can not be read
+     * @throws IllegalArgumentException If CSV header does not contain all columns
+     * @return {@link ImportRecord} or null if there are no more records
+     */
+    public ImportRecord next() throws IOException {
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank())
+                continue;
+
+            if (format == ImportFormat.CSV && csvColumnPositions == null) {
+                csvColumnPositions = parseCsvHeader(line);
+                csvColumnCount = line.split(",").length;
+                continue;
+            }
+
+            offset++;
+
+            try {
+                return new ImportRecord(offset, parse(line), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRecord(offset, null, String.format("Malformed record: %s", e.getOriginalMessage()));
+            } catch (IllegalArgumentException e) {
+                return new ImportRecord(offset, null, String.format("Malformed record: %s", e.getMessage()));
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private MeterReadingDTO parse(String line) throws JsonProcessingException {
+        if (format == ImportFormat.NDJSON)
+            return objectMapper.readValue(line, MeterReadingDTO.class);
+
+        String[] values = line.split(",", -1);
+
+        if (values.length < csvColumnCount)
+            throw new IllegalArgumentException(String.format("Expected %d columns", csvColumnCount));
+
+        return new MeterReadingDTO(
+                parseInteger(values[csvColumnPositions[1]]),
+                parseInteger(values[csvColumnPositions[2]]),
+                parseInteger(values[csvColumnPositions[3]]),
+                parseLong(values[csvColumnPositions[0]]));
+    }
+
+    private int[] parseCsvHeader(String line) {
+        List<String> header = Arrays.stream(line.split(","))
+                .map(column -> column.trim().replace("_", "").toLowerCase())
+                .toList();
+
+        int[] positions = CSV_COLUMNS.stream().mapToInt(header::indexOf).toArray();
+
+        if (Arrays.stream(positions).anyMatch(position -> position < 0))
+            throw new IllegalArgumentException("CSV header must contain columns meterId, year, month and energyConsumed");
+
+        return positions;
+    }
+
+    private static Integer parseInteger(String value) {
+        return value.isBlank() ? null : Integer.valueOf(value.trim());
+    }
+
+    private static Long parseLong(String value) {
+        return value.isBlank() ? null : Long.valueOf(value.trim());
+    }
+}
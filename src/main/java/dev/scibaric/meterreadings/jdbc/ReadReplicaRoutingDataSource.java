@@ -0,0 +1,226 @@
+package dev.scibaric.meterreadings.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DataSource} which gives connections of read-only transactions from PostgreSQL read replicas and all other
+ * connections from the primary. Replicas are used in turns. Replica is not used until its first check passes, and
+ * replica which can not be reached, is not in recovery or lags behind the primary more than allowed is skipped until
+ * its next check, and the primary is used when no replica can be used. Transaction must be marked read-only before connection is requested, so this data source has to be
+ * wrapped in {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}. Reads which must see the
+ * latest changes are routed to the primary by {@link #setPrimaryRequired(boolean)}.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends DelegatingDataSource {
+
+    /**
+     * Returns WAL location of the primary which replica must have replayed to be up to date.
+     */
+    static final String PRIMARY_LSN_QUERY = "select pg_current_wal_lsn()";
+
+    /**
+     * Returns whether the server is a replica, whether it replayed WAL location of the primary given as parameter and
+     * seconds since it replayed the last transaction. Replica which replayed location of the primary read just before
+     * is up to date even when the primary is idle and nothing was replayed for a long time, while replica whose WAL
+     * receiver is disconnected or stalled does not replay it and its lag grows.
+     */
+    static final String LAG_QUERY = "select pg_is_in_recovery(), " +
+            "coalesce(pg_last_wal_replay_lsn() >= ?::pg_lsn, false), " +
+            "extract(epoch from now() - pg_last_xact_replay_timestamp())";
+
+    private static final ThreadLocal<Boolean> primaryRequired = new NamedThreadLocal<>("Primary required");
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long maxLagMillis;
+
+    private final long checkIntervalNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary Data source of the primary
+     * @param replicas Data sources of read replicas by their name
+     * @param maxLag Maximum replication lag of replica which is used
+     * @param checkInterval Time between checks of one replica
+     */
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                        Duration checkInterval) {
+        super(primary);
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxLagMillis = maxLag.toMillis();
+        this.checkIntervalNanos = checkInterval.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Routes read-only transactions of the current thread to the primary until it is reset, it must be reset in
+     * finally block.
+     *
+     * @param required True if connections must be given from the primary
+     */
+    public static void setPrimaryRequired(boolean required) {
+        if (required)
+            primaryRequired.set(Boolean.TRUE);
+        else
+            primaryRequired.remove();
+    }
+
+    /**
+     * @return True if connections of the current thread are given from the primary
+     */
+    public static boolean isPrimaryRequired() {
+        return primaryRequired.get() != null;
+    }
+
+    /**
+     * @return Number of replicas which were available at their last check
+     */
+    public int getAvailableReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.available).count();
+    }
+
+    private Connection getConnection(ConnectionSupplier supplier) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || isPrimaryRequired()
+                || replicas.isEmpty())
+            return supplier.get(obtainTargetDataSource());
+
+        int first = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(first + i, replicas.size()));
+            if (!replica.isAvailable())
+                continue;
+
+            try {
+                return supplier.get(replica.dataSource);
+            } catch (SQLException e) {
+                replica.markUnavailable(e.getMessage());
+            }
+        }
+
+        return supplier.get(obtainTargetDataSource());
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    private final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final AtomicBoolean checking = new AtomicBoolean();
+
+        private volatile boolean available;
+
+        private volatile boolean checked;
+
+        private volatile long checkedAt;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.checkedAt = System.nanoTime() - checkIntervalNanos;
+        }
+
+        /**
+         * Checks replica when its last check is older than check interval, only one thread checks it at once and the
+         * others use result of the last check.
+         */
+        private boolean isAvailable() {
+            if (System.nanoTime() - checkedAt >= checkIntervalNanos && checking.compareAndSet(false, true)) {
+                try {
+                    String reason = check();
+                    if (reason == null) {
+                        if (!available)
+                            log.info(checked ? "Read replica {} is available again" : "Read replica {} is available",
+                                    name);
+                        available = true;
+                        checked = true;
+                        checkedAt = System.nanoTime();
+                    } else {
+                        markUnavailable(reason);
+                    }
+                } finally {
+                    checking.set(false);
+                }
+            }
+
+            return available;
+        }
+
+        private void markUnavailable(String reason) {
+            if (available || !checked)
+                log.warn("Read replica {} is not used until its next check: {}", name, reason);
+            available = false;
+            checked = true;
+            checkedAt = System.nanoTime();
+        }
+
+        /**
+         * @return Reason why replica can not be used or null if it can be used
+         */
+        private String check() {
+            try {
+                String primaryLsn = primaryLsn();
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+                    statement.setString(1, primaryLsn);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        if (!rs.next() || !rs.getBoolean(1))
+                            return "server is not in recovery";
+                        if (rs.getBoolean(2))
+                            return null;
+
+                        double lagSeconds = rs.getDouble(3);
+                        if (rs.wasNull())
+                            return "no transaction was replayed";
+                        if (lagSeconds * 1_000 > maxLagMillis)
+                            return String.format("replication lag is %.1fs", lagSeconds);
+
+                        return null;
+                    }
+                }
+            } catch (SQLException e) {
+                return e.getMessage();
+            }
+        }
+
+        private String primaryLsn() throws SQLException {
+            try (Connection connection = obtainTargetDataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package dev.scibaric.meterreadings.journal;
+
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Durable queue of meter readings in memory-mapped file. File starts with header holding sequence number of the
+ * first meter reading which is not drained yet, followed by ring of fixed size records:
+ * <ul>
+ *     <li>sequence number of record, 8 bytes</li>
+ *     <li>meter id, 8 bytes</li>
+ *     <li>time of append in epoch milliseconds, 8 bytes</li>
+ *     <li>year, month and energy consumed, 4 bytes each</li>
+ *     <li>CRC32 of the previous bytes, 4 bytes</li>
+ * </ul>
+ * Record is forced to disk before {@link #append(MeterReadingKey, int, long)} returns. On open, records are read from
+ * the header sequence number while their sequence number follows and checksum matches, so records of previous rounds
+ * of the ring and record torn by crash end the journal. Appends may be called by many threads, reads and
+ * {@link #advance(int)} by one drainer.
+ */
+public final class MeterReadingJournal implements Closeable {
+
+    static final int HEADER_SIZE = 64;
+
+    static final int RECORD_SIZE = 40;
+
+    private static final int MAGIC = 0x4d524a31;
+
+    private static final int HEAD_OFFSET = 8;
+
+    private static final int CHECKSUM_OFFSET = 36;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final long capacity;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private volatile long head;
+
+    private volatile long tail;
+
+    private MeterReadingJournal(FileChannel channel, MappedByteBuffer buffer, long capacity, long head, long tail) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.head = head;
+        this.tail = tail;
+    }
+
+    /**
+     * Opens journal file or creates it if it does not exist. Existing journal keeps its size, so positions of its
+     * records do not change.
+     *
+     * @param path Path of journal file
+     * @param size Size of new journal file in bytes
+     * @return Journal with meter readings which were not drained before it was closed
+     * @throws IOException If file can not be opened or mapped
+     * @throws IllegalStateException If existing file is not a journal
+     */
+    public static MeterReadingJournal open(Path path, long size) throws IOException {
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        long fileSize = exists ? Files.size(path) : size;
+        if (fileSize < HEADER_SIZE + RECORD_SIZE || fileSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(
+                    String.format("Journal size must be between %d and %d bytes", HEADER_SIZE + RECORD_SIZE,
+                            Integer.MAX_VALUE));
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            long capacity = (fileSize - HEADER_SIZE) / RECORD_SIZE;
+
+            if (!exists) {
+                buffer.putInt(0, MAGIC);
+                buffer.putLong(HEAD_OFFSET, 0);
+                buffer.force(0, HEADER_SIZE);
+            } else if (buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException(String.format("File %s is not a meter readings journal", path));
+            }
+
+            long head = buffer.getLong(HEAD_OFFSET);
+            long tail = head;
+            while (tail - head < capacity && isValid(buffer, offset(tail, capacity), tail))
+                tail++;
+
+            return new MeterReadingJournal(channel, buffer, capacity, head, tail);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends meter reading and forces it to disk.
+     *
+     * @param key Meter id, year and month
+     * @param energyConsumed Energy consumed
+     * @param appendedAt Time of append in epoch milliseconds
+     * @return False if journal is full
+     */
+    public boolean append(MeterReadingKey key, int energyConsumed, long appendedAt) {
+        appendLock.lock();
+        try {
+            long sequence = tail;
+            if (sequence - head >= capacity)
+                return false;
+
+            int offset = offset(sequence, capacity);
+            buffer.putLong(offset, sequence);
+            buffer.putLong(offset + 8, key.meterId());
+            buffer.putLong(offset + 16, appendedAt);
+            buffer.putInt(offset + 24, key.year());
+            buffer.putInt(offset + 28, key.month());
+            buffer.putInt(offset + 32, energyConsumed);
+            buffer.putInt(offset + CHECKSUM_OFFSET, checksum(buffer, offset));
+            buffer.force(offset, RECORD_SIZE);
+
+            tail = sequence + 1;
+            return true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Reads meter readings from the start of journal without removing them.
+     *
+     * @param max Maximum number of meter readings
+     * @return The oldest meter readings which are not drained, in order of append
+     */
+    public List<MeterReadingJdbcRepository.Row> peek(int max) {
+        long from = head;
+        long to = Math.min(tail, from + max);
+        List<MeterReadingJdbcRepository.Row> rows = new ArrayList<>((int) (to - from));
+        for (long sequence = from; sequence < to; sequence++) {
+            int offset = offset(sequence, capacity);
+            rows.add(new MeterReadingJdbcRepository.Row(
+                    new MeterReadingKey(buffer.getLong(offset + 8), buffer.getInt(offset + 24),
+                            buffer.getInt(offset + 28)),
+                    buffer.getInt(offset + 32)));
+        }
+        return rows;
+    }
+
+    /**
+     * Removes <b>count</b> meter readings from the start of journal, they must be written to the database first.
+     * New start is forced to disk, so removed meter readings are not replayed.
+     *
+     * @param count Number of drained meter readings
+     */
+    public void advance(int count) {
+        long newHead = Math.min(head + count, tail);
+        buffer.putLong(HEAD_OFFSET, newHead);
+        buffer.force(0, HEADER_SIZE);
+        head = newHead;
+    }
+
+    /**
+     * @return Number of meter readings which are not drained
+     */
+    public long size() {
+        return tail - head;
+    }
+
+    /**
+     * @return Maximum number of meter readings in journal
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * @param now Current time in epoch milliseconds
+     * @return Time since the oldest meter reading which is not drained was appended, zero if journal is empty
+     */
+    public long lagMillis(long now) {
+        long sequence = head;
+        if (sequence == tail)
+            return 0;
+
+        return Math.max(0, now - buffer.getLong(offset(sequence, capacity) + 16));
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private static int offset(long sequence, long capacity) {
+        return (int) (HEADER_SIZE + (sequence % capacity) * RECORD_SIZE);
+    }
+
+    private static boolean isValid(MappedByteBuffer buffer, int offset, long sequence) {
+        return buffer.getLong(offset) == sequence && buffer.getInt(offset + CHECKSUM_OFFSET) == checksum(buffer, offset);
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+}
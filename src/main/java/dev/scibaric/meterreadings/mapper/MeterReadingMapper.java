@@ -0,0 +1,79 @@
+package dev.scibaric.meterreadings.mapper;
+
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
+
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maps {@link MonthlyConsumption} projections of meter readings to {@link MeterReadingDTO} returned by the REST API.
+ * Months are presented by their full English name.
+ */
+public final class MeterReadingMapper {
+
+    private static final String[] MONTH_NAMES = new String[12];
+
+    static {
+        for (Month month : Month.values())
+            MONTH_NAMES[month.ordinal()] = month.getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+    }
+
+    private MeterReadingMapper() {
+    }
+
+    /**
+     * @param month Month, between one and twelve
+     * @return Full English name of month, names are resolved once and shared
+     */
+    public static String monthName(Integer month) {
+        return MONTH_NAMES[Month.of(month).ordinal()];
+    }
+
+    /**
+     * @param monthName Full English name of month
+     * @return Month, between one and twelve
+     * @throws IllegalArgumentException if it is not a name of month
+     */
+    public static int monthNumber(String monthName) {
+        for (int i = 0; i < MONTH_NAMES.length; i++)
+            if (MONTH_NAMES[i].equals(monthName))
+                return i + 1;
+
+        throw new IllegalArgumentException(String.format("%s is not a name of month", monthName));
+    }
+
+    /**
+     * Maps meter readings of one meter and year to {@link MeterReadingDTO} with energy consumed per month name.
+     *
+     * @param year Year
+     * @param monthlyConsumptions Meter readings of one meter and year
+     * @return {@link MeterReadingDTO}
+     */
+    public static MeterReadingDTO toYearlyMeterReadingDTO(Integer year, List<MonthlyConsumption> monthlyConsumptions) {
+        Map<String, Integer> monthlyEnergyConsumption = monthlyConsumptions.stream()
+                .collect(Collectors.toMap(monthlyConsumption -> monthName(monthlyConsumption.month()),
+                        MonthlyConsumption::energyConsumed));
+
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
+        meterReadingDTO.setYear(year);
+        meterReadingDTO.setMonthlyEnergyConsumption(monthlyEnergyConsumption);
+
+        return meterReadingDTO;
+    }
+
+    /**
+     * Maps one meter reading to {@link MeterReadingDTO} with energy consumed of its month.
+     *
+     * @param monthlyConsumption Meter reading
+     * @return {@link MeterReadingDTO}
+     */
+    public static MeterReadingDTO toMeterReadingDTO(MonthlyConsumption monthlyConsumption) {
+        return new MeterReadingDTO(monthlyConsumption.year(),
+                Map.of(monthName(monthlyConsumption.month()), monthlyConsumption.energyConsumed()));
+    }
+}
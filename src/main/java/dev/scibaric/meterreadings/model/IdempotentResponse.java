@@ -0,0 +1,14 @@
+package dev.scibaric.meterreadings.model;
+
+/**
+ * Response of request with <i>Idempotency-Key</i> header which is replayed when request with the same key is
+ * repeated.
+ *
+ * @param requestHash Hash of method, path and body of request, request with the same key and different hash is
+ *                    rejected
+ * @param status Http status
+ * @param contentType Content type of body, null if response has no body
+ * @param body Body of response
+ */
+public record IdempotentResponse(long requestHash, int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,12 @@
+package dev.scibaric.meterreadings.model;
+
+import java.time.Instant;
+
+/**
+ * Energy consumed by meter in one interval or in sum of intervals of hour, day or month.
+ *
+ * @param from Start of interval, hour, day or month
+ * @param energyConsumed Energy consumed
+ */
+public record IntervalConsumption(Instant from, Long energyConsumed) {
+}
@@ -0,0 +1,14 @@
+package dev.scibaric.meterreadings.model;
+
+import java.time.Instant;
+
+/**
+ * Energy consumed by meter in one 15 minute interval, row of INTERVAL_READING table. There can be only one interval
+ * reading for meter id and start of interval.
+ *
+ * @param meterId Meter id
+ * @param readAt Start of interval
+ * @param energyConsumed Energy consumed in interval
+ */
+public record IntervalReading(Long meterId, Instant readAt, Integer energyConsumed) {
+}
@@ -0,0 +1,53 @@
+package dev.scibaric.meterreadings.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resolution to which interval readings are summed when they are read. Hours, days and months start in UTC, the same
+ * as partitions of interval readings and months derived from them.
+ */
+public enum IntervalResolution {
+    /**
+     * Interval readings as they are saved, one per 15 minutes.
+     */
+    RAW(null, Duration.ofMinutes(15)),
+    HOUR("hour", Duration.ofHours(1)),
+    DAY("day", Duration.ofDays(1)),
+    MONTH("month", null);
+
+    private final String field;
+
+    private final Duration duration;
+
+    IntervalResolution(String field, Duration duration) {
+        this.field = field;
+        this.duration = duration;
+    }
+
+    /**
+     * @return Field of PostgreSQL <i>date_trunc</i> function, null for {@link #RAW}
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @param from Start of range, inclusive
+     * @param to End of range, exclusive
+     * @return Number of intervals, hours, days or months which overlap range of time
+     */
+    public long countValues(Instant from, Instant to) {
+        Instant last = to.minusNanos(1);
+
+        if (duration == null)
+            return ChronoUnit.MONTHS.between(YearMonth.from(from.atOffset(ZoneOffset.UTC)),
+                    YearMonth.from(last.atOffset(ZoneOffset.UTC))) + 1;
+
+        long seconds = duration.toSeconds();
+        return Math.floorDiv(last.getEpochSecond(), seconds) - Math.floorDiv(from.getEpochSecond(), seconds) + 1;
+    }
+}
@@ -1,5 +1,6 @@
 package dev.scibaric.meterreadings.model;
 
+import dev.scibaric.meterreadings.cache.MeterEntityListener;
 import lombok.Data;
 
 import jakarta.persistence.*;
@@ -8,6 +9,7 @@ import java.util.Set;
 @Data
 @Entity
 @Table(name = "METER")
+@EntityListeners(MeterEntityListener.class)
 public class Meter {
 
     @Id
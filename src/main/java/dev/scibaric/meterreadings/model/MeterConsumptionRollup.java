@@ -0,0 +1,19 @@
+package dev.scibaric.meterreadings.model;
+
+/**
+ * Consumption of one meter in one year computed from its meter readings, one row of METER_CONSUMPTION_ROLLUP table.
+ *
+ * @param meterId Meter id
+ * @param year Year
+ * @param total Sum of energy consumed
+ * @param minEnergyConsumed Minimal monthly energy consumed
+ * @param maxEnergyConsumed Maximal monthly energy consumed
+ * @param monthCount Number of months with meter reading
+ */
+public record MeterConsumptionRollup(Long meterId,
+                                     Integer year,
+                                     Long total,
+                                     Integer minEnergyConsumed,
+                                     Integer maxEnergyConsumed,
+                                     Integer monthCount) {
+}
@@ -6,7 +6,11 @@ import jakarta.persistence.*;
 
 @Data
 @Entity
-@Table(name = "METER_READING")
+@Table(name = "METER_READING", uniqueConstraints = {
+        @UniqueConstraint(name = "UK_METER_READING_METER_ID_YEAR_MONTH",
+            columnNames = {"METER_ID", "YEAR", "MONTH"}
+        )
+})
 public class MeterReading {
 
     @Id
@@ -0,0 +1,11 @@
+package dev.scibaric.meterreadings.model;
+
+/**
+ * Natural key of {@link MeterReading}. There can be only one meter reading for meter id, year and month.
+ *
+ * @param meterId Meter id
+ * @param year Year
+ * @param month Month
+ */
+public record MeterReadingKey(Long meterId, Integer year, Integer month) {
+}
@@ -0,0 +1,14 @@
+package dev.scibaric.meterreadings.model;
+
+/**
+ * Meter id and year, key of yearly consumption of one meter.
+ *
+ * @param meterId Meter id
+ * @param year Year
+ */
+public record MeterYear(Long meterId, Integer year) {
+
+    public static MeterYear of(MeterReadingKey key) {
+        return new MeterYear(key.meterId(), key.year());
+    }
+}
@@ -0,0 +1,12 @@
+package dev.scibaric.meterreadings.model;
+
+import java.time.Instant;
+
+/**
+ * Version of meter readings of one meter in one year, it changes whenever its meter readings change.
+ *
+ * @param version Version, unique across all meters and years
+ * @param modifiedAt Time of the last change
+ */
+public record MeterYearVersion(long version, Instant modifiedAt) {
+}
@@ -0,0 +1,11 @@
+package dev.scibaric.meterreadings.model;
+
+/**
+ * Energy consumed by meter in one month, projection of {@link MeterReading} without its id and meter.
+ *
+ * @param year Year
+ * @param month Month
+ * @param energyConsumed Energy consumed
+ */
+public record MonthlyConsumption(Integer year, Integer month, Integer energyConsumed) {
+}
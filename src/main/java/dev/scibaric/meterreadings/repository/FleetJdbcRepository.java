@@ -0,0 +1,116 @@
+package dev.scibaric.meterreadings.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Repository designed to store generated fleet of clients, addresses, meters and meter readings to CLIENT, ADDRESS,
+ * METER and METER_READING tables with PostgreSQL <i>COPY</i>. Rows are written as CSV and streamed to the database
+ * while they are generated, so they are never held in memory.
+ */
+@Repository
+public class FleetJdbcRepository {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String SELECT_LAST_ID =
+            "select greatest((select max(id) from client), (select max(id) from address), (select max(id) from meter))";
+
+    private static final String DISABLE_SYNCHRONOUS_COMMIT = "set local synchronous_commit = off";
+
+    private static final String RESET_IDENTITY =
+            "select setval(pg_get_serial_sequence('%1$s', 'id'), (select max(id) from %1$s))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FleetJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return The greatest id of CLIENT, ADDRESS and METER tables or zero if they are empty
+     */
+    public long findLastId() {
+        Long lastId = jdbcTemplate.queryForObject(SELECT_LAST_ID, Long.class);
+        return lastId == null ? 0 : lastId;
+    }
+
+    /**
+     * Current transaction is committed without waiting for WAL flush. Generated fleet can be generated again if
+     * server crashes, so durability of the last commits is not needed. It must be called in transaction.
+     */
+    public void disableSynchronousCommit() {
+        jdbcTemplate.execute(DISABLE_SYNCHRONOUS_COMMIT);
+    }
+
+    /**
+     * Performing <i>COPY FROM STDIN</i> of rows written by <b>rows</b> to <b>table</b>. Rows are flushed to the
+     * database in buffers of 64 KB as they are written.
+     *
+     * @param table Table and its copied columns
+     * @param rows Writer of CSV rows
+     * @return Number of copied rows
+     */
+    public long copy(FleetTable table, CsvRows rows) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            PGCopyOutputStream copy = new PGCopyOutputStream(
+                    connection.unwrap(PGConnection.class), table.copySql, COPY_BUFFER_SIZE);
+
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8),
+                        COPY_BUFFER_SIZE);
+                rows.write(writer);
+                writer.flush();
+                return copy.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copy.isActive())
+                    copy.cancelCopy();
+            }
+        });
+    }
+
+    /**
+     * Identity of CLIENT, ADDRESS and METER tables continues after the greatest id, it is called after rows with
+     * given ids are copied.
+     */
+    public void resetIdentities() {
+        for (String table : new String[]{"client", "address", "meter"})
+            jdbcTemplate.queryForObject(String.format(RESET_IDENTITY, table), Long.class);
+    }
+
+    /**
+     * Tables of the fleet with their <i>COPY</i> statements.
+     */
+    public enum FleetTable {
+        CLIENT("copy client (id, name) from stdin with (format csv)"),
+        ADDRESS("copy address (id, street, house_no, city, client_id) from stdin with (format csv)"),
+        METER("copy meter (id, client_id) from stdin with (format csv)"),
+        METER_READING("copy meter_reading (meter_id, year, month, energy_consumed) from stdin with (format csv)");
+
+        private final String copySql;
+
+        FleetTable(String copySql) {
+            this.copySql = copySql;
+        }
+    }
+
+    /**
+     * Writes rows of one table as CSV lines.
+     */
+    @FunctionalInterface
+    public interface CsvRows {
+        void write(Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,109 @@
+package dev.scibaric.meterreadings.repository;
+
+import dev.scibaric.meterreadings.model.IdempotentResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository designed to fetch and store responses of requests with <i>Idempotency-Key</i> header to IDEMPOTENCY_KEY
+ * table in database, so they are replayed by every instance of the application and after restart.
+ */
+@Repository
+public class IdempotencyKeyJdbcRepository {
+
+    private static final String SELECT_RESPONSE =
+            "select request_hash, status, content_type, body from idempotency_key " +
+                    "where idempotency_key = ? and status <> 0 and created_at >= ?";
+
+    private static final String RESERVE_KEY =
+            "insert into idempotency_key (idempotency_key, request_hash, status, content_type, body, reserved_at) " +
+                    "values (?, ?, 0, null, '', now()) " +
+                    "on conflict (idempotency_key) do update set request_hash = excluded.request_hash, status = 0, " +
+                    "content_type = null, body = '', created_at = now(), reserved_at = now() " +
+                    "where idempotency_key.created_at < ? " +
+                    "or (idempotency_key.status = 0 and idempotency_key.reserved_at < ?)";
+
+    private static final String UPDATE_RESERVED_RESPONSE =
+            "update idempotency_key set request_hash = ?, status = ?, content_type = ?, body = ?, reserved_at = null " +
+                    "where idempotency_key = ? and status = 0";
+
+    private static final String INSERT_RESPONSE =
+            "insert into idempotency_key (idempotency_key, request_hash, status, content_type, body) " +
+                    "values (?, ?, ?, ?, ?) on conflict (idempotency_key) do nothing";
+
+    private static final String DELETE_RESERVATION =
+            "delete from idempotency_key where idempotency_key = ? and status = 0";
+
+    private static final String DELETE_CREATED_BEFORE = "delete from idempotency_key where created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Performing select query by primary key on IDEMPOTENCY_KEY table, reserved key without response is not returned.
+     * @param key Idempotency key
+     * @param createdAfter Responses stored before this time are expired and not returned
+     * @return {@link Optional} of {@link IdempotentResponse}, empty if response is not stored or it is expired
+     */
+    public Optional<IdempotentResponse> findById(String key, Instant createdAfter) {
+        return jdbcTemplate.query(SELECT_RESPONSE, (rs, rowNum) -> new IdempotentResponse(rs.getLong(1),
+                        rs.getInt(2), rs.getString(3), rs.getBytes(4)), key, Timestamp.from(createdAfter))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Performing insert of row with status 0 and empty body to IDEMPOTENCY_KEY table, so request with the key is
+     * processed by one instance only. Expired row of the key and reservation which was not completed in time, for
+     * example by instance which stopped while processing the request, are replaced.
+     * @param key Idempotency key
+     * @param requestHash Hash of request
+     * @param createdBefore Rows stored before this time are expired
+     * @param reservedBefore Reservations made before this time are abandoned
+     * @return True if key was reserved, false if it is reserved or its response is stored by other request
+     */
+    public boolean reserve(String key, long requestHash, Instant createdBefore, Instant reservedBefore) {
+        return jdbcTemplate.update(RESERVE_KEY, key, requestHash, Timestamp.from(createdBefore),
+                Timestamp.from(reservedBefore)) == 1;
+    }
+
+    /**
+     * Performing update of reserved row in IDEMPOTENCY_KEY table with response, or insert of response if key was not
+     * reserved. Response which is already stored for the key is kept.
+     * @param key Idempotency key
+     * @param response Response
+     * @return True if response was stored, false if other response is stored for the key
+     */
+    public boolean insert(String key, IdempotentResponse response) {
+        if (jdbcTemplate.update(UPDATE_RESERVED_RESPONSE, response.requestHash(), response.status(),
+                response.contentType(), response.body(), key) == 1)
+            return true;
+
+        return jdbcTemplate.update(INSERT_RESPONSE, key, response.requestHash(), response.status(),
+                response.contentType(), response.body()) == 1;
+    }
+
+    /**
+     * Performing delete of reserved row without response from IDEMPOTENCY_KEY table.
+     * @param key Idempotency key
+     */
+    public void deleteReservation(String key) {
+        jdbcTemplate.update(DELETE_RESERVATION, key);
+    }
+
+    /**
+     * Performing delete of responses stored before <b>createdBefore</b> from IDEMPOTENCY_KEY table.
+     * @param createdBefore Time before which responses are expired
+     * @return Number of deleted responses
+     */
+    public int deleteCreatedBefore(Instant createdBefore) {
+        return jdbcTemplate.update(DELETE_CREATED_BEFORE, Timestamp.from(createdBefore));
+    }
+}
@@ -0,0 +1,191 @@
+package dev.scibaric.meterreadings.repository;
+
+import java.util.Arrays;
+
+/**
+ * Gorilla-style compression of interval readings of one meter in one day (UTC). Start of interval is stored as slot,
+ * number of the quarter of an hour in the day, and energy consumed as 32 bit integer. Values are written to a bit
+ * stream in order of slots:
+ * <ul>
+ *     <li>first slot in 7 bits and first energy consumed in 32 bits</li>
+ *     <li>slot as delta of delta of slots, starting with delta one: <i>0</i> if the interval follows the same gap as
+ *     the previous one, <i>10</i> and 4 bits for small changes of the gap, <i>11</i> and 8 bits otherwise</li>
+ *     <li>energy consumed as XOR with the previous value: <i>0</i> if it is the same, <i>10</i> and meaningful bits if
+ *     they fit in window of leading and trailing zeros of the previous XOR, <i>11</i>, 5 bits of leading zeros,
+ *     5 bits of length and meaningful bits otherwise</li>
+ * </ul>
+ * Complete day of readings needs about one bit per slot and a few bits per changed value, instead of a row per
+ * interval reading.
+ */
+public final class IntervalBlockCodec {
+
+    /**
+     * Number of 15 minute intervals in one day.
+     */
+    public static final int SLOTS_PER_DAY = 96;
+
+    public static final int SLOT_SECONDS = 15 * 60;
+
+    private static final int SLOT_BITS = 7;
+
+    /**
+     * Upper bound of bits of one encoded interval reading, delta of delta of slot and XOR of value with new window.
+     */
+    private static final int MAX_BITS_PER_VALUE = 2 + 8 + 2 + 5 + 5 + 32;
+
+    private IntervalBlockCodec() {
+    }
+
+    /**
+     * Encodes the first <b>count</b> interval readings of one day.
+     *
+     * @param slots Slots of the day in ascending order, from 0 to {@link #SLOTS_PER_DAY} - 1
+     * @param values Energy consumed in slots
+     * @param count Number of interval readings
+     * @return Encoded block, empty if <b>count</b> is zero
+     */
+    public static byte[] encode(int[] slots, int[] values, int count) {
+        if (count == 0)
+            return new byte[0];
+
+        BitWriter out = new BitWriter((count * MAX_BITS_PER_VALUE + SLOT_BITS + 32) / 8 + 1);
+        out.write(slots[0], SLOT_BITS);
+        out.write(values[0], 32);
+
+        int previousDelta = 1;
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            int delta = slots[i] - slots[i - 1];
+            int deltaOfDelta = delta - previousDelta;
+            previousDelta = delta;
+
+            if (deltaOfDelta == 0) {
+                out.write(0, 1);
+            } else if (deltaOfDelta >= -7 && deltaOfDelta <= 8) {
+                out.write(0b10, 2);
+                out.write(deltaOfDelta + 7, 4);
+            } else {
+                out.write(0b11, 2);
+                out.write(deltaOfDelta + 127, 8);
+            }
+
+            int xor = values[i] ^ values[i - 1];
+            if (xor == 0) {
+                out.write(0, 1);
+                continue;
+            }
+
+            int leading = Integer.numberOfLeadingZeros(xor);
+            int trailing = Integer.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                out.write(0b10, 2);
+                out.write(xor >>> previousTrailing, 32 - previousLeading - previousTrailing);
+            } else {
+                int meaningful = 32 - leading - trailing;
+                out.write(0b11, 2);
+                out.write(leading, 5);
+                out.write(meaningful - 1, 5);
+                out.write(xor >>> trailing, meaningful);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes block of <b>count</b> interval readings into <b>slots</b> and <b>values</b>, which must have room for
+     * them. Arrays can be reused for every block, so decoding does not allocate.
+     *
+     * @param payload Encoded block
+     * @param count Number of interval readings in block
+     * @param slots Array for slots
+     * @param values Array for energy consumed
+     */
+    public static void decode(byte[] payload, int count, int[] slots, int[] values) {
+        if (count == 0)
+            return;
+
+        BitReader in = new BitReader(payload);
+        slots[0] = in.read(SLOT_BITS);
+        values[0] = in.read(32);
+
+        int previousDelta = 1;
+        int previousLeading = 0;
+        int previousTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            if (in.read(1) == 1)
+                previousDelta += in.read(1) == 0 ? in.read(4) - 7 : in.read(8) - 127;
+            slots[i] = slots[i - 1] + previousDelta;
+
+            if (in.read(1) == 0) {
+                values[i] = values[i - 1];
+                continue;
+            }
+
+            if (in.read(1) == 1) {
+                previousLeading = in.read(5);
+                previousTrailing = 32 - previousLeading - (in.read(5) + 1);
+            }
+            values[i] = values[i - 1] ^ (in.read(32 - previousLeading - previousTrailing) << previousTrailing);
+        }
+    }
+
+    private static final class BitWriter {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private BitWriter(int size) {
+            bytes = new byte[size];
+        }
+
+        /**
+         * Writes <b>length</b> lowest bits of <b>value</b>, most significant first.
+         */
+        private void write(int value, int length) {
+            while (length > 0) {
+                int free = 8 - (position & 7);
+                int taken = Math.min(free, length);
+                int bits = (value >>> (length - taken)) & ((1 << taken) - 1);
+                bytes[position >>> 3] |= (byte) (bits << (free - taken));
+                position += taken;
+                length -= taken;
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, (position + 7) >>> 3);
+        }
+    }
+
+    private static final class BitReader {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private BitReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Reads <b>length</b> bits as the lowest bits of returned value.
+         */
+        private int read(int length) {
+            int value = 0;
+            while (length > 0) {
+                int available = 8 - (position & 7);
+                int taken = Math.min(available, length);
+                int bits = (bytes[position >>> 3] >>> (available - taken)) & ((1 << taken) - 1);
+                value = (value << taken) | bits;
+                position += taken;
+                length -= taken;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package dev.scibaric.meterreadings.repository;
+
+import dev.scibaric.meterreadings.model.IntervalConsumption;
+import dev.scibaric.meterreadings.model.IntervalReading;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Repository of INTERVAL_BLOCK table, which stores interval readings of one meter in one day (UTC) as one row with
+ * block compressed by {@link IntervalBlockCodec}, their number and their sum. Row of complete day takes a few hundred
+ * bytes instead of 96 rows of INTERVAL_READING table and its index. Used instead of
+ * {@link IntervalReadingJdbcRepository} when <i>meter-readings.interval.storage</i> is <i>blocks</i>.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "meter-readings.interval", name = "storage", havingValue = "blocks")
+public class IntervalBlockJdbcRepository implements IntervalReadingRepository {
+
+    private static final String INSERT_EMPTY_BLOCK =
+            "insert into interval_block (meter_id, day, reading_count, total, payload) values (?, ?, 0, 0, '') " +
+                    "on conflict (meter_id, day) do nothing";
+
+    private static final String SELECT_BLOCKS_FOR_UPDATE =
+            "select day, reading_count, payload from interval_block " +
+                    "where meter_id = ? and day >= ? and day <= ? order by day for update";
+
+    private static final String UPDATE_BLOCK =
+            "update interval_block set reading_count = ?, total = ?, payload = ? where meter_id = ? and day = ?";
+
+    private static final String DERIVE_MONTH =
+            "insert into meter_reading (meter_id, year, month, energy_consumed) " +
+                    "select ?, ?, ?, sum(total) from interval_block " +
+                    "where meter_id = ? and day >= ? and day < ? and reading_count > 0 having count(*) > 0 " +
+                    "on conflict (meter_id, year, month) do update set energy_consumed = excluded.energy_consumed";
+
+    private static final String SELECT_BLOCKS =
+            "select day, reading_count, total, payload from interval_block " +
+                    "where meter_id = ? and day >= ? and day <= ? and reading_count > 0 order by day";
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private static final int SLOTS_PER_HOUR = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IntervalBlockJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * INTERVAL_BLOCK table is not partitioned, so nothing has to be created.
+     * @param months Months in UTC
+     * @return Always zero
+     */
+    @Override
+    public int createPartitions(Collection<YearMonth> months) {
+        return 0;
+    }
+
+    /**
+     * Merges <b>intervalReadings</b> into blocks of their meter and day. Missing blocks are inserted empty first, then
+     * all blocks of the meter are locked, decoded, merged with new interval readings, encoded and updated, so
+     * concurrent saves of the same days do not lose interval readings.
+     * @param intervalReadings Interval readings
+     * @param batchSize Number of rows in one JDBC batch
+     */
+    @Override
+    public void upsertAll(List<IntervalReading> intervalReadings, int batchSize) {
+        Map<Long, SortedMap<LocalDate, List<IntervalReading>>> readingsByMeter = intervalReadings.stream()
+                .collect(groupingBy(IntervalReading::meterId, TreeMap::new,
+                        groupingBy(intervalReading -> day(intervalReading.readAt()), TreeMap::new, toList())));
+
+        readingsByMeter.forEach((meterId, readingsByDay) -> upsertBlocks(meterId, readingsByDay, batchSize));
+    }
+
+    private void upsertBlocks(long meterId, SortedMap<LocalDate, List<IntervalReading>> readingsByDay,
+                              int batchSize) {
+        List<LocalDate> days = new ArrayList<>(readingsByDay.keySet());
+        jdbcTemplate.batchUpdate(INSERT_EMPTY_BLOCK, days, batchSize, (ps, day) -> {
+            ps.setLong(1, meterId);
+            ps.setObject(2, day);
+        });
+
+        Map<LocalDate, DayBlock> blocks = new HashMap<>();
+        int[] slots = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+        int[] values = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+        jdbcTemplate.query(SELECT_BLOCKS_FOR_UPDATE, (RowCallbackHandler) rs -> {
+            LocalDate day = rs.getObject(1, LocalDate.class);
+            if (!readingsByDay.containsKey(day))
+                return;
+
+            int count = rs.getInt(2);
+            IntervalBlockCodec.decode(rs.getBytes(3), count, slots, values);
+            DayBlock block = new DayBlock();
+            for (int i = 0; i < count; i++)
+                block.put(slots[i], values[i]);
+            blocks.put(day, block);
+        }, meterId, days.get(0), days.get(days.size() - 1));
+
+        readingsByDay.forEach((day, readings) -> {
+            DayBlock block = blocks.computeIfAbsent(day, d -> new DayBlock());
+            long dayStart = day.toEpochDay() * SECONDS_PER_DAY;
+            for (IntervalReading reading : readings)
+                block.put((int) ((reading.readAt().getEpochSecond() - dayStart) / IntervalBlockCodec.SLOT_SECONDS),
+                        reading.energyConsumed());
+        });
+
+        jdbcTemplate.batchUpdate(UPDATE_BLOCK, days, batchSize, (ps, day) -> {
+            DayBlock block = blocks.get(day);
+            int count = block.collect(slots, values);
+            ps.setInt(1, count);
+            ps.setLong(2, sum(values, 0, count));
+            ps.setBytes(3, IntervalBlockCodec.encode(slots, values, count));
+            ps.setLong(4, meterId);
+            ps.setObject(5, day);
+        });
+    }
+
+    /**
+     * Sums precomputed totals of blocks of every month of <b>months</b>, blocks are not decoded.
+     * @param meterId Meter id
+     * @param months Months in UTC
+     */
+    @Override
+    public void deriveMonthlyReadings(long meterId, Collection<YearMonth> months) {
+        jdbcTemplate.batchUpdate(DERIVE_MONTH, new ArrayList<>(months), months.size(), (ps, month) -> {
+            ps.setLong(1, meterId);
+            ps.setInt(2, month.getYear());
+            ps.setInt(3, month.getMonthValue());
+            ps.setLong(4, meterId);
+            ps.setObject(5, month.atDay(1));
+            ps.setObject(6, month.plusMonths(1).atDay(1));
+        });
+    }
+
+    /**
+     * Reads blocks of days in range one by one and sums them to <b>resolution</b> while they are read. Days which are
+     * completely in range are summed to days and months from totals of their blocks, other blocks are decoded into
+     * reused arrays and summed over ranges of slots.
+     * @param meterId Meter id
+     * @param from Start of range, inclusive
+     * @param to End of range, exclusive
+     * @param resolution Resolution of values
+     * @return Energy consumed per interval, hour, day or month which has interval readings
+     */
+    @Override
+    public List<IntervalConsumption> findConsumption(long meterId, Instant from, Instant to,
+                                                     IntervalResolution resolution) {
+        SeriesAggregator aggregator = new SeriesAggregator(from, to, resolution);
+        jdbcTemplate.query(SELECT_BLOCKS, aggregator, meterId, day(from), day(to.minusNanos(1)));
+        return aggregator.finish();
+    }
+
+    private static LocalDate day(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static long sum(int[] values, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++)
+            sum += values[i];
+        return sum;
+    }
+
+    /**
+     * Interval readings of one day indexed by slot.
+     */
+    private static final class DayBlock {
+
+        private final int[] values = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+
+        private final boolean[] present = new boolean[IntervalBlockCodec.SLOTS_PER_DAY];
+
+        private void put(int slot, int value) {
+            values[slot] = value;
+            present[slot] = true;
+        }
+
+        /**
+         * Copies interval readings ordered by slot to <b>slots</b> and <b>values</b>.
+         * @return Number of interval readings
+         */
+        private int collect(int[] slots, int[] values) {
+            int count = 0;
+            for (int slot = 0; slot < IntervalBlockCodec.SLOTS_PER_DAY; slot++) {
+                if (present[slot]) {
+                    slots[count] = slot;
+                    values[count] = this.values[slot];
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Sums interval readings of blocks to resolution as blocks are read in order of days. Values of the same hour,
+     * day or month are always next to each other, so only the current sum is kept.
+     */
+    private static final class SeriesAggregator implements RowCallbackHandler {
+
+        private final long from;
+
+        private final long to;
+
+        private final IntervalResolution resolution;
+
+        private final int[] slots = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+
+        private final int[] values = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+
+        private final List<IntervalConsumption> result = new ArrayList<>();
+
+        private long bucket = Long.MIN_VALUE;
+
+        private long sum;
+
+        private SeriesAggregator(Instant from, Instant to, IntervalResolution resolution) {
+            this.from = from.getEpochSecond();
+            this.to = to.getEpochSecond() + (to.getNano() > 0 ? 1 : 0);
+            this.resolution = resolution;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            LocalDate day = rs.getObject(1, LocalDate.class);
+            long dayStart = day.toEpochDay() * SECONDS_PER_DAY;
+            long dayBucket = resolution == IntervalResolution.MONTH
+                    ? day.withDayOfMonth(1).toEpochDay() * SECONDS_PER_DAY
+                    : dayStart;
+
+            boolean summedByDay = resolution == IntervalResolution.DAY || resolution == IntervalResolution.MONTH;
+            if (summedByDay && dayStart >= from && dayStart + SECONDS_PER_DAY <= to) {
+                add(dayBucket, rs.getLong(3));
+                return;
+            }
+
+            int count = rs.getInt(2);
+            IntervalBlockCodec.decode(rs.getBytes(4), count, slots, values);
+
+            int first = 0;
+            while (first < count && dayStart + (long) slots[first] * IntervalBlockCodec.SLOT_SECONDS < from)
+                first++;
+            int last = count;
+            while (last > first && dayStart + (long) slots[last - 1] * IntervalBlockCodec.SLOT_SECONDS >= to)
+                last--;
+
+            if (summedByDay) {
+                if (first < last)
+                    add(dayBucket, sum(values, first, last));
+                return;
+            }
+
+            int slotsPerBucket = resolution == IntervalResolution.HOUR ? SLOTS_PER_HOUR : 1;
+            int i = first;
+            while (i < last) {
+                int bucketSlot = slots[i] - slots[i] % slotsPerBucket;
+                int end = i + 1;
+                while (end < last && slots[end] < bucketSlot + slotsPerBucket)
+                    end++;
+                add(dayStart + (long) bucketSlot * IntervalBlockCodec.SLOT_SECONDS, sum(values, i, end));
+                i = end;
+            }
+        }
+
+        private void add(long bucket, long value) {
+            if (bucket != this.bucket) {
+                flush();
+                this.bucket = bucket;
+                this.sum = 0;
+            }
+            sum += value;
+        }
+
+        private void flush() {
+            if (bucket != Long.MIN_VALUE)
+                result.add(new IntervalConsumption(Instant.ofEpochSecond(bucket), sum));
+        }
+
+        private List<IntervalConsumption> finish() {
+            flush();
+            bucket = Long.MIN_VALUE;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package dev.scibaric.meterreadings.repository;
+
+import dev.scibaric.meterreadings.model.IntervalConsumption;
+import dev.scibaric.meterreadings.model.IntervalReading;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repository of INTERVAL_READING table, which is partitioned by month of <i>read_at</i> in UTC. Partition of month
+ * must exist before interval readings of the month are saved, see {@link #createPartitions(Collection)}. Rows are
+ * written and read with plain JDBC, the same as bulk meter readings in {@link MeterReadingJdbcRepository}. This is
+ * the default storage engine of interval readings.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "meter-readings.interval", name = "storage", havingValue = "rows",
+        matchIfMissing = true)
+public class IntervalReadingJdbcRepository implements IntervalReadingRepository {
+
+    private static final String CREATE_PARTITION = "select create_interval_reading_partition(?)";
+
+    private static final String LOCK_TIMEOUT = "set local lock_timeout = '5s'";
+
+    private static final String UPSERT_INTERVAL_READING =
+            "insert into interval_reading (meter_id, read_at, energy_consumed) values (?, ?, ?) " +
+                    "on conflict (meter_id, read_at) do update set energy_consumed = excluded.energy_consumed";
+
+    private static final String DERIVE_MONTH =
+            "insert into meter_reading (meter_id, year, month, energy_consumed) " +
+                    "select ?, ?, ?, sum(energy_consumed) from interval_reading " +
+                    "where meter_id = ? and read_at >= ? and read_at < ? having count(*) > 0 " +
+                    "on conflict (meter_id, year, month) do update set energy_consumed = excluded.energy_consumed";
+
+    private static final String SELECT_INTERVALS =
+            "select read_at, energy_consumed from interval_reading " +
+                    "where meter_id = ? and read_at >= ? and read_at < ? order by read_at";
+
+    private static final String SELECT_SUMMED_INTERVALS =
+            "select date_trunc('%s', read_at, 'UTC'), sum(energy_consumed) from interval_reading " +
+                    "where meter_id = ? and read_at >= ? and read_at < ? group by 1 order by 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Set<YearMonth> partitions = ConcurrentHashMap.newKeySet();
+
+    public IntervalReadingJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates partitions of <b>months</b> which do not exist yet. Creating partition locks the whole table, so it
+     * should be called in its own short transaction before interval readings are saved; waiting for the lock fails
+     * after five seconds instead of blocking readers of the table. Months whose partition is known to exist are
+     * skipped without querying the database.
+     * @param months Months in UTC
+     * @return Number of created partitions
+     */
+    @Override
+    public int createPartitions(Collection<YearMonth> months) {
+        List<YearMonth> missing = months.stream().filter(month -> !partitions.contains(month)).toList();
+        if (missing.isEmpty())
+            return 0;
+
+        jdbcTemplate.execute(LOCK_TIMEOUT);
+
+        int created = 0;
+        for (YearMonth month : missing)
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(CREATE_PARTITION, Boolean.class, month.atDay(1))))
+                created++;
+
+        partitions.addAll(missing);
+        return created;
+    }
+
+    /**
+     * Performing insert of all <b>intervalReadings</b> to INTERVAL_READING table, energy consumed of interval
+     * reading which already exists is replaced. Rows are sent to the database in JDBC batches of <b>batchSize</b>
+     * rows. There must not be two interval readings with the same meter id and start of interval.
+     * @param intervalReadings Interval readings
+     * @param batchSize Number of rows in one JDBC batch
+     */
+    @Override
+    public void upsertAll(List<IntervalReading> intervalReadings, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_INTERVAL_READING, intervalReadings, batchSize, (ps, intervalReading) -> {
+            ps.setLong(1, intervalReading.meterId());
+            ps.setObject(2, toOffsetDateTime(intervalReading.readAt()));
+            ps.setInt(3, intervalReading.energyConsumed());
+        });
+    }
+
+    /**
+     * Stores sum of interval readings of meter in every month of <b>months</b> as meter reading of the month in
+     * METER_READING table. Meter reading of the month is inserted or its energy consumed is replaced; months without
+     * interval readings are left as they are.
+     * @param meterId Meter id
+     * @param months Months in UTC
+     */
+    @Override
+    public void deriveMonthlyReadings(long meterId, Collection<YearMonth> months) {
+        jdbcTemplate.batchUpdate(DERIVE_MONTH, new ArrayList<>(months), months.size(), (ps, month) -> {
+            ps.setLong(1, meterId);
+            ps.setInt(2, month.getYear());
+            ps.setInt(3, month.getMonthValue());
+            ps.setLong(4, meterId);
+            ps.setObject(5, toOffsetDateTime(month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC)));
+            ps.setObject(6, toOffsetDateTime(month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC)));
+        });
+    }
+
+    /**
+     * Performing select query with parameters <b>meterId</b>, <b>from</b> and <b>to</b> on INTERVAL_READING table
+     * and returning interval readings summed to <b>resolution</b>, ordered by time. Only partitions of months in the
+     * range are read.
+     * @param meterId Meter id
+     * @param from Start of range, inclusive
+     * @param to End of range, exclusive
+     * @param resolution Resolution of values
+     * @return Energy consumed per interval, hour, day or month which has interval readings
+     */
+    @Override
+    public List<IntervalConsumption> findConsumption(long meterId, Instant from, Instant to,
+                                                     IntervalResolution resolution) {
+        String sql = resolution == IntervalResolution.RAW
+                ? SELECT_INTERVALS
+                : String.format(SELECT_SUMMED_INTERVALS, resolution.getField());
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new IntervalConsumption(
+                        rs.getObject(1, OffsetDateTime.class).toInstant(), rs.getLong(2)),
+                meterId, toOffsetDateTime(from), toOffsetDateTime(to));
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
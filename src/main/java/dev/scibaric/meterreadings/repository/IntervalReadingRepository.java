@@ -0,0 +1,53 @@
+package dev.scibaric.meterreadings.repository;
+
+import dev.scibaric.meterreadings.model.IntervalConsumption;
+import dev.scibaric.meterreadings.model.IntervalReading;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface repository designed to store 15 minute interval readings and read them summed to resolution. Interval
+ * readings are stored by one of the storage engines chosen with <i>meter-readings.interval.storage</i>:
+ * {@link IntervalReadingJdbcRepository} with one row per interval reading or {@link IntervalBlockJdbcRepository}
+ * with one compressed block per meter and day.
+ */
+public interface IntervalReadingRepository {
+
+    /**
+     * Prepares storage for interval readings of <b>months</b>. Must be called in its own short transaction before
+     * interval readings of the months are saved.
+     * @param months Months in UTC
+     * @return Number of created partitions
+     */
+    int createPartitions(Collection<YearMonth> months);
+
+    /**
+     * Stores all <b>intervalReadings</b>, energy consumed of interval reading which already exists is replaced. There
+     * must not be two interval readings with the same meter id and start of interval.
+     * @param intervalReadings Interval readings
+     * @param batchSize Number of rows in one JDBC batch
+     */
+    void upsertAll(List<IntervalReading> intervalReadings, int batchSize);
+
+    /**
+     * Stores sum of interval readings of meter in every month of <b>months</b> as meter reading of the month in
+     * METER_READING table. Months without interval readings are left as they are.
+     * @param meterId Meter id
+     * @param months Months in UTC
+     */
+    void deriveMonthlyReadings(long meterId, Collection<YearMonth> months);
+
+    /**
+     * Returns interval readings of meter in range of time summed to <b>resolution</b>, ordered by time.
+     * @param meterId Meter id
+     * @param from Start of range, inclusive
+     * @param to End of range, exclusive
+     * @param resolution Resolution of values
+     * @return Energy consumed per interval, hour, day or month which has interval readings
+     */
+    List<IntervalConsumption> findConsumption(long meterId, Instant from, Instant to, IntervalResolution resolution);
+}
@@ -0,0 +1,15 @@
+package dev.scibaric.meterreadings.repository;
+
+/**
+ * Storage engines of interval readings, chosen with <i>meter-readings.interval.storage</i>.
+ * <ul>
+ *     <li><b>ROWS</b> - one row per interval reading in month partitioned INTERVAL_READING table,
+ *     {@link IntervalReadingJdbcRepository}</li>
+ *     <li><b>BLOCKS</b> - one compressed block per meter and day in INTERVAL_BLOCK table,
+ *     {@link IntervalBlockJdbcRepository}</li>
+ * </ul>
+ */
+public enum IntervalStorage {
+    ROWS,
+    BLOCKS
+}
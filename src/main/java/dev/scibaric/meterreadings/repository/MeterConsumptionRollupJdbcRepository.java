@@ -0,0 +1,226 @@
+package dev.scibaric.meterreadings.repository;
+
+import dev.scibaric.meterreadings.dto.MeterConsumptionDTO;
+import dev.scibaric.meterreadings.model.MeterConsumptionRollup;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MeterYearVersion;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Repository designed to fetch and store data to METER_CONSUMPTION_ROLLUP table in database. Rollup of meter id and
+ * year is always computed from rows of METER_READING table, so it stays correct regardless of how meter readings
+ * were changed.
+ */
+@Repository
+public class MeterConsumptionRollupJdbcRepository {
+
+    /**
+     * Channel of notifications sent when rollups change, payload is <i>meterId:year</i> or
+     * {@link #ALL_METER_YEARS}.
+     */
+    public static final String CHANGES_CHANNEL = "meter_readings_changed";
+
+    /**
+     * Payload of notification sent when all rollups are rebuilt.
+     */
+    public static final String ALL_METER_YEARS = "*";
+
+    private static final String SELECT_ROLLUP =
+            "select meter_id, year, total, min_energy_consumed, max_energy_consumed, month_count " +
+                    "from meter_consumption_rollup where meter_id = ? and year = ?";
+
+    private static final String LOCK_METER_YEARS =
+            "select count(*) from (" +
+                    "select pg_advisory_xact_lock(hashint8(k.meter_id), k.year) " +
+                    "from unnest(?::bigint[], ?::integer[]) as k(meter_id, year) " +
+                    "order by k.meter_id, k.year) l";
+
+    private static final String UPSERT_ROLLUPS =
+            "insert into meter_consumption_rollup " +
+                    "(meter_id, year, total, min_energy_consumed, max_energy_consumed, month_count) " +
+                    "select mr.meter_id, mr.year, sum(mr.energy_consumed), min(mr.energy_consumed), " +
+                    "max(mr.energy_consumed), count(*) " +
+                    "from meter_reading mr " +
+                    "join unnest(?::bigint[], ?::integer[]) as k(meter_id, year) " +
+                    "on mr.meter_id = k.meter_id and mr.year = k.year " +
+                    "group by mr.meter_id, mr.year " +
+                    "on conflict (meter_id, year) do update set total = excluded.total, " +
+                    "min_energy_consumed = excluded.min_energy_consumed, " +
+                    "max_energy_consumed = excluded.max_energy_consumed, " +
+                    "month_count = excluded.month_count, " +
+                    "version = nextval('meter_consumption_rollup_version_seq'), modified_at = clock_timestamp()";
+
+    private static final String DELETE_EMPTY_ROLLUPS =
+            "delete from meter_consumption_rollup r " +
+                    "using unnest(?::bigint[], ?::integer[]) as k(meter_id, year) " +
+                    "where r.meter_id = k.meter_id and r.year = k.year " +
+                    "and not exists (select 1 from meter_reading mr " +
+                    "where mr.meter_id = r.meter_id and mr.year = r.year)";
+
+    private static final String NOTIFY_METER_YEARS =
+            "select count(pg_notify('" + CHANGES_CHANNEL + "', k.meter_id || ':' || k.year)) " +
+                    "from unnest(?::bigint[], ?::integer[]) as k(meter_id, year)";
+
+    private static final String NOTIFY_ALL =
+            "select pg_notify('" + CHANGES_CHANNEL + "', '" + ALL_METER_YEARS + "')";
+
+    private static final String SELECT_VERSION =
+            "select version, modified_at from meter_consumption_rollup where meter_id = ? and year = ?";
+
+    private static final String DELETE_ROLLUPS_IN_RANGE =
+            "delete from meter_consumption_rollup where meter_id >= ? and meter_id < ?";
+
+    private static final String INSERT_ROLLUPS_IN_RANGE =
+            "insert into meter_consumption_rollup " +
+                    "(meter_id, year, total, min_energy_consumed, max_energy_consumed, month_count) " +
+                    "select meter_id, year, sum(energy_consumed), min(energy_consumed), max(energy_consumed), " +
+                    "count(*) " +
+                    "from meter_reading where meter_id >= ? and meter_id < ? " +
+                    "group by meter_id, year " +
+                    "on conflict (meter_id, year) do nothing";
+
+    private static final String SELECT_YEARLY_CONSUMPTION =
+            "select meter_id, sum(total), sum(month_count) from meter_consumption_rollup where year between ? and ?";
+
+    private static final String METER_IDS_CONDITION = " and meter_id = any(?::bigint[])";
+
+    private static final String GROUP_BY_METER_ID = " group by meter_id order by meter_id";
+
+    private static final String SELECT_METER_ID_RANGE = "select min(id), max(id) from meter";
+
+    private static final RowMapper<MeterConsumptionRollup> ROLLUP_ROW_MAPPER = (rs, rowNum) ->
+            new MeterConsumptionRollup(rs.getLong("meter_id"), rs.getInt("year"), rs.getLong("total"),
+                    rs.getInt("min_energy_consumed"), rs.getInt("max_energy_consumed"), rs.getInt("month_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MeterConsumptionRollupJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Performing select query by primary key on METER_CONSUMPTION_ROLLUP table in read-only transaction, so it can
+     * be read from read replica.
+     * @param meterYear Meter id and year
+     * @return {@link Optional} of {@link MeterConsumptionRollup}, empty if meter has no meter readings in year
+     */
+    @Transactional(readOnly = true)
+    public Optional<MeterConsumptionRollup> findById(MeterYear meterYear) {
+        return jdbcTemplate.query(SELECT_ROLLUP, ROLLUP_ROW_MAPPER, meterYear.meterId(), meterYear.year())
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Performing select query by primary key on METER_CONSUMPTION_ROLLUP table returning only version of rollup.
+     * @param meterYear Meter id and year
+     * @return {@link Optional} of {@link MeterYearVersion}, empty if meter has no meter readings in year
+     */
+    public Optional<MeterYearVersion> findVersion(MeterYear meterYear) {
+        return jdbcTemplate.query(SELECT_VERSION, (rs, rowNum) -> new MeterYearVersion(rs.getLong("version"),
+                        rs.getTimestamp("modified_at").toInstant()), meterYear.meterId(), meterYear.year())
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Performing select query on METER_CONSUMPTION_ROLLUP table and passing consumption of every meter in range of
+     * whole years to <b>consumer</b> ordered by meter id, as rows are fetched from the database. Rows are fetched with
+     * cursor in pages of <b>fetchSize</b> rows, so it must be called in transaction.
+     * @param meterIds Meter ids, all meters if null
+     * @param fromYear First year, inclusive
+     * @param toYear Last year, inclusive
+     * @param fetchSize Number of rows fetched from the database at once
+     * @param consumer Consumer of consumption per meter
+     */
+    public void findYearlyConsumption(Collection<Long> meterIds, int fromYear, int toYear, int fetchSize,
+                                      Consumer<MeterConsumptionDTO> consumer) {
+        String sql = SELECT_YEARLY_CONSUMPTION + (nonNull(meterIds) ? METER_IDS_CONDITION : "") + GROUP_BY_METER_ID;
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(fetchSize);
+            ps.setInt(1, fromYear);
+            ps.setInt(2, toYear);
+            if (nonNull(meterIds))
+                ps.setArray(3, connection.createArrayOf("bigint", meterIds.toArray()));
+            return ps;
+        }, rs -> {
+            consumer.accept(new MeterConsumptionDTO(rs.getLong(1), rs.getLong(2), rs.getInt(3)));
+        });
+    }
+
+    /**
+     * Computes rollups of <b>meterYears</b> again from METER_READING table, rollups of meter ids and years without
+     * meter readings are deleted. Must be called in transaction which changed meter readings. Meter ids and years are
+     * locked with transaction level advisory locks first, so concurrent transactions changing meter readings of the
+     * same meter and year compute rollup one after another and each sees meter readings committed by the other.
+     * Notification with every meter id and year is sent on {@link #CHANGES_CHANNEL} when transaction is committed.
+     * @param meterYears Meter ids and years of changed meter readings
+     */
+    public void refresh(Collection<MeterYear> meterYears) {
+        if (meterYears.isEmpty())
+            return;
+
+        List<MeterYear> sorted = meterYears.stream()
+                .sorted(Comparator.comparing(MeterYear::meterId).thenComparing(MeterYear::year))
+                .toList();
+        PreparedStatementSetter keys = ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint",
+                    sorted.stream().map(MeterYear::meterId).toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer",
+                    sorted.stream().map(MeterYear::year).toArray()));
+        };
+
+        jdbcTemplate.query(LOCK_METER_YEARS, keys, rs -> null);
+        jdbcTemplate.update(UPSERT_ROLLUPS, keys);
+        jdbcTemplate.update(DELETE_EMPTY_ROLLUPS, keys);
+        jdbcTemplate.query(NOTIFY_METER_YEARS, keys, rs -> null);
+    }
+
+    /**
+     * Sends notification on {@link #CHANGES_CHANNEL} that all rollups changed.
+     */
+    public void notifyAllChanged() {
+        jdbcTemplate.query(NOTIFY_ALL, rs -> null);
+    }
+
+    /**
+     * Deletes rollups of meters with id from <b>fromMeterId</b> inclusive to <b>toMeterId</b> exclusive and computes
+     * them again from METER_READING table. Rollup which already exists when it is inserted again was written by
+     * {@link #refresh(Collection)} of transaction committed after rollups were deleted, so it is computed from the
+     * same meter readings and it is kept.
+     * @param fromMeterId First meter id, inclusive
+     * @param toMeterId Last meter id, exclusive
+     * @return Number of computed rollups
+     */
+    public int rebuild(long fromMeterId, long toMeterId) {
+        jdbcTemplate.update(DELETE_ROLLUPS_IN_RANGE, fromMeterId, toMeterId);
+        return jdbcTemplate.update(INSERT_ROLLUPS_IN_RANGE, fromMeterId, toMeterId);
+    }
+
+    /**
+     * Performing select query on METER table and returning the lowest and the highest meter id.
+     * @return {@link Optional} of array with the lowest and the highest meter id, empty if there are no meters
+     */
+    public Optional<long[]> findMeterIdRange() {
+        return Optional.ofNullable(jdbcTemplate.query(SELECT_METER_ID_RANGE, rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        }));
+    }
+}
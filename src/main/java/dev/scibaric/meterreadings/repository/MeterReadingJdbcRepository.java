@@ -0,0 +1,262 @@
+package dev.scibaric.meterreadings.repository;
+
+import dev.scibaric.meterreadings.dto.MeterConsumptionDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Repository designed to store many rows to METER_READING table in database with plain JDBC. Hibernate can not batch
+ * inserts of entities with identity generated ids, so rows are written with JDBC batches or PostgreSQL
+ * <i>COPY</i> instead.
+ */
+@Repository
+public class MeterReadingJdbcRepository {
+
+    private static final String INSERT_METER_READINGS_IF_ABSENT =
+            "insert into meter_reading (meter_id, year, month, energy_consumed) " +
+                    "select * from unnest(?::bigint[], ?::integer[], ?::integer[], ?::integer[]) " +
+                    "on conflict (meter_id, year, month) do nothing";
+
+    private static final String RETURNING_KEY = " returning meter_id, year, month";
+
+    private static final String CREATE_STAGING_TABLE =
+            "create temporary table meter_reading_staging " +
+                    "(meter_id bigint, year integer, month integer, energy_consumed integer) on commit drop";
+
+    private static final String COPY_METER_READING_STAGING =
+            "copy meter_reading_staging (meter_id, year, month, energy_consumed) from stdin with (format csv)";
+
+    private static final String INSERT_STAGED_METER_READINGS =
+            "insert into meter_reading (meter_id, year, month, energy_consumed) " +
+                    "select meter_id, year, month, energy_consumed from meter_reading_staging " +
+                    "on conflict (meter_id, year, month) do nothing returning meter_id, year, month";
+
+    private static final String DROP_STAGING_TABLE = "drop table meter_reading_staging";
+
+    private static final String SELECT_MONTHS_OF_YEAR =
+            "select month, energy_consumed from meter_reading where meter_id = ? and year = ?";
+
+    private static final String SELECT_MONTH =
+            "select energy_consumed from meter_reading where meter_id = ? and year = ? and month = ?";
+
+    private static final String SELECT_CONSUMPTION =
+            "select meter_id, sum(energy_consumed), count(*) from meter_reading " +
+                    "where (year, month) >= (?, ?) and (year, month) <= (?, ?)";
+
+    private static final String CREATE_PARTITION = "select create_meter_reading_partition(?)";
+
+    private static final String LOCK_TIMEOUT = "set local lock_timeout = '5s'";
+
+    private static final String METER_IDS_CONDITION = " and meter_id = any(?::bigint[])";
+
+    private static final String GROUP_BY_METER_ID = " group by meter_id order by meter_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MeterReadingJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Performing insert of all <b>meterReadings</b> to METER_READING table as one multi-row insert, rows are sent as
+     * four arrays, so the statement is the same for any number of rows. Meter readings whose meter id, year and month
+     * already exist are skipped.
+     * @param meterReadings Meter readings with key and consumed energy
+     * @return Number of inserted rows
+     */
+    public int insertAllIfAbsent(List<Row> meterReadings) {
+        if (meterReadings.isEmpty())
+            return 0;
+
+        return jdbcTemplate.update(INSERT_METER_READINGS_IF_ABSENT, ps -> setRows(ps, meterReadings));
+    }
+
+    /**
+     * Performing insert of all <b>meterReadings</b> to METER_READING table in multi-row inserts of <b>batchSize</b>
+     * rows, see {@link #insertAllIfAbsent(List)}. Meter readings whose meter id, year and month already exist, also
+     * when they are inserted by concurrent transaction, are skipped instead of failing the transaction.
+     * @param meterReadings Meter readings with key and consumed energy
+     * @param batchSize Number of rows in one insert
+     * @return Keys of inserted rows
+     */
+    public Set<MeterReadingKey> insertAllIfAbsent(List<Row> meterReadings, int batchSize) {
+        Set<MeterReadingKey> inserted = new HashSet<>();
+
+        for (int from = 0; from < meterReadings.size(); from += batchSize) {
+            List<Row> batch = meterReadings.subList(from, Math.min(from + batchSize, meterReadings.size()));
+            jdbcTemplate.query(INSERT_METER_READINGS_IF_ABSENT + RETURNING_KEY, ps -> setRows(ps, batch),
+                    rs -> {
+                        inserted.add(new MeterReadingKey(rs.getLong(1), rs.getInt(2), rs.getInt(3)));
+                    });
+        }
+
+        return inserted;
+    }
+
+    private static void setRows(PreparedStatement ps, List<Row> meterReadings) throws SQLException {
+        ps.setArray(1, ps.getConnection().createArrayOf("bigint",
+                meterReadings.stream().map(row -> row.key().meterId()).toArray()));
+        ps.setArray(2, ps.getConnection().createArrayOf("integer",
+                meterReadings.stream().map(row -> row.key().year()).toArray()));
+        ps.setArray(3, ps.getConnection().createArrayOf("integer",
+                meterReadings.stream().map(row -> row.key().month()).toArray()));
+        ps.setArray(4, ps.getConnection().createArrayOf("integer",
+                meterReadings.stream().map(Row::energyConsumed).toArray()));
+    }
+
+    /**
+     * Performing <i>COPY FROM STDIN</i> of all <b>meterReadings</b> through pgjdbc
+     * {@link org.postgresql.copy.CopyManager} to temporary staging table, which is then inserted to METER_READING
+     * table. Rows are encoded as CSV and sent to the database in one stream. Meter readings whose meter id, year and
+     * month already exist, also when they are inserted by concurrent transaction, are skipped instead of aborting the
+     * copy. Staging table is dropped at the end of the transaction at the latest, so it must be called in transaction.
+     * @param meterReadings Meter readings with key and consumed energy
+     * @return Keys of inserted rows
+     */
+    public Set<MeterReadingKey> copyAllIfAbsent(List<Row> meterReadings) {
+        if (meterReadings.isEmpty())
+            return Set.of();
+
+        StringBuilder csv = new StringBuilder(meterReadings.size() * 24);
+
+        for (Row row : meterReadings) {
+            csv.append(row.key().meterId()).append(',')
+                    .append(row.key().year()).append(',')
+                    .append(row.key().month()).append(',')
+                    .append(row.energyConsumed()).append('\n');
+        }
+
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_METER_READING_STAGING);
+
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive())
+                    copyIn.cancelCopy();
+            }
+        });
+
+        Set<MeterReadingKey> inserted = new HashSet<>();
+        jdbcTemplate.query(INSERT_STAGED_METER_READINGS, rs -> {
+            inserted.add(new MeterReadingKey(rs.getLong(1), rs.getInt(2), rs.getInt(3)));
+        });
+        jdbcTemplate.execute(DROP_STAGING_TABLE);
+
+        return inserted;
+    }
+
+    /**
+     * Performing select query with parameters <b>meterId</b> and <b>year</b> on METER_READING table and returning
+     * energy consumed per month. Rows are read directly to {@link YearConsumptionDTO} without creating entities.
+     * @param meterId Meter id
+     * @param year Year
+     * @return {@link YearConsumptionDTO} or null if meter has no meter readings in year
+     */
+    public YearConsumptionDTO findYearConsumption(long meterId, int year) {
+        YearConsumptionDTO.Builder builder = YearConsumptionDTO.builder(year);
+
+        jdbcTemplate.query(SELECT_MONTHS_OF_YEAR, rs -> {
+            builder.month(rs.getInt(1), rs.getInt(2));
+        }, meterId, year);
+
+        return builder.isEmpty() ? null : builder.build();
+    }
+
+    /**
+     * Performing select query with parameters <b>meterId</b>, <b>year</b> and <b>month</b> on METER_READING table and
+     * returning energy consumed in month.
+     * @param meterId Meter id
+     * @param year Year
+     * @param month Month
+     * @return {@link YearConsumptionDTO} with one month or null if meter reading does not exist
+     */
+    public YearConsumptionDTO findYearConsumption(long meterId, int year, int month) {
+        YearConsumptionDTO.Builder builder = YearConsumptionDTO.builder(year);
+
+        jdbcTemplate.query(SELECT_MONTH, rs -> {
+            builder.month(month, rs.getInt(1));
+        }, meterId, year, month);
+
+        return builder.isEmpty() ? null : builder.build();
+    }
+
+    /**
+     * Performing select query on METER_READING table and passing consumption of every meter in range of months to
+     * <b>consumer</b> ordered by meter id, as rows are fetched from the database. Rows are fetched with cursor in
+     * pages of <b>fetchSize</b> rows, so it must be called in transaction.
+     * @param meterIds Meter ids, all meters if null
+     * @param fromYear First year, inclusive
+     * @param fromMonth First month of first year, inclusive
+     * @param toYear Last year, inclusive
+     * @param toMonth Last month of last year, inclusive
+     * @param fetchSize Number of rows fetched from the database at once
+     * @param consumer Consumer of consumption per meter
+     */
+    public void findConsumption(Collection<Long> meterIds, int fromYear, int fromMonth, int toYear, int toMonth,
+                                int fetchSize, Consumer<MeterConsumptionDTO> consumer) {
+        String sql = SELECT_CONSUMPTION + (nonNull(meterIds) ? METER_IDS_CONDITION : "") + GROUP_BY_METER_ID;
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(fetchSize);
+            ps.setInt(1, fromYear);
+            ps.setInt(2, fromMonth);
+            ps.setInt(3, toYear);
+            ps.setInt(4, toMonth);
+            if (nonNull(meterIds))
+                ps.setArray(5, connection.createArrayOf("bigint", meterIds.toArray()));
+            return ps;
+        }, rs -> {
+            consumer.accept(new MeterConsumptionDTO(rs.getLong(1), rs.getLong(2), rs.getInt(3)));
+        });
+    }
+
+    /**
+     * Creates partitions of METER_READING table for <b>years</b> which are not contained in any partition yet; years
+     * before the first partitioned year are kept in <i>meter_reading_legacy</i> partition. Creating partition locks
+     * the whole table, so it must be called in its own short transaction; waiting for the lock fails after five
+     * seconds instead of blocking readers of the table.
+     * @param years Years
+     * @return Number of created partitions
+     */
+    public int createPartitions(Collection<Integer> years) {
+        jdbcTemplate.execute(LOCK_TIMEOUT);
+
+        int created = 0;
+        for (Integer year : years)
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(CREATE_PARTITION, Boolean.class, year)))
+                created++;
+
+        return created;
+    }
+
+    /**
+     * One row of METER_READING table without id.
+     *
+     * @param key Meter id, year and month
+     * @param energyConsumed Energy consumed
+     */
+    public record Row(MeterReadingKey key, Integer energyConsumed) {
+    }
+}
@@ -1,12 +1,19 @@
 package dev.scibaric.meterreadings.repository;
 
 import dev.scibaric.meterreadings.model.MeterReading;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Interface repository designed to fetch and store data to METER_READING table in database.
@@ -15,32 +22,121 @@ import java.util.List;
 public interface MeterReadingRepository extends JpaRepository<MeterReading, Long> {
 
     /**
-     * Performing select query with parameters <b>id</b> and <b>year</b> on METER_READING table and returns SUM of
-     * ENERGY_CONSUMED column.
+     * Performing select query with parameter <b>id</b> on METER_READING table and returning meter id and year of
+     * meter reading with id.
+     * @param id Meter reading id
+     * @return {@link Optional} of {@link MeterYear}
+     */
+    @Query("select new dev.scibaric.meterreadings.model.MeterYear(mr.meter.id, mr.year) " +
+            "from MeterReading mr where mr.id = :id")
+    Optional<MeterYear> findMeterYearById(@Param("id") Long id);
+
+    /**
+     * Performing select query with parameters <b>id</b> and <b>year</b> on METER_READING table and returning year,
+     * month and energy consumed of meter readings by meter id and year. Entities are not created, so neither meter
+     * readings nor their meters are loaded to persistence context. Rows are stored in {@link List}.
      * @param id Meter id
      * @param year Year
-     * @return Integer
+     * @return {@link List}
      */
-    @Query("select sum(mr.energyConsumed) from MeterReading mr " +
-            "join mr.meter m where m.id = :id and mr.year = :year")
-    Integer aggregateConsumptionByMeterIdAndYear(@Param("id") Long id, @Param("year") Integer year);
+    @Query("select new dev.scibaric.meterreadings.model.MonthlyConsumption(mr.year, mr.month, mr.energyConsumed) " +
+            "from MeterReading mr where mr.meter.id = :id and mr.year = :year")
+    List<MonthlyConsumption> findMonthlyConsumptionByMeterIdAndYear(@Param("id") Long id,
+                                                                    @Param("year") Integer year);
 
     /**
-     * Performing select query with parameters <b>id</b> and <b>year</b> on METER_READING table and returning fetched
-     * rows by meter id and year. Rows are stored in {@link List}.
+     * Performing select query with parameters <b>id</b>, <b>fromYear</b> and <b>toYear</b> on METER_READING table and
+     * returning year, month and energy consumed of meter readings by meter id in range of years, ordered by year and
+     * month. Entities are not created and query is answered from unique index on METER_ID, YEAR and MONTH. Rows are
+     * stored in {@link List}.
      * @param id Meter id
-     * @param year Year
+     * @param fromYear First year, inclusive
+     * @param toYear Last year, inclusive
      * @return {@link List}
      */
-    List<MeterReading> findMeterReadingsByMeterIdAndYear(Long id, Integer year);
+    @Query("select new dev.scibaric.meterreadings.model.MonthlyConsumption(mr.year, mr.month, mr.energyConsumed) " +
+            "from MeterReading mr where mr.meter.id = :id and mr.year between :fromYear and :toYear " +
+            "order by mr.year, mr.month")
+    List<MonthlyConsumption> findMonthlyConsumption(@Param("id") Long id,
+                                                    @Param("fromYear") Integer fromYear,
+                                                    @Param("toYear") Integer toYear);
 
     /**
      * Performing select query with parameters <b>id</b>, <b>year</b> and <b>month</b> on METER_READING table and
-     * returning fetched row by meter id, year and month. One row represents one object of {@link MeterReading}.
+     * returning year, month and energy consumed of meter reading by meter id, year and month. Entity is not created,
+     * so neither meter reading nor its meter is loaded to persistence context.
      * @param id Meter id
      * @param year Year
      * @param month Month
-     * @return {@link MeterReading}
+     * @return {@link MonthlyConsumption} or null if meter reading does not exist
+     */
+    @Query("select new dev.scibaric.meterreadings.model.MonthlyConsumption(mr.year, mr.month, mr.energyConsumed) " +
+            "from MeterReading mr where mr.meter.id = :id and mr.year = :year and mr.month = :month")
+    MonthlyConsumption findMonthlyConsumptionByMeterIdAndYearAndMonth(@Param("id") Long id,
+                                                                      @Param("year") Integer year,
+                                                                      @Param("month") Integer month);
+
+    /**
+     * Performing select query with parameters <b>meterIds</b> and <b>years</b> on METER_READING table and returning
+     * keys of all meter readings which belong to one of the meters and one of the years. Keys are stored in
+     * {@link List}.
+     * @param meterIds Meter ids
+     * @param years Years
+     * @return {@link List}
+     */
+    @Query("select new dev.scibaric.meterreadings.model.MeterReadingKey(mr.meter.id, mr.year, mr.month) " +
+            "from MeterReading mr where mr.meter.id in :meterIds and mr.year in :years")
+    List<MeterReadingKey> findMeterReadingKeys(@Param("meterIds") Collection<Long> meterIds,
+                                               @Param("years") Collection<Integer> years);
+
+    /**
+     * Performing insert of one row to METER_READING table if there is no row for meter id, year and month. Existence
+     * is checked by unique index on METER_ID, YEAR and MONTH in the same statement, so there is no need to select the
+     * row before insert and concurrent inserts can not create duplicates.
+     * @param meterId Meter id
+     * @param year Year
+     * @param month Month
+     * @param energyConsumed Energy consumed
+     * @return Number of inserted rows, 0 if row for meter id, year and month already exists
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into meter_reading (meter_id, year, month, energy_consumed) " +
+            "values (:meterId, :year, :month, :energyConsumed) " +
+            "on conflict (meter_id, year, month) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("meterId") Long meterId, @Param("year") Integer year, @Param("month") Integer month,
+                       @Param("energyConsumed") Integer energyConsumed);
+
+    /**
+     * Performing update of ENERGY_CONSUMED column of one row in METER_READING table by meter id, year and month.
+     * @param meterId Meter id
+     * @param year Year
+     * @param month Month
+     * @param energyConsumed Energy consumed
+     * @return Number of updated rows, 0 if row for meter id, year and month does not exist
+     */
+    @Modifying
+    @Transactional
+    @Query("update MeterReading mr set mr.energyConsumed = :energyConsumed " +
+            "where mr.meter.id = :meterId and mr.year = :year and mr.month = :month")
+    int updateEnergyConsumed(@Param("meterId") Long meterId, @Param("year") Integer year,
+                             @Param("month") Integer month, @Param("energyConsumed") Integer energyConsumed);
+
+    /**
+     * Performing insert of one row to METER_READING table or update of ENERGY_CONSUMED column if there is already a
+     * row for meter id, year and month. Both cases are handled by one statement.
+     * @param meterId Meter id
+     * @param year Year
+     * @param month Month
+     * @param energyConsumed Energy consumed
+     * @return Number of inserted or updated rows
      */
-    MeterReading findMeterReadingByMeterIdAndYearAndMonth(Long id, Integer year, Integer month);
+    @Modifying
+    @Transactional
+    @Query(value = "insert into meter_reading (meter_id, year, month, energy_consumed) " +
+            "values (:meterId, :year, :month, :energyConsumed) " +
+            "on conflict (meter_id, year, month) do update set energy_consumed = excluded.energy_consumed",
+            nativeQuery = true)
+    int upsert(@Param("meterId") Long meterId, @Param("year") Integer year, @Param("month") Integer month,
+               @Param("energyConsumed") Integer energyConsumed);
 }
@@ -1,12 +1,40 @@
 package dev.scibaric.meterreadings.repository;
 
 import dev.scibaric.meterreadings.model.Meter;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Interface repository designed to fetch data from METER table in database.
  */
 @Repository
 public interface MeterRepository extends JpaRepository<Meter, Long> {
+
+    /**
+     * Performing select query with parameter <b>ids</b> on METER table and returning ids of meters which exist in
+     * database. Ids are stored in {@link Set}.
+     * @param ids Meter ids
+     * @return {@link Set}
+     */
+    @Transactional(readOnly = true)
+    @Query("select m.id from Meter m where m.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Performing select query with parameter <b>id</b> on METER table and returning ids of meters greater than
+     * <b>id</b> ordered by id. Number of returned ids is limited by <b>pageable</b>. Ids are stored in {@link List}.
+     * @param id Last meter id of previous page
+     * @param pageable Page size
+     * @return {@link List}
+     */
+    @Query("select m.id from Meter m where m.id > :id order by m.id")
+    List<Long> findIdsGreaterThan(@Param("id") Long id, Pageable pageable);
 }
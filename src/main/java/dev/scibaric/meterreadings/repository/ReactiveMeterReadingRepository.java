@@ -0,0 +1,98 @@
+package dev.scibaric.meterreadings.repository;
+
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository designed to fetch data from METER, METER_READING and METER_CONSUMPTION_ROLLUP tables with R2DBC
+ * without blocking the calling thread. It is used in <i>reactive</i> profile only.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveMeterReadingRepository {
+
+    private static final String EXISTS_METER =
+            "select exists(select 1 from meter where id = :meterId)";
+
+    private static final String SELECT_MONTHLY_CONSUMPTION =
+            "select year, month, energy_consumed from meter_reading " +
+                    "where meter_id = :meterId and year between :fromYear and :toYear " +
+                    "order by year, month";
+
+    private static final String SELECT_MONTH_CONSUMPTION =
+            "select year, month, energy_consumed from meter_reading " +
+                    "where meter_id = :meterId and year = :year and month = :month";
+
+    private static final String SELECT_ROLLUP_TOTAL =
+            "select total from meter_consumption_rollup where meter_id = :meterId and year = :year";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveMeterReadingRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * @param meterId Meter id
+     * @return {@link Mono} with true if meter exists
+     */
+    public Mono<Boolean> existsMeterById(Long meterId) {
+        return databaseClient.sql(EXISTS_METER)
+                .bind("meterId", meterId)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    /**
+     * @param meterId Meter id
+     * @param fromYear First year, inclusive
+     * @param toYear Last year, inclusive
+     * @return {@link Flux} of energy consumed per month ordered by year and month
+     */
+    public Flux<MonthlyConsumption> findMonthlyConsumption(Long meterId, Integer fromYear, Integer toYear) {
+        return databaseClient.sql(SELECT_MONTHLY_CONSUMPTION)
+                .bind("meterId", meterId)
+                .bind("fromYear", fromYear)
+                .bind("toYear", toYear)
+                .map(this::monthlyConsumption)
+                .all();
+    }
+
+    /**
+     * @param meterId Meter id
+     * @param year Year
+     * @param month Month
+     * @return {@link Mono} with energy consumed in month or empty {@link Mono} if meter reading does not exist
+     */
+    public Mono<MonthlyConsumption> findMonthConsumption(Long meterId, Integer year, Integer month) {
+        return databaseClient.sql(SELECT_MONTH_CONSUMPTION)
+                .bind("meterId", meterId)
+                .bind("year", year)
+                .bind("month", month)
+                .map(this::monthlyConsumption)
+                .one();
+    }
+
+    /**
+     * @param meterYear Meter id and year
+     * @return {@link Mono} with yearly consumption from rollup or empty {@link Mono} if year has no meter readings
+     */
+    public Mono<Long> findRollupTotal(MeterYear meterYear) {
+        return databaseClient.sql(SELECT_ROLLUP_TOTAL)
+                .bind("meterId", meterYear.meterId())
+                .bind("year", meterYear.year())
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    private MonthlyConsumption monthlyConsumption(Readable row) {
+        return new MonthlyConsumption(row.get("year", Integer.class), row.get("month", Integer.class),
+                row.get("energy_consumed", Integer.class));
+    }
+}
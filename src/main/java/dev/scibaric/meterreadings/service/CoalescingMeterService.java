@@ -0,0 +1,176 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionRequestDTO;
+import dev.scibaric.meterreadings.dto.MeterConsumptionDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.jdbc.ReadReplicaRoutingDataSource;
+import dev.scibaric.meterreadings.model.MeterYear;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link MeterService} which executes identical concurrent reads of one meter only once, see {@link SingleFlight}.
+ * Request which comes while the same read is in flight waits for it and gets the same result or exception, so a burst
+ * of requests for the same meter and year costs one query. Reads in flight are forgotten when meter readings they
+ * read are changed, by {@link MeterReadingsChangedEvent} after commit or by
+ * {@link dev.scibaric.meterreadings.cache.MeterReadingsNotificationListener}, so request which comes after the change
+ * never gets result read before it. Reads inside of transaction, writes and fleet consumption, whose result is
+ * streamed to consumer of the caller, are passed to {@link MeterServiceImpl}. Used instead of {@link MeterServiceImpl}
+ * unless <i>meter-readings.coalescing.enabled</i> is false. Collapsed reads are published to Micrometer as
+ * <i>meter.service.reads.calls</i> metrics.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "meter-readings.coalescing", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class CoalescingMeterService implements MeterService {
+
+    static final String METRIC_NAME = "meter.service.reads";
+
+    private final MeterService delegate;
+
+    private final SingleFlight<Read> reads;
+
+    @Autowired
+    public CoalescingMeterService(MeterServiceImpl delegate, MeterRegistry registry) {
+        this((MeterService) delegate, registry);
+    }
+
+    CoalescingMeterService(MeterService delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.reads = new SingleFlight<>(METRIC_NAME, registry);
+    }
+
+    @Override
+    public MeterReadingDTO aggregateConsumptionByMeterIdAndYear(Long id, Integer year) {
+        return read(Method.AGGREGATE, id, year, year, null,
+                () -> delegate.aggregateConsumptionByMeterIdAndYear(id, year));
+    }
+
+    @Override
+    public FleetConsumptionDTO aggregateFleetConsumption(FleetConsumptionRequestDTO request,
+                                                         Consumer<MeterConsumptionDTO> consumer) {
+        return delegate.aggregateFleetConsumption(request, consumer);
+    }
+
+    @Override
+    public MeterReadingDTO findByMeterIdAndYear(Long id, Integer year) {
+        return read(Method.FIND_YEAR, id, year, year, null, () -> delegate.findByMeterIdAndYear(id, year));
+    }
+
+    @Override
+    public MeterReadingSeriesDTO findSeriesByMeterIdAndYears(Long id, Integer fromYear, Integer toYear) {
+        return read(Method.FIND_SERIES, id, fromYear, toYear, null,
+                () -> delegate.findSeriesByMeterIdAndYears(id, fromYear, toYear));
+    }
+
+    @Override
+    public MeterReadingDTO findByMeterIdAndYearAndMonth(Long id, Integer year, Integer month) {
+        return read(Method.FIND_MONTH, id, year, year, month,
+                () -> delegate.findByMeterIdAndYearAndMonth(id, year, month));
+    }
+
+    @Override
+    public YearConsumptionDTO aggregateYearConsumption(Long id, Integer year) {
+        return read(Method.AGGREGATE_V2, id, year, year, null, () -> delegate.aggregateYearConsumption(id, year));
+    }
+
+    @Override
+    public YearConsumptionDTO findYearConsumption(Long id, Integer year) {
+        return read(Method.FIND_YEAR_V2, id, year, year, null, () -> delegate.findYearConsumption(id, year));
+    }
+
+    @Override
+    public YearConsumptionDTO findYearConsumption(Long id, Integer year, Integer month) {
+        return read(Method.FIND_MONTH_V2, id, year, year, month,
+                () -> delegate.findYearConsumption(id, year, month));
+    }
+
+    @Override
+    public MeterReadingDTO saveMeterReading(MeterReadingDTO meterReadingDTO) {
+        return delegate.saveMeterReading(meterReadingDTO);
+    }
+
+    @Override
+    public BatchResultDTO saveMeterReadings(List<MeterReadingDTO> meterReadingDTOs) {
+        return delegate.saveMeterReadings(meterReadingDTOs);
+    }
+
+    @Override
+    public MeterReadingDTO updateMeterReading(MeterReadingDTO meterReadingDTO) {
+        return delegate.updateMeterReading(meterReadingDTO);
+    }
+
+    @Override
+    public MeterReadingDTO upsertMeterReading(MeterReadingDTO meterReadingDTO) {
+        return delegate.upsertMeterReading(meterReadingDTO);
+    }
+
+    @Override
+    public void deleteMeterReadingById(Long meterReadingId) {
+        delegate.deleteMeterReadingById(meterReadingId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeterReadingsChanged(MeterReadingsChangedEvent event) {
+        forget(event.meterYears());
+    }
+
+    /**
+     * @param meterYears Meter ids and years whose reads in flight are not shared anymore
+     */
+    public void forget(Collection<MeterYear> meterYears) {
+        reads.forget(read -> meterYears.stream().anyMatch(read::reads));
+    }
+
+    /**
+     * Stops sharing all reads in flight.
+     */
+    public void forgetAll() {
+        reads.forget(read -> true);
+    }
+
+    /**
+     * Read inside of transaction must see changes of the transaction, so it is never shared.
+     */
+    private <T> T read(Method method, Long id, Integer fromYear, Integer toYear, Integer month, Supplier<T> call) {
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            return call.get();
+
+        return reads.execute(new Read(method, id, fromYear, toYear, month,
+                ReadReplicaRoutingDataSource.isPrimaryRequired()), call);
+    }
+
+    private enum Method {
+        AGGREGATE, FIND_YEAR, FIND_SERIES, FIND_MONTH, AGGREGATE_V2, FIND_YEAR_V2, FIND_MONTH_V2
+    }
+
+    /**
+     * Key of read. Reads which must be routed to the primary by {@link ReadReplicaRoutingDataSource} do not share
+     * reads which may be routed to a replica.
+     */
+    private record Read(Method method, Long id, Integer fromYear, Integer toYear, Integer month,
+                        boolean primaryRequired) {
+
+        private boolean reads(MeterYear meterYear) {
+            return Objects.equals(id, meterYear.meterId()) && (fromYear == null || toYear == null
+                    || meterYear.year() == null || fromYear <= meterYear.year() && meterYear.year() <= toYear);
+        }
+    }
+}
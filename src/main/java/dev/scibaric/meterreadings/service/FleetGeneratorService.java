@@ -0,0 +1,22 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.dto.FleetGenerationResultDTO;
+
+/**
+ * Service interface for generating synthetic fleet of clients with address, meter and monthly meter readings, used
+ * for loading large datasets for benchmarks and load tests.
+ */
+public interface FleetGeneratorService {
+    /**
+     * Method generates <b>meters</b> new clients, each with unique address, one meter and meter readings for every
+     * month from <b>fromYear</b> to <b>toYear</b>. Ids of generated rows continue after existing ids. Meters are split
+     * into chunks which are generated and copied to the database in parallel, every chunk in its own transaction.
+     * Rollups of yearly consumption are rebuilt after all chunks are copied.
+     *
+     * @param meters Number of generated meters
+     * @param fromYear First year of meter readings, inclusive
+     * @param toYear Last year of meter readings, inclusive
+     * @return {@link FleetGenerationResultDTO}
+     */
+    FleetGenerationResultDTO generate(int meters, int fromYear, int toYear);
+}
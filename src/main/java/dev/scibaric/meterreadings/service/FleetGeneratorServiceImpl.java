@@ -0,0 +1,159 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.FleetGenerationResultDTO;
+import dev.scibaric.meterreadings.generator.SeasonalConsumptionModel;
+import dev.scibaric.meterreadings.repository.FleetJdbcRepository;
+import dev.scibaric.meterreadings.repository.FleetJdbcRepository.FleetTable;
+import dev.scibaric.meterreadings.validator.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class FleetGeneratorServiceImpl implements FleetGeneratorService {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetGeneratorServiceImpl.class);
+
+    private static final String[] CITIES = {"Zagreb", "Split", "Rijeka", "Osijek", "Zadar", "Pula", "Varazdin"};
+
+    private static final int HOUSES_PER_STREET = 200;
+
+    private final FleetJdbcRepository fleetRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterConsumptionRollupService rollupService;
+
+    private final Validator validator;
+
+    private final MeterReadingsProperties properties;
+
+    public FleetGeneratorServiceImpl(FleetJdbcRepository fleetRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterConsumptionRollupService rollupService,
+                                     Validator validator,
+                                     MeterReadingsProperties properties) {
+        this.fleetRepository = fleetRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rollupService = rollupService;
+        this.validator = validator;
+        this.properties = properties;
+    }
+
+    @Override
+    public FleetGenerationResultDTO generate(int meters, int fromYear, int toYear) {
+        Assert.isTrue(meters > 0, "Number of meters must be greater than 0");
+        validator.validateYearRange(fromYear, toYear);
+
+        long start = System.nanoTime();
+        long firstId = fleetRepository.findLastId() + 1;
+        long lastId = firstId + meters - 1;
+        SeasonalConsumptionModel model = new SeasonalConsumptionModel(properties.getGenerator().getSeed());
+
+        int chunkSize = properties.getGenerator().getChunkSize();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getGenerator().getParallelism());
+        List<CompletableFuture<Long>> chunks = new ArrayList<>();
+        RuntimeException failure = null;
+        long meterReadings;
+
+        try {
+            for (long from = firstId; from <= lastId; from += chunkSize) {
+                long fromId = from;
+                long toId = Math.min(from + chunkSize - 1, lastId);
+                chunks.add(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+                        generateChunk(model, fromId, toId, fromYear, toYear)), executor));
+            }
+
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+            meterReadings = chunks.stream().mapToLong(CompletableFuture::join).sum();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            executor.shutdown();
+            completeGeneration(failure);
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long rows = meterReadings + 3L * meters;
+        long rowsPerSecond = rows * 1000 / Math.max(durationMillis, 1);
+        log.info("Generated {} meters with ids from {} to {} and {} meter readings in {} chunks in {} ms, " +
+                "{} rows/s", meters, firstId, lastId, meterReadings, chunks.size(), durationMillis, rowsPerSecond);
+
+        return new FleetGenerationResultDTO(firstId, lastId, meterReadings, chunks.size(), durationMillis,
+                rowsPerSecond);
+    }
+
+    /**
+     * Moves identities past the explicitly inserted ids and rebuilds rollups of committed meter readings. Chunks are
+     * committed independently, so this is done even if some chunk failed. Failure of this step is added as suppressed
+     * to the chunk <b>failure</b>, if there is one, so the original cause is not lost.
+     */
+    private void completeGeneration(RuntimeException failure) {
+        try {
+            fleetRepository.resetIdentities();
+            rollupService.rebuild();
+        } catch (RuntimeException e) {
+            if (failure == null)
+                throw e;
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Copies clients, addresses, meters and meter readings of meters with ids from <b>fromId</b> to <b>toId</b>.
+     * Client, its address and meter have the same id. Address is unique because street and house number are derived
+     * from id.
+     *
+     * @return Number of copied meter readings
+     */
+    private long generateChunk(SeasonalConsumptionModel model, long fromId, long toId, int fromYear, int toYear) {
+        fleetRepository.disableSynchronousCommit();
+
+        fleetRepository.copy(FleetTable.CLIENT, writer -> {
+            for (long id = fromId; id <= toId; id++)
+                writer.append(Long.toString(id)).append(",Generated client ").append(Long.toString(id)).append('\n');
+        });
+
+        fleetRepository.copy(FleetTable.ADDRESS, writer -> {
+            for (long id = fromId; id <= toId; id++) {
+                long street = id / HOUSES_PER_STREET;
+                writer.append(Long.toString(id))
+                        .append(",Generated street ").append(Long.toString(street))
+                        .append(',').append(Long.toString(id % HOUSES_PER_STREET + 1))
+                        .append(',').append(CITIES[(int) (street % CITIES.length)])
+                        .append(',').append(Long.toString(id)).append('\n');
+            }
+        });
+
+        fleetRepository.copy(FleetTable.METER, writer -> {
+            for (long id = fromId; id <= toId; id++)
+                writer.append(Long.toString(id)).append(',').append(Long.toString(id)).append('\n');
+        });
+
+        return fleetRepository.copy(FleetTable.METER_READING, writer -> {
+            for (long id = fromId; id <= toId; id++) {
+                String meterId = Long.toString(id);
+                int[] energyConsumed = model.energyConsumed(id, fromYear, toYear);
+
+                for (int i = 0; i < energyConsumed.length; i++) {
+                    writer.append(meterId)
+                            .append(',').append(Integer.toString(fromYear + i / 12))
+                            .append(',').append(Integer.toString(i % 12 + 1))
+                            .append(',').append(Integer.toString(energyConsumed[i])).append('\n');
+                }
+            }
+        });
+    }
+}
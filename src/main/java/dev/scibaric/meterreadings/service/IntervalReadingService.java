@@ -0,0 +1,49 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.dto.IntervalReadingDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingSeriesDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingsResultDTO;
+import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Service interface called by {@link dev.scibaric.meterreadings.controller.IntervalReadingController} to save and read
+ * 15 minute interval readings. Monthly meter readings are derived from interval readings, so routes of
+ * {@link MeterService} answer from interval data too.
+ */
+public interface IntervalReadingService {
+
+    /**
+     * Method accepts <b>meterId</b> and <b>intervalReadingDTOs</b> parameters. Interval readings are validated and
+     * saved, interval reading which already exists is replaced. Meter reading of every month of saved interval
+     * readings is derived again as sum of all interval readings of the month in UTC, in the same transaction, so
+     * rollups and caches of yearly consumption are refreshed the same way as when meter readings are saved.
+     * Method can throw {@link IllegalArgumentException} if parameters do not satisfy requirements.
+     *
+     * @param meterId Meter id
+     * @param intervalReadingDTOs Interval readings of meter
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @return {@link IntervalReadingsResultDTO}
+     */
+    IntervalReadingsResultDTO saveIntervalReadings(Long meterId, List<IntervalReadingDTO> intervalReadingDTOs);
+
+    /**
+     * Method accepts <b>meterId</b>, <b>from</b>, <b>to</b> and <b>resolution</b> parameters, returns interval
+     * readings of meter in range of time summed to resolution, ordered by time. Result is stored as columnar series in
+     * {@link IntervalReadingSeriesDTO} and returned.
+     * Method can throw {@link IllegalArgumentException} if parameters do not satisfy requirements. Another exception
+     * that can be thrown is {@link ResourceNotFoundException} if there are no interval readings in range.
+     *
+     * @param meterId Meter id
+     * @param from Start of range, inclusive
+     * @param to End of range, exclusive
+     * @param resolution Resolution of values
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @throws ResourceNotFoundException If results are not found
+     * @return {@link IntervalReadingSeriesDTO}
+     */
+    IntervalReadingSeriesDTO findSeries(Long meterId, Instant from, Instant to, IntervalResolution resolution);
+}
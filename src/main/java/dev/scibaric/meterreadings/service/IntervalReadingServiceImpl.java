@@ -0,0 +1,96 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.IntervalReadingDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingSeriesDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingsResultDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import dev.scibaric.meterreadings.model.IntervalConsumption;
+import dev.scibaric.meterreadings.model.IntervalReading;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.repository.IntervalReadingRepository;
+import dev.scibaric.meterreadings.validator.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+public class IntervalReadingServiceImpl implements IntervalReadingService {
+
+    private final IntervalReadingRepository intervalReadingRepository;
+
+    private final Validator validator;
+
+    private final MeterReadingsProperties properties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate partitionTransactionTemplate;
+
+    public IntervalReadingServiceImpl(IntervalReadingRepository intervalReadingRepository,
+                                      Validator validator,
+                                      MeterReadingsProperties properties,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager) {
+        this.intervalReadingRepository = intervalReadingRepository;
+        this.validator = validator;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitionTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitionTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public IntervalReadingsResultDTO saveIntervalReadings(Long meterId, List<IntervalReadingDTO> intervalReadingDTOs) {
+        validator.validateMeterId(meterId);
+        validator.validateIntervalReadings(intervalReadingDTOs, properties.getInterval().getMaxBatchSize());
+
+        List<IntervalReading> intervalReadings = intervalReadingDTOs.stream()
+                .map(dto -> new IntervalReading(meterId, dto.getReadAt(), dto.getEnergyConsumed()))
+                .toList();
+        SortedSet<YearMonth> months = intervalReadings.stream()
+                .map(intervalReading -> YearMonth.from(intervalReading.readAt().atOffset(ZoneOffset.UTC)))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        partitionTransactionTemplate.executeWithoutResult(status -> intervalReadingRepository.createPartitions(months));
+        transactionTemplate.executeWithoutResult(status -> {
+            intervalReadingRepository.upsertAll(intervalReadings, properties.getBatch().getJdbcBatchSize());
+            intervalReadingRepository.deriveMonthlyReadings(meterId, months);
+            eventPublisher.publishEvent(new MeterReadingsChangedEvent(months.stream()
+                    .map(month -> new MeterYear(meterId, month.getYear()))
+                    .collect(Collectors.toSet())));
+        });
+
+        return new IntervalReadingsResultDTO(meterId, intervalReadings.size(), months.size());
+    }
+
+    @Override
+    public IntervalReadingSeriesDTO findSeries(Long meterId, Instant from, Instant to, IntervalResolution resolution) {
+        validator.validateMeterId(meterId);
+        validator.validateIntervalRange(from, to, resolution, properties.getInterval().getMaxSeriesValues());
+
+        List<IntervalConsumption> intervalConsumptions =
+                intervalReadingRepository.findConsumption(meterId, from, to, resolution);
+
+        if (intervalConsumptions.isEmpty())
+            throw new ResourceNotFoundException(String.format(
+                    "Interval readings for meter id %d from %s to %s do not exist", meterId, from, to));
+
+        return IntervalReadingSeriesDTO.of(meterId, from, to, resolution, intervalConsumptions);
+    }
+}
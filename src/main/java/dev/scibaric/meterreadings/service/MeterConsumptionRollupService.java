@@ -0,0 +1,26 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.dto.RollupRebuildResultDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+
+/**
+ * Service interface for maintaining rollups of yearly consumption per meter. Rollups are refreshed in the same
+ * transaction in which meter readings change and can be rebuilt from scratch for repair.
+ */
+public interface MeterConsumptionRollupService {
+    /**
+     * Method computes rollups of meter ids and years from <b>event</b> again. It is called synchronously when event
+     * is published, so rollups are committed together with meter readings.
+     *
+     * @param event {@link MeterReadingsChangedEvent}
+     */
+    void onMeterReadingsChanged(MeterReadingsChangedEvent event);
+
+    /**
+     * Method deletes all rollups and computes them again from meter readings. Meters are split into ranges of ids,
+     * ranges are rebuilt in parallel, every range in its own transaction.
+     *
+     * @return {@link RollupRebuildResultDTO}
+     */
+    RollupRebuildResultDTO rebuild();
+}
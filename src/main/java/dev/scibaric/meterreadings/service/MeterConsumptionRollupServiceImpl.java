@@ -0,0 +1,97 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.cache.AggregateCache;
+import dev.scibaric.meterreadings.cache.MeterYearVersionCache;
+import dev.scibaric.meterreadings.cache.ResponseBodyCache;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.RollupRebuildResultDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.repository.MeterConsumptionRollupJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class MeterConsumptionRollupServiceImpl implements MeterConsumptionRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(MeterConsumptionRollupServiceImpl.class);
+
+    private final MeterConsumptionRollupJdbcRepository rollupRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AggregateCache aggregateCache;
+
+    private final ResponseBodyCache responseBodyCache;
+
+    private final MeterYearVersionCache versionCache;
+
+    private final MeterReadingsProperties properties;
+
+    public MeterConsumptionRollupServiceImpl(MeterConsumptionRollupJdbcRepository rollupRepository,
+                                             PlatformTransactionManager transactionManager,
+                                             AggregateCache aggregateCache,
+                                             ResponseBodyCache responseBodyCache,
+                                             MeterYearVersionCache versionCache,
+                                             MeterReadingsProperties properties) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.aggregateCache = aggregateCache;
+        this.responseBodyCache = responseBodyCache;
+        this.versionCache = versionCache;
+        this.properties = properties;
+    }
+
+    @Override
+    @Transactional
+    @EventListener
+    public void onMeterReadingsChanged(MeterReadingsChangedEvent event) {
+        rollupRepository.refresh(event.meterYears());
+    }
+
+    @Override
+    public RollupRebuildResultDTO rebuild() {
+        long start = System.nanoTime();
+        long[] meterIdRange = rollupRepository.findMeterIdRange().orElse(null);
+
+        if (meterIdRange == null)
+            return new RollupRebuildResultDTO(0, 0L, 0L);
+
+        long chunkSize = properties.getRollup().getRebuildChunkSize();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getRollup().getRebuildParallelism());
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+
+        try {
+            for (long from = meterIdRange[0]; from <= meterIdRange[1]; from += chunkSize) {
+                long fromMeterId = from;
+                long toMeterId = Math.min(from + chunkSize, meterIdRange[1] + 1);
+                chunks.add(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+                        rollupRepository.rebuild(fromMeterId, toMeterId)), executor));
+            }
+
+            long rollups = chunks.stream().mapToLong(CompletableFuture::join).sum();
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("Rebuilt {} rollups of yearly consumption in {} chunks in {} ms",
+                    rollups, chunks.size(), durationMillis);
+
+            return new RollupRebuildResultDTO(chunks.size(), rollups, durationMillis);
+        } finally {
+            executor.shutdown();
+            aggregateCache.invalidateAll();
+            responseBodyCache.invalidateAll();
+            versionCache.invalidateAll();
+            rollupRepository.notifyAllChanged();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.dto.ImportResultDTO;
+import dev.scibaric.meterreadings.importer.ImportFormat;
+
+import java.io.InputStream;
+
+/**
+ * Service interface for streaming import of large amounts of meter readings, called by
+ * {@link dev.scibaric.meterreadings.controller.MeterController} and
+ * {@link dev.scibaric.meterreadings.importer.MeterReadingImportRunner}.
+ */
+public interface MeterReadingImportService {
+    /**
+     * Method reads meter readings from <b>inputStream</b> record by record, validates them with the same rules as
+     * {@link MeterService#saveMeterReading} and copies them to the database in chunks, every chunk in its own
+     * transaction. Records up to <b>startOffset</b> are skipped, so failed import can be resumed from
+     * {@link ImportResultDTO#getCommittedOffset()}. Invalid records are rejected and do not stop the import.
+     * Method can throw {@link IllegalArgumentException} if parameters are not valid or CSV header is missing columns.
+     *
+     * @param inputStream Records of meter readings
+     * @param format Format of records
+     * @param startOffset Number of records to skip
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @return {@link ImportResultDTO}
+     */
+    ImportResultDTO importMeterReadings(InputStream inputStream, ImportFormat format, long startOffset);
+}
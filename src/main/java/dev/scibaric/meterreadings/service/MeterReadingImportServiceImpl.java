@@ -0,0 +1,173 @@
+package dev.scibaric.meterreadings.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.ImportResultDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.importer.ImportFormat;
+import dev.scibaric.meterreadings.importer.ImportRecord;
+import dev.scibaric.meterreadings.importer.MeterReadingRecordReader;
+import dev.scibaric.meterreadings.mapper.MeterReadingMapper;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
+import dev.scibaric.meterreadings.validator.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.nonNull;
+
+@Service
+public class MeterReadingImportServiceImpl implements MeterReadingImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(MeterReadingImportServiceImpl.class);
+
+    private final MeterReadingJdbcRepository meterReadingJdbcRepository;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterReadingsProperties properties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MeterReadingImportServiceImpl(MeterReadingJdbcRepository meterReadingJdbcRepository,
+                                         Validator validator,
+                                         ObjectMapper objectMapper,
+                                         PlatformTransactionManager transactionManager,
+                                         MeterReadingsProperties properties,
+                                         ApplicationEventPublisher eventPublisher) {
+        this.meterReadingJdbcRepository = meterReadingJdbcRepository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public ImportResultDTO importMeterReadings(InputStream inputStream, ImportFormat format, long startOffset) {
+        Assert.notNull(inputStream, "Input must not be null");
+        Assert.notNull(format, "Format must not be null");
+        Assert.isTrue(startOffset >= 0, "Offset must be greater than or equal 0");
+
+        ImportResultDTO result = new ImportResultDTO(format, startOffset);
+        List<ImportRecord> chunk = new ArrayList<>(properties.getImporter().getChunkSize());
+        long start = System.nanoTime();
+        long lastOffset = startOffset;
+
+        try (MeterReadingRecordReader reader = new MeterReadingRecordReader(inputStream, format, objectMapper)) {
+            ImportRecord record;
+
+            while (nonNull(record = reader.next())) {
+                if (record.offset() <= startOffset)
+                    continue;
+
+                result.setRead(result.getRead() + 1);
+                lastOffset = record.offset();
+                chunk.add(record);
+
+                if (chunk.size() >= properties.getImporter().getChunkSize()) {
+                    copyChunk(chunk, result);
+                    result.setCommittedOffset(lastOffset);
+                    log.info("Imported {} meter readings up to offset {}", result.getImported(), lastOffset);
+                }
+            }
+
+            copyChunk(chunk, result);
+            result.setCommittedOffset(lastOffset);
+            result.setCompleted(true);
+        } catch (IOException | DataAccessException e) {
+            log.error("Import of meter readings stopped after offset {}", result.getCommittedOffset(), e);
+            result.setError(e.getMessage());
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        result.setDurationMillis(durationMillis);
+        result.setRecordsPerSecond(result.getRead() * 1000 / Math.max(durationMillis, 1));
+
+        return result;
+    }
+
+    private void copyChunk(List<ImportRecord> chunk, ImportResultDTO result) {
+        if (chunk.isEmpty())
+            return;
+
+        List<ImportRecord> parsed = chunk.stream().filter(record -> nonNull(record.meterReading())).toList();
+        List<MeterReadingDTO> meterReadingDTOs = parsed.stream().map(ImportRecord::meterReading).toList();
+        List<ImportResultDTO.RejectedRecordDTO> rejected = new ArrayList<>();
+
+        chunk.stream()
+                .filter(record -> nonNull(record.error()))
+                .forEach(record -> rejected.add(new ImportResultDTO.RejectedRecordDTO(record.offset(), record.error())));
+
+        Integer imported = transactionTemplate.execute(status -> {
+            List<String> rejections = validator.validateNewMeterReadings(meterReadingDTOs);
+            List<MeterReadingJdbcRepository.Row> rows = new ArrayList<>(meterReadingDTOs.size());
+            List<Long> offsets = new ArrayList<>(meterReadingDTOs.size());
+
+            for (int i = 0; i < meterReadingDTOs.size(); i++) {
+                MeterReadingDTO dto = meterReadingDTOs.get(i);
+
+                if (nonNull(rejections.get(i))) {
+                    rejected.add(new ImportResultDTO.RejectedRecordDTO(parsed.get(i).offset(), rejections.get(i)));
+                } else {
+                    rows.add(new MeterReadingJdbcRepository.Row(
+                            new MeterReadingKey(dto.getMeterId(), dto.getYear(), dto.getMonth()),
+                            dto.getEnergyConsumed()));
+                    offsets.add(parsed.get(i).offset());
+                }
+            }
+
+            Set<MeterReadingKey> inserted = meterReadingJdbcRepository.copyAllIfAbsent(rows);
+
+            for (int i = 0; i < rows.size(); i++) {
+                MeterReadingKey key = rows.get(i).key();
+
+                if (!inserted.contains(key))
+                    rejected.add(new ImportResultDTO.RejectedRecordDTO(offsets.get(i), String.format(
+                            "Meter reading for meter id %d, year %d and month %s already exists",
+                            key.meterId(), key.year(), MeterReadingMapper.monthName(key.month()))));
+            }
+
+            if (!inserted.isEmpty())
+                eventPublisher.publishEvent(new MeterReadingsChangedEvent(inserted.stream()
+                        .map(MeterYear::of)
+                        .collect(Collectors.toSet())));
+
+            return inserted.size();
+        });
+
+        result.setImported(result.getImported() + imported);
+        rejected.stream()
+                .sorted(Comparator.comparing(ImportResultDTO.RejectedRecordDTO::getOffset))
+                .forEach(record -> reject(result, record));
+        chunk.clear();
+    }
+
+    private void reject(ImportResultDTO result, ImportResultDTO.RejectedRecordDTO record) {
+        result.setRejected(result.getRejected() + 1);
+
+        if (result.getRejectedRecords().size() < properties.getImporter().getMaxRejectedReported())
+            result.getRejectedRecords().add(record);
+    }
+}
@@ -1,8 +1,17 @@
 package dev.scibaric.meterreadings.service;
 
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionRequestDTO;
+import dev.scibaric.meterreadings.dto.MeterConsumptionDTO;
 import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
 import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Service interface called by {@link dev.scibaric.meterreadings.controller.MeterController} to perform business
  * logic. Service interacts with validator and repository.
@@ -22,6 +31,22 @@ public interface MeterService {
      */
     MeterReadingDTO aggregateConsumptionByMeterIdAndYear(Long id, Integer year);
 
+    /**
+     * Method accepts <b>request</b> with meter ids, or no meter ids for all meters, and range of months and aggregates
+     * consumed electricity of every meter in the range with one grouped query. Consumption of every meter is passed
+     * to <b>consumer</b> ordered by meter id as it is read from the database, so memory does not depend on number of
+     * meters. Meters which do not exist or have no meter readings in the range are left out. Request is validated
+     * before <b>consumer</b> is called for the first time. Number of meters and grand total are stored in
+     * {@link FleetConsumptionDTO} and returned.
+     * Method can throw {@link IllegalArgumentException} if request does not satisfy requirements.
+     * @param request Meter ids and range of months
+     * @param consumer Consumer of consumption per meter
+     * @throws IllegalArgumentException If request does not satisfy requirements.
+     * @return {@link FleetConsumptionDTO}
+     */
+    FleetConsumptionDTO aggregateFleetConsumption(FleetConsumptionRequestDTO request,
+                                                  Consumer<MeterConsumptionDTO> consumer);
+
     /**
      * Method accepts <b>id</b> and <b>year</b> parameters, returns consumed electricity per month by meter id and year.
      * Result is stored in {@link MeterReadingDTO} and returned.
@@ -36,6 +61,22 @@ public interface MeterService {
      */
     MeterReadingDTO findByMeterIdAndYear(Long id, Integer year);
 
+    /**
+     * Method accepts <b>id</b>, <b>fromYear</b> and <b>toYear</b> parameters, returns meter readings of meter in
+     * range of years read with one query, ordered by year and month. Result is stored as columnar series in
+     * {@link MeterReadingSeriesDTO} and returned.
+     * Method can throw {@link IllegalArgumentException} if parameters do not satisfy requirements. Another exception
+     * that can be thrown is {@link dev.scibaric.meterreadings.exception.ResourceNotFoundException} if results are
+     * not found.
+     * @param id Meter id
+     * @param fromYear First year, inclusive
+     * @param toYear Last year, inclusive
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @throws ResourceNotFoundException If results are not found
+     * @return {@link MeterReadingSeriesDTO}
+     */
+    MeterReadingSeriesDTO findSeriesByMeterIdAndYears(Long id, Integer fromYear, Integer toYear);
+
     /**
      * Method accepts <b>id</b>, <b>year</b> and <b>month</b>parameters, returns consumed electricity per month by
      * meter id, year and month. Result is stored in {@link MeterReadingDTO} and returned.
@@ -51,6 +92,40 @@ public interface MeterService {
      */
     MeterReadingDTO findByMeterIdAndYearAndMonth(Long id, Integer year, Integer month);
 
+    /**
+     * Variant of {@link #aggregateConsumptionByMeterIdAndYear(Long, Integer)} for API version 2, result is stored in
+     * immutable {@link YearConsumptionDTO}.
+     * @param id Meter id
+     * @param year Year
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @throws ResourceNotFoundException If results are not found
+     * @return {@link YearConsumptionDTO} with total
+     */
+    YearConsumptionDTO aggregateYearConsumption(Long id, Integer year);
+
+    /**
+     * Variant of {@link #findByMeterIdAndYear(Long, Integer)} for API version 2. Meter readings are read without
+     * creating entities directly to immutable {@link YearConsumptionDTO}.
+     * @param id Meter id
+     * @param year Year
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @throws ResourceNotFoundException If results are not found
+     * @return {@link YearConsumptionDTO} with energy consumed per month
+     */
+    YearConsumptionDTO findYearConsumption(Long id, Integer year);
+
+    /**
+     * Variant of {@link #findByMeterIdAndYearAndMonth(Long, Integer, Integer)} for API version 2. Meter reading is
+     * read without creating entity directly to immutable {@link YearConsumptionDTO}.
+     * @param id Meter id
+     * @param year Year
+     * @param month Month
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @throws ResourceNotFoundException If results are not found
+     * @return {@link YearConsumptionDTO} with energy consumed in month
+     */
+    YearConsumptionDTO findYearConsumption(Long id, Integer year, Integer month);
+
     /**
      * Method accepts parameter <b>meterReadingDTO</b>. Parameter is then validated and if there is no
      * meter reading for meter with id, year and month object is mapped to
@@ -65,6 +140,19 @@ public interface MeterService {
      */
     MeterReadingDTO saveMeterReading(MeterReadingDTO meterReadingDTO);
 
+    /**
+     * Method accepts parameter <b>meterReadingDTOs</b>. Every meter reading is validated and meter readings for
+     * which there is no meter reading for meter with id, year and month are propagated to the database in batches.
+     * Existence of meters and meter readings is checked for all meter readings at once. {@link BatchResultDTO} with
+     * result for every meter reading is returned, invalid meter readings are reported as rejected and do not stop
+     * saving of the others. Method can throw {@link IllegalArgumentException} if list is empty or too large.
+     *
+     * @param meterReadingDTOs Meter reading DTOs
+     * @throws IllegalArgumentException If list of meter readings is empty or larger than allowed.
+     * @return {@link BatchResultDTO}
+     */
+    BatchResultDTO saveMeterReadings(List<MeterReadingDTO> meterReadingDTOs);
+
     /**
      * Method accepts parameter <b>meterReadingDTO</b>. Parameter is then validated and if there is meter reading for
      * meter with id, year and month object is mapped to {@link dev.scibaric.meterreadings.model.MeterReading}.
@@ -78,6 +166,18 @@ public interface MeterService {
      */
     MeterReadingDTO updateMeterReading(MeterReadingDTO meterReadingDTO);
 
+    /**
+     * Method accepts parameter <b>meterReadingDTO</b>. Parameter is then validated and meter reading for meter with
+     * id, year and month is propagated to the database. Meter reading is inserted if it does not exist or its consumed
+     * energy is updated if it exists, both in one statement. {@link MeterReadingDTO} is returned. Method can throw
+     * {@link IllegalArgumentException} if parameter is not valid.
+     *
+     * @param meterReadingDTO Meter reading DTO
+     * @throws IllegalArgumentException If parameters do not satisfy requirements.
+     * @return {@link MeterReadingDTO}
+     */
+    MeterReadingDTO upsertMeterReading(MeterReadingDTO meterReadingDTO);
+
 
     /**
      * Method accepts parameter <b>meterReadingId</b> and deletes meter reading from database if all
@@ -1,20 +1,38 @@
 package dev.scibaric.meterreadings.service;
 
+import dev.scibaric.meterreadings.cache.AggregateCache;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.BatchItemResultDTO;
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionRequestDTO;
+import dev.scibaric.meterreadings.dto.MeterConsumptionDTO;
 import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
 import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
-import dev.scibaric.meterreadings.model.Meter;
-import dev.scibaric.meterreadings.model.MeterReading;
+import dev.scibaric.meterreadings.mapper.MeterReadingMapper;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import dev.scibaric.meterreadings.model.MeterConsumptionRollup;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
+import dev.scibaric.meterreadings.repository.MeterConsumptionRollupJdbcRepository;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
 import dev.scibaric.meterreadings.repository.MeterReadingRepository;
 import dev.scibaric.meterreadings.validator.Validator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
-import java.time.Month;
-import java.time.format.TextStyle;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
@@ -25,123 +43,276 @@ public class MeterServiceImpl implements MeterService {
 
     private final MeterReadingRepository meterReadingRepository;
 
+    private final MeterReadingJdbcRepository meterReadingJdbcRepository;
+
+    private final MeterConsumptionRollupJdbcRepository rollupRepository;
+
     private final Validator validator;
 
-    public MeterServiceImpl(MeterReadingRepository meterReadingRepository, Validator validator) {
+    private final MeterReadingsProperties properties;
+
+    private final AggregateCache aggregateCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MeterServiceImpl(MeterReadingRepository meterReadingRepository,
+                            MeterReadingJdbcRepository meterReadingJdbcRepository,
+                            MeterConsumptionRollupJdbcRepository rollupRepository,
+                            Validator validator,
+                            MeterReadingsProperties properties,
+                            AggregateCache aggregateCache,
+                            ApplicationEventPublisher eventPublisher) {
         this.meterReadingRepository = meterReadingRepository;
+        this.meterReadingJdbcRepository = meterReadingJdbcRepository;
+        this.rollupRepository = rollupRepository;
         this.validator = validator;
+        this.properties = properties;
+        this.aggregateCache = aggregateCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public MeterReadingDTO aggregateConsumptionByMeterIdAndYear(Long id, Integer year) {
-        validator.validateMeterId(id);
-        validator.validateYear(year);
-
-        Integer consumedPower = meterReadingRepository.aggregateConsumptionByMeterIdAndYear(id, year);
-
-        if (isNull(consumedPower))
-            throw new ResourceNotFoundException(String.format("Meter readings for meter id %d and year %d does not exist", id, year));
-
         MeterReadingDTO meter = new MeterReadingDTO();
         meter.setYear(year);
-        meter.setTotal(consumedPower);
+        meter.setTotal(findTotal(id, year));
 
         return meter;
     }
 
     @Override
+    public YearConsumptionDTO aggregateYearConsumption(Long id, Integer year) {
+        return YearConsumptionDTO.ofTotal(year, findTotal(id, year));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FleetConsumptionDTO aggregateFleetConsumption(FleetConsumptionRequestDTO request,
+                                                         Consumer<MeterConsumptionDTO> consumer) {
+        Assert.notNull(request, "Request must not be null");
+        FleetConsumptionRequestDTO range = new FleetConsumptionRequestDTO(request.getMeterIds(),
+                request.getFromYear(), Objects.requireNonNullElse(request.getFromMonth(), 1),
+                request.getToYear(), Objects.requireNonNullElse(request.getToMonth(), 12));
+        validator.validateFleetConsumptionRequest(range, properties.getFleet().getMaxMeterIds());
+
+        long[] meterCountAndGrandTotal = new long[2];
+        Consumer<MeterConsumptionDTO> totals = meterConsumption -> {
+            meterCountAndGrandTotal[0]++;
+            meterCountAndGrandTotal[1] += meterConsumption.getTotal();
+            consumer.accept(meterConsumption);
+        };
+        int fetchSize = properties.getFleet().getFetchSize();
+
+        if (range.getFromMonth() == 1 && range.getToMonth() == 12)
+            rollupRepository.findYearlyConsumption(range.getMeterIds(), range.getFromYear(), range.getToYear(),
+                    fetchSize, totals);
+        else
+            meterReadingJdbcRepository.findConsumption(range.getMeterIds(), range.getFromYear(), range.getFromMonth(),
+                    range.getToYear(), range.getToMonth(), fetchSize, totals);
+
+        return new FleetConsumptionDTO(range.getFromYear(), range.getFromMonth(), range.getToYear(),
+                range.getToMonth(), meterCountAndGrandTotal[0], meterCountAndGrandTotal[1]);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public MeterReadingDTO findByMeterIdAndYear(Long id, Integer year) {
         validator.validateMeterId(id);
         validator.validateYear(year);
 
-        List<MeterReading> meterReadings = meterReadingRepository.findMeterReadingsByMeterIdAndYear(id, year);
+        List<MonthlyConsumption> meterReadings =
+                meterReadingRepository.findMonthlyConsumptionByMeterIdAndYear(id, year);
 
         if (CollectionUtils.isEmpty(meterReadings))
             throw new ResourceNotFoundException(String.format("Meter readings for meter id %d and year %d does not exist", id, year));
 
-        Map<String, Integer> monthlyEnergyConsumption = meterReadings.stream()
-                .collect(Collectors.toMap(this::meterReadingMonth, MeterReading::getEnergyConsumed));
+        return MeterReadingMapper.toYearlyMeterReadingDTO(year, meterReadings);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MeterReadingSeriesDTO findSeriesByMeterIdAndYears(Long id, Integer fromYear, Integer toYear) {
+        validator.validateMeterId(id);
+        validator.validateYearRange(fromYear, toYear);
 
-        MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
-        meterReadingDTO.setYear(year);
-        meterReadingDTO.setMonthlyEnergyConsumption(monthlyEnergyConsumption);
+        List<MonthlyConsumption> monthlyConsumptions =
+                meterReadingRepository.findMonthlyConsumption(id, fromYear, toYear);
 
-        return meterReadingDTO;
+        if (monthlyConsumptions.isEmpty())
+            throw new ResourceNotFoundException(String.format(
+                    "Meter readings for meter id %d from year %d to year %d do not exist", id, fromYear, toYear));
+
+        return MeterReadingSeriesDTO.of(id, fromYear, toYear, monthlyConsumptions);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public MeterReadingDTO findByMeterIdAndYearAndMonth(Long id, Integer year, Integer month) {
         validator.validateMeterId(id);
         validator.validateYear(year);
         validator.validateMonth(month);
-        String m = Month.of(month).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        String m = MeterReadingMapper.monthName(month);
 
-        MeterReading meterReading = meterReadingRepository.findMeterReadingByMeterIdAndYearAndMonth(id, year, month);
+        MonthlyConsumption meterReading =
+                meterReadingRepository.findMonthlyConsumptionByMeterIdAndYearAndMonth(id, year, month);
 
         if (isNull(meterReading))
             throw new ResourceNotFoundException(String.format("Meter reading for meter id %d, year %d and month %s does not exist", id, year, m));
 
-        return meterReadingToMeterReadingDTO(meterReading);
+        return MeterReadingMapper.toMeterReadingDTO(meterReading);
+    }
+
+    @Override
+    public YearConsumptionDTO findYearConsumption(Long id, Integer year) {
+        validator.validateMeterId(id);
+        validator.validateYear(year);
+
+        YearConsumptionDTO yearConsumption = meterReadingJdbcRepository.findYearConsumption(id, year);
+
+        if (isNull(yearConsumption))
+            throw new ResourceNotFoundException(String.format("Meter readings for meter id %d and year %d does not exist", id, year));
+
+        return yearConsumption;
     }
 
     @Override
+    public YearConsumptionDTO findYearConsumption(Long id, Integer year, Integer month) {
+        validator.validateMeterId(id);
+        validator.validateYear(year);
+        validator.validateMonth(month);
+
+        YearConsumptionDTO yearConsumption = meterReadingJdbcRepository.findYearConsumption(id, year, month);
+
+        if (isNull(yearConsumption))
+            throw new ResourceNotFoundException(String.format("Meter reading for meter id %d, year %d and month %s does not exist", id, year, MeterReadingMapper.monthName(month)));
+
+        return yearConsumption;
+    }
+
+    @Override
+    @Transactional
     public MeterReadingDTO saveMeterReading(MeterReadingDTO meterReadingDTO) {
         validator.validateMeterReadingDTO(meterReadingDTO);
-        String m = Month.of(meterReadingDTO.getMonth()).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        String m = MeterReadingMapper.monthName(meterReadingDTO.getMonth());
 
-        MeterReading meterReading = meterReadingRepository.findMeterReadingByMeterIdAndYearAndMonth(
-                meterReadingDTO.getMeterId(), meterReadingDTO.getYear(), meterReadingDTO.getMonth()
-        );
+        int inserted = meterReadingRepository.insertIfAbsent(meterReadingDTO.getMeterId(), meterReadingDTO.getYear(),
+                meterReadingDTO.getMonth(), meterReadingDTO.getEnergyConsumed());
 
-        if (nonNull(meterReading))
+        if (inserted == 0)
             throw new IllegalArgumentException(
                     String.format("Meter reading for meter id %d, year %d and month %s already exists",
                             meterReadingDTO.getMeterId(), meterReadingDTO.getYear(), m));
 
-        Meter meter = new Meter(meterReadingDTO.getMeterId());
-        meterReading = new MeterReading(meter, meterReadingDTO.getYear(), meterReadingDTO.getMonth(), meterReadingDTO.getEnergyConsumed());
-        meterReadingRepository.save(meterReading);
+        eventPublisher.publishEvent(
+                MeterReadingsChangedEvent.of(meterReadingDTO.getMeterId(), meterReadingDTO.getYear()));
 
         return meterReadingDTO;
     }
 
     @Override
+    @Transactional
+    public BatchResultDTO saveMeterReadings(List<MeterReadingDTO> meterReadingDTOs) {
+        int maxSize = properties.getBatch().getMaxSize();
+        Assert.notEmpty(meterReadingDTOs, "Meter readings must not be empty");
+        Assert.isTrue(meterReadingDTOs.size() <= maxSize,
+                String.format("Number of meter readings must not be greater than %d", maxSize));
+
+        List<String> rejections = validator.validateNewMeterReadings(meterReadingDTOs);
+        List<MeterReadingJdbcRepository.Row> rows = new ArrayList<>();
+
+        for (int i = 0; i < meterReadingDTOs.size(); i++) {
+            MeterReadingDTO dto = meterReadingDTOs.get(i);
+
+            if (isNull(rejections.get(i)))
+                rows.add(new MeterReadingJdbcRepository.Row(
+                        new MeterReadingKey(dto.getMeterId(), dto.getYear(), dto.getMonth()), dto.getEnergyConsumed()));
+        }
+
+        Set<MeterReadingKey> inserted = meterReadingJdbcRepository.insertAllIfAbsent(rows,
+                properties.getBatch().getJdbcBatchSize());
+        List<BatchItemResultDTO> results = new ArrayList<>(meterReadingDTOs.size());
+
+        for (int i = 0; i < meterReadingDTOs.size(); i++) {
+            MeterReadingDTO dto = meterReadingDTOs.get(i);
+
+            if (nonNull(rejections.get(i)))
+                results.add(BatchItemResultDTO.rejected(i, rejections.get(i)));
+            else if (inserted.contains(new MeterReadingKey(dto.getMeterId(), dto.getYear(), dto.getMonth())))
+                results.add(BatchItemResultDTO.created(i));
+            else
+                results.add(BatchItemResultDTO.rejected(i,
+                        String.format("Meter reading for meter id %d, year %d and month %s already exists",
+                                dto.getMeterId(), dto.getYear(), MeterReadingMapper.monthName(dto.getMonth()))));
+        }
+
+        if (!inserted.isEmpty())
+            eventPublisher.publishEvent(new MeterReadingsChangedEvent(inserted.stream()
+                    .map(MeterYear::of)
+                    .collect(Collectors.toSet())));
+
+        return new BatchResultDTO(results);
+    }
+
+    @Override
+    @Transactional
     public MeterReadingDTO updateMeterReading(MeterReadingDTO meterReadingDTO) {
         validator.validateMeterReadingDTO(meterReadingDTO);
-        String m = Month.of(meterReadingDTO.getMonth()).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        String m = MeterReadingMapper.monthName(meterReadingDTO.getMonth());
 
-        MeterReading meterReading = meterReadingRepository.findMeterReadingByMeterIdAndYearAndMonth(
-                meterReadingDTO.getMeterId(), meterReadingDTO.getYear(), meterReadingDTO.getMonth()
-        );
+        int updated = meterReadingRepository.updateEnergyConsumed(meterReadingDTO.getMeterId(),
+                meterReadingDTO.getYear(), meterReadingDTO.getMonth(), meterReadingDTO.getEnergyConsumed());
 
-        if (isNull(meterReading))
+        if (updated == 0)
             throw new IllegalArgumentException(
                     String.format("Meter reading for meter id %d, year %d and month %s does not exist",
                             meterReadingDTO.getMeterId(), meterReadingDTO.getYear(), m));
 
-        meterReading.setEnergyConsumed(meterReadingDTO.getEnergyConsumed());
-        meterReadingRepository.save(meterReading);
+        eventPublisher.publishEvent(
+                MeterReadingsChangedEvent.of(meterReadingDTO.getMeterId(), meterReadingDTO.getYear()));
 
         return meterReadingDTO;
     }
 
     @Override
+    @Transactional
+    public MeterReadingDTO upsertMeterReading(MeterReadingDTO meterReadingDTO) {
+        validator.validateMeterReadingDTO(meterReadingDTO);
+
+        meterReadingRepository.upsert(meterReadingDTO.getMeterId(), meterReadingDTO.getYear(),
+                meterReadingDTO.getMonth(), meterReadingDTO.getEnergyConsumed());
+
+        eventPublisher.publishEvent(
+                MeterReadingsChangedEvent.of(meterReadingDTO.getMeterId(), meterReadingDTO.getYear()));
+
+        return meterReadingDTO;
+    }
+
+    @Override
+    @Transactional
     public void deleteMeterReadingById(Long meterReadingId) {
         validator.validateMeterReadingId(meterReadingId);
 
+        Optional<MeterYear> meterYear = meterReadingRepository.findMeterYearById(meterReadingId);
         meterReadingRepository.deleteById(meterReadingId);
+
+        meterYear.ifPresent(changed -> eventPublisher.publishEvent(new MeterReadingsChangedEvent(Set.of(changed))));
     }
 
-    private MeterReadingDTO meterReadingToMeterReadingDTO(MeterReading meterReading) {
-        String m = Month.of(meterReading.getMonth()).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+    /**
+     * Validates meter id and year and returns yearly consumption from {@link AggregateCache}, rollup is read on miss.
+     */
+    private long findTotal(Long id, Integer year) {
+        validator.validateMeterId(id);
+        validator.validateYear(year);
 
-        Map<String, Integer> monthlyEnergyConsumption = new HashMap<>();
-        monthlyEnergyConsumption.put(m, meterReading.getEnergyConsumed());
+        Long consumedPower = aggregateCache.get(new MeterYear(id, year), meterYear -> rollupRepository
+                .findById(meterYear)
+                .map(MeterConsumptionRollup::total)
+                .orElse(null));
 
-        return new MeterReadingDTO(meterReading.getYear(), monthlyEnergyConsumption);
-    }
+        if (isNull(consumedPower))
+            throw new ResourceNotFoundException(String.format("Meter readings for meter id %d and year %d does not exist", id, year));
 
-    private String meterReadingMonth(MeterReading meterReading) {
-        return Month.of(meterReading.getMonth()).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        return consumedPower;
     }
 }
@@ -0,0 +1,18 @@
+package dev.scibaric.meterreadings.service;
+
+/**
+ * Service which creates partitions of meter readings and interval readings before rows of their year or month are
+ * saved, so creating partition never waits for lock of the table while meter readings are saved.
+ */
+public interface PartitionMaintenanceService {
+
+    /**
+     * Creates partitions of meter readings for the current year and
+     * <i>meter-readings.partitioning.years-ahead</i> years after it, and partitions of interval readings for the
+     * current month and <i>meter-readings.partitioning.months-ahead</i> months after it. Existing partitions are left
+     * as they are. Failure is logged and partitions are created again by the next run.
+     *
+     * @return Number of created partitions
+     */
+    int createPartitions();
+}
@@ -0,0 +1,81 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.repository.IntervalReadingRepository;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+public class PartitionMaintenanceServiceImpl implements PartitionMaintenanceService {
+
+    private final MeterReadingJdbcRepository meterReadingJdbcRepository;
+
+    private final IntervalReadingRepository intervalReadingRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterReadingsProperties properties;
+
+    private final Clock clock;
+
+    @Autowired
+    public PartitionMaintenanceServiceImpl(MeterReadingJdbcRepository meterReadingJdbcRepository,
+                                           IntervalReadingRepository intervalReadingRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterReadingsProperties properties) {
+        this(meterReadingJdbcRepository, intervalReadingRepository, transactionManager, properties, Clock.systemUTC());
+    }
+
+    PartitionMaintenanceServiceImpl(MeterReadingJdbcRepository meterReadingJdbcRepository,
+                                    IntervalReadingRepository intervalReadingRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterReadingsProperties properties,
+                                    Clock clock) {
+        this.meterReadingJdbcRepository = meterReadingJdbcRepository;
+        this.intervalReadingRepository = intervalReadingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${meter-readings.partitioning.cron:0 0 3 * * *}")
+    public int createPartitions() {
+        List<Integer> years = new ArrayList<>();
+        for (int i = 0; i <= properties.getPartitioning().getYearsAhead(); i++)
+            years.add(Year.now(clock).getValue() + i);
+
+        List<YearMonth> months = new ArrayList<>();
+        for (int i = 0; i <= properties.getPartitioning().getMonthsAhead(); i++)
+            months.add(YearMonth.now(clock).plusMonths(i));
+
+        try {
+            Integer created = transactionTemplate.execute(status ->
+                    meterReadingJdbcRepository.createPartitions(years));
+            created += transactionTemplate.execute(status -> intervalReadingRepository.createPartitions(months));
+
+            if (created > 0)
+                log.info("Created {} partitions of meter readings and interval readings", created);
+            return created;
+        } catch (DataAccessException e) {
+            log.warn("Partitions of meter readings and interval readings were not created", e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
+import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Service interface called by {@link dev.scibaric.meterreadings.controller.ReactiveMeterController} in
+ * <i>reactive</i> profile. Methods have the same validation rules and results as methods of {@link MeterService},
+ * but they return {@link Mono} and signal exceptions as errors instead of throwing them. Meter readings are read
+ * without blocking, changes are delegated to {@link MeterService} on threads which are allowed to block.
+ */
+public interface ReactiveMeterService {
+    /**
+     * Reactive variant of {@link MeterService#aggregateConsumptionByMeterIdAndYear(Long, Integer)}.
+     *
+     * @param id Meter id
+     * @param year Year
+     * @return {@link Mono} with {@link MeterReadingDTO}, {@link IllegalArgumentException} if parameters do not
+     * satisfy requirements or {@link ResourceNotFoundException} if results are not found
+     */
+    Mono<MeterReadingDTO> aggregateConsumptionByMeterIdAndYear(Long id, Integer year);
+
+    /**
+     * Reactive variant of {@link MeterService#findByMeterIdAndYear(Long, Integer)}.
+     *
+     * @param id Meter id
+     * @param year Year
+     * @return {@link Mono} with {@link MeterReadingDTO}, {@link IllegalArgumentException} if parameters do not
+     * satisfy requirements or {@link ResourceNotFoundException} if results are not found
+     */
+    Mono<MeterReadingDTO> findByMeterIdAndYear(Long id, Integer year);
+
+    /**
+     * Reactive variant of {@link MeterService#findSeriesByMeterIdAndYears(Long, Integer, Integer)}.
+     *
+     * @param id Meter id
+     * @param fromYear First year, inclusive
+     * @param toYear Last year, inclusive
+     * @return {@link Mono} with {@link MeterReadingSeriesDTO}, {@link IllegalArgumentException} if parameters do not
+     * satisfy requirements or {@link ResourceNotFoundException} if results are not found
+     */
+    Mono<MeterReadingSeriesDTO> findSeriesByMeterIdAndYears(Long id, Integer fromYear, Integer toYear);
+
+    /**
+     * Reactive variant of {@link MeterService#findByMeterIdAndYearAndMonth(Long, Integer, Integer)}.
+     *
+     * @param id Meter id
+     * @param year Year
+     * @param month Month
+     * @return {@link Mono} with {@link MeterReadingDTO}, {@link IllegalArgumentException} if parameters do not
+     * satisfy requirements or {@link ResourceNotFoundException} if results are not found
+     */
+    Mono<MeterReadingDTO> findByMeterIdAndYearAndMonth(Long id, Integer year, Integer month);
+
+    /**
+     * Reactive variant of {@link MeterService#saveMeterReading(MeterReadingDTO)}.
+     *
+     * @param meterReadingDTO Meter reading DTO
+     * @return {@link Mono} with {@link MeterReadingDTO} or {@link IllegalArgumentException} if parameter is not valid
+     */
+    Mono<MeterReadingDTO> saveMeterReading(MeterReadingDTO meterReadingDTO);
+
+    /**
+     * Reactive variant of {@link MeterService#saveMeterReadings(List)}.
+     *
+     * @param meterReadingDTOs Meter reading DTOs
+     * @return {@link Mono} with {@link BatchResultDTO} or {@link IllegalArgumentException} if list of meter readings
+     * is empty or larger than allowed
+     */
+    Mono<BatchResultDTO> saveMeterReadings(List<MeterReadingDTO> meterReadingDTOs);
+
+    /**
+     * Reactive variant of {@link MeterService#updateMeterReading(MeterReadingDTO)}.
+     *
+     * @param meterReadingDTO Meter reading DTO
+     * @return {@link Mono} with {@link MeterReadingDTO} or {@link IllegalArgumentException} if parameter is not valid
+     */
+    Mono<MeterReadingDTO> updateMeterReading(MeterReadingDTO meterReadingDTO);
+
+    /**
+     * Reactive variant of {@link MeterService#upsertMeterReading(MeterReadingDTO)}.
+     *
+     * @param meterReadingDTO Meter reading DTO
+     * @return {@link Mono} with {@link MeterReadingDTO} or {@link IllegalArgumentException} if parameter is not valid
+     */
+    Mono<MeterReadingDTO> upsertMeterReading(MeterReadingDTO meterReadingDTO);
+
+    /**
+     * Reactive variant of {@link MeterService#deleteMeterReadingById(Long)}.
+     *
+     * @param meterReadingId Meter reading id
+     * @return Empty {@link Mono} or {@link IllegalArgumentException} if parameter is not valid
+     */
+    Mono<Void> deleteMeterReadingById(Long meterReadingId);
+}
@@ -0,0 +1,158 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.cache.AggregateCache;
+import dev.scibaric.meterreadings.cache.MeterIdCache;
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
+import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import dev.scibaric.meterreadings.mapper.MeterReadingMapper;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
+import dev.scibaric.meterreadings.repository.ReactiveMeterReadingRepository;
+import dev.scibaric.meterreadings.validator.Validator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@Service
+@Profile("reactive")
+public class ReactiveMeterServiceImpl implements ReactiveMeterService {
+
+    private final ReactiveMeterReadingRepository repository;
+
+    private final MeterService meterService;
+
+    private final Validator validator;
+
+    private final MeterIdCache meterIdCache;
+
+    private final AggregateCache aggregateCache;
+
+    public ReactiveMeterServiceImpl(ReactiveMeterReadingRepository repository,
+                                    MeterService meterService,
+                                    Validator validator,
+                                    MeterIdCache meterIdCache,
+                                    AggregateCache aggregateCache) {
+        this.repository = repository;
+        this.meterService = meterService;
+        this.validator = validator;
+        this.meterIdCache = meterIdCache;
+        this.aggregateCache = aggregateCache;
+    }
+
+    @Override
+    public Mono<MeterReadingDTO> aggregateConsumptionByMeterIdAndYear(Long id, Integer year) {
+        MeterYear meterYear = new MeterYear(id, year);
+
+        return validateMeterId(id)
+                .then(Mono.fromRunnable(() -> validator.validateYear(year)))
+                .then(Mono.fromSupplier(() -> aggregateCache.getIfPresent(meterYear)))
+                .switchIfEmpty(Mono.defer(() -> {
+                    long stamp = aggregateCache.stamp(meterYear);
+                    return repository.findRollupTotal(meterYear)
+                            .doOnNext(total -> aggregateCache.put(meterYear, total, stamp));
+                }))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(
+                        String.format("Meter readings for meter id %d and year %d does not exist", id, year))))
+                .map(total -> {
+                    MeterReadingDTO meter = new MeterReadingDTO();
+                    meter.setYear(year);
+                    meter.setTotal(total);
+                    return meter;
+                });
+    }
+
+    @Override
+    public Mono<MeterReadingDTO> findByMeterIdAndYear(Long id, Integer year) {
+        return validateMeterId(id)
+                .then(Mono.fromRunnable(() -> validator.validateYear(year)))
+                .thenMany(Flux.defer(() -> repository.findMonthlyConsumption(id, year, year)))
+                .collectMap(monthlyConsumption -> MeterReadingMapper.monthName(monthlyConsumption.month()),
+                        MonthlyConsumption::energyConsumed)
+                .filter(monthlyEnergyConsumption -> !monthlyEnergyConsumption.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(
+                        String.format("Meter readings for meter id %d and year %d does not exist", id, year))))
+                .map(monthlyEnergyConsumption -> new MeterReadingDTO(year, monthlyEnergyConsumption));
+    }
+
+    @Override
+    public Mono<MeterReadingSeriesDTO> findSeriesByMeterIdAndYears(Long id, Integer fromYear, Integer toYear) {
+        return validateMeterId(id)
+                .then(Mono.fromRunnable(() -> validator.validateYearRange(fromYear, toYear)))
+                .thenMany(Flux.defer(() -> repository.findMonthlyConsumption(id, fromYear, toYear)))
+                .collectList()
+                .filter(monthlyConsumptions -> !monthlyConsumptions.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(String.format(
+                        "Meter readings for meter id %d from year %d to year %d do not exist", id, fromYear, toYear))))
+                .map(monthlyConsumptions -> MeterReadingSeriesDTO.of(id, fromYear, toYear, monthlyConsumptions));
+    }
+
+    @Override
+    public Mono<MeterReadingDTO> findByMeterIdAndYearAndMonth(Long id, Integer year, Integer month) {
+        return validateMeterId(id)
+                .then(Mono.fromRunnable(() -> {
+                    validator.validateYear(year);
+                    validator.validateMonth(month);
+                }))
+                .then(Mono.defer(() -> repository.findMonthConsumption(id, year, month)))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(String.format(
+                        "Meter reading for meter id %d, year %d and month %s does not exist",
+                        id, year, MeterReadingMapper.monthName(month)))))
+                .map(monthlyConsumption -> new MeterReadingDTO(monthlyConsumption.year(),
+                        Map.of(MeterReadingMapper.monthName(monthlyConsumption.month()), monthlyConsumption.energyConsumed())));
+    }
+
+    @Override
+    public Mono<MeterReadingDTO> saveMeterReading(MeterReadingDTO meterReadingDTO) {
+        return blocking(() -> meterService.saveMeterReading(meterReadingDTO));
+    }
+
+    @Override
+    public Mono<BatchResultDTO> saveMeterReadings(List<MeterReadingDTO> meterReadingDTOs) {
+        return blocking(() -> meterService.saveMeterReadings(meterReadingDTOs));
+    }
+
+    @Override
+    public Mono<MeterReadingDTO> updateMeterReading(MeterReadingDTO meterReadingDTO) {
+        return blocking(() -> meterService.updateMeterReading(meterReadingDTO));
+    }
+
+    @Override
+    public Mono<MeterReadingDTO> upsertMeterReading(MeterReadingDTO meterReadingDTO) {
+        return blocking(() -> meterService.upsertMeterReading(meterReadingDTO));
+    }
+
+    @Override
+    public Mono<Void> deleteMeterReadingById(Long meterReadingId) {
+        return Mono.<Void>fromRunnable(() -> meterService.deleteMeterReadingById(meterReadingId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Validates meter id with rules of {@link Validator#validateMeterId(Long)}, existence of meter which is not in
+     * {@link MeterIdCache} is checked with R2DBC instead of blocking query.
+     */
+    private Mono<Void> validateMeterId(Long id) {
+        return Mono.fromRunnable(() -> validator.validateMeterIdValue(id))
+                .then(Mono.fromSupplier(() -> meterIdCache.getIfPresent(id)))
+                .switchIfEmpty(Mono.defer(() -> repository.existsMeterById(id))
+                        .doOnNext(exists -> meterIdCache.put(id, exists)))
+                .doOnNext(exists -> validator.validateMeterExists(id, exists))
+                .then();
+    }
+
+    /**
+     * Changes are written with JDBC in transactions of {@link MeterService}, so rollups and caches are maintained
+     * the same way in both profiles. They are executed on bounded elastic scheduler so event loop is not blocked.
+     */
+    private <T> Mono<T> blocking(Callable<T> change) {
+        return Mono.fromCallable(change).subscribeOn(Schedulers.boundedElastic());
+    }
+}
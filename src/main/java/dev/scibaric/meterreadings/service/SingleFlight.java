@@ -0,0 +1,103 @@
+package dev.scibaric.meterreadings.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Executes at most one call per key at once. Thread which finds no call of its key in flight executes it, threads
+ * which call the same key in the meantime wait for its result or exception instead of executing it again. Calls in
+ * flight are kept in {@link ConcurrentHashMap}, so no lock is held while call is executed and calls of different keys
+ * do not wait for each other. Nothing is kept after call completes. Number of executed and collapsed calls is
+ * published to Micrometer as <i>&lt;name&gt;.calls</i> with tag <i>result</i> and number of calls in flight as
+ * <i>&lt;name&gt;.in.flight</i>.
+ *
+ * @param <K> Type of key, it must implement equals and hashCode
+ */
+public final class SingleFlight<K> {
+
+    private final Map<K, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+
+    private final Counter collapsed;
+
+    /**
+     * @param name Prefix of metrics
+     * @param registry Registry of metrics
+     */
+    public SingleFlight(String name, MeterRegistry registry) {
+        this.executed = Counter.builder(name + ".calls")
+                .description("Calls executed by the first caller of the key")
+                .tag("result", "executed")
+                .register(registry);
+        this.collapsed = Counter.builder(name + ".calls")
+                .description("Calls which shared result of call of the same key in flight")
+                .tag("result", "collapsed")
+                .register(registry);
+        Gauge.builder(name + ".in.flight", calls, Map::size)
+                .description("Number of keys whose call is in flight")
+                .register(registry);
+    }
+
+    /**
+     * Executes <b>call</b> or waits for call of the same key which is already in flight.
+     *
+     * @param key Key of call
+     * @param call Call
+     * @param <V> Type of result
+     * @return Result of call, shared by all callers of the key
+     * @throws RuntimeException Exception thrown by call, shared by all callers of the key
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(K key, Supplier<V> call) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = calls.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            collapsed.increment();
+            return (V) await(inFlight);
+        }
+
+        executed.increment();
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, flight);
+        }
+    }
+
+    /**
+     * Stops sharing calls in flight whose key matches <b>predicate</b>, callers which come later execute their own
+     * call. Used when data read by calls in flight changed, so later callers do not get result read before the
+     * change.
+     *
+     * @param predicate Predicate of keys
+     */
+    public void forget(Predicate<K> predicate) {
+        calls.keySet().removeIf(predicate);
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw e;
+        }
+    }
+}
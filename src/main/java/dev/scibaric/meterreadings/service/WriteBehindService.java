@@ -0,0 +1,33 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.exception.ServiceUnavailableException;
+
+/**
+ * Service which saves meter readings asynchronously when <i>meter-readings.write-behind.enabled</i> is set. Meter
+ * readings are appended to durable local journal and written to the database by background writer in multi-row
+ * inserts, so saving does not wait for the database.
+ */
+public interface WriteBehindService {
+
+    /**
+     * Validates meter reading and appends it to journal. Meter reading is written to the database later, it is
+     * skipped if meter reading for meter id, year and month already exists by then.
+     *
+     * @param meterReadingDTO Meter reading
+     * @throws IllegalArgumentException If meter reading is not valid
+     * @throws ServiceUnavailableException If journal is full
+     * @return Accepted meter reading
+     */
+    MeterReadingDTO saveMeterReading(MeterReadingDTO meterReadingDTO);
+
+    /**
+     * Writes the oldest meter readings of journal to the database in one transaction and removes them from journal.
+     * Meter readings which can never be written, such as meter readings of meter which does not exist, are rejected
+     * one by one, so they do not block the others. Failure of the database or of meter reading which may be written
+     * later is logged and meter readings which are not written yet are written by the next drain.
+     *
+     * @return Number of meter readings removed from journal or -1 if writing of any of them failed
+     */
+    int drain();
+}
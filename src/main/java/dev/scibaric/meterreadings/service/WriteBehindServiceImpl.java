@@ -0,0 +1,274 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.exception.ServiceUnavailableException;
+import dev.scibaric.meterreadings.journal.MeterReadingJournal;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
+import dev.scibaric.meterreadings.validator.Validator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "meter-readings.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindServiceImpl implements WriteBehindService, SmartLifecycle, DisposableBean {
+
+    private static final String DATA_EXCEPTION_CLASS = "22";
+
+    private final MeterReadingJdbcRepository meterReadingJdbcRepository;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MeterReadingsProperties.WriteBehind properties;
+
+    private final Clock clock;
+
+    private final MeterReadingJournal journal;
+
+    private final Counter inserted;
+
+    private final Counter skipped;
+
+    private final Counter rejected;
+
+    private volatile Thread thread;
+
+    @Autowired
+    public WriteBehindServiceImpl(MeterReadingJdbcRepository meterReadingJdbcRepository,
+                                  Validator validator,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterReadingsProperties properties,
+                                  MeterRegistry registry) {
+        this(meterReadingJdbcRepository, validator, transactionManager, eventPublisher, properties, registry,
+                Clock.systemUTC());
+    }
+
+    WriteBehindServiceImpl(MeterReadingJdbcRepository meterReadingJdbcRepository,
+                           Validator validator,
+                           PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterReadingsProperties properties,
+                           MeterRegistry registry,
+                           Clock clock) {
+        this.meterReadingJdbcRepository = meterReadingJdbcRepository;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties.getWriteBehind();
+        this.clock = clock;
+
+        Path path = Path.of(this.properties.getJournal());
+        try {
+            this.journal = MeterReadingJournal.open(path, this.properties.getJournalSize().toBytes());
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("Journal %s can not be opened", path), e);
+        }
+        if (journal.size() > 0)
+            log.info("Replaying {} meter readings from journal {}", journal.size(), path);
+
+        Gauge.builder("write.behind.queue.size", journal, MeterReadingJournal::size)
+                .description("Number of meter readings in journal which are not written to the database")
+                .register(registry);
+        TimeGauge.builder("write.behind.journal.lag", journal, TimeUnit.MILLISECONDS,
+                        j -> j.lagMillis(clock.millis()))
+                .description("Time since the oldest meter reading in journal was accepted")
+                .register(registry);
+        this.inserted = drainedCounter(registry, "inserted");
+        this.skipped = drainedCounter(registry, "skipped");
+        this.rejected = drainedCounter(registry, "rejected");
+    }
+
+    private static Counter drainedCounter(MeterRegistry registry, String result) {
+        return Counter.builder("write.behind.drained")
+                .description("Meter readings removed from journal")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public MeterReadingDTO saveMeterReading(MeterReadingDTO meterReadingDTO) {
+        validator.validateMeterReadingDTO(meterReadingDTO);
+
+        MeterReadingKey key = new MeterReadingKey(meterReadingDTO.getMeterId(), meterReadingDTO.getYear(),
+                meterReadingDTO.getMonth());
+        if (!journal.append(key, meterReadingDTO.getEnergyConsumed(), clock.millis()))
+            throw new ServiceUnavailableException("Too many meter readings are waiting to be saved");
+
+        return meterReadingDTO;
+    }
+
+    @Override
+    public int drain() {
+        List<MeterReadingJdbcRepository.Row> rows = journal.peek(properties.getBatchSize());
+        if (rows.isEmpty())
+            return 0;
+
+        int written = 0;
+        try {
+            try {
+                int count = insert(rows);
+                inserted.increment(count);
+                skipped.increment(rows.size() - count);
+                written = rows.size();
+            } catch (DataIntegrityViolationException e) {
+                written = insertOneByOne(rows);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Writing {} meter readings from journal failed, it is retried in {}", rows.size() - written,
+                    properties.getRetryDelay(), e);
+        }
+
+        journal.advance(written);
+        return written == rows.size() ? written : -1;
+    }
+
+    /**
+     * Rows inserted before failure of the database are skipped when they are written again. Row which can never be
+     * inserted, see {@link #isDefinitive(DataIntegrityViolationException)}, is rejected, writing stops at row which
+     * may be inserted later.
+     *
+     * @return Number of rows which are inserted, skipped or rejected
+     */
+    private int insertOneByOne(List<MeterReadingJdbcRepository.Row> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            MeterReadingJdbcRepository.Row row = rows.get(i);
+            try {
+                int count = insert(List.of(row));
+                inserted.increment(count);
+                skipped.increment(1 - count);
+            } catch (DataIntegrityViolationException e) {
+                if (!isDefinitive(e)) {
+                    log.warn("Meter reading {} from journal can not be written yet, it is retried in {}: {}",
+                            row.key(), properties.getRetryDelay(), e.getMostSpecificCause().getMessage());
+                    return i;
+                }
+
+                rejected.increment();
+                log.warn("Meter reading {} with energy consumed {} from journal is rejected: {}", row.key(),
+                        row.energyConsumed(), e.getMostSpecificCause().getMessage());
+            }
+        }
+        return rows.size();
+    }
+
+    /**
+     * Violated foreign key of meter, check constraint on values and invalid values are definitive. Other violations,
+     * such as missing partition of the year, which is reported as check violation without constraint, may not
+     * happen when the row is written again.
+     */
+    static boolean isDefinitive(DataIntegrityViolationException e) {
+        if (!(e.getMostSpecificCause() instanceof PSQLException psqlException) || isNull(psqlException.getSQLState()))
+            return false;
+
+        String sqlState = psqlException.getSQLState();
+        ServerErrorMessage message = psqlException.getServerErrorMessage();
+        return sqlState.equals(PSQLState.FOREIGN_KEY_VIOLATION.getState())
+                || sqlState.startsWith(DATA_EXCEPTION_CLASS)
+                || sqlState.equals(PSQLState.CHECK_VIOLATION.getState()) && nonNull(message)
+                && nonNull(message.getConstraint());
+    }
+
+    private int insert(List<MeterReadingJdbcRepository.Row> rows) {
+        Integer count = transactionTemplate.execute(status -> {
+            int insertedRows = meterReadingJdbcRepository.insertAllIfAbsent(rows);
+            if (insertedRows > 0)
+                eventPublisher.publishEvent(new MeterReadingsChangedEvent(rows.stream()
+                        .map(row -> MeterYear.of(row.key()))
+                        .collect(Collectors.toSet())));
+            return insertedRows;
+        });
+        return nonNull(count) ? count : 0;
+    }
+
+    @Override
+    public void start() {
+        thread = Thread.ofPlatform()
+                .name("meter-readings-write-behind")
+                .daemon()
+                .start(this::run);
+    }
+
+    /**
+     * Stops writer after its current drain, meter readings left in journal are written after restart.
+     */
+    @Override
+    public void stop() {
+        Thread writer = thread;
+        thread = null;
+        if (nonNull(writer)) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(properties.getRetryDelay().multipliedBy(2).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return nonNull(thread);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        journal.close();
+    }
+
+    private void run() {
+        while (isRunning()) {
+            int drained;
+            try {
+                drained = drain();
+            } catch (RuntimeException e) {
+                log.error("Draining journal failed, it is retried in {}", properties.getRetryDelay(), e);
+                drained = -1;
+            }
+
+            if (drained < 0)
+                sleep(properties.getRetryDelay());
+            else if (drained < properties.getBatchSize())
+                sleep(properties.getDrainInterval());
+        }
+    }
+
+    private static void sleep(Duration delay) {
+        LockSupport.parkNanos(delay.toNanos());
+    }
+}
@@ -1,12 +1,26 @@
 package dev.scibaric.meterreadings.validator;
 
+import dev.scibaric.meterreadings.cache.MeterIdCache;
+import dev.scibaric.meterreadings.dto.FleetConsumptionRequestDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingDTO;
 import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
 import dev.scibaric.meterreadings.repository.MeterReadingRepository;
-import dev.scibaric.meterreadings.repository.MeterRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import java.time.Instant;
+import java.time.Month;
 import java.time.Year;
+import java.time.format.TextStyle;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static java.util.Objects.nonNull;
 
 /**
  * Class for validating user inputs. Methods for validating raise {@link IllegalArgumentException} if parameters do not
@@ -15,26 +29,52 @@ import java.time.Year;
 @Component
 public class Validator {
 
-    private final MeterRepository meterRepository;
+    private static final long INTERVAL_SECONDS = 15 * 60;
+
+    private final MeterIdCache meterIdCache;
 
     private final MeterReadingRepository meterReadingRepository;
 
-    public Validator(MeterRepository meterRepository, MeterReadingRepository meterReadingRepository) {
-        this.meterRepository = meterRepository;
+    public Validator(MeterIdCache meterIdCache, MeterReadingRepository meterReadingRepository) {
+        this.meterIdCache = meterIdCache;
         this.meterReadingRepository = meterReadingRepository;
     }
 
     /**
      * Validates meter id, if conditions are not met {@link IllegalArgumentException} is raised.
-     * Meter id must not be null, must be greater than zero and should exist in the database.
+     * Meter id must not be null, must be greater than zero and should exist in the database. Existence of meter is
+     * checked in {@link MeterIdCache} first.
      *
      * @param id Meter id
      * @throws IllegalArgumentException
      */
     public void validateMeterId(Long id) {
+        validateMeterIdValue(id);
+        validateMeterExists(id, meterIdCache.exists(id));
+    }
+
+    /**
+     * Validates result of meter existence check, if meter does not exist {@link IllegalArgumentException} is raised.
+     * It is used when existence of meter is checked without blocking the calling thread.
+     *
+     * @param id Meter id
+     * @param exists True if meter exists
+     * @throws IllegalArgumentException
+     */
+    public void validateMeterExists(Long id, boolean exists) {
+        Assert.isTrue(exists, () -> String.format("Meter with id %d does not exist", id));
+    }
+
+    /**
+     * Validates meter id without checking if meter exists, if conditions are not met {@link IllegalArgumentException}
+     * is raised. Meter id must not be null and must be greater than zero.
+     *
+     * @param id Meter id
+     * @throws IllegalArgumentException
+     */
+    public void validateMeterIdValue(Long id) {
         Assert.notNull(id, "Meter id must not be null");
         Assert.isTrue(id > 0, "Meter id must be greater than 0");
-        Assert.isTrue(meterRepository.existsById(id), String.format("Meter with id %d does not exist", id));
     }
 
     /**
@@ -50,6 +90,21 @@ public class Validator {
         Assert.isTrue(year <= Year.now().getValue(), "Year must not be in the future");
     }
 
+    /**
+     * Validates range of years, if conditions are not met {@link IllegalArgumentException} is raised.
+     * Both years must meet conditions defined in {@link #validateYear(Integer)} and first year must not be after last
+     * year.
+     *
+     * @param fromYear First year
+     * @param toYear Last year
+     * @throws IllegalArgumentException
+     */
+    public void validateYearRange(Integer fromYear, Integer toYear) {
+        validateYear(fromYear);
+        validateYear(toYear);
+        Assert.isTrue(fromYear <= toYear, "From year must not be after to year");
+    }
+
     /**
      * Validates month, if conditions are not met {@link IllegalArgumentException} is raised.
      * Month must not be null and must be between one and twelve.
@@ -90,6 +145,159 @@ public class Validator {
         validateEnergyConsumed(meterReadingDTO.getEnergyConsumed());
     }
 
+    /**
+     * Validates meter reading without checking if meter exists, if conditions are not met
+     * {@link IllegalArgumentException} is raised. Meter reading must not be null and must meet conditions defined in
+     * {@link #validateMeterIdValue(Long)}, {@link #validateYear(Integer)}, {@link #validateMonth(Integer)},
+     * {@link #validateEnergyConsumed(Integer)}.
+     *
+     * @param meterReadingDTO Meter reading
+     * @throws IllegalArgumentException
+     */
+    public void validateMeterReadingValues(MeterReadingDTO meterReadingDTO) {
+        Assert.notNull(meterReadingDTO, "Meter reading must not be null");
+        validateMeterIdValue(meterReadingDTO.getMeterId());
+        validateYear(meterReadingDTO.getYear());
+        validateMonth(meterReadingDTO.getMonth());
+        validateEnergyConsumed(meterReadingDTO.getEnergyConsumed());
+    }
+
+    /**
+     * Validates meter readings which are saved together. Every meter reading must meet conditions defined in
+     * {@link #validateMeterReadingValues(MeterReadingDTO)}, its meter must exist, meter reading for meter id, year and
+     * month must not exist and must not be repeated in the list. Existence of meters and meter readings is checked
+     * with one query each for the whole list. Exception is not raised, reason of rejection is returned instead.
+     *
+     * @param meterReadingDTOs Meter readings
+     * @return {@link List} with reason of rejection at position of every rejected meter reading and null at position
+     * of every meter reading which can be saved
+     */
+    public List<String> validateNewMeterReadings(List<MeterReadingDTO> meterReadingDTOs) {
+        String[] rejections = new String[meterReadingDTOs.size()];
+        Set<Long> meterIds = new HashSet<>();
+        Set<Integer> years = new HashSet<>();
+
+        for (int i = 0; i < meterReadingDTOs.size(); i++) {
+            try {
+                validateMeterReadingValues(meterReadingDTOs.get(i));
+                meterIds.add(meterReadingDTOs.get(i).getMeterId());
+                years.add(meterReadingDTOs.get(i).getYear());
+            } catch (IllegalArgumentException e) {
+                rejections[i] = e.getMessage();
+            }
+        }
+
+        Set<Long> existingMeterIds = meterIds.isEmpty() ? Set.of() : meterIdCache.findExistingIds(meterIds);
+        Set<MeterReadingKey> existingKeys = existingMeterIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(meterReadingRepository.findMeterReadingKeys(existingMeterIds, years));
+        Set<MeterReadingKey> keys = new HashSet<>();
+
+        for (int i = 0; i < meterReadingDTOs.size(); i++) {
+            if (rejections[i] != null)
+                continue;
+
+            MeterReadingDTO dto = meterReadingDTOs.get(i);
+            MeterReadingKey key = new MeterReadingKey(dto.getMeterId(), dto.getYear(), dto.getMonth());
+            String m = Month.of(dto.getMonth()).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+
+            if (!existingMeterIds.contains(dto.getMeterId()))
+                rejections[i] = String.format("Meter with id %d does not exist", dto.getMeterId());
+            else if (existingKeys.contains(key))
+                rejections[i] = String.format("Meter reading for meter id %d, year %d and month %s already exists",
+                        dto.getMeterId(), dto.getYear(), m);
+            else if (!keys.add(key))
+                rejections[i] = String.format(
+                        "Meter reading for meter id %d, year %d and month %s is duplicated in request",
+                        dto.getMeterId(), dto.getYear(), m);
+        }
+
+        return Arrays.asList(rejections);
+    }
+
+    /**
+     * Validates request for consumption of many meters, if conditions are not met {@link IllegalArgumentException} is
+     * raised. Meter ids are optional, if they are set there must be at least one and at most <b>maxMeterIds</b> and
+     * every meter id must meet conditions defined in {@link #validateMeterIdValue(Long)}. Existence of meters is not
+     * checked. Years and months must meet conditions defined in {@link #validateYear(Integer)} and
+     * {@link #validateMonth(Integer)} and first month must not be after last month.
+     *
+     * @param request Meter ids and range of months
+     * @param maxMeterIds Maximum number of meter ids
+     * @throws IllegalArgumentException
+     */
+    public void validateFleetConsumptionRequest(FleetConsumptionRequestDTO request, int maxMeterIds) {
+        Assert.notNull(request, "Request must not be null");
+
+        if (nonNull(request.getMeterIds())) {
+            Assert.notEmpty(request.getMeterIds(), "Meter ids must not be empty");
+            Assert.isTrue(request.getMeterIds().size() <= maxMeterIds,
+                    () -> String.format("Number of meter ids must not be greater than %d", maxMeterIds));
+            request.getMeterIds().forEach(this::validateMeterIdValue);
+        }
+
+        validateYear(request.getFromYear());
+        validateMonth(request.getFromMonth());
+        validateYear(request.getToYear());
+        validateMonth(request.getToMonth());
+        Assert.isTrue(request.getFromYear() * 12 + request.getFromMonth()
+                        <= request.getToYear() * 12 + request.getToMonth(),
+                "First month must not be after last month");
+    }
+
+    /**
+     * Validates interval readings of one meter which are saved together, if conditions are not met
+     * {@link IllegalArgumentException} is raised. There must be at least one and at most <b>maxSize</b> interval
+     * readings. Start of every interval must not be null, must be at a quarter of an hour and must not be in the
+     * future and must not be repeated in the list. Consumed energy must meet conditions defined in
+     * {@link #validateEnergyConsumed(Integer)}.
+     *
+     * @param intervalReadingDTOs Interval readings
+     * @param maxSize Maximum number of interval readings
+     * @throws IllegalArgumentException
+     */
+    public void validateIntervalReadings(List<IntervalReadingDTO> intervalReadingDTOs, int maxSize) {
+        Assert.notEmpty(intervalReadingDTOs, "Interval readings must not be empty");
+        Assert.isTrue(intervalReadingDTOs.size() <= maxSize,
+                () -> String.format("Number of interval readings must not be greater than %d", maxSize));
+
+        Instant now = Instant.now();
+        Set<Instant> readAts = new HashSet<>();
+
+        for (IntervalReadingDTO dto : intervalReadingDTOs) {
+            Assert.notNull(dto, "Interval reading must not be null");
+            Assert.notNull(dto.getReadAt(), "Start of interval must not be null");
+            Assert.isTrue(dto.getReadAt().getEpochSecond() % INTERVAL_SECONDS == 0 && dto.getReadAt().getNano() == 0,
+                    () -> String.format("Start of interval %s must be at a quarter of an hour", dto.getReadAt()));
+            Assert.isTrue(!dto.getReadAt().isAfter(now),
+                    () -> String.format("Start of interval %s must not be in the future", dto.getReadAt()));
+            Assert.isTrue(readAts.add(dto.getReadAt()),
+                    () -> String.format("Interval reading at %s is duplicated in request", dto.getReadAt()));
+            validateEnergyConsumed(dto.getEnergyConsumed());
+        }
+    }
+
+    /**
+     * Validates range of time of interval readings, if conditions are not met {@link IllegalArgumentException} is
+     * raised. Start and end of range and resolution must not be null, start must be before end and range must not
+     * have more than <b>maxValues</b> values of resolution.
+     *
+     * @param from Start of range, inclusive
+     * @param to End of range, exclusive
+     * @param resolution Resolution of values
+     * @param maxValues Maximum number of values
+     * @throws IllegalArgumentException
+     */
+    public void validateIntervalRange(Instant from, Instant to, IntervalResolution resolution, int maxValues) {
+        Assert.notNull(from, "From must not be null");
+        Assert.notNull(to, "To must not be null");
+        Assert.notNull(resolution, "Resolution must not be null");
+        Assert.isTrue(from.isBefore(to), "From must be before to");
+        Assert.isTrue(resolution.countValues(from, to) <= maxValues,
+                () -> String.format("Range must not have more than %d values of resolution %s", maxValues,
+                        resolution));
+    }
+
     /**
      * Validates meter reading id, if conditions are not met {@link IllegalArgumentException} is raised.
      * Meter reading id must not be null, must greater than zero and should exist in database.
@@ -101,6 +309,6 @@ public class Validator {
         Assert.notNull(meterReadingId, "Meter reading id must not be null");
         Assert.isTrue(meterReadingId > 0, "Meter reading id must be greater than 0");
         Assert.isTrue(meterReadingRepository.existsById(meterReadingId),
-                String.format("Meter reading with id %d does not exist", meterReadingId));
+                () -> String.format("Meter reading with id %d does not exist", meterReadingId));
     }
 }
@@ -0,0 +1,46 @@
+-- Keeps only the latest meter reading for meter, year and month so unique index from V1.1.1 can be created.
+-- Removed meter readings are copied to meter_reading_duplicate together with id of the kept meter reading, so
+-- their energy consumed can be reviewed and restored after the upgrade.
+create table meter_reading_duplicate (
+    id bigint not null,
+    energy_consumed integer not null,
+    month integer not null,
+    year integer not null,
+    meter_id bigint not null,
+    kept_id bigint not null,
+    removed_at timestamp with time zone not null default now(),
+    primary key (id)
+);
+
+insert into meter_reading_duplicate (id, energy_consumed, month, year, meter_id, kept_id)
+select mr.id, mr.energy_consumed, mr.month, mr.year, mr.meter_id, latest.id
+from meter_reading mr
+join (select meter_id, year, month, max(id) as id
+      from meter_reading
+      group by meter_id, year, month
+      having count(*) > 1) latest
+  on latest.meter_id = mr.meter_id
+ and latest.year = mr.year
+ and latest.month = mr.month
+ and latest.id > mr.id;
+
+do $$
+declare
+    removed bigint;
+    differing bigint;
+begin
+    select count(*), count(*) filter (where d.energy_consumed <> kept.energy_consumed)
+    into removed, differing
+    from meter_reading_duplicate d
+    join meter_reading kept on kept.id = d.kept_id;
+
+    if removed > 0 then
+        raise notice 'Moving % duplicate meter readings (% with different energy consumed) to meter_reading_duplicate',
+            removed, differing;
+    end if;
+end
+$$;
+
+delete from meter_reading mr
+using meter_reading_duplicate d
+where mr.id = d.id;
@@ -0,0 +1,3 @@
+-- Energy consumed is included so readings by meter id and year are answered from the index only.
+create unique index if not exists UK_METER_READING_METER_ID_YEAR_MONTH
+    on meter_reading (meter_id, year, month) include (energy_consumed);
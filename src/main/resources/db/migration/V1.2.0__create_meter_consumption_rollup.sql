@@ -0,0 +1,18 @@
+-- Yearly consumption per meter, kept up to date by application whenever meter readings change.
+create table meter_consumption_rollup (
+    meter_id bigint not null,
+    year integer not null,
+    total bigint not null,
+    min_energy_consumed integer not null,
+    max_energy_consumed integer not null,
+    month_count integer not null,
+    primary key (meter_id, year),
+    constraint FK_METER_CONSUMPTION_ROLLUP_METER_ID
+       foreign key (meter_id)
+       references meter
+);
+
+insert into meter_consumption_rollup (meter_id, year, total, min_energy_consumed, max_energy_consumed, month_count)
+select meter_id, year, sum(energy_consumed), min(energy_consumed), max(energy_consumed), count(*)
+from meter_reading
+group by meter_id, year;
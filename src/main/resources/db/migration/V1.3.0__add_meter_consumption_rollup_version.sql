@@ -0,0 +1,7 @@
+-- Version changes whenever rollup is computed again, so it identifies response of meter and year (ETag).
+-- Versions come from one sequence, so rollup which is deleted and created again never gets its old version back.
+create sequence meter_consumption_rollup_version_seq;
+
+alter table meter_consumption_rollup
+    add column version bigint not null default nextval('meter_consumption_rollup_version_seq'),
+    add column modified_at timestamp with time zone not null default now();
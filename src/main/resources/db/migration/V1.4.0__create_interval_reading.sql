@@ -0,0 +1,36 @@
+-- Energy consumed by meter in 15 minute intervals, partitioned by month of read_at in UTC. Primary key serves reads
+-- of one meter, BRIN index serves reads of all meters in range of time, which is cheap because rows are appended in
+-- roughly the order of time.
+create table interval_reading (
+    meter_id bigint not null,
+    read_at timestamp with time zone not null,
+    energy_consumed integer not null,
+    primary key (meter_id, read_at),
+    constraint FK_INTERVAL_READING_METER_ID
+       foreign key (meter_id)
+       references meter
+) partition by range (read_at);
+
+create index IX_INTERVAL_READING_READ_AT on interval_reading using brin (read_at);
+
+-- Creates partition of month which contains given day if it does not exist yet. Partitions are created by
+-- application before interval readings of new month are saved, concurrent calls are serialized by advisory lock.
+create function create_interval_reading_partition(day date) returns boolean
+language plpgsql as $$
+declare
+    first_day constant date := date_trunc('month', day)::date;
+    partition_name constant text := 'interval_reading_' || to_char(first_day, '"y"YYYY"m"MM');
+begin
+    perform pg_advisory_xact_lock(hashtext('interval_reading_partition'));
+
+    if to_regclass(partition_name) is not null then
+        return false;
+    end if;
+
+    execute format('create table %I partition of interval_reading for values from (%L) to (%L)',
+        partition_name,
+        first_day::timestamp at time zone 'UTC',
+        (first_day + interval '1 month')::timestamp at time zone 'UTC');
+    return true;
+end;
+$$;
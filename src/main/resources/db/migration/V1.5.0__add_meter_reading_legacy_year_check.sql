@@ -0,0 +1,12 @@
+-- First step of partitioning meter_reading by year (V1.5.0 - V1.5.2), each step is its own transaction so the table
+-- stays available to running application while it is migrated.
+--
+-- Existing rows become partition of all years before next year. Partition constraint of attached table is proven by
+-- validated check constraint instead of scanning the table under exclusive lock. Constraint is added without
+-- validation, which is instant.
+do $$
+begin
+    execute format('alter table meter_reading add constraint CK_METER_READING_LEGACY_YEAR check (year < %s) not valid',
+        extract(year from now() at time zone 'UTC')::integer + 1);
+end;
+$$;
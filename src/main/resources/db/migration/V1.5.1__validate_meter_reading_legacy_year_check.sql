@@ -0,0 +1,3 @@
+-- Second step of partitioning meter_reading by year. Validation scans the whole table, but it holds lock which does
+-- not block reads and writes of meter readings.
+alter table meter_reading validate constraint CK_METER_READING_LEGACY_YEAR;
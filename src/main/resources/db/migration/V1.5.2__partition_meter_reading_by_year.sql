@@ -0,0 +1,70 @@
+-- Last step of partitioning meter_reading by year. Existing table is renamed to meter_reading_legacy and attached to
+-- new partitioned meter_reading as partition of all years before the year in its check constraint. Attaching does
+-- not scan the table and existing unique index and foreign key are reused, so the table is locked only for catalog
+-- changes. Migration fails instead of queueing all requests behind the lock if it is not acquired in ten seconds.
+set local lock_timeout = '10s';
+
+lock table meter_reading in access exclusive mode;
+
+-- Partitioned table can not have identity column, ids come from sequence which continues after the last id.
+alter table meter_reading alter column id drop identity;
+
+create sequence meter_reading_id_seq;
+select setval('meter_reading_id_seq', coalesce(max(id), 0) + 1, false) from meter_reading;
+
+alter table meter_reading rename to meter_reading_legacy;
+alter table meter_reading_legacy rename constraint meter_reading_pkey to meter_reading_legacy_pkey;
+alter index UK_METER_READING_METER_ID_YEAR_MONTH rename to UK_METER_READING_LEGACY_METER_ID_YEAR_MONTH;
+
+-- Primary key of partitioned table must contain year, so ids are unique only by sequence; every partition has its own
+-- primary key on id instead, which serves reads of meter reading by id.
+create table meter_reading (
+    id bigint not null default nextval('meter_reading_id_seq'),
+    energy_consumed integer not null,
+    month integer not null,
+    year integer not null,
+    meter_id bigint not null,
+    constraint FK_METER_READING_METER_ID
+       foreign key (meter_id)
+       references meter
+) partition by range (year);
+
+alter sequence meter_reading_id_seq owned by meter_reading.id;
+
+create unique index UK_METER_READING_METER_ID_YEAR_MONTH
+    on meter_reading (meter_id, year, month) include (energy_consumed);
+
+-- Creates partition of year if no partition contains the year yet, years before the first partitioned year are
+-- kept in meter_reading_legacy. Partitions are created ahead of time by application, concurrent calls are
+-- serialized by advisory lock.
+create function create_meter_reading_partition(partition_year integer) returns boolean
+language plpgsql as $$
+declare
+    partition_name constant text := 'meter_reading_y' || partition_year;
+begin
+    perform pg_advisory_xact_lock(hashtext('meter_reading_partition'));
+
+    if to_regclass(partition_name) is not null or partition_year < meter_reading_first_partitioned_year() then
+        return false;
+    end if;
+
+    execute format('create table %I partition of meter_reading (primary key (id)) for values from (%s) to (%s)',
+        partition_name, partition_year, partition_year + 1);
+    return true;
+end;
+$$;
+
+do $$
+declare
+    first_year constant integer := (
+        select substring(pg_get_constraintdef(oid) from '< (\d+)')::integer
+        from pg_constraint
+        where conname = 'ck_meter_reading_legacy_year' and conrelid = 'meter_reading_legacy'::regclass);
+begin
+    execute format('alter table meter_reading attach partition meter_reading_legacy '
+        'for values from (minvalue) to (%s)', first_year);
+    execute format('create function meter_reading_first_partitioned_year() returns integer '
+        'language sql immutable as ''select %s''', first_year);
+    perform create_meter_reading_partition(first_year);
+end;
+$$;
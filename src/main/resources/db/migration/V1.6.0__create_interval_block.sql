@@ -0,0 +1,14 @@
+-- Interval readings of one meter in one day (UTC) compressed by IntervalBlockCodec, used instead of interval_reading
+-- when meter-readings.interval.storage is blocks. Number and sum of interval readings are kept next to the block, so
+-- whole days and months are summed without decoding blocks.
+create table interval_block (
+    meter_id bigint not null,
+    day date not null,
+    reading_count smallint not null,
+    total bigint not null,
+    payload bytea not null,
+    primary key (meter_id, day),
+    constraint FK_INTERVAL_BLOCK_METER_ID
+       foreign key (meter_id)
+       references meter
+);
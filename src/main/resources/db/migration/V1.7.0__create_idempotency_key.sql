@@ -0,0 +1,13 @@
+-- Responses of requests with Idempotency-Key header, replayed when request with the same key is repeated. Rows older
+-- than meter-readings.idempotency.ttl are deleted by the application.
+create table idempotency_key (
+    idempotency_key varchar(255) not null,
+    request_hash bigint not null,
+    status smallint not null,
+    content_type varchar(255),
+    body bytea not null,
+    created_at timestamp with time zone not null default now(),
+    primary key (idempotency_key)
+);
+
+create index IX_IDEMPOTENCY_KEY_CREATED_AT on idempotency_key (created_at);
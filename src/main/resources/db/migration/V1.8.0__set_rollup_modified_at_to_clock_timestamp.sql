@@ -0,0 +1,4 @@
+-- Time of the change instead of start of its transaction, so change made by long transaction does not get earlier
+-- modification time than changes committed before it.
+alter table meter_consumption_rollup
+    alter column modified_at set default clock_timestamp();
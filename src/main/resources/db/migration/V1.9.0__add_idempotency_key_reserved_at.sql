@@ -0,0 +1,3 @@
+-- Time when key was reserved by request which is still processed (status 0), reservation older than
+-- meter-readings.idempotency.reservation-timeout is taken over by repeated request.
+alter table idempotency_key add column reserved_at timestamp with time zone;
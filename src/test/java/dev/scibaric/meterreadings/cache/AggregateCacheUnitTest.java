@@ -0,0 +1,145 @@
+package dev.scibaric.meterreadings.cache;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.model.MeterYear;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AggregateCacheUnitTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2023-06-15T00:00:00Z"), ZoneOffset.UTC);
+
+    private MeterReadingsProperties properties;
+
+    private SimpleMeterRegistry registry;
+
+    private AtomicInteger loads;
+
+    private Function<MeterYear, Long> loader;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MeterReadingsProperties();
+        registry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+        loader = meterYear -> {
+            loads.incrementAndGet();
+            return meterYear.year().longValue();
+        };
+    }
+
+    @Test
+    void get_whenYearIsClosed_thenConsumptionIsPinned() {
+        // given
+        properties.getAggregateCache().setMaxSize(0);
+        AggregateCache cache = new AggregateCache(properties, registry, CLOCK);
+
+        // when
+        cache.get(new MeterYear(1L, 2022), loader);
+        Long result = cache.get(new MeterYear(1L, 2022), loader);
+
+        // then
+        assertThat(result).isEqualTo(2022L);
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.pinned.size").tag("cache", "meterReadingAggregates").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void get_whenYearIsCurrent_thenConsumptionIsCachedAndStatisticsArePublished() {
+        // given
+        AggregateCache cache = new AggregateCache(properties, registry, CLOCK);
+
+        // when
+        cache.get(new MeterYear(1L, 2023), loader);
+        cache.get(new MeterYear(1L, 2023), loader);
+
+        // then
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.pinned.size").gauge().value()).isZero();
+        assertThat(registry.get("cache.gets").tag("cache", "meterReadingAggregates").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "meterReadingAggregates").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_whenPinningIsDisabled_thenClosedYearIsNotPinned() {
+        // given
+        properties.getAggregateCache().setPinClosedYears(false);
+        AggregateCache cache = new AggregateCache(properties, registry, CLOCK);
+
+        // when
+        cache.get(new MeterYear(1L, 2022), loader);
+        cache.get(new MeterYear(1L, 2022), loader);
+
+        // then
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.pinned.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void get_whenLoaderReturnsNull_thenNothingIsCached() {
+        // given
+        AggregateCache cache = new AggregateCache(properties, registry, CLOCK);
+
+        // when
+        Long first = cache.get(new MeterYear(1L, 2022), meterYear -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        Long second = cache.get(new MeterYear(1L, 2022), loader);
+
+        // then
+        assertThat(first).isNull();
+        assertThat(second).isEqualTo(2022L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void onMeterReadingsChanged_whenMeterYearChanged_thenOnlyChangedConsumptionIsComputedAgain() {
+        // given
+        AggregateCache cache = new AggregateCache(properties, registry, CLOCK);
+        cache.get(new MeterYear(1L, 2022), loader);
+        cache.get(new MeterYear(1L, 2023), loader);
+        cache.get(new MeterYear(2L, 2022), loader);
+
+        // when
+        cache.onMeterReadingsChanged(new MeterReadingsChangedEvent(
+                Set.of(new MeterYear(1L, 2022), new MeterYear(1L, 2023))));
+        cache.get(new MeterYear(1L, 2022), loader);
+        cache.get(new MeterYear(1L, 2023), loader);
+        cache.get(new MeterYear(2L, 2022), loader);
+
+        // then
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void put_whenMeterYearChangedAfterStampWasRead_thenConsumptionIsNotCached() {
+        // given
+        AggregateCache cache = new AggregateCache(properties, registry, CLOCK);
+        long stamp = cache.stamp(new MeterYear(1L, 2022));
+        long otherStamp = cache.stamp(new MeterYear(2L, 2022));
+
+        // when
+        cache.onMeterReadingsChanged(MeterReadingsChangedEvent.of(1L, 2022));
+        cache.put(new MeterYear(1L, 2022), 10L, stamp);
+        cache.put(new MeterYear(2L, 2022), 20L, otherStamp);
+
+        // then
+        assertThat(cache.getIfPresent(new MeterYear(1L, 2022))).isNull();
+        assertThat(cache.getIfPresent(new MeterYear(2L, 2022))).isEqualTo(20L);
+    }
+}
@@ -0,0 +1,135 @@
+package dev.scibaric.meterreadings.cache;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.model.IdempotentResponse;
+import dev.scibaric.meterreadings.repository.IdempotencyKeyJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class IdempotencyStoreUnitTest {
+
+    private static final Instant NOW = Instant.parse("2021-11-30T23:30:00Z");
+
+    private static final IdempotentResponse RESPONSE =
+            new IdempotentResponse(42L, 201, "application/json", "{}".getBytes());
+
+    @MockBean
+    private IdempotencyKeyJdbcRepository repository;
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(repository, new MeterReadingsProperties(), new SimpleMeterRegistry(),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void get_whenResponseIsStoredByThisInstance_thenDatabaseIsNotQueried() {
+        // when
+        when(repository.insert("key-1", RESPONSE)).thenReturn(true);
+        store.put("key-1", RESPONSE);
+        IdempotentResponse response = store.get("key-1");
+
+        // then
+        assertThat(response).isSameAs(RESPONSE);
+        verify(repository).insert("key-1", RESPONSE);
+        verify(repository, never()).findById(any(), any());
+    }
+
+    @Test
+    void get_whenResponseIsNotInMemory_thenReadItFromDatabaseOnce() {
+        // when
+        when(repository.findById("key-2", NOW.minusSeconds(24 * 60 * 60))).thenReturn(Optional.of(RESPONSE));
+        IdempotentResponse first = store.get("key-2");
+        IdempotentResponse second = store.get("key-2");
+
+        // then
+        assertThat(first).isSameAs(RESPONSE);
+        assertThat(second).isSameAs(RESPONSE);
+        verify(repository, times(1)).findById(any(), any());
+    }
+
+    @Test
+    void put_whenDatabaseFails_thenResponseIsReplayedFromMemory() {
+        // when
+        doThrow(new QueryTimeoutException("canceling statement due to statement timeout"))
+                .when(repository).insert("key-3", RESPONSE);
+        store.put("key-3", RESPONSE);
+
+        // then
+        assertThat(store.get("key-3")).isSameAs(RESPONSE);
+    }
+
+    @Test
+    void put_whenOtherResponseIsStoredInDatabase_thenKeepStoredResponse() {
+        // given
+        IdempotentResponse stored = new IdempotentResponse(42L, 400, "application/json", "{}".getBytes());
+
+        // when
+        when(repository.insert("key-5", RESPONSE)).thenReturn(false);
+        when(repository.findById("key-5", NOW.minusSeconds(24 * 60 * 60))).thenReturn(Optional.of(stored));
+        store.put("key-5", RESPONSE);
+
+        // then
+        assertThat(store.get("key-5")).isSameAs(stored);
+    }
+
+    @Test
+    void tryAcquire_whenKeyIsProcessed_thenReturnFalseUntilItIsReleased() {
+        // when
+        when(repository.reserve(eq("key-4"), eq(42L), any(), any())).thenReturn(true);
+        boolean first = store.tryAcquire("key-4", 42L);
+        boolean concurrent = store.tryAcquire("key-4", 42L);
+        store.release("key-4");
+        boolean afterRelease = store.tryAcquire("key-4", 42L);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(concurrent).isFalse();
+        assertThat(afterRelease).isTrue();
+        verify(repository, times(2))
+                .reserve("key-4", 42L, NOW.minusSeconds(24 * 60 * 60), NOW.minusSeconds(2 * 60));
+        verify(repository).deleteReservation("key-4");
+    }
+
+    @Test
+    void tryAcquire_whenKeyIsReservedByOtherInstance_thenReturnFalse() {
+        // when
+        when(repository.reserve(eq("key-6"), eq(42L), any(), any())).thenReturn(false);
+        boolean acquired = store.tryAcquire("key-6", 42L);
+        when(repository.reserve(eq("key-6"), eq(42L), any(), any())).thenReturn(true);
+        boolean acquiredLater = store.tryAcquire("key-6", 42L);
+
+        // then
+        assertThat(acquired).isFalse();
+        assertThat(acquiredLater).isTrue();
+    }
+
+    @Test
+    void tryAcquire_whenDatabaseFails_thenKeyIsReservedByThisInstance() {
+        // when
+        when(repository.reserve(eq("key-7"), eq(42L), any(), any()))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+        boolean first = store.tryAcquire("key-7", 42L);
+        boolean concurrent = store.tryAcquire("key-7", 42L);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(concurrent).isFalse();
+    }
+}
@@ -0,0 +1,155 @@
+package dev.scibaric.meterreadings.cache;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.repository.MeterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class MeterIdCacheUnitTest {
+
+    @MockBean
+    private MeterRepository meterRepository;
+
+    private MeterReadingsProperties properties;
+
+    private SimpleMeterRegistry registry;
+
+    private MeterIdCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MeterReadingsProperties();
+        registry = new SimpleMeterRegistry();
+        cache = new MeterIdCache(meterRepository, properties, registry);
+    }
+
+    @Test
+    void preload_whenMetersExist_thenExistenceIsNotCheckedInDatabase() {
+        // given
+        properties.getMeterIdCache().setMaxSize(3);
+        registry = new SimpleMeterRegistry();
+        cache = new MeterIdCache(meterRepository, properties, registry);
+
+        // when
+        when(meterRepository.findIdsGreaterThan(0L, PageRequest.of(0, 3))).thenReturn(List.of(1L, 2L, 3L));
+        cache.preload();
+
+        // then
+        assertThat(cache.exists(1L)).isTrue();
+        assertThat(cache.exists(3L)).isTrue();
+        assertThat(registry.get("meter.id.cache.size").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("meter.id.cache.requests").tag("result", "hit").counter().count()).isEqualTo(2);
+
+        verify(meterRepository, times(1)).findIdsGreaterThan(any(), any());
+        verify(meterRepository, never()).existsById(any());
+    }
+
+    @Test
+    void exists_whenMeterIsCheckedTwice_thenDatabaseIsQueriedOnce() {
+        // when
+        when(meterRepository.existsById(1L)).thenReturn(true);
+        when(meterRepository.existsById(5L)).thenReturn(false);
+
+        // then
+        assertThat(cache.exists(1L)).isTrue();
+        assertThat(cache.exists(1L)).isTrue();
+        assertThat(cache.exists(5L)).isFalse();
+        assertThat(cache.exists(5L)).isFalse();
+        assertThat(registry.get("meter.id.cache.requests").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(registry.get("meter.id.cache.requests").tag("result", "miss").counter().count()).isEqualTo(2);
+
+        verify(meterRepository, times(1)).existsById(1L);
+        verify(meterRepository, times(1)).existsById(5L);
+    }
+
+    @Test
+    void exists_whenNegativeTtlExpired_thenDatabaseIsQueriedAgain() throws InterruptedException {
+        // given
+        properties.getMeterIdCache().setNegativeTtl(Duration.ofMillis(1));
+        cache = new MeterIdCache(meterRepository, properties, registry);
+
+        // when
+        when(meterRepository.existsById(5L)).thenReturn(false, true);
+
+        // then
+        assertThat(cache.exists(5L)).isFalse();
+        Thread.sleep(10);
+        assertThat(cache.exists(5L)).isTrue();
+
+        verify(meterRepository, times(2)).existsById(5L);
+    }
+
+    @Test
+    void add_whenMeterWasCachedAsMissing_thenMeterExists() {
+        // when
+        when(meterRepository.existsById(5L)).thenReturn(false);
+
+        // then
+        assertThat(cache.exists(5L)).isFalse();
+        cache.add(5L);
+        assertThat(cache.exists(5L)).isTrue();
+
+        verify(meterRepository, times(1)).existsById(5L);
+    }
+
+    @Test
+    void add_whenMaxSizeIsReached_thenMeterIdIsNotCached() {
+        // given
+        properties.getMeterIdCache().setMaxSize(1);
+        cache = new MeterIdCache(meterRepository, properties, registry);
+
+        // when
+        cache.add(1L);
+        cache.add(2L);
+        when(meterRepository.existsById(2L)).thenReturn(true);
+
+        // then
+        assertThat(cache.exists(1L)).isTrue();
+        assertThat(cache.exists(2L)).isTrue();
+
+        verify(meterRepository, never()).existsById(1L);
+        verify(meterRepository).existsById(2L);
+    }
+
+    @Test
+    void evict_whenMeterIsEvicted_thenDatabaseIsQueried() {
+        // when
+        cache.add(1L);
+        cache.evict(1L);
+        when(meterRepository.existsById(1L)).thenReturn(false);
+
+        // then
+        assertThat(cache.exists(1L)).isFalse();
+
+        verify(meterRepository).existsById(1L);
+    }
+
+    @Test
+    void findExistingIds_whenSomeIdsAreCached_thenOnlyUnknownIdsAreQueried() {
+        // given
+        cache.add(1L);
+
+        // when
+        when(meterRepository.findExistingIds(Set.of(2L, 3L))).thenReturn(Set.of(2L));
+
+        // then
+        assertThat(cache.findExistingIds(Set.of(1L, 2L, 3L))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(cache.findExistingIds(Set.of(1L, 2L, 3L))).containsExactlyInAnyOrder(1L, 2L);
+
+        verify(meterRepository, times(1)).findExistingIds(any());
+    }
+}
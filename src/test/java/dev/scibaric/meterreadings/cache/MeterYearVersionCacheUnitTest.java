@@ -0,0 +1,90 @@
+package dev.scibaric.meterreadings.cache;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MeterYearVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeterYearVersionCacheUnitTest {
+
+    private static final MeterYear METER_YEAR = new MeterYear(1L, 2022);
+
+    private MeterYearVersionCache cache;
+
+    private AtomicLong loads;
+
+    private Function<MeterYear, MeterYearVersion> loader;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MeterYearVersionCache(new MeterReadingsProperties(), new SimpleMeterRegistry());
+        loads = new AtomicLong();
+        loader = meterYear -> new MeterYearVersion(loads.incrementAndGet(), Instant.EPOCH);
+    }
+
+    @Test
+    void get_whenChangesAreNotListenedFor_thenVersionIsAlwaysLoaded() {
+        // when
+        MeterYearVersion first = cache.get(METER_YEAR, loader);
+        MeterYearVersion second = cache.get(METER_YEAR, loader);
+
+        // then
+        assertThat(first.version()).isEqualTo(1);
+        assertThat(second.version()).isEqualTo(2);
+    }
+
+    @Test
+    void get_whenChangesAreListenedFor_thenVersionIsLoadedOnceUntilMeterReadingsChange() {
+        // given
+        cache.setListening(true);
+
+        // when
+        cache.get(METER_YEAR, loader);
+        MeterYearVersion cached = cache.get(METER_YEAR, loader);
+        cache.onMeterReadingsChanged(MeterReadingsChangedEvent.of(1L, 2022));
+        MeterYearVersion changed = cache.get(METER_YEAR, loader);
+
+        // then
+        assertThat(cached.version()).isEqualTo(1);
+        assertThat(changed.version()).isEqualTo(2);
+    }
+
+    @Test
+    void get_whenLoaderReturnsNull_thenNothingIsCached() {
+        // given
+        cache.setListening(true);
+
+        // when
+        MeterYearVersion missing = cache.get(METER_YEAR, meterYear -> null);
+        MeterYearVersion loaded = cache.get(METER_YEAR, loader);
+
+        // then
+        assertThat(missing).isNull();
+        assertThat(loaded.version()).isEqualTo(1);
+    }
+
+    @Test
+    void setListening_whenListeningStops_thenCachedVersionsAreRemoved() {
+        // given
+        cache.setListening(true);
+        cache.get(METER_YEAR, loader);
+
+        // when
+        cache.setListening(false);
+        cache.setListening(true);
+        MeterYearVersion version = cache.get(METER_YEAR, loader);
+
+        // then
+        assertThat(cache.isListening()).isTrue();
+        assertThat(version.version()).isEqualTo(2);
+    }
+}
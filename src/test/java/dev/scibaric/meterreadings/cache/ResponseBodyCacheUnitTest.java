@@ -0,0 +1,176 @@
+package dev.scibaric.meterreadings.cache;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.model.MeterYear;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBodyCacheUnitTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2023-06-15T00:00:00Z"), ZoneOffset.UTC);
+
+    private static final String JSON = "application/json";
+
+    private static final byte[] BODY = ("{\"year\":2022,\"monthlyEnergyConsumption\":{\"January\":11,\"February\":14," +
+            "\"March\":12,\"April\":10,\"May\":9,\"June\":8,\"July\":8,\"August\":9,\"September\":10}}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final ResponseBodyCache.Key KEY =
+            new ResponseBodyCache.Key(ResponseBodyCache.Route.V1_READINGS, new MeterYear(1L, 2022));
+
+    private MeterReadingsProperties properties;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MeterReadingsProperties();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void isCacheable_whenYearIsClosed_thenItIsCacheableUnlessCacheIsDisabled() {
+        // given
+        ResponseBodyCache cache = new ResponseBodyCache(properties, registry, CLOCK);
+
+        // then
+        assertThat(cache.isCacheable(2022)).isTrue();
+        assertThat(cache.isCacheable(2023)).isFalse();
+
+        properties.getResponseCache().setEnabled(false);
+        assertThat(cache.isCacheable(2022)).isFalse();
+    }
+
+    @Test
+    void put_whenBodyIsCached_thenItIsWrittenAsIsAndCompressed() throws IOException {
+        // given
+        ResponseBodyCache cache = new ResponseBodyCache(properties, registry, CLOCK);
+
+        // when
+        cache.put(KEY, JSON, BODY, cache.stamp(KEY));
+        ResponseBodyCache.EncodedBody body = cache.getIfPresent(KEY);
+
+        // then
+        assertThat(body.getContentType()).isEqualTo(JSON);
+        assertThat(body.getContentLength(false)).isEqualTo(BODY.length);
+        assertThat(body.getContentLength(true)).isLessThan(BODY.length);
+        assertThat(write(body, false)).isEqualTo(BODY);
+        assertThat(gunzip(write(body, true))).isEqualTo(BODY);
+
+        cache.cleanUp();
+        assertThat(registry.get("cache.size.bytes").tag("cache", "responseBodies").gauge().value())
+                .isGreaterThan(BODY.length);
+    }
+
+    @Test
+    void put_whenBodyIsKeptOffHeap_thenItIsWrittenFromDirectBuffer() throws IOException {
+        // given
+        properties.getResponseCache().setOffHeap(true);
+        ResponseBodyCache cache = new ResponseBodyCache(properties, registry, CLOCK);
+
+        // when
+        cache.put(KEY, JSON, BODY, cache.stamp(KEY));
+        ResponseBodyCache.EncodedBody body = cache.getIfPresent(KEY);
+
+        // then
+        assertThat(write(body, false)).isEqualTo(BODY);
+        assertThat(write(body, false)).isEqualTo(BODY);
+        assertThat(gunzip(write(body, true))).isEqualTo(BODY);
+    }
+
+    @Test
+    void put_whenMeterReadingsChangedWhileBodyWasComputed_thenBodyIsNotCached() {
+        // given
+        ResponseBodyCache cache = new ResponseBodyCache(properties, registry, CLOCK);
+        long stamp = cache.stamp(KEY);
+
+        // when
+        cache.onMeterReadingsChanged(MeterReadingsChangedEvent.of(1L, 2022));
+        ResponseBodyCache.EncodedBody body = cache.put(KEY, JSON, BODY, stamp);
+
+        // then
+        assertThat(body).isNotNull();
+        assertThat(cache.getIfPresent(KEY)).isNull();
+    }
+
+    @Test
+    void put_whenOtherMeterReadingsChangedWhileBodyWasComputed_thenBodyIsCached() {
+        // given
+        ResponseBodyCache cache = new ResponseBodyCache(properties, registry, CLOCK);
+        long stamp = cache.stamp(KEY);
+
+        // when
+        cache.onMeterReadingsChanged(MeterReadingsChangedEvent.of(2L, 2021));
+        cache.put(KEY, JSON, BODY, stamp);
+
+        // then
+        assertThat(cache.getIfPresent(KEY)).isNotNull();
+    }
+
+    @Test
+    void onMeterReadingsChanged_whenMeterYearChanged_thenBodiesOfEveryRouteAreInvalidated() {
+        // given
+        ResponseBodyCache cache = new ResponseBodyCache(properties, registry, CLOCK);
+        ResponseBodyCache.Key aggregation =
+                new ResponseBodyCache.Key(ResponseBodyCache.Route.V2_AGGREGATION, new MeterYear(1L, 2022));
+        ResponseBodyCache.Key otherYear =
+                new ResponseBodyCache.Key(ResponseBodyCache.Route.V1_READINGS, new MeterYear(1L, 2021));
+        cache.put(KEY, JSON, BODY, cache.stamp(KEY));
+        cache.put(aggregation, JSON, BODY, cache.stamp(aggregation));
+        cache.put(otherYear, JSON, BODY, cache.stamp(otherYear));
+
+        // when
+        cache.onMeterReadingsChanged(new MeterReadingsChangedEvent(Set.of(new MeterYear(1L, 2022))));
+
+        // then
+        assertThat(cache.getIfPresent(KEY)).isNull();
+        assertThat(cache.getIfPresent(aggregation)).isNull();
+        assertThat(cache.getIfPresent(otherYear)).isNotNull();
+    }
+
+    @Test
+    void put_whenMaxSizeIsExceeded_thenBodiesAreEvicted() {
+        // given
+        properties.getResponseCache().setMaxSize(DataSize.ofKilobytes(4));
+        ResponseBodyCache cache = new ResponseBodyCache(properties, registry, CLOCK);
+
+        // when
+        for (long meterId = 1; meterId <= 100; meterId++) {
+            ResponseBodyCache.Key key =
+                    new ResponseBodyCache.Key(ResponseBodyCache.Route.V1_READINGS, new MeterYear(meterId, 2022));
+            cache.put(key, JSON, BODY, cache.stamp(key));
+        }
+        cache.cleanUp();
+
+        // then
+        double size = registry.get("cache.size.bytes").tag("cache", "responseBodies").gauge().value();
+        assertThat(size).isPositive().isLessThanOrEqualTo(4096);
+    }
+
+    private static byte[] write(ResponseBodyCache.EncodedBody body, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out, gzip);
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
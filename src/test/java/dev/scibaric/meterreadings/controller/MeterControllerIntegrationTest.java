@@ -1,7 +1,20 @@
 package dev.scibaric.meterreadings.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnknownFieldSet;
+import dev.scibaric.meterreadings.cache.AggregateCache;
+import dev.scibaric.meterreadings.cache.MeterIdCache;
+import dev.scibaric.meterreadings.cache.MeterYearVersionCache;
+import dev.scibaric.meterreadings.cache.ResponseBodyCache;
+import dev.scibaric.meterreadings.converter.MeterReadingProtobufCodec;
+import dev.scibaric.meterreadings.converter.MeterReadingProtobufHttpMessageConverter;
+import dev.scibaric.meterreadings.dto.FleetConsumptionRequestDTO;
 import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.jdbc.StatementCountingDataSource;
 import dev.scibaric.meterreadings.model.Address;
 import dev.scibaric.meterreadings.model.Client;
 import dev.scibaric.meterreadings.model.Meter;
@@ -10,6 +23,7 @@ import dev.scibaric.meterreadings.repository.AddressRepository;
 import dev.scibaric.meterreadings.repository.ClientRepository;
 import dev.scibaric.meterreadings.repository.MeterReadingRepository;
 import dev.scibaric.meterreadings.repository.MeterRepository;
+import dev.scibaric.meterreadings.service.MeterConsumptionRollupService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -17,21 +31,36 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Month;
 import java.time.Year;
 import java.time.format.TextStyle;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -55,9 +84,30 @@ public class MeterControllerIntegrationTest {
     @Autowired
     private MeterReadingRepository meterReadingRepository;
 
+    @Autowired
+    private MeterConsumptionRollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    private MeterYearVersionCache versionCache;
+
+    @Autowired
+    private AggregateCache aggregateCache;
+
+    @Autowired
+    private MeterIdCache meterIdCache;
+
+    @Autowired
+    private StatementCountingDataSource statementCountingDataSource;
+
     @BeforeAll
     public void setUp() {
         clientRepository.saveAll(
@@ -114,6 +164,7 @@ public class MeterControllerIntegrationTest {
                 )
         );
 
+        rollupService.rebuild();
     }
 
     @Test
@@ -129,6 +180,8 @@ public class MeterControllerIntegrationTest {
     @CsvSource({
             "1, 2021, /api/v1/meters/{id}/consumption/aggregation/{year}",
             "1, 2021, /api/v1/meters/{id}/{year}",
+            "1, 2021, /api/v2/meters/{id}/consumption/aggregation/{year}",
+            "1, 2021, /api/v2/meters/{id}/{year}",
     })
     void aggregateConsumptionByMeterIdAndYear_whenReadingForYearDoesNotExist_thenReturnExceptionMessage(Long id, Integer year, String url) throws Exception {
         mockMvc.perform(get(url, id, year))
@@ -141,7 +194,10 @@ public class MeterControllerIntegrationTest {
     @CsvSource({
             "0, /api/v1/meters/{id}/consumption/aggregation/2020",
             "0, /api/v1/meters/{id}/2020",
-            "0, /api/v1/meters/{id}/2020/3"
+            "0, /api/v1/meters/{id}/2020/3",
+            "0, /api/v2/meters/{id}/consumption/aggregation/2020",
+            "0, /api/v2/meters/{id}/2020",
+            "0, /api/v2/meters/{id}/2020/3"
     })
     void ifMeterIdLessThanOne_thenReturnExceptionMessage(Long id, String url) throws Exception {
         mockMvc.perform(get(url, id))
@@ -154,7 +210,10 @@ public class MeterControllerIntegrationTest {
     @CsvSource({
             "10, /api/v1/meters/{id}/consumption/aggregation/2020",
             "11, /api/v1/meters/{id}/2020",
-            "12, /api/v1/meters/{id}/2020/3"
+            "12, /api/v1/meters/{id}/2020/3",
+            "10, /api/v2/meters/{id}/consumption/aggregation/2020",
+            "11, /api/v2/meters/{id}/2020",
+            "12, /api/v2/meters/{id}/2020/3"
     })
     void ifMeterIdDoesNotExist_thenReturnExceptionMessage(Long id, String url) throws Exception {
         mockMvc.perform(get(url, id))
@@ -167,7 +226,10 @@ public class MeterControllerIntegrationTest {
     @CsvSource({
             "-1, /api/v1/meters/1/consumption/aggregation/{year}",
             "-1, /api/v1/meters/1/{year}",
-            "-1, /api/v1/meters/1/{year}/3"
+            "-1, /api/v1/meters/1/{year}/3",
+            "-1, /api/v2/meters/1/consumption/aggregation/{year}",
+            "-1, /api/v2/meters/1/{year}",
+            "-1, /api/v2/meters/1/{year}/3"
     })
     void ifYearIsLessThan0_thenReturnExceptionMessage(Integer year, String url) throws Exception {
         mockMvc.perform(get(url, year))
@@ -190,7 +252,10 @@ public class MeterControllerIntegrationTest {
         return Stream.of(
                 Arguments.of(yearInTheFuture, "/api/v1/meters/1/consumption/aggregation/{year}"),
                 Arguments.of(yearInTheFuture, "/api/v1/meters/1/{year}"),
-                Arguments.of(yearInTheFuture, "/api/v1/meters/1/{year}/3")
+                Arguments.of(yearInTheFuture, "/api/v1/meters/1/{year}/3"),
+                Arguments.of(yearInTheFuture, "/api/v2/meters/1/consumption/aggregation/{year}"),
+                Arguments.of(yearInTheFuture, "/api/v2/meters/1/{year}"),
+                Arguments.of(yearInTheFuture, "/api/v2/meters/1/{year}/3")
         );
     }
 
@@ -214,6 +279,376 @@ public class MeterControllerIntegrationTest {
                 .andExpect(jsonPath("$.monthlyEnergyConsumption.January").value(11));
     }
 
+    /**
+     * Statements are counted on the data source with cold caches, so version of the year, existence of the meter and
+     * meter readings or rollup are each read by one statement.
+     */
+    @ParameterizedTest
+    @CsvSource({"/1/2020, 3", "/1/2020/1, 2", "/1/series?fromYear=2019&toYear=2020, 2",
+            "/1/consumption/aggregation/2020, 3"})
+    void readV1_whenCachesAreCold_thenExecuteOneStatementPerLookup(String path, int statements) throws Exception {
+        meterIdCache.evict(1L);
+        responseBodyCache.invalidateAll();
+        versionCache.invalidateAll();
+        aggregateCache.invalidateAll();
+
+        statementCountingDataSource.start();
+        mockMvc.perform(get("/api/v1/meters" + path)).andExpect(status().isOk());
+
+        assertThat(statementCountingDataSource.stop()).isEqualTo(statements);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/1/consumption/aggregation/2020", "/2/2020", "/1/2020/1", "/2/2020/3"})
+    void readV2_whenReadingExists_thenReturnTheSameJsonAsV1(String path) throws Exception {
+        String v1 = mockMvc.perform(get("/api/v1/meters" + path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/v2/meters" + path))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(v1, true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/meters/2/2020", "/api/v2/meters/1/2020"})
+    void readClosedYear_whenClientAcceptsGzip_thenReturnCachedBodyCompressed(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andReturn().getResponse().getContentAsString();
+
+        byte[] compressed = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+        }
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(body));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/meters/2/2020", "/api/v2/meters/2/consumption/aggregation/2020"})
+    void readYear_whenETagOrLastModifiedMatches_thenReturnNotModified(String url) throws Exception {
+        // Last-Modified is sent only for versions older than one second
+        jdbcTemplate.update("update meter_consumption_rollup set modified_at = modified_at - interval '1 minute' " +
+                "where meter_id = 2 and year = 2020");
+        versionCache.invalidateAll();
+
+        MockHttpServletResponse response = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse();
+        String etag = response.getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"0\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_MODIFIED_SINCE, response.getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void readYear_whenBodyIsCompressed_thenETagOfCompressedBodyIsDifferentAndMatches() throws Exception {
+        String url = "/api/v1/meters/1/2020";
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String gzipEtag = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(gzipEtag).isEqualTo(etag.substring(0, etag.length() - 1) + "-gzip\"");
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void readYear_whenMeterReadingIsUpdated_thenETagChangesAndNewReadingIsReturned() throws Exception {
+        try {
+            mockMvc.perform(post("/api/v1/meters/reading")
+                            .content(asJsonString(new MeterReadingDTO(2018, 1, 10, 3L)))
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isCreated());
+            String etag = mockMvc.perform(get("/api/v1/meters/3/2018"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.monthlyEnergyConsumption.January").value(10))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            mockMvc.perform(get("/api/v1/meters/3/2018").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+
+            mockMvc.perform(put("/api/v1/meters/reading")
+                            .content(asJsonString(new MeterReadingDTO(2018, 1, 12, 3L)))
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+
+            String changedEtag = mockMvc.perform(get("/api/v1/meters/3/2018").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.monthlyEnergyConsumption.January").value(12))
+                    .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(changedEtag).isNotEqualTo(etag);
+            mockMvc.perform(get("/api/v1/meters/3/2018")
+                            .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 31 Dec 2100 23:59:59 GMT"))
+                    .andExpect(status().isOk());
+        } finally {
+            jdbcTemplate.update("delete from meter_reading where meter_id = 3 and year = 2018");
+            jdbcTemplate.update("delete from meter_consumption_rollup where meter_id = 3 and year = 2018");
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void readYear_whenOtherInstanceChangedVersion_thenETagChangesAfterNotification() throws Exception {
+        String url = "/api/v1/meters/2/consumption/aggregation/2020";
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("update meter_consumption_rollup " +
+                "set version = nextval('meter_consumption_rollup_version_seq') where meter_id = 2 and year = 2020");
+        jdbcTemplate.queryForList("select pg_notify('meter_readings_changed', '2:2020')");
+
+        String changedEtag = etag;
+        for (int attempt = 0; attempt < 50 && changedEtag.equals(etag); attempt++) {
+            Thread.sleep(100);
+            changedEtag = mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        }
+        assertThat(changedEtag).isNotEqualTo(etag);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile"})
+    void readYear_whenBinaryJacksonFormatIsAccepted_thenReturnTheSameDataAsJson(String format) throws Exception {
+        ObjectMapper binaryMapper = format.equals("application/cbor") ? new CBORMapper() : new SmileMapper();
+        String json = mockMvc.perform(get("/api/v1/meters/1/2020"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        byte[] binary = mockMvc.perform(get("/api/v1/meters/1/2020").accept(format))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(format))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(binaryMapper.readTree(binary)).isEqualTo(new ObjectMapper().readTree(json));
+    }
+
+    @Test
+    void saveMeterReading_whenBodyIsCbor_thenReturnResultAsJson() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .content(new CBORMapper().writeValueAsBytes(new MeterReadingDTO(2021, 2, 15, 1L)))
+                        .contentType("application/cbor"))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.energyConsumed").value(15));
+    }
+
+    @Test
+    void saveMeterReading_whenRequestIsRepeatedWithIdempotencyKey_thenReplayResponseWithoutSavingAgain()
+            throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = asJsonString(new MeterReadingDTO(2021, 3, 17, 2L));
+        String created = mockMvc.perform(post("/api/v1/meters/reading")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .content(body)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .content(body)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(created));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from meter_reading where meter_id = 2 and year = 2021 and month = 3", Integer.class))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select status from idempotency_key where idempotency_key = ?", Integer.class, key))
+                .isEqualTo(201);
+    }
+
+    @Test
+    void saveMeterReading_whenIdempotencyKeyIsReusedForDifferentRequest_thenReturnUnprocessableEntity()
+            throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .content(asJsonString(new MeterReadingDTO(2021, 4, 17, 2L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .content(asJsonString(new MeterReadingDTO(2021, 5, 17, 2L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key " + key + " was used for different request"));
+    }
+
+    @Test
+    void saveMeterReading_whenIdempotencyKeyIsReservedByOtherInstance_thenReturnConflict() throws Exception {
+        String key = UUID.randomUUID().toString();
+        jdbcTemplate.update("insert into idempotency_key (idempotency_key, request_hash, status, body, reserved_at) " +
+                "values (?, 1, 0, '', now())", key);
+
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .content(asJsonString(new MeterReadingDTO(2021, 6, 17, 2L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Request with Idempotency-Key " + key + " is still processed"));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from meter_reading where meter_id = 2 and year = 2021 and month = 6", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void saveMeterReading_whenReservationOfIdempotencyKeyIsStale_thenTakeItOverAndStoreResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        jdbcTemplate.update("insert into idempotency_key (idempotency_key, request_hash, status, body, reserved_at) " +
+                "values (?, 1, 0, '', now() - interval '10 minutes')", key);
+
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                        .content(asJsonString(new MeterReadingDTO(2021, 7, 17, 2L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select status from idempotency_key where idempotency_key = ?", Integer.class, key))
+                .isEqualTo(201);
+        assertThat(jdbcTemplate.queryForObject(
+                "select reserved_at from idempotency_key where idempotency_key = ?", Object.class, key))
+                .isNull();
+    }
+
+    @Test
+    void readYear_whenProtobufIsAccepted_thenReturnProtobufMessageWithOwnETag() throws Exception {
+        String jsonEtag = mockMvc.perform(get("/api/v2/meters/1/2020"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v2/meters/1/2020")
+                        .accept(MeterReadingProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MeterReadingProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn().getResponse();
+        MeterReadingDTO meterReading = MeterReadingProtobufCodec.readMeterReading(
+                CodedInputStream.newInstance(response.getContentAsByteArray()));
+
+        assertThat(meterReading.getYear()).isEqualTo(2020);
+        assertThat(meterReading.getMonthlyEnergyConsumption()).hasSize(12).containsEntry("January", 11);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(jsonEtag);
+    }
+
+    @Test
+    void saveMeterReading_whenBodyIsProtobuf_thenReturnProtobufMessage() throws Exception {
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO(2021, 3, 12, 2L);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(body);
+        MeterReadingProtobufCodec.writeMeterReading(meterReadingDTO, out);
+        out.flush();
+
+        byte[] saved = mockMvc.perform(post("/api/v1/meters/reading")
+                        .content(body.toByteArray())
+                        .contentType(MeterReadingProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .accept(MeterReadingProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MeterReadingDTO result = MeterReadingProtobufCodec.readMeterReading(CodedInputStream.newInstance(saved));
+        assertThat(result.getMeterId()).isEqualTo(2L);
+        assertThat(result.getYear()).isEqualTo(2021);
+        assertThat(result.getMonth()).isEqualTo(3);
+        assertThat(result.getEnergyConsumed()).isEqualTo(12);
+    }
+
+    @Test
+    void saveMeterReadings_whenBodyIsProtobuf_thenReturnResultPerMeterReading() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(body);
+        MeterReadingProtobufCodec.writeMeterReadings(List.of(new MeterReadingDTO(2021, 4, 12, 2L),
+                new MeterReadingDTO(2021, 5, 13, 2L)), out);
+        out.flush();
+
+        mockMvc.perform(post("/api/v1/meters/readings/batch")
+                        .content(body.toByteArray())
+                        .contentType(MeterReadingProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+    }
+
+    @Test
+    void saveMeterReadings_whenProtobufIsAccepted_thenReturnProtobufResult() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(body);
+        MeterReadingProtobufCodec.writeMeterReadings(List.of(new MeterReadingDTO(2021, 4, 12, 2L),
+                new MeterReadingDTO(2021, 4, 13, 2L)), out);
+        out.flush();
+
+        byte[] result = mockMvc.perform(post("/api/v1/meters/readings/batch")
+                        .content(body.toByteArray())
+                        .contentType(MeterReadingProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .accept(MeterReadingProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MeterReadingProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        UnknownFieldSet fields = UnknownFieldSet.parseFrom(result);
+        assertThat(fields.getField(1).getVarintList()).containsExactly(2L);
+        assertThat(fields.getField(2).getVarintList()).containsExactly(1L);
+        assertThat(fields.getField(3).getVarintList()).containsExactly(1L);
+        assertThat(fields.getField(4).getLengthDelimitedList()).hasSize(2);
+    }
+
+    @Test
+    void readYear_whenProtobufIsAcceptedAndReadingsDoNotExist_thenReturnProtobufError() throws Exception {
+        byte[] error = mockMvc.perform(get("/api/v1/meters/1/2021")
+                        .accept(MeterReadingProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        UnknownFieldSet fields = UnknownFieldSet.parseFrom(error);
+        assertThat(fields.getField(1).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo("NOT_FOUND");
+        assertThat(fields.getField(2).getLengthDelimitedList().get(0).toStringUtf8())
+                .isEqualTo("Meter readings for meter id 1 and year 2021 does not exist");
+    }
+
+    @Test
+    void findByMeterIdAndYearAndMonthV2_whenReadingDoesNotExist_thenReturnExceptionMessage() throws Exception {
+        mockMvc.perform(get("/api/v2/meters/1/2021/12"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(
+                        "Meter reading for meter id 1, year 2021 and month December does not exist"));
+    }
+
     @Test
     void findByMeterIdAndYearAndMonth_whenReadingDoesNotExist_thenReturnExceptionMessage() throws Exception {
         Long id = 1L;
@@ -281,6 +716,27 @@ public class MeterControllerIntegrationTest {
                 .andExpect(jsonPath("$.meterId").value(id));
     }
 
+    @Test
+    void upsertMeterReading_whenMeterReadingDoesNotExist_thenInsertAndThenUpdate() throws Exception {
+        mockMvc.perform(put("/api/v1/meters/reading?upsert=true")
+                        .content(asJsonString(new MeterReadingDTO(2023, 5, 30, 2L)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.energyConsumed").value(30));
+
+        mockMvc.perform(put("/api/v1/meters/reading?upsert=true")
+                        .content(asJsonString(new MeterReadingDTO(2023, 5, 35, 2L)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/meters/2/2023/5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyEnergyConsumption.length()").value(1))
+                .andExpect(jsonPath("$.monthlyEnergyConsumption.May").value(35));
+    }
+
     @ParameterizedTest
     @MethodSource("provideMeterReadingDTOsAndMessagesForUpdating")
     void updateMeterReading_shouldReturnExceptionMessage(MeterReadingDTO meterReadingDTO, String message) throws Exception {
@@ -332,6 +788,201 @@ public class MeterControllerIntegrationTest {
         );
     }
 
+    @Test
+    void saveMeterReadings_whenMeterReadingsAreSent_thenReturnResultPerMeterReading() throws Exception {
+        List<MeterReadingDTO> meterReadingDTOs = List.of(
+                new MeterReadingDTO(2022, 1, 15, 1L),
+                new MeterReadingDTO(2022, 2, 16, 2L),
+                new MeterReadingDTO(2020, 1, 11, 1L),
+                new MeterReadingDTO(2022, 1, 15, 10L),
+                new MeterReadingDTO(2022, 0, 15, 1L)
+        );
+
+        mockMvc.perform(post("/api/v1/meters/readings/batch")
+                        .content(asJsonString(meterReadingDTOs))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(5))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[1].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[2].message")
+                        .value("Meter reading for meter id 1, year 2020 and month January already exists"))
+                .andExpect(jsonPath("$.items[3].message").value("Meter with id 10 does not exist"))
+                .andExpect(jsonPath("$.items[4].message").value("Month must be between 1 and 12"));
+
+        mockMvc.perform(get("/api/v1/meters/2/2022/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyEnergyConsumption.February").value(16));
+    }
+
+    @Test
+    void saveMeterReadings_whenMeterReadingsAreEmpty_thenReturnExceptionMessage() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/readings/batch")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Meter readings must not be empty"));
+    }
+
+    @Test
+    void importMeterReadings_whenCsvIsSent_thenCopyValidRecordsAndReportRejected() throws Exception {
+        String csv = """
+                meterId,year,month,energyConsumed
+                3,2021,1,10
+                3,2021,2,12
+                3,2021,13,12
+                10,2021,1,12
+                """;
+
+        mockMvc.perform(post("/api/v1/meters/readings/import")
+                        .content(csv)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true))
+                .andExpect(jsonPath("$.read").value(4))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.committedOffset").value(4))
+                .andExpect(jsonPath("$.rejectedRecords[0].offset").value(3))
+                .andExpect(jsonPath("$.rejectedRecords[0].message").value("Month must be between 1 and 12"))
+                .andExpect(jsonPath("$.rejectedRecords[1].message").value("Meter with id 10 does not exist"));
+
+        mockMvc.perform(get("/api/v1/meters/3/consumption/aggregation/2021"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(22));
+    }
+
+    @Test
+    void importMeterReadings_whenNdjsonIsSentWithOffset_thenSkipRecordsUpToOffset() throws Exception {
+        String ndjson = """
+                {"meterId":3,"year":2022,"month":1,"energyConsumed":10}
+                {"meterId":3,"year":2022,"month":2,"energyConsumed":12}
+                """;
+
+        mockMvc.perform(post("/api/v1/meters/readings/import?offset=1")
+                        .content(ndjson)
+                        .contentType("application/x-ndjson")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(1))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.committedOffset").value(2));
+
+        mockMvc.perform(get("/api/v1/meters/3/consumption/aggregation/2022"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(12));
+    }
+
+    @Test
+    void aggregateConsumptionByMeterIdAndYear_whenMeterReadingsAreSavedAndUpdated_thenReturnRollup() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .content(asJsonString(new MeterReadingDTO(2019, 1, 10, 3L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .content(asJsonString(new MeterReadingDTO(2019, 2, 15, 3L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        mockMvc.perform(put("/api/v1/meters/reading")
+                        .content(asJsonString(new MeterReadingDTO(2019, 2, 5, 3L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/meters/3/consumption/aggregation/2019"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(15));
+    }
+
+    @Test
+    void aggregateConsumptionByMeterIdAndYear_whenTotalExceedsInteger_thenReturnTotal() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .content(asJsonString(new MeterReadingDTO(2016, 1, Integer.MAX_VALUE, 3L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/meters/reading")
+                        .content(asJsonString(new MeterReadingDTO(2016, 2, Integer.MAX_VALUE, 3L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/meters/3/consumption/aggregation/2016"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2L * Integer.MAX_VALUE));
+    }
+
+    @Test
+    void rebuildRollups_whenCalledThroughActuator_thenRebuildRollupsOfAllMeters() throws Exception {
+        mockMvc.perform(post("/actuator/rollups"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chunks").value(1))
+                .andExpect(jsonPath("$.rollups").value(2));
+    }
+
+    @Test
+    void findSeriesByMeterIdAndYears_whenReadingsExist_thenReturnColumnarSeries() throws Exception {
+        mockMvc.perform(get("/api/v1/meters/1/series?fromYear=2015&toYear=2020"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.meterId").value(1))
+                .andExpect(jsonPath("$.yearMonths.length()").value(12))
+                .andExpect(jsonPath("$.yearMonths[0]").value(202001))
+                .andExpect(jsonPath("$.yearMonths[11]").value(202012))
+                .andExpect(jsonPath("$.energyConsumed[0]").value(11))
+                .andExpect(jsonPath("$.energyConsumed[11]").value(22));
+    }
+
+    @Test
+    void findSeriesByMeterIdAndYears_whenReadingsDoNotExist_thenReturnExceptionMessage() throws Exception {
+        mockMvc.perform(get("/api/v1/meters/1/series?fromYear=2015&toYear=2016"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message")
+                        .value("Meter readings for meter id 1 from year 2015 to year 2016 do not exist"));
+    }
+
+    @Test
+    void aggregateFleetConsumption_whenMeterIdsAreNotSet_thenReturnAllMetersAndGrandTotal() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/consumption/aggregation")
+                        .content(asJsonString(new FleetConsumptionRequestDTO(null, 2020, null, 2020, null)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.meters.length()").value(2))
+                .andExpect(jsonPath("$.meters[0].meterId").value(1))
+                .andExpect(jsonPath("$.meters[0].total").value(195))
+                .andExpect(jsonPath("$.meters[0].monthCount").value(12))
+                .andExpect(jsonPath("$.meters[1].meterId").value(2))
+                .andExpect(jsonPath("$.meters[1].total").value(183))
+                .andExpect(jsonPath("$.meterCount").value(2))
+                .andExpect(jsonPath("$.grandTotal").value(378));
+    }
+
+    @Test
+    void aggregateFleetConsumption_whenRangeIsPartOfYear_thenReturnConsumptionOfRequestedMeters() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/consumption/aggregation")
+                        .content(asJsonString(new FleetConsumptionRequestDTO(Set.of(2L, 3L, 10L), 2020, 1, 2020, 2)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meters.length()").value(1))
+                .andExpect(jsonPath("$.meters[0].meterId").value(2))
+                .andExpect(jsonPath("$.meters[0].total").value(22))
+                .andExpect(jsonPath("$.meters[0].monthCount").value(2))
+                .andExpect(jsonPath("$.toMonth").value(2))
+                .andExpect(jsonPath("$.grandTotal").value(22));
+    }
+
+    @Test
+    void aggregateFleetConsumption_whenRangeIsNotValid_thenReturnExceptionMessage() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/consumption/aggregation")
+                        .content(asJsonString(new FleetConsumptionRequestDTO(null, 2021, 1, 2020, 12)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("First month must not be after last month"));
+    }
+
     @Test
     void deleteMeterReadingById_deletedSuccessfully() throws Exception {
         mockMvc.perform(delete("/api/v1/meters/reading/1"))
@@ -349,6 +1000,67 @@ public class MeterControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value(message));
     }
 
+    @Test
+    void saveIntervalReadings_whenReadingsAreSaved_thenMonthlyReadingsAreDerivedAndSeriesIsSummed() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/3/intervals")
+                        .content("""
+                                [{"readAt": "2017-03-31T23:45:00Z", "energyConsumed": 5},
+                                 {"readAt": "2017-04-01T00:00:00Z", "energyConsumed": 2},
+                                 {"readAt": "2017-04-01T00:15:00Z", "energyConsumed": 3},
+                                 {"readAt": "2017-04-01T01:00:00Z", "energyConsumed": 4}]
+                                """)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(4))
+                .andExpect(jsonPath("$.monthsDerived").value(2));
+
+        mockMvc.perform(get("/api/v1/meters/3/2017/4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.monthlyEnergyConsumption.April").value(9));
+        mockMvc.perform(get("/api/v1/meters/3/consumption/aggregation/2017"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(14));
+        mockMvc.perform(get("/api/v1/meters/3/intervals")
+                        .param("from", "2017-04-01T00:00:00Z")
+                        .param("to", "2017-04-01T02:00:00Z")
+                        .param("resolution", "HOUR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timestamps.length()").value(2))
+                .andExpect(jsonPath("$.timestamps[0]").value("2017-04-01T00:00:00Z"))
+                .andExpect(jsonPath("$.timestamps[1]").value("2017-04-01T01:00:00Z"))
+                .andExpect(jsonPath("$.energyConsumed[0]").value(5))
+                .andExpect(jsonPath("$.energyConsumed[1]").value(4));
+        mockMvc.perform(get("/api/v1/meters/3/intervals")
+                        .param("from", "2017-03-31T23:45:00Z")
+                        .param("to", "2017-04-01T00:15:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("RAW"))
+                .andExpect(jsonPath("$.energyConsumed.length()").value(2))
+                .andExpect(jsonPath("$.energyConsumed[0]").value(5))
+                .andExpect(jsonPath("$.energyConsumed[1]").value(2));
+    }
+
+    @Test
+    void saveIntervalReadings_whenReadingIsNotAtQuarterOfHour_thenReturnExceptionMessage() throws Exception {
+        mockMvc.perform(post("/api/v1/meters/3/intervals")
+                        .content("[{\"readAt\": \"2017-04-01T00:10:00Z\", \"energyConsumed\": 2}]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message")
+                        .value("Start of interval 2017-04-01T00:10:00Z must be at a quarter of an hour"));
+    }
+
+    @Test
+    void findIntervalReadings_whenReadingsDoNotExist_thenReturnExceptionMessage() throws Exception {
+        mockMvc.perform(get("/api/v1/meters/2/intervals")
+                        .param("from", "2016-01-01T00:00:00Z")
+                        .param("to", "2016-02-01T00:00:00Z")
+                        .param("resolution", "DAY"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(
+                        "Interval readings for meter id 2 from 2016-01-01T00:00:00Z to 2016-02-01T00:00:00Z do not exist"));
+    }
+
     public static String asJsonString(final Object obj) {
         try {
             return new ObjectMapper().writeValueAsString(obj);
@@ -356,4 +1068,23 @@ public class MeterControllerIntegrationTest {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Wraps data source of the application, so statements executed by every repository are counted.
+     */
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                            ? new StatementCountingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+}
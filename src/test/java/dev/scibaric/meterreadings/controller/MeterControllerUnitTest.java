@@ -1,23 +1,42 @@
 package dev.scibaric.meterreadings.controller;
 
+import dev.scibaric.meterreadings.dto.BatchItemResultDTO;
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionRequestDTO;
+import dev.scibaric.meterreadings.dto.ImportResultDTO;
+import dev.scibaric.meterreadings.dto.MeterConsumptionDTO;
 import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
 import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import dev.scibaric.meterreadings.importer.ImportFormat;
+import dev.scibaric.meterreadings.service.MeterReadingImportService;
 import dev.scibaric.meterreadings.service.MeterService;
+import dev.scibaric.meterreadings.service.WriteBehindService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.Month;
 import java.time.Year;
 import java.time.format.TextStyle;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -30,11 +49,18 @@ class MeterControllerUnitTest {
     @MockBean
     private MeterService service;
 
+    @MockBean
+    private MeterReadingImportService importService;
+
+    @MockBean
+    private WriteBehindService writeBehindService;
+
     private MeterController controller;
 
     @BeforeEach
     void setUp() {
-        controller = new MeterController(service);
+        controller = new MeterController(service, importService,
+                new StaticListableBeanFactory().getBeanProvider(WriteBehindService.class));
     }
 
     @Test
@@ -42,7 +68,7 @@ class MeterControllerUnitTest {
         // given
         Long id = 1L;
         Integer year = Year.now().getValue();
-        Integer total = 30;
+        Long total = 30L;
         MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
         meterReadingDTO.setYear(year);
         meterReadingDTO.setTotal(total);
@@ -60,6 +86,66 @@ class MeterControllerUnitTest {
         verify(service).aggregateConsumptionByMeterIdAndYear(id, year);
     }
 
+    @Test
+    void aggregateFleetConsumption_whenRequestIsValid_thenWriteMetersAndGrandTotal() throws Exception {
+        // given
+        FleetConsumptionRequestDTO request = new FleetConsumptionRequestDTO(Set.of(1L, 2L), 2020, 1, 2020, 12);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        when(service.aggregateFleetConsumption(eq(request), any())).thenAnswer(invocation -> {
+            Consumer<MeterConsumptionDTO> consumer = invocation.getArgument(1);
+            consumer.accept(new MeterConsumptionDTO(1L, 195L, 12));
+            consumer.accept(new MeterConsumptionDTO(2L, 183L, 12));
+            return new FleetConsumptionDTO(2020, 1, 2020, 12, 2L, 378L);
+        });
+
+        controller.aggregateFleetConsumption(request, response);
+
+        // then
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString()).isEqualTo(
+                "{\"meters\":[{\"meterId\":1,\"total\":195,\"monthCount\":12}," +
+                        "{\"meterId\":2,\"total\":183,\"monthCount\":12}]," +
+                        "\"fromYear\":2020,\"fromMonth\":1,\"toYear\":2020,\"toMonth\":12," +
+                        "\"meterCount\":2,\"grandTotal\":378}");
+    }
+
+    @Test
+    void aggregateFleetConsumption_whenRequestIsNotValid_thenThrowExceptionBeforeWriting() {
+        // given
+        FleetConsumptionRequestDTO request = new FleetConsumptionRequestDTO(Set.of(), 2020, 1, 2020, 12);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        when(service.aggregateFleetConsumption(eq(request), any()))
+                .thenThrow(new IllegalArgumentException("Meter ids must not be empty"));
+
+        // then
+        assertThatThrownBy(() -> controller.aggregateFleetConsumption(request, response))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Meter ids must not be empty");
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void findSeriesByMeterIdAndYears_whenReadingsExist_thenReturnResult() {
+        // given
+        MeterReadingSeriesDTO series = new MeterReadingSeriesDTO(1L, 2020, 2021,
+                new int[]{202001, 202101}, new int[]{11, 15});
+
+        // when
+        when(service.findSeriesByMeterIdAndYears(1L, 2020, 2021)).thenReturn(series);
+        ResponseEntity<MeterReadingSeriesDTO> result = controller.findSeriesByMeterIdAndYears(1L, 2020, 2021);
+
+        // then
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(series);
+
+        verify(service).findSeriesByMeterIdAndYears(1L, 2020, 2021);
+    }
+
     @Test
     void aggregateConsumptionByMeterIdAndYear_whenMeterIdIsNull_thenThrowException() {
         // given
@@ -119,7 +205,7 @@ class MeterControllerUnitTest {
         // given
         Long id = 1L;
         Integer year = Year.now().getValue();
-        Integer total = 30;
+        Long total = 30L;
         MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
         meterReadingDTO.setYear(year);
         meterReadingDTO.setTotal(total);
@@ -142,7 +228,7 @@ class MeterControllerUnitTest {
         // given
         Long id = 1L;
         Integer year = 2021;
-        Integer total = 30;
+        Long total = 30L;
         MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
         meterReadingDTO.setYear(year);
         meterReadingDTO.setTotal(total);
@@ -679,6 +765,30 @@ class MeterControllerUnitTest {
         verify(service).saveMeterReading(meterReadingDTO);
     }
 
+    @Test
+    void saveMeterReading_whenWriteBehindIsEnabled_thenReturnAccepted() {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
+        meterReadingDTO.setMeterId(1L);
+        meterReadingDTO.setYear(2020);
+        meterReadingDTO.setMonth(3);
+        meterReadingDTO.setEnergyConsumed(14);
+        controller = new MeterController(service, importService,
+                new StaticListableBeanFactory(Map.of("writeBehindService", writeBehindService))
+                        .getBeanProvider(WriteBehindService.class));
+
+        // when
+        when(writeBehindService.saveMeterReading(meterReadingDTO)).thenReturn(meterReadingDTO);
+        ResponseEntity<MeterReadingDTO> result = controller.saveMeterReading(meterReadingDTO);
+
+        // then
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(result.getBody()).isEqualTo(meterReadingDTO);
+
+        verify(writeBehindService).saveMeterReading(meterReadingDTO);
+        verify(service, never()).saveMeterReading(any());
+    }
+
     @Test
     void saveMeterReading_whenMeterReadingIsNull_thenThrowException() {
         // given
@@ -1297,4 +1407,96 @@ class MeterControllerUnitTest {
 
         verify(service).deleteMeterReadingById(meterReadingId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void saveMeterReadings_whenMeterReadingsAreSaved_thenReturnResult() {
+        // given
+        List<MeterReadingDTO> meterReadingDTOs = List.of(
+                new MeterReadingDTO(2021, 1, 15, 1L),
+                new MeterReadingDTO(2021, 13, 15, 1L)
+        );
+        BatchResultDTO batchResultDTO = new BatchResultDTO(List.of(
+                BatchItemResultDTO.created(0),
+                BatchItemResultDTO.rejected(1, "Month must be between 1 and 12")
+        ));
+
+        // when
+        when(service.saveMeterReadings(meterReadingDTOs)).thenReturn(batchResultDTO);
+        BatchResultDTO result = controller.saveMeterReadings(meterReadingDTOs).getBody();
+
+        // then
+        assertThat(result.getReceived()).isEqualTo(2);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+
+        verify(service).saveMeterReadings(meterReadingDTOs);
+    }
+
+    @Test
+    void saveMeterReadings_whenMeterReadingsAreEmpty_thenThrowException() {
+        // given
+        List<MeterReadingDTO> meterReadingDTOs = List.of();
+        String message = "Meter readings must not be empty";
+
+        // when
+        when(service.saveMeterReadings(meterReadingDTOs)).thenThrow(new IllegalArgumentException(message));
+
+        // then
+        assertThatThrownBy(() -> controller.saveMeterReadings(meterReadingDTOs))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(message);
+
+        verify(service).saveMeterReadings(meterReadingDTOs);
+    }
+
+    @Test
+    void importMeterReadings_whenImportIsCompleted_thenReturnOk() {
+        // given
+        InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+        ImportResultDTO importResultDTO = new ImportResultDTO(ImportFormat.CSV, 0L);
+        importResultDTO.setCompleted(true);
+
+        // when
+        when(importService.importMeterReadings(inputStream, ImportFormat.CSV, 0L)).thenReturn(importResultDTO);
+        ResponseEntity<ImportResultDTO> result = controller.importMeterReadings(inputStream, "text/csv", 0L);
+
+        // then
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(importResultDTO);
+
+        verify(importService).importMeterReadings(inputStream, ImportFormat.CSV, 0L);
+    }
+
+    @Test
+    void importMeterReadings_whenImportIsStopped_thenReturnInternalServerError() {
+        // given
+        InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+        ImportResultDTO importResultDTO = new ImportResultDTO(ImportFormat.NDJSON, 10L);
+        importResultDTO.setError("Connection lost");
+
+        // when
+        when(importService.importMeterReadings(inputStream, ImportFormat.NDJSON, 10L)).thenReturn(importResultDTO);
+        ResponseEntity<ImportResultDTO> result =
+                controller.importMeterReadings(inputStream, "application/x-ndjson", 10L);
+
+        // then
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(result.getBody().getCommittedOffset()).isEqualTo(10L);
+    }
+
+    @Test
+    void upsertMeterReading_whenMeterReadingDTOIsCompleted_thenReturnResult() {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO(2021, 4, 20, 1L);
+
+        // when
+        when(service.upsertMeterReading(meterReadingDTO)).thenReturn(meterReadingDTO);
+        MeterReadingDTO result = controller.upsertMeterReading(meterReadingDTO).getBody();
+
+        // then
+        assertThat(result).isEqualTo(meterReadingDTO);
+
+        verify(service).upsertMeterReading(meterReadingDTO);
+        verify(service, never()).updateMeterReading(meterReadingDTO);
+    }
+}
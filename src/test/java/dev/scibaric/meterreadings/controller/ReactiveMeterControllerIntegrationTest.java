@@ -0,0 +1,167 @@
+package dev.scibaric.meterreadings.controller;
+
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.service.MeterConsumptionRollupService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReactiveMeterControllerIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterConsumptionRollupService rollupService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeAll
+    public void setUp() {
+        jdbcTemplate.update("insert into client (id, name) values (1001, 'Ivan Perisic'), (1002, 'Ivan Rakitic') " +
+                "on conflict do nothing");
+        jdbcTemplate.update("insert into meter (id, client_id) values (1001, 1001), (1002, 1002) " +
+                "on conflict do nothing");
+        jdbcTemplate.update("insert into meter_reading (id, meter_id, year, month, energy_consumed) values " +
+                "(1001001, 1001, 2015, 1, 11), (1001002, 1001, 2015, 2, 14), (1001003, 1001, 2016, 1, 9) " +
+                "on conflict do nothing");
+
+        rollupService.rebuild();
+    }
+
+    @AfterAll
+    public void tearDown() {
+        jdbcTemplate.update("delete from meter_consumption_rollup where meter_id in (1001, 1002)");
+        jdbcTemplate.update("delete from meter_reading where meter_id in (1001, 1002)");
+        jdbcTemplate.update("delete from meter where id in (1001, 1002)");
+        jdbcTemplate.update("delete from client where id in (1001, 1002)");
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenReadingsExist_thenReturnResult() {
+        webTestClient.get().uri("/api/v1/meters/1001/2015")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.year").isEqualTo(2015)
+                .jsonPath("$.monthlyEnergyConsumption.January").isEqualTo(11)
+                .jsonPath("$.monthlyEnergyConsumption.February").isEqualTo(14);
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenMeterDoesNotExist_thenReturnBadRequest() {
+        webTestClient.get().uri("/api/v1/meters/999999/2015")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("BAD_REQUEST")
+                .jsonPath("$.message").isEqualTo("Meter with id 999999 does not exist");
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenReadingsDoNotExist_thenReturnNotFound() {
+        webTestClient.get().uri("/api/v1/meters/1001/2014")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("NOT_FOUND")
+                .jsonPath("$.message").isEqualTo("Meter readings for meter id 1001 and year 2014 does not exist");
+    }
+
+    @Test
+    void aggregateConsumptionByMeterIdAndYear_whenReadingsExist_thenReturnTotal() {
+        webTestClient.get().uri("/api/v1/meters/1001/consumption/aggregation/2015")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.year").isEqualTo(2015)
+                .jsonPath("$.total").isEqualTo(25);
+    }
+
+    @Test
+    void findSeriesByMeterIdAndYears_whenReadingsExist_thenReturnSeries() {
+        webTestClient.get().uri("/api/v1/meters/1001/series?fromYear=2015&toYear=2016")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.meterId").isEqualTo(1001)
+                .jsonPath("$.yearMonths.length()").isEqualTo(3)
+                .jsonPath("$.yearMonths[0]").isEqualTo(201501)
+                .jsonPath("$.yearMonths[2]").isEqualTo(201601)
+                .jsonPath("$.energyConsumed[0]").isEqualTo(11)
+                .jsonPath("$.energyConsumed[2]").isEqualTo(9);
+    }
+
+    @Test
+    void findByMeterIdAndYearAndMonth_whenMonthIsNotValid_thenReturnBadRequest() {
+        webTestClient.get().uri("/api/v1/meters/1001/2015/13")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Month must be between 1 and 12");
+    }
+
+    @Test
+    void findByMeterIdAndYearAndMonth_whenReadingExists_thenReturnResult() {
+        webTestClient.get().uri("/api/v1/meters/1001/2016/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.year").isEqualTo(2016)
+                .jsonPath("$.monthlyEnergyConsumption.January").isEqualTo(9);
+    }
+
+    @Test
+    void saveMeterReading_whenSavedAndUpserted_thenAggregateIsUpdated() {
+        webTestClient.post().uri("/api/v1/meters/reading")
+                .bodyValue(new MeterReadingDTO(2017, 1, 30, 1002L))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.energyConsumed").isEqualTo(30);
+
+        webTestClient.post().uri("/api/v1/meters/reading")
+                .bodyValue(new MeterReadingDTO(2017, 1, 30, 1002L))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message")
+                .isEqualTo("Meter reading for meter id 1002, year 2017 and month January already exists");
+
+        webTestClient.put().uri("/api/v1/meters/reading?upsert=true")
+                .bodyValue(new MeterReadingDTO(2017, 2, 12, 1002L))
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/api/v1/meters/1002/consumption/aggregation/2017")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(42);
+    }
+
+    @Test
+    void deleteMeterReadingById_whenReadingDoesNotExist_thenReturnBadRequest() {
+        webTestClient.delete().uri("/api/v1/meters/reading/99999999")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Meter reading with id 99999999 does not exist");
+    }
+}
@@ -0,0 +1,166 @@
+package dev.scibaric.meterreadings.converter;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnknownFieldSet;
+import dev.scibaric.meterreadings.dto.BatchItemResultDTO;
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.exception.ApiExceptionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeterReadingProtobufCodecUnitTest {
+
+    @Test
+    void writeMeterReading_whenMeterReadingIsWritten_thenFieldsHaveNumbersOfSchema() throws IOException {
+        // given
+        MeterReadingDTO meterReading = new MeterReadingDTO(2020, 3, 10, 1L);
+        meterReading.setId(7L);
+
+        // when
+        byte[] bytes = encode(out -> MeterReadingProtobufCodec.writeMeterReading(meterReading, out));
+        UnknownFieldSet fields = UnknownFieldSet.parseFrom(bytes);
+
+        // then
+        assertThat(bytes).hasSize(MeterReadingProtobufCodec.meterReadingSize(meterReading));
+        assertThat(fields.getField(1).getVarintList()).containsExactly(7L);
+        assertThat(fields.getField(2).getVarintList()).containsExactly(2020L);
+        assertThat(fields.getField(3).getVarintList()).containsExactly(3L);
+        assertThat(fields.getField(5).getVarintList()).containsExactly(10L);
+        assertThat(fields.getField(7).getVarintList()).containsExactly(1L);
+        assertThat(fields.hasField(4)).isFalse();
+        assertThat(fields.hasField(6)).isFalse();
+    }
+
+    @Test
+    void writeYearConsumption_whenMonthsAreWritten_thenTheyAreMapEntriesInCalendarOrder() throws IOException {
+        // given
+        YearConsumptionDTO yearConsumption = YearConsumptionDTO.builder(2020).month(12, 22).month(1, 11).build();
+
+        // when
+        byte[] bytes = encode(out -> MeterReadingProtobufCodec.writeYearConsumption(yearConsumption, out));
+        UnknownFieldSet fields = UnknownFieldSet.parseFrom(bytes);
+
+        // then
+        assertThat(fields.getField(2).getVarintList()).containsExactly(2020L);
+        List<UnknownFieldSet> months = fields.getField(6).getLengthDelimitedList().stream()
+                .map(entry -> {
+                    try {
+                        return UnknownFieldSet.parseFrom(entry);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertThat(months).hasSize(2);
+        assertThat(months.get(0).getField(1).getVarintList()).containsExactly(1L);
+        assertThat(months.get(0).getField(2).getVarintList()).containsExactly(11L);
+        assertThat(months.get(1).getField(1).getVarintList()).containsExactly(12L);
+        assertThat(months.get(1).getField(2).getVarintList()).containsExactly(22L);
+    }
+
+    @Test
+    void readMeterReadings_whenMeterReadingsAreWritten_thenTheSameMeterReadingsAreRead() throws IOException {
+        // given
+        MeterReadingDTO meterReading = new MeterReadingDTO(2020, 3, 10, 1L);
+        MeterReadingDTO yearlyMeterReading = new MeterReadingDTO(2021, Map.of("January", 11, "December", 22));
+        yearlyMeterReading.setTotal(33L);
+
+        // when
+        byte[] bytes = encode(out -> MeterReadingProtobufCodec.writeMeterReadings(
+                List.of(meterReading, yearlyMeterReading), out));
+        List<MeterReadingDTO> meterReadings =
+                MeterReadingProtobufCodec.readMeterReadings(CodedInputStream.newInstance(bytes));
+
+        // then
+        assertThat(meterReadings).containsExactly(meterReading, yearlyMeterReading);
+    }
+
+    @Test
+    void readMeterReading_whenMessageHasUnknownFields_thenTheyAreSkipped() throws IOException {
+        // when
+        byte[] bytes = encode(out -> {
+            out.writeString(15, "unknown");
+            out.writeInt32(2, 2020);
+            out.writeFixed64(16, 1L);
+            out.writeInt32(5, 10);
+        });
+        MeterReadingDTO meterReading = MeterReadingProtobufCodec.readMeterReading(CodedInputStream.newInstance(bytes));
+
+        // then
+        assertThat(meterReading.getYear()).isEqualTo(2020);
+        assertThat(meterReading.getEnergyConsumed()).isEqualTo(10);
+        assertThat(meterReading.getMonth()).isNull();
+    }
+
+    @Test
+    void writeApiError_whenErrorIsWritten_thenStatusIsWrittenByName() throws IOException {
+        // given
+        ApiExceptionResponse error = new ApiExceptionResponse(HttpStatus.NOT_FOUND, "Not found");
+
+        // when
+        UnknownFieldSet fields = UnknownFieldSet.parseFrom(
+                encode(out -> MeterReadingProtobufCodec.writeApiError(error, out)));
+
+        // then
+        assertThat(fields.getField(1).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo("NOT_FOUND");
+        assertThat(fields.getField(2).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo("Not found");
+        assertThat(fields.getField(3).getLengthDelimitedList().get(0).toStringUtf8())
+                .isEqualTo(error.getTime().toString());
+    }
+
+    @Test
+    void writeBatchResult_whenResultIsWritten_thenItemsAreNestedMessages() throws IOException {
+        // given
+        BatchResultDTO batchResult = new BatchResultDTO(List.of(BatchItemResultDTO.created(0),
+                BatchItemResultDTO.rejected(1, "Meter with id 9 does not exist")));
+
+        // when
+        UnknownFieldSet fields = UnknownFieldSet.parseFrom(
+                encode(out -> MeterReadingProtobufCodec.writeBatchResult(batchResult, out)));
+
+        // then
+        assertThat(fields.getField(1).getVarintList()).containsExactly(2L);
+        assertThat(fields.getField(2).getVarintList()).containsExactly(1L);
+        assertThat(fields.getField(3).getVarintList()).containsExactly(1L);
+        List<UnknownFieldSet> items = fields.getField(4).getLengthDelimitedList().stream()
+                .map(item -> {
+                    try {
+                        return UnknownFieldSet.parseFrom(item);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).getField(1).getVarintList()).containsExactly(0L);
+        assertThat(items.get(0).getField(2).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo("CREATED");
+        assertThat(items.get(0).hasField(3)).isFalse();
+        assertThat(items.get(1).getField(1).getVarintList()).containsExactly(1L);
+        assertThat(items.get(1).getField(2).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo("REJECTED");
+        assertThat(items.get(1).getField(3).getLengthDelimitedList().get(0).toStringUtf8())
+                .isEqualTo("Meter with id 9 does not exist");
+    }
+
+    private static byte[] encode(Writer writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        writer.write(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(CodedOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,51 @@
+package dev.scibaric.meterreadings.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YearConsumptionSerializerUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void serialize_whenMonthsArePresent_thenJsonHasShapeOfMeterReadingDTO() throws Exception {
+        // given
+        YearConsumptionDTO yearConsumption = YearConsumptionDTO.builder(2020).month(2, 14).month(1, 17).build();
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO(2020, Map.of("January", 17, "February", 14));
+
+        // when
+        String json = objectMapper.writeValueAsString(yearConsumption);
+
+        // then
+        assertThat(json).isEqualTo("{\"year\":2020,\"monthlyEnergyConsumption\":{\"January\":17,\"February\":14}}");
+        assertThat(objectMapper.readTree(json)).isEqualTo(objectMapper.valueToTree(meterReadingDTO));
+    }
+
+    @Test
+    void serialize_whenTotalIsPresent_thenJsonHasShapeOfMeterReadingDTO() throws Exception {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
+        meterReadingDTO.setYear(2020);
+        meterReadingDTO.setTotal(195L);
+
+        // when
+        String json = objectMapper.writeValueAsString(YearConsumptionDTO.ofTotal(2020, 195));
+
+        // then
+        assertThat(json).isEqualTo("{\"year\":2020,\"total\":195}");
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(meterReadingDTO));
+    }
+
+    @Test
+    void serialize_whenEnergyConsumedIsZero_thenMonthIsWritten() throws Exception {
+        // when
+        String json = objectMapper.writeValueAsString(YearConsumptionDTO.builder(2020).month(12, 0).build());
+
+        // then
+        assertThat(json).isEqualTo("{\"year\":2020,\"monthlyEnergyConsumption\":{\"December\":0}}");
+    }
+}
@@ -0,0 +1,44 @@
+package dev.scibaric.meterreadings.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeasonalConsumptionModelUnitTest {
+
+    private final SeasonalConsumptionModel model = new SeasonalConsumptionModel(42);
+
+    @Test
+    void energyConsumed_whenGeneratedWithTheSameSeed_thenConsumptionIsTheSame() {
+        // then
+        assertThat(model.energyConsumed(7, 2015, 2020))
+                .hasSize(72)
+                .containsExactly(new SeasonalConsumptionModel(42).energyConsumed(7, 2015, 2020));
+        assertThat(model.energyConsumed(7, 2015, 2020)).isNotEqualTo(model.energyConsumed(8, 2015, 2020));
+    }
+
+    @Test
+    void energyConsumed_whenFleetIsGenerated_thenConsumptionIsHigherInWinterThanInSummer() {
+        // when
+        long january = 0;
+        long july = 0;
+        for (long meterId : LongStream.rangeClosed(1, 1_000).toArray()) {
+            int[] energyConsumed = model.energyConsumed(meterId, 2020, 2020);
+            january += energyConsumed[0];
+            july += energyConsumed[6];
+        }
+
+        // then
+        assertThat(january).isGreaterThan(july * 3 / 2);
+    }
+
+    @Test
+    void energyConsumed_whenFleetIsGenerated_thenConsumptionIsPositive() {
+        // then
+        LongStream.rangeClosed(1, 1_000).forEach(meterId ->
+                assertThat(Arrays.stream(model.energyConsumed(meterId, 2010, 2020)).min().orElseThrow()).isPositive());
+    }
+}
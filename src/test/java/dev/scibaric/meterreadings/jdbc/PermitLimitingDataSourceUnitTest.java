@@ -0,0 +1,91 @@
+package dev.scibaric.meterreadings.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class PermitLimitingDataSourceUnitTest {
+
+    @MockBean
+    private DataSource targetDataSource;
+
+    private PermitLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new PermitLimitingDataSource(targetDataSource, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnection_whenAllPermitsAreHeld_thenRequestTimesOut() throws SQLException {
+        // when
+        when(targetDataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // then
+        assertThat(dataSource.getAvailablePermits()).isZero();
+        assertThatThrownBy(() -> dataSource.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage("JDBC permit is not available, request timed out after 50ms");
+
+        verify(targetDataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void close_whenConnectionIsClosedTwice_thenPermitIsReleasedOnce() throws SQLException {
+        // given
+        Connection target = mock(Connection.class);
+
+        // when
+        when(targetDataSource.getConnection()).thenReturn(target);
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        // then
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+
+        verify(target, times(2)).close();
+    }
+
+    @Test
+    void getConnection_whenTargetFails_thenPermitIsReleased() throws SQLException {
+        // when
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // then
+        assertThatThrownBy(() -> dataSource.getConnection())
+                .isInstanceOf(SQLException.class)
+                .hasMessage("Connection refused");
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void getConnection_whenConnectionIsUsed_thenCallsAreDelegated() throws SQLException {
+        // given
+        Connection target = mock(Connection.class);
+
+        // when
+        when(targetDataSource.getConnection()).thenReturn(target);
+        when(target.getAutoCommit()).thenReturn(true);
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertThat(connection.getAutoCommit()).isTrue();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,214 @@
+package dev.scibaric.meterreadings.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReadReplicaRoutingDataSourceUnitTest {
+
+    private static final String PRIMARY_LSN = "0/3000148";
+
+    private final DataSource primary = mock(DataSource.class);
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn(PRIMARY_LSN);
+
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(ReadReplicaRoutingDataSource.PRIMARY_LSN_QUERY)).thenReturn(resultSet);
+        when(primaryConnection.createStatement()).thenReturn(statement);
+
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadReplicaRoutingDataSource.setPrimaryRequired(false);
+    }
+
+    @Test
+    void getConnection_whenTransactionIsNotReadOnly_thenPrimaryIsUsed() throws SQLException {
+        // given
+        DataSource replica = replica(true, 0);
+        ReadReplicaRoutingDataSource dataSource = dataSource(Map.of("replica-1", replica));
+
+        // when
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertThat(connection).isSameAs(primaryConnection);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void getConnection_whenPrimaryIsRequired_thenPrimaryIsUsed() throws SQLException {
+        // given
+        DataSource replica = replica(true, 0);
+        ReadReplicaRoutingDataSource dataSource = dataSource(Map.of("replica-1", replica));
+
+        // when
+        ReadReplicaRoutingDataSource.setPrimaryRequired(true);
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertThat(connection).isSameAs(primaryConnection);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void getConnection_whenReplicasAreAvailable_thenReplicasAreUsedInTurns() throws SQLException {
+        // given
+        DataSource first = replica(true, 0);
+        DataSource second = replica(true, 0.5);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", first);
+        replicas.put("replica-2", second);
+        ReadReplicaRoutingDataSource dataSource = dataSource(replicas);
+
+        // when
+        Connection connection1 = dataSource.getConnection();
+        Connection connection2 = dataSource.getConnection();
+        Connection connection3 = dataSource.getConnection();
+
+        // then
+        assertThat(connection1).isSameAs(first.getConnection());
+        assertThat(connection2).isSameAs(second.getConnection());
+        assertThat(connection3).isSameAs(first.getConnection());
+        assertThat(dataSource.getAvailableReplicas()).isEqualTo(2);
+        assertThat(connection1).isNotSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_whenReplicaLagsOrIsNotInRecovery_thenItIsSkipped() throws SQLException {
+        // given
+        DataSource lagging = replica(true, 30);
+        DataSource promoted = replica(false, 0);
+        DataSource replica = replica(true, 0);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", lagging);
+        replicas.put("replica-2", promoted);
+        replicas.put("replica-3", replica);
+        ReadReplicaRoutingDataSource dataSource = dataSource(replicas);
+
+        // when
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertThat(connection).isSameAs(replica.getConnection());
+        assertThat(dataSource.getAvailableReplicas()).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_whenReplicaReplayedLocationOfPrimary_thenItIsUsedAlthoughLastTransactionIsOld()
+            throws SQLException {
+        // given
+        DataSource replica = replica(true, true, 3600.0);
+        ReadReplicaRoutingDataSource dataSource = dataSource(Map.of("replica-1", replica));
+
+        // when
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertThat(connection).isSameAs(replica.getConnection());
+        verify(replica.getConnection().prepareStatement(ReadReplicaRoutingDataSource.LAG_QUERY))
+                .setString(1, PRIMARY_LSN);
+    }
+
+    @Test
+    void getConnection_whenReplicaDidNotReplayAnyTransaction_thenItIsSkipped() throws SQLException {
+        // given
+        DataSource replica = replica(true, false, null);
+        ReadReplicaRoutingDataSource dataSource = dataSource(Map.of("replica-1", replica));
+
+        // when
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(dataSource.getAvailableReplicas()).isZero();
+    }
+
+    @Test
+    void getAvailableReplicas_whenReplicaWasNotChecked_thenItIsNotAvailable() throws SQLException {
+        // given
+        ReadReplicaRoutingDataSource dataSource = dataSource(Map.of("replica-1", replica(true, 0)));
+
+        // when
+        int availableReplicas = dataSource.getAvailableReplicas();
+
+        // then
+        assertThat(availableReplicas).isZero();
+    }
+
+    @Test
+    void getConnection_whenNoReplicaCanBeReached_thenPrimaryIsUsed() throws SQLException {
+        // given
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available"));
+        ReadReplicaRoutingDataSource dataSource = dataSource(Map.of("replica-1", replica));
+
+        // when
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(dataSource.getAvailableReplicas()).isZero();
+    }
+
+    private ReadReplicaRoutingDataSource dataSource(Map<String, DataSource> replicas) {
+        return new ReadReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(5), Duration.ZERO);
+    }
+
+    /**
+     * @return Replica whose check returns <b>inRecovery</b> and <b>lagSeconds</b> and which did not replay location of
+     * the primary, the same connection is returned for check and for use
+     */
+    private static DataSource replica(boolean inRecovery, double lagSeconds) throws SQLException {
+        return replica(inRecovery, false, lagSeconds);
+    }
+
+    /**
+     * @return Replica whose check returns <b>inRecovery</b>, <b>replayed</b> and <b>lagSeconds</b>, null if no
+     * transaction was replayed, the same connection is returned for check and for use
+     */
+    private static DataSource replica(boolean inRecovery, boolean replayed, Double lagSeconds) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(inRecovery);
+        when(resultSet.getBoolean(2)).thenReturn(replayed);
+        when(resultSet.getDouble(3)).thenReturn(lagSeconds == null ? 0 : lagSeconds);
+        when(resultSet.wasNull()).thenReturn(lagSeconds == null);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(ReadReplicaRoutingDataSource.LAG_QUERY)).thenReturn(statement);
+
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenReturn(connection);
+        return replica;
+    }
+}
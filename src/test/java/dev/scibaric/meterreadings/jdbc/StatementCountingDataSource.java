@@ -0,0 +1,98 @@
+package dev.scibaric.meterreadings.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DataSource} which counts statements executed by the thread which called {@link #start()}, regardless of
+ * whether they are executed by Hibernate, {@link org.springframework.jdbc.core.JdbcTemplate} or plain JDBC.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private volatile Thread countedThread;
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection(), Connection.class);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password), Connection.class);
+    }
+
+    /**
+     * Starts counting statements executed by the current thread from zero.
+     */
+    public void start() {
+        count.set(0);
+        countedThread = Thread.currentThread();
+    }
+
+    /**
+     * Stops counting statements.
+     *
+     * @return Number of statements executed since {@link #start()}
+     */
+    public int stop() {
+        countedThread = null;
+        return count.get();
+    }
+
+    private <T> T counting(T target, Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new CountingHandler(target)));
+    }
+
+    private class CountingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private CountingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Statement counting [" + target + "]";
+                default:
+                    if (target instanceof Statement && method.getName().startsWith("execute")
+                            && Thread.currentThread() == countedThread)
+                        count.incrementAndGet();
+
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+
+                    if (target instanceof Connection && result instanceof Statement)
+                        return counting(result, (Class<Object>) method.getReturnType());
+                    return result;
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package dev.scibaric.meterreadings.journal;
+
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MeterReadingJournalUnitTest {
+
+    private static final long SIZE = MeterReadingJournal.HEADER_SIZE + 4L * MeterReadingJournal.RECORD_SIZE;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void open_whenJournalWasNotDrained_thenReplayMeterReadingsAfterDrainedOnes() throws IOException {
+        // given
+        Path path = directory.resolve("meter-readings.journal");
+        try (MeterReadingJournal journal = MeterReadingJournal.open(path, SIZE)) {
+            journal.append(new MeterReadingKey(1L, 2020, 1), 10, 1_000);
+            journal.append(new MeterReadingKey(1L, 2020, 2), 20, 2_000);
+            journal.append(new MeterReadingKey(2L, 2020, 1), 30, 3_000);
+            journal.advance(1);
+        }
+
+        // when
+        try (MeterReadingJournal journal = MeterReadingJournal.open(path, SIZE)) {
+
+            // then
+            assertThat(journal.size()).isEqualTo(2);
+            assertThat(journal.lagMillis(5_000)).isEqualTo(3_000);
+            assertThat(journal.peek(10)).containsExactly(
+                    new MeterReadingJdbcRepository.Row(new MeterReadingKey(1L, 2020, 2), 20),
+                    new MeterReadingJdbcRepository.Row(new MeterReadingKey(2L, 2020, 1), 30));
+        }
+    }
+
+    @Test
+    void append_whenJournalIsFull_thenRejectUntilItIsDrained() throws IOException {
+        // given
+        try (MeterReadingJournal journal = MeterReadingJournal.open(directory.resolve("full.journal"), SIZE)) {
+            for (int month = 1; month <= 4; month++)
+                assertThat(journal.append(new MeterReadingKey(1L, 2020, month), month, 0)).isTrue();
+
+            // when
+            boolean appendedWhenFull = journal.append(new MeterReadingKey(1L, 2020, 5), 5, 0);
+            journal.advance(2);
+            boolean appendedWhenDrained = journal.append(new MeterReadingKey(1L, 2020, 5), 5, 0);
+
+            // then
+            assertThat(appendedWhenFull).isFalse();
+            assertThat(appendedWhenDrained).isTrue();
+            assertThat(journal.peek(10))
+                    .extracting(row -> row.key().month())
+                    .containsExactly(3, 4, 5);
+        }
+    }
+
+    @Test
+    void open_whenRecordIsTornOrFromPreviousRound_thenJournalEndsBeforeIt() throws IOException {
+        // given
+        Path path = directory.resolve("torn.journal");
+        try (MeterReadingJournal journal = MeterReadingJournal.open(path, SIZE)) {
+            for (int month = 1; month <= 4; month++)
+                journal.append(new MeterReadingKey(1L, 2020, month), month, 0);
+            journal.advance(4);
+            journal.append(new MeterReadingKey(1L, 2021, 1), 100, 0);
+            journal.append(new MeterReadingKey(1L, 2021, 2), 200, 0);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(MeterReadingJournal.HEADER_SIZE + MeterReadingJournal.RECORD_SIZE + 32);
+            file.writeInt(0);
+        }
+
+        // when
+        try (MeterReadingJournal journal = MeterReadingJournal.open(path, SIZE)) {
+            List<MeterReadingJdbcRepository.Row> rows = journal.peek(10);
+
+            // then
+            assertThat(rows).containsExactly(new MeterReadingJdbcRepository.Row(new MeterReadingKey(1L, 2021, 1), 100));
+        }
+    }
+
+    @Test
+    void open_whenFileIsNotJournal_thenThrowException() throws IOException {
+        // given
+        Path path = directory.resolve("other.file");
+        Files.write(path, new byte[(int) SIZE]);
+
+        // then
+        assertThatThrownBy(() -> MeterReadingJournal.open(path, SIZE))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(String.format("File %s is not a meter readings journal", path));
+    }
+}
@@ -0,0 +1,337 @@
+package dev.scibaric.meterreadings.load;
+
+import dev.scibaric.meterreadings.MeterReadingsApplication;
+import dev.scibaric.meterreadings.service.MeterConsumptionRollupService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Year;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives mixed read and write traffic at meter API routes of {@link dev.scibaric.meterreadings.controller.MeterController}
+ * and reports throughput and HDR latency percentiles per route. The application is started against PostgreSQL in
+ * Testcontainers (or against database given by <i>load.datasource.url</i>) which is seeded with a fleet of
+ * <i>load.meters</i> meters with readings for <i>load.years</i> years before the current year.
+ * <p>
+ * Clients run in closed loop by default. When <i>load.target-rate</i> (requests per second of all clients) is set,
+ * requests are sent by schedule and latency is measured from the scheduled start, so queueing behind a slow request
+ * is included in the percentiles instead of being hidden by coordinated omission.
+ * <p>
+ * Test is excluded from the default build, run it with <i>mvn test -Pload-test -Dtest=MeterApiLoadTest</i>.
+ */
+@Tag("load")
+class MeterApiLoadTest {
+
+    private static final int METERS = Integer.getInteger("load.meters", 10_000);
+
+    private static final int YEARS = Integer.getInteger("load.years", 10);
+
+    private static final int CONCURRENT_CLIENTS = Integer.getInteger("load.clients", 64);
+
+    private static final double TARGET_RATE = Double.parseDouble(System.getProperty("load.target-rate", "0"));
+
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("load.warm-up-seconds", 10));
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("load.measurement-seconds", 60));
+
+    private static final String DATASOURCE_URL = System.getProperty("load.datasource.url");
+
+    private static final String HDR_OUTPUT_DIR = System.getProperty("load.hdr-output-dir");
+
+    /**
+     * Readings of the first seeded year are deleted by {@link Route#DELETE_READING}, other seeded years are read and
+     * updated and readings of the current year are saved.
+     */
+    private static final int DELETED_YEAR = Year.now().getValue() - YEARS;
+
+    private static final int CURRENT_YEAR = Year.now().getValue();
+
+    private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void meterApi_whenMixedTrafficIsExecuted_thenEveryRouteIsServedWithoutErrors() throws Exception {
+        PostgreSQLContainer<?> postgres = null;
+        String url = DATASOURCE_URL;
+        String username = System.getProperty("load.datasource.username", "meter");
+        String password = System.getProperty("load.datasource.password", "readings");
+
+        if (url == null) {
+            postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+                    .withDatabaseName("meter-readings")
+                    .withUsername(username)
+                    .withPassword(password)
+                    .withCommand("postgres", "-c", "max_connections=200");
+            postgres.start();
+            url = postgres.getJdbcUrl();
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MeterReadingsApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password)) {
+            Fleet fleet = seed(context.getBean(JdbcTemplate.class));
+            context.getBean(MeterConsumptionRollupService.class).rebuild();
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+            execute(client, port, fleet, WARM_UP);
+            Map<Route, RouteResult> results = execute(client, port, fleet, MEASUREMENT);
+
+            // then
+            report(results);
+
+            results.forEach((route, result) -> {
+                assertThat(result.histogram().getTotalCount()).as(route.name()).isPositive();
+                assertThat(result.errors().get()).as(route.name()).isZero();
+            });
+        } finally {
+            if (nonNull(postgres))
+                postgres.stop();
+        }
+    }
+
+    private Fleet seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into client (id, name) select g, 'Load client ' || g from generate_series(1, ?) g "
+                + "on conflict do nothing", METERS);
+        jdbcTemplate.update("insert into meter (id, client_id) select g, g from generate_series(1, ?) g "
+                + "on conflict do nothing", METERS);
+
+        jdbcTemplate.update("delete from meter_reading where year in (?, ?)", DELETED_YEAR, CURRENT_YEAR);
+
+        // deleted year is inserted last so ids of its readings are consecutive also when database is reused
+        for (int year = CURRENT_YEAR - 1; year >= DELETED_YEAR; year--)
+            jdbcTemplate.update("insert into meter_reading (meter_id, year, month, energy_consumed) "
+                    + "select m, ?, mo, 100 + (m + mo) % 50 from generate_series(1, ?) m, generate_series(1, 12) mo "
+                    + "on conflict do nothing", year, METERS);
+
+        Long firstDeletedId = jdbcTemplate.queryForObject(
+                "select min(id) from meter_reading where year = ?", Long.class, DELETED_YEAR);
+        Long lastDeletedId = jdbcTemplate.queryForObject(
+                "select max(id) from meter_reading where year = ?", Long.class, DELETED_YEAR);
+
+        return new Fleet(new AtomicLong(firstDeletedId), lastDeletedId, new AtomicLong());
+    }
+
+    private Map<Route, RouteResult> execute(HttpClient client, int port, Fleet fleet, Duration duration)
+            throws InterruptedException {
+        Map<Route, RouteResult> results = new EnumMap<>(Route.class);
+        for (Route route : Route.values())
+            results.put(route, new RouteResult(new ConcurrentHistogram(HIGHEST_TRACKABLE_LATENCY, 3), new AtomicLong()));
+
+        int totalWeight = Route.totalWeight();
+        long intervalNanos = TARGET_RATE > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * CONCURRENT_CLIENTS / TARGET_RATE) : 0;
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                long firstRequest = start + intervalNanos * i / CONCURRENT_CLIENTS;
+                executor.submit(() -> {
+                    long scheduled = firstRequest;
+                    while (System.nanoTime() < deadline) {
+                        if (intervalNanos > 0) {
+                            LockSupport.parkNanos(scheduled - System.nanoTime());
+                            if (scheduled >= deadline)
+                                break;
+                        }
+
+                        Route route = Route.pick(ThreadLocalRandom.current().nextInt(totalWeight));
+                        HttpRequest request = route.request(port, fleet);
+                        long requestStart = intervalNanos > 0 ? scheduled : System.nanoTime();
+                        RouteResult result = results.get(route);
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != route.expectedStatus)
+                                result.errors().incrementAndGet();
+                        } catch (IOException e) {
+                            result.errors().incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        result.histogram().recordValue(
+                                Math.min(System.nanoTime() - requestStart, HIGHEST_TRACKABLE_LATENCY));
+                        scheduled += intervalNanos;
+                    }
+                });
+            }
+        }
+
+        return results;
+    }
+
+    private void report(Map<Route, RouteResult> results) throws IOException {
+        System.out.printf("%-20s %10s %10s %9s %9s %9s %9s %9s %7s%n",
+                "route", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+
+        for (Map.Entry<Route, RouteResult> entry : results.entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            System.out.printf("%-20s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / (double) MEASUREMENT.toSeconds(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    entry.getValue().errors().get());
+
+            if (nonNull(HDR_OUTPUT_DIR)) {
+                Path directory = Files.createDirectories(Path.of(HDR_OUTPUT_DIR));
+                try (PrintStream out = new PrintStream(
+                        Files.newOutputStream(directory.resolve(entry.getKey().name().toLowerCase() + ".hgrm")))) {
+                    histogram.outputPercentileDistribution(out, (double) TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static long randomMeterId() {
+        return ThreadLocalRandom.current().nextLong(1, METERS + 1);
+    }
+
+    private static int randomReadYear() {
+        return ThreadLocalRandom.current().nextInt(DELETED_YEAR + 1, CURRENT_YEAR);
+    }
+
+    private static int randomMonth() {
+        return ThreadLocalRandom.current().nextInt(1, 13);
+    }
+
+    private static String readingJson(long meterId, int year, int month, int energyConsumed) {
+        return String.format("{\"meterId\":%d,\"year\":%d,\"month\":%d,\"energyConsumed\":%d}",
+                meterId, year, month, energyConsumed);
+    }
+
+    /**
+     * Routes of meter API with default weight in traffic mix, weight is changed with <i>load.weight.&lt;route&gt;</i>,
+     * e.g. <i>-Dload.weight.delete_reading=0</i>.
+     */
+    private enum Route {
+        READINGS_FOR_YEAR(30, 200) {
+            @Override
+            HttpRequest request(int port, Fleet fleet) {
+                return get(port, "/" + randomMeterId() + "/" + randomReadYear());
+            }
+        },
+        READING_FOR_MONTH(25, 200) {
+            @Override
+            HttpRequest request(int port, Fleet fleet) {
+                return get(port, "/" + randomMeterId() + "/" + randomReadYear() + "/" + randomMonth());
+            }
+        },
+        YEARLY_AGGREGATION(25, 200) {
+            @Override
+            HttpRequest request(int port, Fleet fleet) {
+                return get(port, "/" + randomMeterId() + "/consumption/aggregation/" + randomReadYear());
+            }
+        },
+        SAVE_READING(8, 201) {
+            @Override
+            HttpRequest request(int port, Fleet fleet) {
+                long sequence = fleet.savedReadings().getAndIncrement();
+                long meterId = sequence / 12 % METERS + 1;
+                int month = (int) (sequence % 12) + 1;
+                return builder(port, "/reading")
+                        .POST(HttpRequest.BodyPublishers.ofString(readingJson(meterId, CURRENT_YEAR, month, 100)))
+                        .build();
+            }
+        },
+        UPDATE_READING(8, 200) {
+            @Override
+            HttpRequest request(int port, Fleet fleet) {
+                String body = readingJson(randomMeterId(), randomReadYear(), randomMonth(),
+                        ThreadLocalRandom.current().nextInt(100, 150));
+                return builder(port, "/reading").PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+            }
+        },
+        DELETE_READING(4, 200) {
+            @Override
+            HttpRequest request(int port, Fleet fleet) {
+                long id = Math.min(fleet.nextDeletedId().getAndIncrement(), fleet.lastDeletedId());
+                return builder(port, "/reading/" + id).DELETE().build();
+            }
+        };
+
+        private final int weight;
+
+        private final int expectedStatus;
+
+        Route(int defaultWeight, int expectedStatus) {
+            this.weight = Integer.getInteger("load.weight." + name().toLowerCase(), defaultWeight);
+            this.expectedStatus = expectedStatus;
+        }
+
+        abstract HttpRequest request(int port, Fleet fleet);
+
+        static int totalWeight() {
+            int total = 0;
+            for (Route route : values())
+                total += route.weight;
+            return total;
+        }
+
+        static Route pick(int random) {
+            for (Route route : values()) {
+                if (random < route.weight)
+                    return route;
+                random -= route.weight;
+            }
+            throw new IllegalStateException("Random value is greater than total weight");
+        }
+
+        private static HttpRequest get(int port, String path) {
+            return builder(port, path).GET().build();
+        }
+
+        private static HttpRequest.Builder builder(int port, String path) {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/meters" + path))
+                    .header("Content-Type", "application/json");
+        }
+    }
+
+    /**
+     * @param nextDeletedId Id of meter reading which is deleted next
+     * @param lastDeletedId Last id of readings which can be deleted
+     * @param savedReadings Number of saved readings, it determines meter and month of the next saved reading
+     */
+    private record Fleet(AtomicLong nextDeletedId, long lastDeletedId, AtomicLong savedReadings) {
+    }
+
+    private record RouteResult(Histogram histogram, AtomicLong errors) {
+    }
+}
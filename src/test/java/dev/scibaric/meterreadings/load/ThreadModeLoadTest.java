@@ -0,0 +1,126 @@
+package dev.scibaric.meterreadings.load;
+
+import dev.scibaric.meterreadings.MeterReadingsApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares throughput and p99 latency of the same workload executed on platform threads and on virtual threads.
+ * Test starts the application once for each mode and it is excluded from the default build, run it with
+ * <i>mvn test -Pload-test</i>.
+ */
+@Tag("load")
+class ThreadModeLoadTest {
+
+    private static final int METERS = 200;
+
+    private static final int YEAR = 2022;
+
+    private static final int CONCURRENT_CLIENTS = Integer.getInteger("load.clients", 400);
+
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("load.warm-up-seconds", 5));
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("load.measurement-seconds", 20));
+
+    @Test
+    void findByMeterIdAndYear_whenExecutedOnPlatformAndVirtualThreads_thenBothModesServeAllRequests() throws Exception {
+        // when
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        // then
+        System.out.printf("%-10s %12s %12s %10s %8s%n", "threads", "requests", "req/s", "p99 ms", "errors");
+        System.out.println(platform.format("platform"));
+        System.out.println(virtual.format("virtual"));
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+        assertThat(platform.requests()).isPositive();
+        assertThat(virtual.requests()).isPositive();
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MeterReadingsApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--meter-readings.virtual-threads.enabled=" + virtualThreads)) {
+            seed(context.getBean(JdbcTemplate.class));
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+            execute(client, port, WARM_UP);
+            return execute(client, port, MEASUREMENT);
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into client (id, name) select g, 'Load client ' || g from generate_series(1, ?) g "
+                + "on conflict do nothing", METERS);
+        jdbcTemplate.update("insert into meter (id, client_id) select g, g from generate_series(1, ?) g "
+                + "on conflict do nothing", METERS);
+        jdbcTemplate.update("insert into meter_reading (meter_id, year, month, energy_consumed) "
+                + "select m, ?, mo, 100 + mo from generate_series(1, ?) m, generate_series(1, 12) mo "
+                + "on conflict do nothing", YEAR, METERS);
+    }
+
+    private LoadResult execute(HttpClient client, int port, Duration duration) throws InterruptedException {
+        List<List<Long>> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                executor.submit(() -> {
+                    List<Long> clientLatencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long meterId = ThreadLocalRandom.current().nextLong(1, METERS + 1);
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/v1/meters/" + meterId + "/" + YEAR)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200)
+                                errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        clientLatencies.add(System.nanoTime() - start);
+                    }
+                    latencies.add(clientLatencies);
+                });
+            }
+        }
+
+        long[] sorted = latencies.stream().flatMap(List::stream).mapToLong(Long::longValue).sorted().toArray();
+        long p99 = sorted.length == 0 ? 0 : sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+
+        return new LoadResult(sorted.length, sorted.length / (double) duration.toSeconds(),
+                Duration.ofNanos(p99).toMillis(), errors.get());
+    }
+
+    private record LoadResult(long requests, double throughput, long p99Millis, long errors) {
+
+        String format(String mode) {
+            return String.format("%-10s %12d %12.1f %10d %8d", mode, requests, throughput, p99Millis, errors);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dev.scibaric.meterreadings.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalBlockCodecUnitTest {
+
+    @Test
+    void encode_whenDayIsComplete_thenBlockIsDecodedToTheSameReadingsAndIsSmall() {
+        // given
+        int[] slots = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+        int[] values = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+        for (int slot = 0; slot < IntervalBlockCodec.SLOTS_PER_DAY; slot++) {
+            slots[slot] = slot;
+            values[slot] = 120 + slot % 8;
+        }
+
+        // when
+        byte[] payload = IntervalBlockCodec.encode(slots, values, slots.length);
+        int[] decodedSlots = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+        int[] decodedValues = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+        IntervalBlockCodec.decode(payload, slots.length, decodedSlots, decodedValues);
+
+        // then
+        assertThat(decodedSlots).containsExactly(slots);
+        assertThat(decodedValues).containsExactly(values);
+        assertThat(payload.length).isLessThan(IntervalBlockCodec.SLOTS_PER_DAY);
+    }
+
+    @Test
+    void encode_whenSlotsHaveGapsAndValuesAreExtreme_thenBlockIsDecodedToTheSameReadings() {
+        // given
+        int[] slots = {3, 4, 5, 9, 10, 40, 41, 95};
+        int[] values = {0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1, 1, 1, 65_536, 7};
+
+        // when
+        byte[] payload = IntervalBlockCodec.encode(slots, values, slots.length);
+        int[] decodedSlots = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+        int[] decodedValues = new int[IntervalBlockCodec.SLOTS_PER_DAY];
+        IntervalBlockCodec.decode(payload, slots.length, decodedSlots, decodedValues);
+
+        // then
+        assertThat(decodedSlots).startsWith(slots);
+        assertThat(decodedValues).startsWith(values);
+    }
+
+    @Test
+    void encode_whenBlockIsEmpty_thenPayloadIsEmpty() {
+        assertThat(IntervalBlockCodec.encode(new int[0], new int[0], 0)).isEmpty();
+    }
+}
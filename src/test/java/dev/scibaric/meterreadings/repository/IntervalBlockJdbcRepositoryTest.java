@@ -0,0 +1,100 @@
+package dev.scibaric.meterreadings.repository;
+
+import dev.scibaric.meterreadings.model.Client;
+import dev.scibaric.meterreadings.model.IntervalConsumption;
+import dev.scibaric.meterreadings.model.IntervalReading;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+import dev.scibaric.meterreadings.model.Meter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "meter-readings.interval.storage=blocks")
+@Testcontainers
+@ActiveProfiles("test")
+@Import(IntervalBlockJdbcRepository.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IntervalBlockJdbcRepositoryTest {
+
+    private static final Instant DAY = Instant.parse("2016-05-01T00:00:00Z");
+
+    @Autowired
+    private IntervalReadingRepository intervalReadingRepository;
+
+    @Autowired
+    private MeterRepository meterRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    public void setUp() {
+        clientRepository.save(new Client(1L, "Luka Modrić"));
+        meterRepository.save(new Meter(1L, new Client(1L)));
+    }
+
+    @Test
+    void upsertAll_whenReadingsOfDayAreSavedTwice_thenTheyAreMergedIntoOneBlock() {
+        // given
+        intervalReadingRepository.upsertAll(List.of(reading(0, 1), reading(1, 2), reading(4, 3)), 1_000);
+
+        // when
+        intervalReadingRepository.upsertAll(List.of(reading(1, 5), reading(2, 7)), 1_000);
+
+        // then
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from interval_block where meter_id = 1", Integer.class)).isEqualTo(1);
+        assertThat(intervalReadingRepository.findConsumption(1L, DAY, DAY.plusSeconds(86_400),
+                IntervalResolution.RAW)).containsExactly(
+                new IntervalConsumption(DAY, 1L),
+                new IntervalConsumption(DAY.plusSeconds(900), 5L),
+                new IntervalConsumption(DAY.plusSeconds(1_800), 7L),
+                new IntervalConsumption(DAY.plusSeconds(3_600), 3L));
+    }
+
+    @Test
+    void findConsumption_whenRangeCutsDays_thenSumOnlyReadingsInRange() {
+        // given
+        List<IntervalReading> readings = new ArrayList<>();
+        for (int slot = 0; slot < 3 * 96; slot++)
+            readings.add(reading(slot, 1));
+        intervalReadingRepository.upsertAll(readings, 1_000);
+
+        // when
+        Instant from = DAY.plusSeconds(23 * 3_600);
+        Instant to = DAY.plusSeconds(2 * 86_400 + 1_800);
+
+        // then
+        assertThat(intervalReadingRepository.findConsumption(1L, from, to, IntervalResolution.HOUR))
+                .hasSize(26)
+                .startsWith(new IntervalConsumption(from, 4L))
+                .endsWith(new IntervalConsumption(DAY.plusSeconds(2 * 86_400), 2L));
+        assertThat(intervalReadingRepository.findConsumption(1L, from, to, IntervalResolution.DAY)).containsExactly(
+                new IntervalConsumption(DAY, 4L),
+                new IntervalConsumption(DAY.plusSeconds(86_400), 96L),
+                new IntervalConsumption(DAY.plusSeconds(2 * 86_400), 2L));
+        assertThat(intervalReadingRepository.findConsumption(1L, from, to, IntervalResolution.MONTH))
+                .containsExactly(new IntervalConsumption(DAY, 102L));
+    }
+
+    private static IntervalReading reading(int slot, int energyConsumed) {
+        return new IntervalReading(1L, DAY.plusSeconds(slot * 900L), energyConsumed);
+    }
+}
@@ -0,0 +1,166 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class CoalescingMeterServiceUnitTest {
+
+    private static final int CALLERS = 4;
+
+    @MockBean
+    private MeterService delegate;
+
+    private SimpleMeterRegistry registry;
+
+    private CoalescingMeterService service;
+
+    private ExecutorService executor;
+
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        service = new CoalescingMeterService(delegate, registry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenReadIsInFlight_thenResultIsShared() throws Exception {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
+        when(delegate.findByMeterIdAndYear(1L, 2023)).thenAnswer(invocation -> {
+            release.await();
+            return meterReadingDTO;
+        });
+
+        // when
+        List<Future<MeterReadingDTO>> results = submit(() -> service.findByMeterIdAndYear(1L, 2023));
+        awaitCollapsed(CALLERS - 1);
+        release.countDown();
+
+        // then
+        for (Future<MeterReadingDTO> result : results)
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(meterReadingDTO);
+        verify(delegate, times(1)).findByMeterIdAndYear(1L, 2023);
+        assertThat(count("executed")).isEqualTo(1);
+        assertThat(count("collapsed")).isEqualTo(CALLERS - 1);
+        assertThat(registry.get("meter.service.reads.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenReadInFlightFails_thenExceptionIsShared() throws Exception {
+        // given
+        ResourceNotFoundException exception = new ResourceNotFoundException("not found");
+        when(delegate.findByMeterIdAndYear(1L, 2023)).thenAnswer(invocation -> {
+            release.await();
+            throw exception;
+        });
+
+        // when
+        List<Future<MeterReadingDTO>> results = submit(() -> service.findByMeterIdAndYear(1L, 2023));
+        awaitCollapsed(CALLERS - 1);
+        release.countDown();
+
+        // then
+        for (Future<MeterReadingDTO> result : results)
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(exception);
+        verify(delegate, times(1)).findByMeterIdAndYear(1L, 2023);
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenMeterReadingsChangedDuringRead_thenLaterReadIsExecuted() throws Exception {
+        // given
+        MeterReadingDTO before = new MeterReadingDTO();
+        MeterReadingDTO after = new MeterReadingDTO();
+        CountDownLatch started = new CountDownLatch(1);
+        when(delegate.findByMeterIdAndYear(1L, 2023))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return before;
+                })
+                .thenReturn(after);
+        Future<MeterReadingDTO> first = executor.submit(() -> service.findByMeterIdAndYear(1L, 2023));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        service.onMeterReadingsChanged(MeterReadingsChangedEvent.of(1L, 2023));
+        MeterReadingDTO second = service.findByMeterIdAndYear(1L, 2023);
+        release.countDown();
+
+        // then
+        assertThat(second).isSameAs(after);
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(before);
+        verify(delegate, times(2)).findByMeterIdAndYear(1L, 2023);
+        assertThat(count("collapsed")).isZero();
+    }
+
+    @Test
+    void saveMeterReading_whenCalled_thenItIsPassedToDelegate() {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
+        when(delegate.saveMeterReading(meterReadingDTO)).thenReturn(meterReadingDTO);
+
+        // when
+        MeterReadingDTO result = service.saveMeterReading(meterReadingDTO);
+        service.findYearConsumption(1L, 2023);
+        service.findYearConsumption(1L, 2023, 1);
+
+        // then
+        assertThat(result).isSameAs(meterReadingDTO);
+        verify(delegate).saveMeterReading(meterReadingDTO);
+        verify(delegate).findYearConsumption(1L, 2023);
+        verify(delegate).findYearConsumption(1L, 2023, 1);
+        assertThat(count("executed")).isEqualTo(2);
+    }
+
+    private <T> List<Future<T>> submit(Callable<T> call) {
+        List<Future<T>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++)
+            results.add(executor.submit(call));
+        return results;
+    }
+
+    private void awaitCollapsed(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("collapsed") < expected && System.nanoTime() < deadline)
+            Thread.sleep(10);
+    }
+
+    private double count(String result) {
+        return registry.get("meter.service.reads.calls").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,176 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.FleetGenerationResultDTO;
+import dev.scibaric.meterreadings.repository.FleetJdbcRepository;
+import dev.scibaric.meterreadings.repository.FleetJdbcRepository.CsvRows;
+import dev.scibaric.meterreadings.repository.FleetJdbcRepository.FleetTable;
+import dev.scibaric.meterreadings.validator.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class FleetGeneratorServiceUnitTest {
+
+    @MockBean
+    private FleetJdbcRepository fleetRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private MeterConsumptionRollupService rollupService;
+
+    @MockBean
+    private Validator validator;
+
+    private MeterReadingsProperties properties;
+
+    private FleetGeneratorService service;
+
+    private final Map<FleetTable, List<String>> copiedRows = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new MeterReadingsProperties();
+        service = new FleetGeneratorServiceImpl(fleetRepository, transactionManager, rollupService, validator,
+                properties);
+
+        when(fleetRepository.copy(any(), any())).thenAnswer(invocation -> {
+            StringWriter writer = new StringWriter();
+            invocation.<CsvRows>getArgument(1).write(writer);
+            List<String> rows = writer.toString().lines().toList();
+            copiedRows.computeIfAbsent(invocation.getArgument(0), table -> new ArrayList<>()).addAll(rows);
+            return (long) rows.size();
+        });
+    }
+
+    @Test
+    void generate_whenMetersAreGenerated_thenEveryChunkIsCopiedInItsOwnTransaction() {
+        // given
+        properties.getGenerator().setChunkSize(4);
+        properties.getGenerator().setParallelism(2);
+
+        // when
+        when(fleetRepository.findLastId()).thenReturn(100L);
+
+        FleetGenerationResultDTO result = service.generate(10, 2020, 2021);
+
+        // then
+        assertThat(result.getFirstMeterId()).isEqualTo(101);
+        assertThat(result.getLastMeterId()).isEqualTo(110);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(result.getMeterReadings()).isEqualTo(240);
+
+        verify(fleetRepository, times(3)).disableSynchronousCommit();
+        verify(transactionManager, times(3)).commit(any());
+        verify(fleetRepository).resetIdentities();
+        verify(rollupService).rebuild();
+    }
+
+    @Test
+    void generate_whenChunkFails_thenResetIdentitiesAndRebuildRollupsOfCommittedChunksAndRethrow() {
+        // given
+        properties.getGenerator().setChunkSize(4);
+        properties.getGenerator().setParallelism(1);
+
+        // when
+        when(fleetRepository.findLastId()).thenReturn(0L);
+        doNothing()
+                .doThrow(new IllegalStateException("Connection reset"))
+                .doNothing()
+                .when(fleetRepository).disableSynchronousCommit();
+
+        // then
+        assertThatThrownBy(() -> service.generate(10, 2020, 2021))
+                .hasRootCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("Connection reset");
+
+        verify(fleetRepository, times(3)).disableSynchronousCommit();
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager).rollback(any());
+        verify(fleetRepository).resetIdentities();
+        verify(rollupService).rebuild();
+    }
+
+    @Test
+    void generate_whenMetersAreGenerated_thenEveryClientHasUniqueAddressAndOneMeter() {
+        // when
+        when(fleetRepository.findLastId()).thenReturn(0L);
+
+        service.generate(1_000, 2020, 2020);
+
+        // then
+        List<String> clients = copiedRows.get(FleetTable.CLIENT);
+        List<String> addresses = copiedRows.get(FleetTable.ADDRESS);
+        List<String> meters = copiedRows.get(FleetTable.METER);
+
+        assertThat(clients).hasSize(1_000).contains("1,Generated client 1");
+        assertThat(meters).hasSize(1_000).allMatch(meter -> meter.split(",")[0].equals(meter.split(",")[1]));
+        assertThat(addresses.stream().map(address -> address.substring(address.indexOf(',') + 1,
+                address.lastIndexOf(',')))).doesNotHaveDuplicates().hasSize(1_000);
+        assertThat(addresses.stream().map(address -> address.substring(address.lastIndexOf(',') + 1)))
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void generate_whenMeterReadingsAreGenerated_thenEveryMonthOfEveryYearIsCopiedOnce() {
+        // when
+        when(fleetRepository.findLastId()).thenReturn(0L);
+
+        service.generate(3, 2019, 2021);
+
+        // then
+        List<String> meterReadings = copiedRows.get(FleetTable.METER_READING);
+
+        assertThat(meterReadings).hasSize(3 * 3 * 12);
+        assertThat(meterReadings.stream().map(row -> row.substring(0, row.lastIndexOf(','))))
+                .doesNotHaveDuplicates()
+                .contains("1,2019,1", "3,2021,12");
+        assertThat(meterReadings.stream()
+                .map(row -> Integer.parseInt(row.substring(row.lastIndexOf(',') + 1)))
+                .collect(Collectors.toList()))
+                .allMatch(energyConsumed -> energyConsumed > 0);
+    }
+
+    @Test
+    void generate_whenNumberOfMetersIsNotValid_thenThrowIllegalArgumentException() {
+        // then
+        assertThatThrownBy(() -> service.generate(0, 2020, 2021))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Number of meters must be greater than 0");
+
+        verify(fleetRepository, never()).copy(any(), any());
+    }
+
+    @Test
+    void generate_whenYearsAreNotValid_thenThrowIllegalArgumentException() {
+        // when
+        doThrow(new IllegalArgumentException("From year must not be after to year"))
+                .when(validator).validateYearRange(2021, 2020);
+
+        // then
+        assertThatThrownBy(() -> service.generate(10, 2021, 2020))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("From year must not be after to year");
+
+        verify(fleetRepository, never()).copy(any(), any());
+        verify(rollupService, never()).rebuild();
+    }
+}
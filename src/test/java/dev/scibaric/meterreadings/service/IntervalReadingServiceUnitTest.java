@@ -0,0 +1,138 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.IntervalReadingDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingSeriesDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingsResultDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import dev.scibaric.meterreadings.model.IntervalConsumption;
+import dev.scibaric.meterreadings.model.IntervalReading;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.repository.IntervalReadingRepository;
+import dev.scibaric.meterreadings.validator.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class IntervalReadingServiceUnitTest {
+
+    @MockBean
+    private IntervalReadingRepository intervalReadingRepository;
+
+    @MockBean
+    private Validator validator;
+
+    @MockBean
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    private IntervalReadingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IntervalReadingServiceImpl(intervalReadingRepository, validator, new MeterReadingsProperties(),
+                eventPublisher, transactionManager);
+    }
+
+    @Test
+    void saveIntervalReadings_whenReadingsSpanTwoYears_thenDeriveEveryMonthAndRefreshBothYears() {
+        // given
+        List<IntervalReadingDTO> intervalReadingDTOs = List.of(
+                new IntervalReadingDTO(Instant.parse("2021-01-01T00:00:00Z"), 3),
+                new IntervalReadingDTO(Instant.parse("2020-12-31T23:45:00Z"), 2),
+                new IntervalReadingDTO(Instant.parse("2021-01-01T00:15:00Z"), 4)
+        );
+
+        // when
+        IntervalReadingsResultDTO result = service.saveIntervalReadings(1L, intervalReadingDTOs);
+
+        // then
+        assertThat(result.getSaved()).isEqualTo(3);
+        assertThat(result.getMonthsDerived()).isEqualTo(2);
+
+        InOrder inOrder = inOrder(intervalReadingRepository, eventPublisher);
+        inOrder.verify(intervalReadingRepository).createPartitions(Set.of(YearMonth.of(2020, 12), YearMonth.of(2021, 1)));
+        inOrder.verify(intervalReadingRepository).upsertAll(List.of(
+                new IntervalReading(1L, Instant.parse("2021-01-01T00:00:00Z"), 3),
+                new IntervalReading(1L, Instant.parse("2020-12-31T23:45:00Z"), 2),
+                new IntervalReading(1L, Instant.parse("2021-01-01T00:15:00Z"), 4)
+        ), 1_000);
+        inOrder.verify(intervalReadingRepository)
+                .deriveMonthlyReadings(1L, Set.of(YearMonth.of(2020, 12), YearMonth.of(2021, 1)));
+        inOrder.verify(eventPublisher).publishEvent(new MeterReadingsChangedEvent(
+                Set.of(new MeterYear(1L, 2020), new MeterYear(1L, 2021))));
+        verify(validator).validateIntervalReadings(intervalReadingDTOs, 35_136);
+    }
+
+    @Test
+    void saveIntervalReadings_whenReadingsAreNotValid_thenDoNotSaveAnything() {
+        // given
+        List<IntervalReadingDTO> intervalReadingDTOs =
+                List.of(new IntervalReadingDTO(Instant.parse("2021-01-01T00:05:00Z"), 3));
+
+        // when
+        doThrow(new IllegalArgumentException("Start of interval 2021-01-01T00:05:00Z must be at a quarter of an hour"))
+                .when(validator).validateIntervalReadings(intervalReadingDTOs, 35_136);
+
+        // then
+        assertThatThrownBy(() -> service.saveIntervalReadings(1L, intervalReadingDTOs))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(intervalReadingRepository, eventPublisher, transactionManager);
+    }
+
+    @Test
+    void findSeries_whenIntervalReadingsExist_thenReturnColumnarSeries() {
+        // given
+        Instant from = Instant.parse("2021-01-01T00:00:00Z");
+        Instant to = Instant.parse("2021-01-01T02:00:00Z");
+
+        // when
+        when(intervalReadingRepository.findConsumption(1L, from, to, IntervalResolution.HOUR)).thenReturn(List.of(
+                new IntervalConsumption(from, 9L),
+                new IntervalConsumption(Instant.parse("2021-01-01T01:00:00Z"), 4L)
+        ));
+
+        IntervalReadingSeriesDTO series = service.findSeries(1L, from, to, IntervalResolution.HOUR);
+
+        // then
+        assertThat(series.getResolution()).isEqualTo(IntervalResolution.HOUR);
+        assertThat(series.getTimestamps()).containsExactly(from, Instant.parse("2021-01-01T01:00:00Z"));
+        assertThat(series.getEnergyConsumed()).containsExactly(9L, 4L);
+        verify(validator).validateIntervalRange(from, to, IntervalResolution.HOUR, 100_000);
+    }
+
+    @Test
+    void findSeries_whenIntervalReadingsDoNotExist_thenThrowException() {
+        // given
+        Instant from = Instant.parse("2021-01-01T00:00:00Z");
+        Instant to = Instant.parse("2021-01-02T00:00:00Z");
+
+        // when
+        when(intervalReadingRepository.findConsumption(1L, from, to, IntervalResolution.RAW)).thenReturn(List.of());
+
+        // then
+        assertThatThrownBy(() -> service.findSeries(1L, from, to, IntervalResolution.RAW))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Interval readings for meter id 1 from 2021-01-01T00:00:00Z to 2021-01-02T00:00:00Z " +
+                        "do not exist");
+    }
+}
@@ -0,0 +1,105 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.cache.AggregateCache;
+import dev.scibaric.meterreadings.cache.MeterYearVersionCache;
+import dev.scibaric.meterreadings.cache.ResponseBodyCache;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.RollupRebuildResultDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.repository.MeterConsumptionRollupJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class MeterConsumptionRollupServiceUnitTest {
+
+    @MockBean
+    private MeterConsumptionRollupJdbcRepository rollupRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private AggregateCache aggregateCache;
+
+    @MockBean
+    private ResponseBodyCache responseBodyCache;
+
+    @MockBean
+    private MeterYearVersionCache versionCache;
+
+    private MeterReadingsProperties properties;
+
+    private MeterConsumptionRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MeterReadingsProperties();
+        service = new MeterConsumptionRollupServiceImpl(rollupRepository, transactionManager, aggregateCache,
+                responseBodyCache, versionCache, properties);
+    }
+
+    @Test
+    void onMeterReadingsChanged_whenMeterReadingsChanged_thenRollupsAreRefreshed() {
+        // given
+        Set<MeterYear> meterYears = Set.of(new MeterYear(1L, 2021), new MeterYear(2L, 2022));
+
+        // when
+        service.onMeterReadingsChanged(new MeterReadingsChangedEvent(meterYears));
+
+        // then
+        verify(rollupRepository).refresh(meterYears);
+    }
+
+    @Test
+    void rebuild_whenMetersExist_thenEveryRangeOfMeterIdsIsRebuiltInItsOwnTransaction() {
+        // given
+        properties.getRollup().setRebuildChunkSize(10);
+        properties.getRollup().setRebuildParallelism(2);
+
+        // when
+        when(rollupRepository.findMeterIdRange()).thenReturn(Optional.of(new long[]{5, 30}));
+        when(rollupRepository.rebuild(anyLong(), anyLong())).thenReturn(3);
+
+        RollupRebuildResultDTO result = service.rebuild();
+
+        // then
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(result.getRollups()).isEqualTo(9);
+
+        verify(rollupRepository).rebuild(5, 15);
+        verify(rollupRepository).rebuild(15, 25);
+        verify(rollupRepository).rebuild(25, 31);
+        verify(transactionManager, times(3)).commit(any());
+        verify(aggregateCache).invalidateAll();
+        verify(responseBodyCache).invalidateAll();
+        verify(versionCache).invalidateAll();
+        verify(rollupRepository).notifyAllChanged();
+    }
+
+    @Test
+    void rebuild_whenThereAreNoMeters_thenNothingIsRebuilt() {
+        // when
+        when(rollupRepository.findMeterIdRange()).thenReturn(Optional.empty());
+
+        RollupRebuildResultDTO result = service.rebuild();
+
+        // then
+        assertThat(result.getChunks()).isZero();
+        assertThat(result.getRollups()).isZero();
+
+        verify(rollupRepository, never()).rebuild(anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,224 @@
+package dev.scibaric.meterreadings.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.ImportResultDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.importer.ImportFormat;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
+import dev.scibaric.meterreadings.validator.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class MeterReadingImportServiceUnitTest {
+
+    @MockBean
+    private MeterReadingJdbcRepository meterReadingJdbcRepository;
+
+    @MockBean
+    private Validator validator;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    private MeterReadingsProperties properties;
+
+    private MeterReadingImportService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MeterReadingsProperties();
+        service = new MeterReadingImportServiceImpl(meterReadingJdbcRepository, validator, new ObjectMapper(),
+                transactionManager, properties, mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void importMeterReadings_whenCsvIsValid_thenCopyAllRecords() {
+        // given
+        InputStream csv = asInputStream("""
+                year,month,meterId,energyConsumed
+                2021,1,1,15
+                2021,2,1,17
+                """);
+        List<MeterReadingDTO> meterReadingDTOs = List.of(
+                new MeterReadingDTO(2021, 1, 15, 1L),
+                new MeterReadingDTO(2021, 2, 17, 1L)
+        );
+
+        // when
+        when(validator.validateNewMeterReadings(meterReadingDTOs)).thenReturn(Arrays.asList(null, null));
+        when(meterReadingJdbcRepository.copyAllIfAbsent(anyList()))
+                .thenReturn(Set.of(new MeterReadingKey(1L, 2021, 1), new MeterReadingKey(1L, 2021, 2)));
+
+        ImportResultDTO result = service.importMeterReadings(csv, ImportFormat.CSV, 0);
+
+        // then
+        assertThat(result.getCompleted()).isTrue();
+        assertThat(result.getRead()).isEqualTo(2);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getRejected()).isZero();
+        assertThat(result.getCommittedOffset()).isEqualTo(2);
+
+        verify(meterReadingJdbcRepository).copyAllIfAbsent(List.of(
+                new MeterReadingJdbcRepository.Row(new MeterReadingKey(1L, 2021, 1), 15),
+                new MeterReadingJdbcRepository.Row(new MeterReadingKey(1L, 2021, 2), 17)
+        ));
+    }
+
+    @Test
+    void importMeterReadings_whenNdjsonHasInvalidRecords_thenRejectThemWithOffsets() {
+        // given
+        InputStream ndjson = asInputStream("""
+                {"meterId":1,"year":2021,"month":1,"energyConsumed":15}
+                {"meterId":1,"year":2021,
+                                
+                {"meterId":1,"year":2021,"month":13,"energyConsumed":15}
+                """);
+        List<MeterReadingDTO> meterReadingDTOs = List.of(
+                new MeterReadingDTO(2021, 1, 15, 1L),
+                new MeterReadingDTO(2021, 13, 15, 1L)
+        );
+
+        // when
+        when(validator.validateNewMeterReadings(meterReadingDTOs))
+                .thenReturn(Arrays.asList(null, "Month must be between 1 and 12"));
+        when(meterReadingJdbcRepository.copyAllIfAbsent(anyList()))
+                .thenReturn(Set.of(new MeterReadingKey(1L, 2021, 1)));
+
+        ImportResultDTO result = service.importMeterReadings(ndjson, ImportFormat.NDJSON, 0);
+
+        // then
+        assertThat(result.getCompleted()).isTrue();
+        assertThat(result.getRead()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getRejectedRecords())
+                .extracting(ImportResultDTO.RejectedRecordDTO::getOffset)
+                .containsExactly(2L, 3L);
+        assertThat(result.getRejectedRecords().get(1).getMessage()).isEqualTo("Month must be between 1 and 12");
+    }
+
+    @Test
+    void importMeterReadings_whenOffsetIsSet_thenSkipRecordsUpToOffset() {
+        // given
+        InputStream csv = asInputStream("""
+                meterId,year,month,energyConsumed
+                1,2021,1,15
+                1,2021,2,17
+                1,2021,3,19
+                """);
+        List<MeterReadingDTO> meterReadingDTOs = List.of(new MeterReadingDTO(2021, 3, 19, 1L));
+
+        // when
+        when(validator.validateNewMeterReadings(meterReadingDTOs)).thenReturn(Arrays.asList((String) null));
+        when(meterReadingJdbcRepository.copyAllIfAbsent(anyList()))
+                .thenReturn(Set.of(new MeterReadingKey(1L, 2021, 3)));
+
+        ImportResultDTO result = service.importMeterReadings(csv, ImportFormat.CSV, 2);
+
+        // then
+        assertThat(result.getRead()).isEqualTo(1);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getCommittedOffset()).isEqualTo(3);
+
+        verify(validator).validateNewMeterReadings(meterReadingDTOs);
+    }
+
+    @Test
+    void importMeterReadings_whenMeterReadingIsSavedConcurrently_thenRejectItWithOffset() {
+        // given
+        InputStream csv = asInputStream("""
+                meterId,year,month,energyConsumed
+                1,2021,1,15
+                1,2021,2,17
+                """);
+
+        // when
+        when(validator.validateNewMeterReadings(anyList())).thenReturn(Arrays.asList(null, null));
+        when(meterReadingJdbcRepository.copyAllIfAbsent(anyList()))
+                .thenReturn(Set.of(new MeterReadingKey(1L, 2021, 1)));
+
+        ImportResultDTO result = service.importMeterReadings(csv, ImportFormat.CSV, 0);
+
+        // then
+        assertThat(result.getCompleted()).isTrue();
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getRejectedRecords())
+                .extracting(ImportResultDTO.RejectedRecordDTO::getOffset, ImportResultDTO.RejectedRecordDTO::getMessage)
+                .containsExactly(tuple(2L,
+                        "Meter reading for meter id 1, year 2021 and month February already exists"));
+    }
+
+    @Test
+    void importMeterReadings_whenCopyFails_thenReportLastCommittedOffset() {
+        // given
+        properties.getImporter().setChunkSize(2);
+        InputStream csv = asInputStream("""
+                meterId,year,month,energyConsumed
+                1,2021,1,15
+                1,2021,2,17
+                1,2021,3,19
+                """);
+
+        // when
+        when(validator.validateNewMeterReadings(anyList())).thenReturn(Arrays.asList(null, null));
+        when(meterReadingJdbcRepository.copyAllIfAbsent(anyList()))
+                .thenReturn(Set.of(new MeterReadingKey(1L, 2021, 1), new MeterReadingKey(1L, 2021, 2)))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        ImportResultDTO result = service.importMeterReadings(csv, ImportFormat.CSV, 0);
+
+        // then
+        assertThat(result.getCompleted()).isFalse();
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getCommittedOffset()).isEqualTo(2);
+        assertThat(result.getError()).isEqualTo("Connection lost");
+    }
+
+    @Test
+    void importMeterReadings_whenCsvHeaderIsMissingColumn_thenThrowException() {
+        // given
+        InputStream csv = asInputStream("""
+                meterId,year,month
+                1,2021,1
+                """);
+
+        // then
+        assertThatThrownBy(() -> service.importMeterReadings(csv, ImportFormat.CSV, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV header must contain columns meterId, year, month and energyConsumed");
+
+        verifyNoInteractions(meterReadingJdbcRepository);
+    }
+
+    @Test
+    void importMeterReadings_whenOffsetIsNegative_thenThrowException() {
+        assertThatThrownBy(() -> service.importMeterReadings(asInputStream(""), ImportFormat.CSV, -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Offset must be greater than or equal 0");
+    }
+
+    private static InputStream asInputStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
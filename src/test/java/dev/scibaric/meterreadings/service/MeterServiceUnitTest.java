@@ -1,25 +1,40 @@
 package dev.scibaric.meterreadings.service;
 
+import dev.scibaric.meterreadings.cache.AggregateCache;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.BatchItemResultDTO;
+import dev.scibaric.meterreadings.dto.BatchResultDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionDTO;
+import dev.scibaric.meterreadings.dto.FleetConsumptionRequestDTO;
+import dev.scibaric.meterreadings.dto.MeterConsumptionDTO;
 import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
+import dev.scibaric.meterreadings.dto.YearConsumptionDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
 import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
-import dev.scibaric.meterreadings.model.Address;
-import dev.scibaric.meterreadings.model.Client;
-import dev.scibaric.meterreadings.model.Meter;
-import dev.scibaric.meterreadings.model.MeterReading;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import dev.scibaric.meterreadings.model.MeterConsumptionRollup;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
+import dev.scibaric.meterreadings.repository.MeterConsumptionRollupJdbcRepository;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
 import dev.scibaric.meterreadings.repository.MeterReadingRepository;
 import dev.scibaric.meterreadings.validator.Validator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.Month;
 import java.time.Year;
 import java.time.format.TextStyle;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,14 +45,28 @@ class MeterServiceUnitTest {
     @MockBean
     private MeterReadingRepository meterReadingRepository;
 
+    @MockBean
+    private MeterReadingJdbcRepository meterReadingJdbcRepository;
+
+    @MockBean
+    private MeterConsumptionRollupJdbcRepository rollupRepository;
+
     @MockBean
     private Validator validator;
 
+    @MockBean
+    private ApplicationEventPublisher eventPublisher;
+
+    private AggregateCache aggregateCache;
+
     private MeterService service;
 
     @BeforeEach
     void setup(){
-        service = new MeterServiceImpl(meterReadingRepository, validator);
+        MeterReadingsProperties properties = new MeterReadingsProperties();
+        aggregateCache = new AggregateCache(properties, new SimpleMeterRegistry());
+        service = new MeterServiceImpl(meterReadingRepository, meterReadingJdbcRepository, rollupRepository, validator,
+                properties, aggregateCache, eventPublisher);
     }
 
     @Test
@@ -447,13 +476,13 @@ class MeterServiceUnitTest {
         // given
         Long id = 1L;
         Integer year = Year.now().getValue();
-        Integer total = 30;
+        Long total = 30L;
         MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
         meterReadingDTO.setYear(year);
         meterReadingDTO.setTotal(total);
 
         // when
-        when(meterReadingRepository.aggregateConsumptionByMeterIdAndYear(id, year)).thenReturn(total);
+        when(rollupRepository.findById(new MeterYear(id, year))).thenReturn(rollup(id, year, total));
 
         meterReadingDTO = service.aggregateConsumptionByMeterIdAndYear(id, year);
 
@@ -463,7 +492,7 @@ class MeterServiceUnitTest {
         assertThat(meterReadingDTO.getTotal())
                 .isEqualTo(total);
 
-        verify(meterReadingRepository).aggregateConsumptionByMeterIdAndYear(id, year);
+        verify(rollupRepository).findById(new MeterYear(id, year));
     }
 
     @Test
@@ -471,13 +500,13 @@ class MeterServiceUnitTest {
         // given
         Long id = 1L;
         Integer year = 2021;
-        Integer total = 30;
+        Long total = 30L;
         MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
         meterReadingDTO.setYear(year);
         meterReadingDTO.setTotal(total);
 
         // when
-        when(meterReadingRepository.aggregateConsumptionByMeterIdAndYear(id, year)).thenReturn(total);
+        when(rollupRepository.findById(new MeterYear(id, year))).thenReturn(rollup(id, year, total));
         MeterReadingDTO result = service.aggregateConsumptionByMeterIdAndYear(id, year);
 
         // then
@@ -486,7 +515,163 @@ class MeterServiceUnitTest {
         assertThat(result.getTotal())
                 .isEqualTo(total);
 
-        verify(meterReadingRepository).aggregateConsumptionByMeterIdAndYear(id, year);
+        verify(rollupRepository).findById(new MeterYear(id, year));
+    }
+
+    @Test
+    void aggregateConsumptionByMeterIdAndYear_whenCalledTwice_thenRollupIsReadOnce() {
+        // when
+        when(rollupRepository.findById(new MeterYear(1L, 2021))).thenReturn(rollup(1L, 2021, 100));
+
+        service.aggregateConsumptionByMeterIdAndYear(1L, 2021);
+        MeterReadingDTO result = service.aggregateConsumptionByMeterIdAndYear(1L, 2021);
+
+        // then
+        assertThat(result.getTotal()).isEqualTo(100L);
+
+        verify(rollupRepository, times(1)).findById(new MeterYear(1L, 2021));
+    }
+
+    @Test
+    void aggregateConsumptionByMeterIdAndYear_whenMeterReadingIsSavedInBetween_thenRollupIsReadAgain() {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO(2021, 4, 20, 1L);
+
+        // when
+        when(rollupRepository.findById(new MeterYear(1L, 2021)))
+                .thenReturn(rollup(1L, 2021, 100), rollup(1L, 2021, 120));
+        when(meterReadingRepository.insertIfAbsent(1L, 2021, 4, 20)).thenReturn(1);
+        doAnswer(invocation -> {
+            aggregateCache.onMeterReadingsChanged(invocation.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+
+        service.aggregateConsumptionByMeterIdAndYear(1L, 2021);
+        service.saveMeterReading(meterReadingDTO);
+        MeterReadingDTO result = service.aggregateConsumptionByMeterIdAndYear(1L, 2021);
+
+        // then
+        assertThat(result.getTotal()).isEqualTo(120L);
+
+        verify(eventPublisher).publishEvent(MeterReadingsChangedEvent.of(1L, 2021));
+        verify(rollupRepository, times(2)).findById(new MeterYear(1L, 2021));
+    }
+
+    @Test
+    void aggregateFleetConsumption_whenRangeIsWholeYears_thenReadRollupsAndComputeGrandTotal() {
+        // given
+        FleetConsumptionRequestDTO request = new FleetConsumptionRequestDTO(null, 2020, null, 2021, null);
+        List<MeterConsumptionDTO> meters = new ArrayList<>();
+
+        // when
+        doAnswer(invocation -> {
+            Consumer<MeterConsumptionDTO> consumer = invocation.getArgument(4);
+            consumer.accept(new MeterConsumptionDTO(1L, 195L, 12));
+            consumer.accept(new MeterConsumptionDTO(2L, 183L, 12));
+            return null;
+        }).when(rollupRepository).findYearlyConsumption(isNull(), eq(2020), eq(2021), eq(1000), any());
+
+        FleetConsumptionDTO result = service.aggregateFleetConsumption(request, meters::add);
+
+        // then
+        assertThat(meters).extracting(MeterConsumptionDTO::getMeterId).containsExactly(1L, 2L);
+        assertThat(result.getFromMonth()).isEqualTo(1);
+        assertThat(result.getToMonth()).isEqualTo(12);
+        assertThat(result.getMeterCount()).isEqualTo(2);
+        assertThat(result.getGrandTotal()).isEqualTo(378);
+
+        verify(validator).validateFleetConsumptionRequest(
+                new FleetConsumptionRequestDTO(null, 2020, 1, 2021, 12), 100_000);
+        verifyNoInteractions(meterReadingJdbcRepository);
+    }
+
+    @Test
+    void aggregateFleetConsumption_whenRangeIsPartOfYear_thenReadMeterReadings() {
+        // given
+        FleetConsumptionRequestDTO request = new FleetConsumptionRequestDTO(Set.of(1L), 2020, 1, 2020, 2);
+        List<MeterConsumptionDTO> meters = new ArrayList<>();
+
+        // when
+        doAnswer(invocation -> {
+            Consumer<MeterConsumptionDTO> consumer = invocation.getArgument(6);
+            consumer.accept(new MeterConsumptionDTO(1L, 25L, 2));
+            return null;
+        }).when(meterReadingJdbcRepository)
+                .findConsumption(eq(Set.of(1L)), eq(2020), eq(1), eq(2020), eq(2), eq(1000), any());
+
+        FleetConsumptionDTO result = service.aggregateFleetConsumption(request, meters::add);
+
+        // then
+        assertThat(meters).containsExactly(new MeterConsumptionDTO(1L, 25L, 2));
+        assertThat(result.getMeterCount()).isEqualTo(1);
+        assertThat(result.getGrandTotal()).isEqualTo(25);
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void aggregateFleetConsumption_whenRequestIsNotValid_thenThrowException() {
+        // given
+        FleetConsumptionRequestDTO request = new FleetConsumptionRequestDTO(Set.of(), 2020, 1, 2020, 12);
+
+        // when
+        doThrow(new IllegalArgumentException("Meter ids must not be empty"))
+                .when(validator)
+                .validateFleetConsumptionRequest(request, 100_000);
+
+        // then
+        assertThatThrownBy(() -> service.aggregateFleetConsumption(request, meter -> {}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Meter ids must not be empty");
+
+        verifyNoInteractions(rollupRepository, meterReadingJdbcRepository);
+    }
+
+    @Test
+    void findSeriesByMeterIdAndYears_whenReadingsExist_thenReturnColumnarSeries() {
+        // when
+        when(meterReadingRepository.findMonthlyConsumption(1L, 2019, 2020)).thenReturn(List.of(
+                new MonthlyConsumption(2019, 12, 30),
+                new MonthlyConsumption(2020, 1, 11),
+                new MonthlyConsumption(2020, 2, 14)));
+
+        MeterReadingSeriesDTO result = service.findSeriesByMeterIdAndYears(1L, 2019, 2020);
+
+        // then
+        assertThat(result.getMeterId()).isEqualTo(1L);
+        assertThat(result.getFromYear()).isEqualTo(2019);
+        assertThat(result.getToYear()).isEqualTo(2020);
+        assertThat(result.getYearMonths()).containsExactly(201912, 202001, 202002);
+        assertThat(result.getEnergyConsumed()).containsExactly(30, 11, 14);
+
+        verify(validator).validateMeterId(1L);
+        verify(validator).validateYearRange(2019, 2020);
+    }
+
+    @Test
+    void findSeriesByMeterIdAndYears_whenReadingsDoNotExist_thenThrowException() {
+        // when
+        when(meterReadingRepository.findMonthlyConsumption(1L, 2015, 2016)).thenReturn(List.of());
+
+        // then
+        assertThatThrownBy(() -> service.findSeriesByMeterIdAndYears(1L, 2015, 2016))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Meter readings for meter id 1 from year 2015 to year 2016 do not exist");
+    }
+
+    @Test
+    void findSeriesByMeterIdAndYears_whenYearsAreNotValid_thenThrowException() {
+        // when
+        doThrow(new IllegalArgumentException("From year must not be after to year"))
+                .when(validator)
+                .validateYearRange(2021, 2020);
+
+        // then
+        assertThatThrownBy(() -> service.findSeriesByMeterIdAndYears(1L, 2021, 2020))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("From year must not be after to year");
+
+        verify(meterReadingRepository, never()).findMonthlyConsumption(any(), any(), any());
     }
 
     @Test
@@ -497,14 +682,14 @@ class MeterServiceUnitTest {
         String message = String.format("Meter readings for meter id %d and year %d does not exist", id, year);
 
         // when
-        when(meterReadingRepository.aggregateConsumptionByMeterIdAndYear(id, year)).thenReturn(null);
+        when(rollupRepository.findById(new MeterYear(id, year))).thenReturn(Optional.empty());
 
         // then
         assertThatThrownBy(() -> service.aggregateConsumptionByMeterIdAndYear(id, year))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage(message);
 
-        verify(meterReadingRepository).aggregateConsumptionByMeterIdAndYear(id, year);
+        verify(rollupRepository).findById(new MeterYear(id, year));
     }
 
     @Test
@@ -512,16 +697,10 @@ class MeterServiceUnitTest {
         // given
         Long id = 1L;
         Integer year = 2020;
-        List<MeterReading> meterReadings = new ArrayList<>();
+        List<MonthlyConsumption> meterReadings = new ArrayList<>();
 
-        Meter meter = new Meter(id,
-                new Client(id, "Luka Modric",
-                        new Address(id, "Ilica", "10", "Zagreb")
-                )
-        );
-
-        meterReadings.add(new MeterReading(1L, meter, year, 1, 17));
-        meterReadings.add(new MeterReading(2L, meter, year, 2, 14));
+        meterReadings.add(new MonthlyConsumption(year, 1, 17));
+        meterReadings.add(new MonthlyConsumption(year, 2, 14));
 
         Map<String, Integer> monthlyEnergyConsumption = new HashMap<>();
         monthlyEnergyConsumption.put(Month.of(1).getDisplayName(TextStyle.FULL, Locale.ENGLISH), 17);
@@ -532,7 +711,7 @@ class MeterServiceUnitTest {
         meterReadingDTO.setMonthlyEnergyConsumption(monthlyEnergyConsumption);
 
         // when
-        when(meterReadingRepository.findMeterReadingsByMeterIdAndYear(id, year)).thenReturn(meterReadings);
+        when(meterReadingRepository.findMonthlyConsumptionByMeterIdAndYear(id, year)).thenReturn(meterReadings);
         MeterReadingDTO result = service.findByMeterIdAndYear(id, year);
 
         // then
@@ -546,7 +725,7 @@ class MeterServiceUnitTest {
                 .isEqualTo(monthlyEnergyConsumption)
                 .containsValue(17);
 
-        verify(meterReadingRepository).findMeterReadingsByMeterIdAndYear(id, year);
+        verify(meterReadingRepository).findMonthlyConsumptionByMeterIdAndYear(id, year);
     }
 
     @Test
@@ -556,14 +735,14 @@ class MeterServiceUnitTest {
         Integer year = 2023;
 
         // when
-        when(meterReadingRepository.findMeterReadingsByMeterIdAndYear(id, year)).thenReturn(new ArrayList<>());
+        when(meterReadingRepository.findMonthlyConsumptionByMeterIdAndYear(id, year)).thenReturn(new ArrayList<>());
 
         // then
         assertThatThrownBy(() -> service.findByMeterIdAndYear(id, year))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage(String.format("Meter readings for meter id %d and year %d does not exist", id, year));
 
-        verify(meterReadingRepository).findMeterReadingsByMeterIdAndYear(id, year);
+        verify(meterReadingRepository).findMonthlyConsumptionByMeterIdAndYear(id, year);
     }
 
     @Test
@@ -573,13 +752,7 @@ class MeterServiceUnitTest {
         Integer year = 2020;
         Integer month = 2;
 
-        Meter meter = new Meter(id,
-                new Client(id, "Luka Modric",
-                        new Address(id, "Ilica", "10", "Zagreb")
-                )
-        );
-
-        MeterReading meterReading = new MeterReading(2L, meter, year, 2, 14);
+        MonthlyConsumption meterReading = new MonthlyConsumption(year, 2, 14);
 
         Map<String, Integer> monthlyEnergyConsumption = new HashMap<>();
         monthlyEnergyConsumption.put(Month.of(2).getDisplayName(TextStyle.FULL, Locale.ENGLISH), 14);
@@ -589,7 +762,8 @@ class MeterServiceUnitTest {
         meterReadingDTO.setMonthlyEnergyConsumption(monthlyEnergyConsumption);
 
         // when
-        when(meterReadingRepository.findMeterReadingByMeterIdAndYearAndMonth(id, year, month)).thenReturn(meterReading);
+        when(meterReadingRepository.findMonthlyConsumptionByMeterIdAndYearAndMonth(id, year, month))
+                .thenReturn(meterReading);
         MeterReadingDTO result = service.findByMeterIdAndYearAndMonth(id, year, month);
 
         // then
@@ -603,7 +777,7 @@ class MeterServiceUnitTest {
                 .containsKey("February")
                 .containsValue(14);
 
-        verify(meterReadingRepository).findMeterReadingByMeterIdAndYearAndMonth(id, year, month);
+        verify(meterReadingRepository).findMonthlyConsumptionByMeterIdAndYearAndMonth(id, year, month);
     }
 
     @Test
@@ -615,14 +789,14 @@ class MeterServiceUnitTest {
         String m = Month.of(month).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
 
         // when
-        when(meterReadingRepository.findMeterReadingsByMeterIdAndYear(id, year)).thenReturn(new ArrayList<>());
+        when(meterReadingRepository.findMonthlyConsumptionByMeterIdAndYearAndMonth(id, year, month)).thenReturn(null);
 
         // then
         assertThatThrownBy(() -> service.findByMeterIdAndYearAndMonth(id, year, month))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage(String.format("Meter reading for meter id %d, year %d and month %s does not exist", id, year, m));
 
-        verify(meterReadingRepository).findMeterReadingByMeterIdAndYearAndMonth(id, year, month);
+        verify(meterReadingRepository).findMonthlyConsumptionByMeterIdAndYearAndMonth(id, year, month);
     }
 
     @Test
@@ -636,16 +810,9 @@ class MeterServiceUnitTest {
         meterReadingDTO.setYear(year);
         meterReadingDTO.setMonth(month);
         meterReadingDTO.setEnergyConsumed(15);
-        String m = Month.of(month).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
 
         // when
-        when(meterReadingRepository.findMeterReadingByMeterIdAndYearAndMonth(meterReadingDTO.getMeterId(),
-                meterReadingDTO.getYear(), meterReadingDTO.getMonth())).thenReturn(null);
-
-        MeterReading meterReading = new MeterReading(new Meter(meterReadingDTO.getMeterId()),
-                meterReadingDTO.getYear(), meterReadingDTO.getMonth(), meterReadingDTO.getEnergyConsumed());
-
-        when(meterReadingRepository.save(meterReading)).thenReturn(meterReading);
+        when(meterReadingRepository.insertIfAbsent(id, year, month, 15)).thenReturn(1);
 
         MeterReadingDTO result = service.saveMeterReading(meterReadingDTO);
 
@@ -654,8 +821,8 @@ class MeterServiceUnitTest {
                 .isNotNull()
                 .isEqualTo(meterReadingDTO);
 
-        verify(meterReadingRepository).findMeterReadingByMeterIdAndYearAndMonth(id, year, month);
-        verify(meterReadingRepository).save(meterReading);
+        verify(meterReadingRepository).insertIfAbsent(id, year, month, 15);
+        verify(meterReadingRepository, never()).findMonthlyConsumptionByMeterIdAndYearAndMonth(id, year, month);
     }
 
     @Test
@@ -671,20 +838,15 @@ class MeterServiceUnitTest {
         meterReadingDTO.setEnergyConsumed(15);
         String m = Month.of(month).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
 
-        MeterReading meterReading = new MeterReading(new Meter(meterReadingDTO.getMeterId()),
-                meterReadingDTO.getYear(), meterReadingDTO.getMonth(), meterReadingDTO.getEnergyConsumed());
-
         // when
-        when(meterReadingRepository.findMeterReadingByMeterIdAndYearAndMonth(meterReadingDTO.getMeterId(),
-                meterReadingDTO.getYear(), meterReadingDTO.getMonth())).thenReturn(meterReading);
+        when(meterReadingRepository.insertIfAbsent(id, year, month, 15)).thenReturn(0);
 
         // then
         assertThatThrownBy(() -> service.saveMeterReading(meterReadingDTO))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage(String.format("Meter reading for meter id %d, year %d and month %s already exists", id, year, m));
 
-        verify(meterReadingRepository).findMeterReadingByMeterIdAndYearAndMonth(id, year, month);
-        verify(meterReadingRepository, never()).save(meterReading);
+        verify(meterReadingRepository).insertIfAbsent(id, year, month, 15);
     }
 
     @Test
@@ -699,28 +861,20 @@ class MeterServiceUnitTest {
         meterReadingDTO.setYear(year);
         meterReadingDTO.setMonth(month);
         meterReadingDTO.setEnergyConsumed(energyConsumed);
-        String m = Month.of(month).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
-
-        MeterReading meterReading = new MeterReading(new Meter(meterReadingDTO.getMeterId()),
-                meterReadingDTO.getYear(), meterReadingDTO.getMonth(), 15);
 
         // when
-        when(meterReadingRepository.findMeterReadingByMeterIdAndYearAndMonth(meterReadingDTO.getMeterId(),
-                meterReadingDTO.getYear(), meterReadingDTO.getMonth())).thenReturn(meterReading);
-
-        meterReading.setEnergyConsumed(energyConsumed); // updating energy consumption
-        when(meterReadingRepository.save(meterReading)).thenReturn(meterReading);
+        when(meterReadingRepository.updateEnergyConsumed(id, year, month, energyConsumed)).thenReturn(1);
 
         MeterReadingDTO result = service.updateMeterReading(meterReadingDTO);
 
         // then
-        assertThat(result.getMeterId()).isEqualTo(meterReading.getMeter().getId());
-        assertThat(result.getYear()).isEqualTo(meterReading.getYear());
-        assertThat(result.getMonth()).isEqualTo(meterReading.getMonth());
-        assertThat(result.getEnergyConsumed()).isEqualTo(meterReading.getEnergyConsumed());
+        assertThat(result.getMeterId()).isEqualTo(id);
+        assertThat(result.getYear()).isEqualTo(year);
+        assertThat(result.getMonth()).isEqualTo(month);
+        assertThat(result.getEnergyConsumed()).isEqualTo(energyConsumed);
 
-        verify(meterReadingRepository).findMeterReadingByMeterIdAndYearAndMonth(id, year, month);
-        verify(meterReadingRepository).save(meterReading);
+        verify(meterReadingRepository).updateEnergyConsumed(id, year, month, energyConsumed);
+        verify(meterReadingRepository, never()).findMonthlyConsumptionByMeterIdAndYearAndMonth(id, year, month);
     }
 
     @Test
@@ -736,20 +890,51 @@ class MeterServiceUnitTest {
         meterReadingDTO.setEnergyConsumed(20);
         String m = Month.of(month).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
 
-        MeterReading meterReading = new MeterReading(new Meter(meterReadingDTO.getMeterId()),
-                meterReadingDTO.getYear(), meterReadingDTO.getMonth(), meterReadingDTO.getEnergyConsumed());
-
         // when
-        when(meterReadingRepository.findMeterReadingByMeterIdAndYearAndMonth(meterReadingDTO.getMeterId(),
-                meterReadingDTO.getYear(), meterReadingDTO.getMonth())).thenReturn(null);
+        when(meterReadingRepository.updateEnergyConsumed(id, year, month, 20)).thenReturn(0);
 
         // then
         assertThatThrownBy(() -> service.updateMeterReading(meterReadingDTO))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage(String.format("Meter reading for meter id %d, year %d and month %s does not exist", id, year, m));
 
-        verify(meterReadingRepository).findMeterReadingByMeterIdAndYearAndMonth(id, year, month);
-        verify(meterReadingRepository, never()).save(meterReading);
+        verify(meterReadingRepository).updateEnergyConsumed(id, year, month, 20);
+    }
+
+    @Test
+    void upsertMeterReading_whenMeterReadingIsCompleted_thenInsertOrUpdateWithOneStatement() {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO(2021, 4, 20, 1L);
+
+        // when
+        when(meterReadingRepository.upsert(1L, 2021, 4, 20)).thenReturn(1);
+
+        MeterReadingDTO result = service.upsertMeterReading(meterReadingDTO);
+
+        // then
+        assertThat(result).isEqualTo(meterReadingDTO);
+
+        verify(validator).validateMeterReadingDTO(meterReadingDTO);
+        verify(meterReadingRepository).upsert(1L, 2021, 4, 20);
+        verify(meterReadingRepository, never()).findMonthlyConsumptionByMeterIdAndYearAndMonth(1L, 2021, 4);
+    }
+
+    @Test
+    void upsertMeterReading_whenMeterReadingIsNotValid_thenThrowException() {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO(2021, 13, 20, 1L);
+
+        // when
+        doThrow(new IllegalArgumentException("Month must be between 1 and 12"))
+                .when(validator)
+                .validateMeterReadingDTO(meterReadingDTO);
+
+        // then
+        assertThatThrownBy(() -> service.upsertMeterReading(meterReadingDTO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Month must be between 1 and 12");
+
+        verify(meterReadingRepository, never()).upsert(any(), any(), any(), any());
     }
 
     @Test
@@ -759,6 +944,7 @@ class MeterServiceUnitTest {
 
         // when
         doNothing().when(validator).validateMeterReadingId(meterReadingId);
+        when(meterReadingRepository.findMeterYearById(meterReadingId)).thenReturn(Optional.of(new MeterYear(1L, 2021)));
         doNothing().when(meterReadingRepository).deleteById(meterReadingId);
 
         service.deleteMeterReadingById(meterReadingId);
@@ -766,6 +952,7 @@ class MeterServiceUnitTest {
         // then
         verify(validator).validateMeterReadingId(meterReadingId);
         verify(meterReadingRepository).deleteById(meterReadingId);
+        verify(eventPublisher).publishEvent(MeterReadingsChangedEvent.of(1L, 2021));
     }
 
     @ParameterizedTest
@@ -786,4 +973,201 @@ class MeterServiceUnitTest {
         verify(validator).validateMeterReadingId(meterReadingId);
         verify(meterReadingRepository, never()).deleteById(meterReadingId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void saveMeterReadings_whenMeterReadingsAreValid_performBatchInsertAndReturnResult() {
+        // given
+        List<MeterReadingDTO> meterReadingDTOs = List.of(
+                new MeterReadingDTO(2021, 1, 15, 1L),
+                new MeterReadingDTO(2021, 2, 17, 1L),
+                new MeterReadingDTO(2021, 1, 9, 2L)
+        );
+
+        // when
+        when(validator.validateNewMeterReadings(meterReadingDTOs)).thenReturn(Arrays.asList(null, null, null));
+        when(meterReadingJdbcRepository.insertAllIfAbsent(anyList(), eq(1000))).thenReturn(Set.of(
+                new MeterReadingKey(1L, 2021, 1), new MeterReadingKey(1L, 2021, 2), new MeterReadingKey(2L, 2021, 1)));
+
+        BatchResultDTO result = service.saveMeterReadings(meterReadingDTOs);
+
+        // then
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getRejected()).isZero();
+        assertThat(result.getItems())
+                .extracting(BatchItemResultDTO::getStatus)
+                .containsOnly(BatchItemResultDTO.Status.CREATED);
+
+        verify(validator).validateNewMeterReadings(meterReadingDTOs);
+        verify(meterReadingJdbcRepository).insertAllIfAbsent(List.of(
+                new MeterReadingJdbcRepository.Row(new MeterReadingKey(1L, 2021, 1), 15),
+                new MeterReadingJdbcRepository.Row(new MeterReadingKey(1L, 2021, 2), 17),
+                new MeterReadingJdbcRepository.Row(new MeterReadingKey(2L, 2021, 1), 9)
+        ), 1000);
+        verify(meterReadingRepository, never()).findMonthlyConsumptionByMeterIdAndYearAndMonth(any(), any(), any());
+    }
+
+    @Test
+    void saveMeterReadings_whenSomeMeterReadingsAreRejected_thenInsertOnlyValid() {
+        // given
+        List<MeterReadingDTO> meterReadingDTOs = List.of(
+                new MeterReadingDTO(2021, 1, 15, 1L),
+                new MeterReadingDTO(2021, 13, 15, 1L),
+                new MeterReadingDTO(2021, 1, 9, 7L)
+        );
+
+        // when
+        when(validator.validateNewMeterReadings(meterReadingDTOs))
+                .thenReturn(Arrays.asList(null, "Month must be between 1 and 12", "Meter with id 7 does not exist"));
+        when(meterReadingJdbcRepository.insertAllIfAbsent(anyList(), eq(1000)))
+                .thenReturn(Set.of(new MeterReadingKey(1L, 2021, 1)));
+
+        BatchResultDTO result = service.saveMeterReadings(meterReadingDTOs);
+
+        // then
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getItems())
+                .extracting(BatchItemResultDTO::getIndex, BatchItemResultDTO::getStatus, BatchItemResultDTO::getMessage)
+                .containsExactly(
+                        tuple(0, BatchItemResultDTO.Status.CREATED, null),
+                        tuple(1, BatchItemResultDTO.Status.REJECTED, "Month must be between 1 and 12"),
+                        tuple(2, BatchItemResultDTO.Status.REJECTED, "Meter with id 7 does not exist")
+                );
+
+        verify(meterReadingJdbcRepository).insertAllIfAbsent(List.of(
+                new MeterReadingJdbcRepository.Row(new MeterReadingKey(1L, 2021, 1), 15)
+        ), 1000);
+    }
+
+    @Test
+    void saveMeterReadings_whenMeterReadingIsInsertedConcurrently_thenItIsRejected() {
+        // given
+        List<MeterReadingDTO> meterReadingDTOs = List.of(
+                new MeterReadingDTO(2021, 1, 15, 1L),
+                new MeterReadingDTO(2021, 2, 17, 1L)
+        );
+
+        // when
+        when(validator.validateNewMeterReadings(meterReadingDTOs)).thenReturn(Arrays.asList(null, null));
+        when(meterReadingJdbcRepository.insertAllIfAbsent(anyList(), eq(1000)))
+                .thenReturn(Set.of(new MeterReadingKey(1L, 2021, 2)));
+
+        BatchResultDTO result = service.saveMeterReadings(meterReadingDTOs);
+
+        // then
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getItems())
+                .extracting(BatchItemResultDTO::getIndex, BatchItemResultDTO::getStatus, BatchItemResultDTO::getMessage)
+                .containsExactly(
+                        tuple(0, BatchItemResultDTO.Status.REJECTED,
+                                "Meter reading for meter id 1, year 2021 and month January already exists"),
+                        tuple(1, BatchItemResultDTO.Status.CREATED, null)
+                );
+        verify(eventPublisher).publishEvent(new MeterReadingsChangedEvent(Set.of(new MeterYear(1L, 2021))));
+    }
+
+    @Test
+    void saveMeterReadings_whenMeterReadingsAreEmpty_thenThrowException() {
+        assertThatThrownBy(() -> service.saveMeterReadings(List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Meter readings must not be empty");
+
+        verifyNoInteractions(meterReadingJdbcRepository);
+    }
+
+    @Test
+    void saveMeterReadings_whenTooManyMeterReadings_thenThrowException() {
+        // given
+        List<MeterReadingDTO> meterReadingDTOs = Collections.nCopies(10_001, new MeterReadingDTO(2021, 1, 15, 1L));
+
+        // then
+        assertThatThrownBy(() -> service.saveMeterReadings(meterReadingDTOs))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Number of meter readings must not be greater than 10000");
+
+        verifyNoInteractions(meterReadingJdbcRepository);
+    }
+
+    @Test
+    void aggregateYearConsumption_whenRollupExists_thenReturnTotal() {
+        // given
+        Long id = 1L;
+        Integer year = 2021;
+
+        // when
+        when(rollupRepository.findById(new MeterYear(id, year))).thenReturn(rollup(id, year, 30));
+        YearConsumptionDTO result = service.aggregateYearConsumption(id, year);
+
+        // then
+        assertThat(result).isEqualTo(YearConsumptionDTO.ofTotal(year, 30));
+        assertThat(result.hasMonths()).isFalse();
+
+        verify(validator).validateMeterId(id);
+        verify(validator).validateYear(year);
+    }
+
+    @Test
+    void findYearConsumption_whenMeterReadingsExist_thenReturnResultWithoutEntities() {
+        // given
+        Long id = 1L;
+        Integer year = 2020;
+        YearConsumptionDTO yearConsumption = YearConsumptionDTO.builder(year).month(1, 17).month(2, 14).build();
+
+        // when
+        when(meterReadingJdbcRepository.findYearConsumption(id, year)).thenReturn(yearConsumption);
+        YearConsumptionDTO result = service.findYearConsumption(id, year);
+
+        // then
+        assertThat(result).isSameAs(yearConsumption);
+        assertThat(result.hasMonth(1)).isTrue();
+        assertThat(result.getEnergyConsumed(2)).isEqualTo(14);
+        assertThat(result.hasMonth(3)).isFalse();
+
+        verify(validator).validateMeterId(id);
+        verify(validator).validateYear(year);
+        verify(meterReadingRepository, never()).findMonthlyConsumptionByMeterIdAndYear(any(), any());
+    }
+
+    @Test
+    void findYearConsumption_whenMeterReadingsDoNotExist_thenThrowException() {
+        // when
+        when(meterReadingJdbcRepository.findYearConsumption(1L, 2023)).thenReturn(null);
+
+        // then
+        assertThatThrownBy(() -> service.findYearConsumption(1L, 2023))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Meter readings for meter id 1 and year 2023 does not exist");
+    }
+
+    @Test
+    void findYearConsumptionOfMonth_whenMeterReadingExists_thenReturnResult() {
+        // given
+        YearConsumptionDTO yearConsumption = YearConsumptionDTO.builder(2020).month(3, 9).build();
+
+        // when
+        when(meterReadingJdbcRepository.findYearConsumption(1L, 2020, 3)).thenReturn(yearConsumption);
+        YearConsumptionDTO result = service.findYearConsumption(1L, 2020, 3);
+
+        // then
+        assertThat(result).isSameAs(yearConsumption);
+
+        verify(validator).validateMonth(3);
+    }
+
+    @Test
+    void findYearConsumptionOfMonth_whenMeterReadingDoesNotExist_thenThrowException() {
+        // when
+        when(meterReadingJdbcRepository.findYearConsumption(1L, 2020, 3)).thenReturn(null);
+
+        // then
+        assertThatThrownBy(() -> service.findYearConsumption(1L, 2020, 3))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Meter reading for meter id 1, year 2020 and month March does not exist");
+    }
+
+    private Optional<MeterConsumptionRollup> rollup(Long id, Integer year, long total) {
+        return Optional.of(new MeterConsumptionRollup(id, year, total, (int) total, (int) total, 1));
+    }
+}
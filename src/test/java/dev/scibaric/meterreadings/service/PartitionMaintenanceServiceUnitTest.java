@@ -0,0 +1,71 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.repository.IntervalReadingRepository;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class PartitionMaintenanceServiceUnitTest {
+
+    @MockBean
+    private MeterReadingJdbcRepository meterReadingJdbcRepository;
+
+    @MockBean
+    private IntervalReadingRepository intervalReadingRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    private PartitionMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2021-11-30T23:30:00Z"), ZoneOffset.UTC);
+        service = new PartitionMaintenanceServiceImpl(meterReadingJdbcRepository, intervalReadingRepository,
+                transactionManager, new MeterReadingsProperties(), clock);
+    }
+
+    @Test
+    void createPartitions_whenCalled_thenCreatePartitionsOfCurrentAndNextPeriods() {
+        // when
+        when(meterReadingJdbcRepository.createPartitions(List.of(2021, 2022))).thenReturn(1);
+        when(intervalReadingRepository.createPartitions(
+                List.of(YearMonth.of(2021, 11), YearMonth.of(2021, 12), YearMonth.of(2022, 1)))).thenReturn(2);
+
+        int created = service.createPartitions();
+
+        // then
+        assertThat(created).isEqualTo(3);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void createPartitions_whenLockIsNotAcquired_thenReturnZero() {
+        // when
+        when(meterReadingJdbcRepository.createPartitions(List.of(2021, 2022)))
+                .thenThrow(new CannotAcquireLockException("canceling statement due to lock timeout"));
+
+        int created = service.createPartitions();
+
+        // then
+        assertThat(created).isZero();
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(intervalReadingRepository);
+    }
+}
@@ -0,0 +1,205 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.cache.AggregateCache;
+import dev.scibaric.meterreadings.cache.MeterIdCache;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.dto.MeterReadingSeriesDTO;
+import dev.scibaric.meterreadings.exception.ResourceNotFoundException;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.model.MonthlyConsumption;
+import dev.scibaric.meterreadings.repository.MeterReadingRepository;
+import dev.scibaric.meterreadings.repository.MeterRepository;
+import dev.scibaric.meterreadings.repository.ReactiveMeterReadingRepository;
+import dev.scibaric.meterreadings.validator.Validator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class ReactiveMeterServiceUnitTest {
+
+    @MockBean
+    private ReactiveMeterReadingRepository repository;
+
+    @MockBean
+    private MeterService meterService;
+
+    @MockBean
+    private MeterRepository meterRepository;
+
+    @MockBean
+    private MeterReadingRepository meterReadingRepository;
+
+    private ReactiveMeterService service;
+
+    @BeforeEach
+    void setUp() {
+        MeterReadingsProperties properties = new MeterReadingsProperties();
+        MeterIdCache meterIdCache = new MeterIdCache(meterRepository, properties, new SimpleMeterRegistry());
+        AggregateCache aggregateCache = new AggregateCache(properties, new SimpleMeterRegistry());
+        service = new ReactiveMeterServiceImpl(repository, meterService,
+                new Validator(meterIdCache, meterReadingRepository), meterIdCache, aggregateCache);
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenMeterIsCheckedTwice_thenExistenceIsQueriedOnceWithoutBlockingRepository() {
+        // when
+        when(repository.existsMeterById(1L)).thenReturn(Mono.just(true));
+        when(repository.findMonthlyConsumption(1L, 2020, 2020)).thenReturn(Flux.just(
+                new MonthlyConsumption(2020, 1, 11), new MonthlyConsumption(2020, 2, 14)));
+
+        MeterReadingDTO first = service.findByMeterIdAndYear(1L, 2020).block();
+        MeterReadingDTO second = service.findByMeterIdAndYear(1L, 2020).block();
+
+        // then
+        assertThat(first.getYear()).isEqualTo(2020);
+        assertThat(first.getMonthlyEnergyConsumption()).isEqualTo(Map.of("January", 11, "February", 14));
+        assertThat(second).isEqualTo(first);
+
+        verify(repository, times(1)).existsMeterById(1L);
+        verify(meterRepository, never()).existsById(any());
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenMeterDoesNotExist_thenErrorIsIllegalArgument() {
+        // when
+        when(repository.existsMeterById(5L)).thenReturn(Mono.just(false));
+
+        // then
+        assertThatThrownBy(() -> service.findByMeterIdAndYear(5L, 2020).block())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Meter with id 5 does not exist");
+
+        verify(repository, never()).findMonthlyConsumption(any(), any(), any());
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenMeterIdIsNotValid_thenErrorIsIllegalArgumentWithoutQuery() {
+        // then
+        assertThatThrownBy(() -> service.findByMeterIdAndYear(0L, 2020).block())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Meter id must be greater than 0");
+
+        verify(repository, never()).existsMeterById(any());
+    }
+
+    @Test
+    void findByMeterIdAndYear_whenMeterReadingsDoNotExist_thenErrorIsResourceNotFound() {
+        // when
+        when(repository.existsMeterById(1L)).thenReturn(Mono.just(true));
+        when(repository.findMonthlyConsumption(1L, 2019, 2019)).thenReturn(Flux.empty());
+
+        // then
+        assertThatThrownBy(() -> service.findByMeterIdAndYear(1L, 2019).block())
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Meter readings for meter id 1 and year 2019 does not exist");
+    }
+
+    @Test
+    void aggregateConsumptionByMeterIdAndYear_whenCalledTwice_thenRollupIsReadOnce() {
+        // when
+        when(repository.existsMeterById(1L)).thenReturn(Mono.just(true));
+        when(repository.findRollupTotal(new MeterYear(1L, 2020))).thenReturn(Mono.just(195L));
+
+        MeterReadingDTO first = service.aggregateConsumptionByMeterIdAndYear(1L, 2020).block();
+        MeterReadingDTO second = service.aggregateConsumptionByMeterIdAndYear(1L, 2020).block();
+
+        // then
+        assertThat(first.getYear()).isEqualTo(2020);
+        assertThat(first.getTotal()).isEqualTo(195L);
+        assertThat(second.getTotal()).isEqualTo(195L);
+
+        verify(repository, times(1)).findRollupTotal(new MeterYear(1L, 2020));
+    }
+
+    @Test
+    void aggregateConsumptionByMeterIdAndYear_whenRollupDoesNotExist_thenErrorIsResourceNotFound() {
+        // when
+        when(repository.existsMeterById(1L)).thenReturn(Mono.just(true));
+        when(repository.findRollupTotal(new MeterYear(1L, 2019))).thenReturn(Mono.empty());
+
+        // then
+        assertThatThrownBy(() -> service.aggregateConsumptionByMeterIdAndYear(1L, 2019).block())
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Meter readings for meter id 1 and year 2019 does not exist");
+    }
+
+    @Test
+    void findSeriesByMeterIdAndYears_whenMeterReadingsExist_thenSeriesIsReturned() {
+        // when
+        when(repository.existsMeterById(1L)).thenReturn(Mono.just(true));
+        when(repository.findMonthlyConsumption(1L, 2019, 2020)).thenReturn(Flux.just(
+                new MonthlyConsumption(2019, 12, 9), new MonthlyConsumption(2020, 1, 11)));
+
+        MeterReadingSeriesDTO series = service.findSeriesByMeterIdAndYears(1L, 2019, 2020).block();
+
+        // then
+        assertThat(series.getYearMonths()).containsExactly(201912, 202001);
+        assertThat(series.getEnergyConsumed()).containsExactly(9, 11);
+    }
+
+    @Test
+    void findByMeterIdAndYearAndMonth_whenMonthIsNotValid_thenErrorIsIllegalArgument() {
+        // when
+        when(repository.existsMeterById(1L)).thenReturn(Mono.just(true));
+
+        // then
+        assertThatThrownBy(() -> service.findByMeterIdAndYearAndMonth(1L, 2020, 13).block())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Month must be between 1 and 12");
+
+        verify(repository, never()).findMonthConsumption(any(), any(), any());
+    }
+
+    @Test
+    void findByMeterIdAndYearAndMonth_whenMeterReadingDoesNotExist_thenErrorIsResourceNotFound() {
+        // when
+        when(repository.existsMeterById(1L)).thenReturn(Mono.just(true));
+        when(repository.findMonthConsumption(1L, 2020, 3)).thenReturn(Mono.empty());
+
+        // then
+        assertThatThrownBy(() -> service.findByMeterIdAndYearAndMonth(1L, 2020, 3).block())
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Meter reading for meter id 1, year 2020 and month March does not exist");
+    }
+
+    @Test
+    void saveMeterReading_whenMeterReadingIsSaved_thenMeterServiceIsCalledOnSubscription() {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO(2020, 3, 10, 1L);
+
+        // when
+        when(meterService.saveMeterReading(meterReadingDTO)).thenReturn(meterReadingDTO);
+        Mono<MeterReadingDTO> saved = service.saveMeterReading(meterReadingDTO);
+
+        // then
+        verify(meterService, never()).saveMeterReading(any());
+        assertThat(saved.block()).isEqualTo(meterReadingDTO);
+        verify(meterService, times(1)).saveMeterReading(meterReadingDTO);
+    }
+
+    @Test
+    void deleteMeterReadingById_whenMeterReadingDoesNotExist_thenErrorIsIllegalArgument() {
+        // when
+        doThrow(new IllegalArgumentException("Meter reading with id 7 does not exist"))
+                .when(meterService).deleteMeterReadingById(7L);
+
+        // then
+        assertThatThrownBy(() -> service.deleteMeterReadingById(7L).block())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Meter reading with id 7 does not exist");
+    }
+}
@@ -0,0 +1,210 @@
+package dev.scibaric.meterreadings.service;
+
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.event.MeterReadingsChangedEvent;
+import dev.scibaric.meterreadings.exception.ServiceUnavailableException;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
+import dev.scibaric.meterreadings.model.MeterYear;
+import dev.scibaric.meterreadings.repository.MeterReadingJdbcRepository;
+import dev.scibaric.meterreadings.validator.Validator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class WriteBehindServiceUnitTest {
+
+    @MockBean
+    private MeterReadingJdbcRepository meterReadingJdbcRepository;
+
+    @MockBean
+    private Validator validator;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    private Path directory;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private WriteBehindServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MeterReadingsProperties properties = new MeterReadingsProperties();
+        properties.getWriteBehind().setJournal(directory.resolve("meter-readings.journal").toString());
+        properties.getWriteBehind().setJournalSize(DataSize.ofBytes(64 + 3 * 40));
+        properties.getWriteBehind().setBatchSize(2);
+        Clock clock = Clock.fixed(Instant.parse("2021-11-30T23:30:00Z"), ZoneOffset.UTC);
+        service = new WriteBehindServiceImpl(meterReadingJdbcRepository, validator, transactionManager,
+                eventPublisher, properties, registry, clock);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.destroy();
+    }
+
+    @Test
+    void drain_whenMeterReadingsAreAccepted_thenInsertThemInBatches() {
+        // given
+        service.saveMeterReading(meterReadingDTO(1L, 1, 10));
+        service.saveMeterReading(meterReadingDTO(1L, 2, 20));
+        service.saveMeterReading(meterReadingDTO(2L, 1, 30));
+
+        // when
+        when(meterReadingJdbcRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation ->
+                invocation.<List<?>>getArgument(0).size() - 1);
+        int first = service.drain();
+        int second = service.drain();
+        int third = service.drain();
+
+        // then
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isEqualTo(1);
+        assertThat(third).isZero();
+        assertThat(registry.get("write.behind.queue.size").gauge().value()).isZero();
+        assertThat(registry.get("write.behind.drained").tag("result", "inserted").counter().count()).isEqualTo(1);
+        assertThat(registry.get("write.behind.drained").tag("result", "skipped").counter().count()).isEqualTo(2);
+
+        verify(meterReadingJdbcRepository).insertAllIfAbsent(List.of(row(1L, 1, 10), row(1L, 2, 20)));
+        verify(meterReadingJdbcRepository).insertAllIfAbsent(List.of(row(2L, 1, 30)));
+        verify(eventPublisher).publishEvent(new MeterReadingsChangedEvent(Set.of(new MeterYear(1L, 2020))));
+    }
+
+    @Test
+    void drain_whenMeterReadingViolatesConstraint_thenRejectOnlyIt() {
+        // given
+        service.saveMeterReading(meterReadingDTO(1L, 1, 10));
+        service.saveMeterReading(meterReadingDTO(99L, 1, 20));
+
+        // when
+        when(meterReadingJdbcRepository.insertAllIfAbsent(List.of(row(1L, 1, 10), row(99L, 1, 20))))
+                .thenThrow(violation("23503", "violates foreign key constraint", "fk_meter_reading_meter"));
+        when(meterReadingJdbcRepository.insertAllIfAbsent(List.of(row(1L, 1, 10)))).thenReturn(1);
+        when(meterReadingJdbcRepository.insertAllIfAbsent(List.of(row(99L, 1, 20))))
+                .thenThrow(violation("23503", "violates foreign key constraint", "fk_meter_reading_meter"));
+        int drained = service.drain();
+
+        // then
+        assertThat(drained).isEqualTo(2);
+        assertThat(registry.get("write.behind.drained").tag("result", "inserted").counter().count()).isEqualTo(1);
+        assertThat(registry.get("write.behind.drained").tag("result", "rejected").counter().count()).isEqualTo(1);
+        assertThat(registry.get("write.behind.queue.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void drain_whenDatabaseFails_thenKeepMeterReadingsInJournal() {
+        // given
+        service.saveMeterReading(meterReadingDTO(1L, 1, 10));
+
+        // when
+        when(meterReadingJdbcRepository.insertAllIfAbsent(anyList()))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+        int drained = service.drain();
+
+        // then
+        assertThat(drained).isEqualTo(-1);
+        assertThat(registry.get("write.behind.queue.size").gauge().value()).isEqualTo(1);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void drain_whenPartitionOfMeterReadingIsMissing_thenKeepItInJournal() {
+        // given
+        service.saveMeterReading(meterReadingDTO(1L, 1, 10));
+        service.saveMeterReading(meterReadingDTO(1L, 2, 20));
+
+        // when
+        when(meterReadingJdbcRepository.insertAllIfAbsent(List.of(row(1L, 1, 10), row(1L, 2, 20))))
+                .thenThrow(violation("23514", "no partition of relation \"meter_reading\" found for row", null));
+        when(meterReadingJdbcRepository.insertAllIfAbsent(List.of(row(1L, 1, 10)))).thenReturn(1);
+        when(meterReadingJdbcRepository.insertAllIfAbsent(List.of(row(1L, 2, 20))))
+                .thenThrow(violation("23514", "no partition of relation \"meter_reading\" found for row", null));
+        int drained = service.drain();
+
+        // then
+        assertThat(drained).isEqualTo(-1);
+        assertThat(registry.get("write.behind.drained").tag("result", "inserted").counter().count()).isEqualTo(1);
+        assertThat(registry.get("write.behind.drained").tag("result", "rejected").counter().count()).isZero();
+        assertThat(registry.get("write.behind.queue.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void drain_whenCommitFails_thenKeepMeterReadingsInJournal() {
+        // given
+        service.saveMeterReading(meterReadingDTO(1L, 1, 10));
+
+        // when
+        when(meterReadingJdbcRepository.insertAllIfAbsent(anyList())).thenReturn(1);
+        doThrow(new TransactionSystemException("Could not commit JDBC transaction"))
+                .when(transactionManager).commit(any());
+        int drained = service.drain();
+
+        // then
+        assertThat(drained).isEqualTo(-1);
+        assertThat(registry.get("write.behind.queue.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void saveMeterReading_whenJournalIsFull_thenThrowException() {
+        // given
+        for (int month = 1; month <= 3; month++)
+            service.saveMeterReading(meterReadingDTO(1L, month, 10));
+
+        // then
+        assertThatThrownBy(() -> service.saveMeterReading(meterReadingDTO(1L, 4, 10)))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("Too many meter readings are waiting to be saved");
+    }
+
+    private static MeterReadingDTO meterReadingDTO(Long meterId, Integer month, Integer energyConsumed) {
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO();
+        meterReadingDTO.setMeterId(meterId);
+        meterReadingDTO.setYear(2020);
+        meterReadingDTO.setMonth(month);
+        meterReadingDTO.setEnergyConsumed(energyConsumed);
+        return meterReadingDTO;
+    }
+
+    private static DataIntegrityViolationException violation(String sqlState, String message, String constraint) {
+        String fields = "SERROR\0C" + sqlState + "\0M" + message + "\0"
+                + (constraint == null ? "" : "n" + constraint + "\0");
+        return new DataIntegrityViolationException(message, new PSQLException(new ServerErrorMessage(fields)));
+    }
+
+    private static MeterReadingJdbcRepository.Row row(Long meterId, Integer month, Integer energyConsumed) {
+        return new MeterReadingJdbcRepository.Row(new MeterReadingKey(meterId, 2020, month), energyConsumed);
+    }
+}
@@ -1,16 +1,32 @@
 package dev.scibaric.meterreadings.validator;
 
+import dev.scibaric.meterreadings.cache.MeterIdCache;
+import dev.scibaric.meterreadings.config.MeterReadingsProperties;
+import dev.scibaric.meterreadings.dto.FleetConsumptionRequestDTO;
+import dev.scibaric.meterreadings.dto.IntervalReadingDTO;
 import dev.scibaric.meterreadings.dto.MeterReadingDTO;
+import dev.scibaric.meterreadings.model.IntervalResolution;
+import dev.scibaric.meterreadings.model.MeterReadingKey;
 import dev.scibaric.meterreadings.repository.MeterReadingRepository;
 import dev.scibaric.meterreadings.repository.MeterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.Year;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
@@ -30,7 +46,9 @@ class ValidatorUnitTest {
 
     @BeforeEach
     void setUp() {
-        validator = new Validator(meterRepository, meterReadingRepository);
+        MeterIdCache meterIdCache = new MeterIdCache(meterRepository, new MeterReadingsProperties(),
+                new SimpleMeterRegistry());
+        validator = new Validator(meterIdCache, meterReadingRepository);
     }
 
     @Test
@@ -442,4 +460,186 @@ class ValidatorUnitTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage(message);
     }
-}
\ No newline at end of file
+
+    @Test
+    void validateMeterReadingValues_ifMeterReadingIsValid_doesNotCheckMeterExistence() {
+        // given
+        MeterReadingDTO meterReadingDTO = new MeterReadingDTO(2020, 6, 15, 1L);
+
+        // when
+        validator.validateMeterReadingValues(meterReadingDTO);
+
+        // then
+        verify(meterRepository, never()).existsById(any());
+    }
+
+    @Test
+    void validateMeterReadingValues_ifMonthIsGreaterThan12_thenThrowException() {
+        assertThatThrownBy(() -> validator.validateMeterReadingValues(new MeterReadingDTO(2020, 13, 15, 1L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Month must be between 1 and 12");
+    }
+
+    @Test
+    void validateNewMeterReadings_checksExistenceWithOneQueryAndReturnsRejections() {
+        // given
+        List<MeterReadingDTO> meterReadingDTOs = List.of(
+                new MeterReadingDTO(2021, 1, 15, 1L),
+                new MeterReadingDTO(2021, 13, 15, 1L),
+                new MeterReadingDTO(2021, 1, 9, 7L),
+                new MeterReadingDTO(2020, 4, 9, 1L),
+                new MeterReadingDTO(2021, 1, 20, 1L)
+        );
+
+        // when
+        when(meterRepository.findExistingIds(Set.of(1L, 7L))).thenReturn(Set.of(1L));
+        when(meterReadingRepository.findMeterReadingKeys(Set.of(1L), Set.of(2020, 2021)))
+                .thenReturn(List.of(new MeterReadingKey(1L, 2020, 4)));
+
+        List<String> result = validator.validateNewMeterReadings(meterReadingDTOs);
+
+        // then
+        assertThat(result).containsExactly(
+                null,
+                "Month must be between 1 and 12",
+                "Meter with id 7 does not exist",
+                "Meter reading for meter id 1, year 2020 and month April already exists",
+                "Meter reading for meter id 1, year 2021 and month January is duplicated in request"
+        );
+
+        verify(meterRepository).findExistingIds(Set.of(1L, 7L));
+        verify(meterReadingRepository).findMeterReadingKeys(Set.of(1L), Set.of(2020, 2021));
+        verify(meterRepository, never()).existsById(any());
+    }
+
+    @Test
+    void validateNewMeterReadings_ifNoMeterReadingIsValid_thenDoNotQueryDatabase() {
+        // when
+        List<String> result = validator.validateNewMeterReadings(List.of(new MeterReadingDTO(2021, 1, -1, 1L)));
+
+        // then
+        assertThat(result).containsExactly("Energy consumed must greater or equals 0");
+
+        verifyNoInteractions(meterRepository, meterReadingRepository);
+    }
+
+    @Test
+    void validateYearRange_whenFromYearIsAfterToYear_thenThrowException() {
+        assertThatThrownBy(() -> validator.validateYearRange(2021, 2020))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("From year must not be after to year");
+    }
+
+    @Test
+    void validateYearRange_whenToYearIsNull_thenThrowException() {
+        assertThatThrownBy(() -> validator.validateYearRange(2020, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Year must not be null");
+    }
+
+    @Test
+    void validateFleetConsumptionRequest_whenRequestIsValid_thenDoNotQueryDatabase() {
+        // given
+        FleetConsumptionRequestDTO request = new FleetConsumptionRequestDTO(Set.of(1L, 100L), 2020, 1, 2021, 6);
+
+        // when
+        validator.validateFleetConsumptionRequest(request, 2);
+
+        // then
+        verifyNoInteractions(meterRepository, meterReadingRepository);
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideFleetConsumptionRequestsAndMessages")
+    void validateFleetConsumptionRequest_whenRequestIsNotValid_thenThrowException(FleetConsumptionRequestDTO request,
+                                                                                 String message) {
+        assertThatThrownBy(() -> validator.validateFleetConsumptionRequest(request, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(message);
+    }
+
+    private static Stream<Arguments> provideFleetConsumptionRequestsAndMessages() {
+        return Stream.of(
+                Arguments.of(new FleetConsumptionRequestDTO(Set.of(), 2020, 1, 2020, 12),
+                        "Meter ids must not be empty"),
+                Arguments.of(new FleetConsumptionRequestDTO(Set.of(1L, 2L, 3L), 2020, 1, 2020, 12),
+                        "Number of meter ids must not be greater than 2"),
+                Arguments.of(new FleetConsumptionRequestDTO(Set.of(0L), 2020, 1, 2020, 12),
+                        "Meter id must be greater than 0"),
+                Arguments.of(new FleetConsumptionRequestDTO(null, null, 1, 2020, 12),
+                        "Year must not be null"),
+                Arguments.of(new FleetConsumptionRequestDTO(null, 2020, 13, 2020, 12),
+                        "Month must be between 1 and 12"),
+                Arguments.of(new FleetConsumptionRequestDTO(null, 2020, 1, Year.now().getValue() + 1, 12),
+                        "Year must not be in the future"),
+                Arguments.of(new FleetConsumptionRequestDTO(null, 2021, 2, 2021, 1),
+                        "First month must not be after last month")
+        );
+    }
+
+    @Test
+    void validateIntervalReadings_whenReadingsAreValid_thenDoNotQueryDatabase() {
+        // given
+        List<IntervalReadingDTO> intervalReadingDTOs = List.of(
+                new IntervalReadingDTO(Instant.parse("2020-01-01T00:00:00Z"), 0),
+                new IntervalReadingDTO(Instant.parse("2020-01-01T00:15:00Z"), 3)
+        );
+
+        // when
+        validator.validateIntervalReadings(intervalReadingDTOs, 2);
+
+        // then
+        verifyNoInteractions(meterRepository, meterReadingRepository);
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideIntervalReadingsAndMessages")
+    void validateIntervalReadings_whenReadingsAreNotValid_thenThrowException(List<IntervalReadingDTO> intervalReadings,
+                                                                            String message) {
+        assertThatThrownBy(() -> validator.validateIntervalReadings(intervalReadings, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(message);
+    }
+
+    private static Stream<Arguments> provideIntervalReadingsAndMessages() {
+        Instant future = Instant.ofEpochSecond(Instant.now().plus(Duration.ofDays(1)).getEpochSecond() / 900 * 900);
+        return Stream.of(
+                Arguments.of(List.of(), "Interval readings must not be empty"),
+                Arguments.of(List.of(
+                        new IntervalReadingDTO(Instant.parse("2020-01-01T00:00:00Z"), 1),
+                        new IntervalReadingDTO(Instant.parse("2020-01-01T00:15:00Z"), 1),
+                        new IntervalReadingDTO(Instant.parse("2020-01-01T00:30:00Z"), 1)),
+                        "Number of interval readings must not be greater than 2"),
+                Arguments.of(List.of(new IntervalReadingDTO(null, 1)), "Start of interval must not be null"),
+                Arguments.of(List.of(new IntervalReadingDTO(Instant.parse("2020-01-01T00:10:00Z"), 1)),
+                        "Start of interval 2020-01-01T00:10:00Z must be at a quarter of an hour"),
+                Arguments.of(List.of(new IntervalReadingDTO(future, 1)),
+                        String.format("Start of interval %s must not be in the future", future)),
+                Arguments.of(List.of(
+                        new IntervalReadingDTO(Instant.parse("2020-01-01T00:15:00Z"), 1),
+                        new IntervalReadingDTO(Instant.parse("2020-01-01T00:15:00Z"), 2)),
+                        "Interval reading at 2020-01-01T00:15:00Z is duplicated in request"),
+                Arguments.of(List.of(new IntervalReadingDTO(Instant.parse("2020-01-01T00:15:00Z"), -1)),
+                        "Energy consumed must greater or equals 0")
+        );
+    }
+
+    @Test
+    void validateIntervalRange_whenRangeHasTooManyValues_thenThrowException() {
+        // given
+        Instant from = Instant.parse("2020-01-01T00:00:00Z");
+
+        // when
+        validator.validateIntervalRange(from, Instant.parse("2020-01-01T00:30:00Z"), IntervalResolution.RAW, 2);
+        validator.validateIntervalRange(from, Instant.parse("2020-03-01T00:00:00Z"), IntervalResolution.MONTH, 2);
+
+        // then
+        assertThatThrownBy(() -> validator.validateIntervalRange(from, Instant.parse("2020-01-01T00:45:00Z"),
+                IntervalResolution.RAW, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Range must not have more than 2 values of resolution RAW");
+        assertThatThrownBy(() -> validator.validateIntervalRange(from, from, IntervalResolution.DAY, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("From must be before to");
+    }
+}